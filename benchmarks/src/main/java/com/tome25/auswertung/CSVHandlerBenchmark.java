@@ -0,0 +1,192 @@
+package com.tome25.auswertung;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.tome25.auswertung.benchmarks.BenchmarkData;
+import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.stream.FileInputStreamHandler;
+import com.tome25.auswertung.stream.IInputStreamHandler;
+import com.tome25.auswertung.stream.MappedFileInputStreamHandler;
+
+/**
+ * Benchmarks for parsing antenna records using the {@link CSVHandler}.<br/>
+ * In the same package as the {@link CSVHandler}, to be able to benchmark its
+ * package-private methods.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CSVHandlerBenchmark {
+
+	/**
+	 * Reads all records from an antenna records file using
+	 * {@link CSVHandler#readAntennaRecord}.
+	 * 
+	 * @param state The state containing the file to read.
+	 * @param hole  The blackhole consuming the records.
+	 * @throws IOException If opening or closing the file fails.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void readAntennaRecords(AntennaFileState state, Blackhole hole) throws IOException {
+		IInputStreamHandler input = state.open();
+		try {
+			short[] tokenOrder = new short[] { 0, 1, 2, 3 };
+			while (!input.done()) {
+				hole.consume(CSVHandler.readAntennaRecord(input, tokenOrder));
+			}
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Splits a single antenna record line using {@link CSVHandler#splitLine}.
+	 * 
+	 * @param state The state containing the lines to split.
+	 * @return The tokens of the line.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public String[] splitLine(SampleState state) {
+		return CSVHandler.splitLine(state.next(), 4, SampleState.TIMES);
+	}
+
+	/**
+	 * Tokenizes a single antenna record line using the
+	 * {@link AntennaRecordTokenizer} used by
+	 * {@link CSVHandler#readAntennaRecord}.<br/>
+	 * For comparison with {@link #splitLine}.
+	 * 
+	 * @param state The state containing the lines to tokenize.
+	 * @return The number of tokens in the line.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public int tokenize(SampleState state) {
+		return AntennaRecordTokenizer.get().tokenize(state.next(), 2);
+	}
+
+	/**
+	 * The state containing an antenna records file of the benchmarked size.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	@State(Scope.Benchmark)
+	public static class AntennaFileState {
+
+		/**
+		 * The number of antenna records in the file.
+		 */
+		@Param({ "100000", "1000000", "10000000" })
+		public int records;
+
+		/**
+		 * Whether to read the file using a {@link MappedFileInputStreamHandler}.
+		 */
+		@Param({ "false", "true" })
+		public boolean memoryMap;
+
+		/**
+		 * The antenna records file to read.
+		 */
+		private File file;
+
+		/**
+		 * Generates the antenna records file, if necessary.
+		 * 
+		 * @throws IOException If generating the file fails.
+		 */
+		@Setup
+		public void setup() throws IOException {
+			LogHandler.setSilent(true);
+			file = new File(BenchmarkData.getDirectory(records), BenchmarkData.ANTENNA_FILE);
+		}
+
+		/**
+		 * Opens a new input stream handler reading the antenna records file.
+		 * 
+		 * @return The new input stream handler.
+		 * @throws IOException If opening the file fails.
+		 */
+		public IInputStreamHandler open() throws IOException {
+			return memoryMap ? new MappedFileInputStreamHandler(file) : new FileInputStreamHandler(file);
+		}
+
+	}
+
+	/**
+	 * The state containing a sample of antenna record lines.<br/>
+	 * The lines are iterated in order, restarting from the first one after the
+	 * last.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	@State(Scope.Thread)
+	public static class SampleState {
+
+		/**
+		 * The index of the time token of an antenna record.
+		 */
+		static final Collection<Integer> TIMES = Collections.singleton(2);
+
+		/**
+		 * The sample lines.
+		 */
+		private String[] lines;
+
+		/**
+		 * The index of the next line to return.
+		 */
+		private int index = 0;
+
+		/**
+		 * Reads the sample lines.
+		 * 
+		 * @throws IOException If generating or reading the antenna records file
+		 *                     fails.
+		 */
+		@Setup
+		public void setup() throws IOException {
+			LogHandler.setSilent(true);
+			lines = BenchmarkData.readLines(BenchmarkData.SAMPLE_SIZE, BenchmarkData.SAMPLE_SIZE);
+		}
+
+		/**
+		 * Gets the next sample line.
+		 * 
+		 * @return The next line.
+		 */
+		public String next() {
+			String line = lines[index++];
+			if (index == lines.length) {
+				index = 0;
+			}
+			return line;
+		}
+
+	}
+
+}
@@ -0,0 +1,292 @@
+package com.tome25.auswertung.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.tome25.auswertung.CSVHandler;
+import com.tome25.auswertung.TurkeyInfo;
+import com.tome25.auswertung.ZoneInfo;
+import com.tome25.auswertung.args.Arguments;
+import com.tome25.auswertung.stream.ByteLineBuilder;
+import com.tome25.auswertung.stream.FileInputStreamHandler;
+import com.tome25.auswertung.stream.FileOutputStreamHandler;
+import com.tome25.auswertung.stream.IOutputStreamHandler;
+import com.tome25.auswertung.testdata.AntennaDataGenerator;
+import com.tome25.auswertung.testdata.TurkeyGenerator;
+import com.tome25.auswertung.testdata.ZoneGenerator;
+import com.tome25.auswertung.utils.TimeUtils;
+
+/**
+ * A utility class generating the synthetic input files used by the
+ * benchmarks.<br/>
+ * The files are generated using the {@link AntennaDataGenerator}, which uses a
+ * fixed seed, so all benchmark runs use the same input data.<br/>
+ * Generated files are kept in a subdirectory of the system temp directory, and
+ * reused by later benchmark runs.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public final class BenchmarkData {
+
+	/**
+	 * The name of the generated antenna records file.
+	 */
+	public static final String ANTENNA_FILE = "AntennenDaten.csv";
+
+	/**
+	 * The name of the generated turkey mappings file.
+	 */
+	public static final String TURKEYS_FILE = "Puten.csv";
+
+	/**
+	 * The name of the generated zone mappings file.
+	 */
+	public static final String ZONES_FILE = "Bereiche.csv";
+
+	/**
+	 * The number of antenna records in the sample used by benchmarks processing
+	 * single lines.
+	 */
+	public static final int SAMPLE_SIZE = 100000;
+
+	/**
+	 * The number of zones to generate.
+	 */
+	private static final int ZONES = 8;
+
+	/**
+	 * The number of turkeys to generate.
+	 */
+	private static final int TURKEYS = 200;
+
+	/**
+	 * The max number of transponders per generated turkey.
+	 */
+	private static final int MAX_TRANSPONDERS = 3;
+
+	/**
+	 * The date of the first generated antenna record.
+	 */
+	private static final String START_DATE = "01.01.2022";
+
+	/**
+	 * The directory containing a subdirectory with the generated files for each
+	 * number of records.
+	 */
+	private static final File DATA_DIR = new File(System.getProperty("java.io.tmpdir"),
+			"PutenAuswertung-benchmarks");
+
+	/**
+	 * This class only contains static utility methods, and should never be
+	 * instantiated.
+	 */
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Gets the directory containing the input files with the given number of
+	 * antenna records.<br/>
+	 * Generates the files if they don't exist yet.
+	 * 
+	 * @param records The number of antenna records in the antenna records file.
+	 * @return The directory containing the {@link #ANTENNA_FILE},
+	 *         {@link #TURKEYS_FILE}, and {@link #ZONES_FILE}.
+	 * @throws IOException              If generating the files fails.
+	 * @throws IllegalArgumentException If {@code records} is less than 1.
+	 */
+	public static synchronized File getDirectory(int records) throws IOException, IllegalArgumentException {
+		if (records < 1) {
+			throw new IllegalArgumentException("Can't generate less than one antenna record.");
+		}
+
+		File dir = new File(DATA_DIR, Integer.toString(records));
+		if (new File(dir, ANTENNA_FILE).isFile()) {
+			return dir;
+		}
+
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Failed to create benchmark data directory \"" + dir.getAbsolutePath() + "\".");
+		}
+
+		generate(dir, records);
+		return dir;
+	}
+
+	/**
+	 * Generates the input files with the given number of antenna records.<br/>
+	 * The antenna records file is written to a temporary file first, so an
+	 * interrupted generation is never mistaken for a complete file.
+	 * 
+	 * @param dir     The directory to write the files to.
+	 * @param records The number of antenna records to generate.
+	 * @throws IOException If writing a file fails.
+	 */
+	private static void generate(File dir, int records) throws IOException {
+		AntennaDataGenerator.resetSeed();
+		List<ZoneInfo> zones = ZoneGenerator.generateZones(ZONES);
+		List<TurkeyInfo> turkeys = TurkeyGenerator.generateTurkeys(TURKEYS, MAX_TRANSPONDERS);
+
+		FileOutputStreamHandler zonesOut = new FileOutputStreamHandler(new File(dir, ZONES_FILE));
+		try {
+			CSVHandler.writeZonesCSV(zones, zonesOut);
+		} finally {
+			zonesOut.close();
+		}
+
+		FileOutputStreamHandler turkeysOut = new FileOutputStreamHandler(new File(dir, TURKEYS_FILE));
+		try {
+			CSVHandler.writeTurkeyCSV(turkeys, turkeysOut);
+		} finally {
+			turkeysOut.close();
+		}
+
+		File tempFile = new File(dir, ANTENNA_FILE + ".tmp");
+		LimitedOutputStreamHandler antennaOut = new LimitedOutputStreamHandler(
+				new FileOutputStreamHandler(tempFile), records + 1);
+		try {
+			antennaOut.println("Transponder;Date;Time;Antenne");
+			Map<String, Long> lastZoneChange = new HashMap<String, Long>();
+			Map<String, ZoneInfo> currentZone = new HashMap<String, ZoneInfo>();
+			Map<String, ZoneInfo> lastZone = new HashMap<String, ZoneInfo>();
+			Map<String, Long> lastRecord = new HashMap<String, Long>();
+			Arguments args = Arguments.empty();
+			for (int day = TimeUtils.parseDay(START_DATE); !antennaOut.isFull(); day++) {
+				AntennaDataGenerator.generateDayAntennaData(turkeys, zones, TimeUtils.encodeDay(day), antennaOut,
+						lastZoneChange, currentZone, lastZone, lastRecord, args, -1, true, false);
+			}
+		} finally {
+			antennaOut.close();
+		}
+
+		if (!tempFile.renameTo(new File(dir, ANTENNA_FILE))) {
+			throw new IOException("Failed to rename generated antenna records file \"" + tempFile.getAbsolutePath()
+					+ "\".");
+		}
+	}
+
+	/**
+	 * Reads up to {@code max} antenna record lines from the antenna records file
+	 * with the given number of records.<br/>
+	 * Skips the header line.
+	 * 
+	 * @param records The number of records in the file to read.
+	 * @param max     The max number of lines to read.
+	 * @return The lines that were read.
+	 * @throws IOException              If generating or reading the file fails.
+	 * @throws IllegalArgumentException If {@code records} is less than 1.
+	 */
+	public static String[] readLines(int records, int max) throws IOException, IllegalArgumentException {
+		FileInputStreamHandler input = new FileInputStreamHandler(new File(getDirectory(records), ANTENNA_FILE));
+		List<String> lines = new ArrayList<String>();
+		try {
+			input.readline();
+			while (!input.done() && lines.size() < max) {
+				lines.add(input.readline());
+			}
+		} finally {
+			input.close();
+		}
+
+		return lines.toArray(new String[lines.size()]);
+	}
+
+	/**
+	 * An output stream handler writing only the first lines written to it to
+	 * another output stream handler.<br/>
+	 * All following lines are silently dropped.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static class LimitedOutputStreamHandler implements IOutputStreamHandler {
+
+		/**
+		 * The output stream handler to write the lines to.
+		 */
+		private final IOutputStreamHandler output;
+
+		/**
+		 * The max number of lines to write.
+		 */
+		private final int limit;
+
+		/**
+		 * The number of lines written so far.
+		 */
+		private int lines = 0;
+
+		/**
+		 * Creates a new LimitedOutputStreamHandler.
+		 * 
+		 * @param output The output stream handler to write the lines to.
+		 * @param limit  The max number of lines to write.
+		 * @throws NullPointerException If {@code output} is {@code null}.
+		 */
+		public LimitedOutputStreamHandler(IOutputStreamHandler output, int limit) throws NullPointerException {
+			this.output = Objects.requireNonNull(output, "The output stream handler to write to can't be null.");
+			this.limit = limit;
+		}
+
+		@Override
+		public boolean println(String line) {
+			if (lines >= limit) {
+				return true;
+			}
+
+			lines++;
+			return output.println(line);
+		}
+
+		@Override
+		public boolean println(String line, boolean temporary) {
+			return println(line);
+		}
+
+		@Override
+		public boolean println(byte[] line, int length, boolean temporary) {
+			if (lines >= limit) {
+				return true;
+			}
+
+			lines++;
+			return output.println(line, length, false);
+		}
+
+		@Override
+		public boolean printDay(TurkeyInfo info, String date, Collection<String> zones) {
+			ByteLineBuilder line = CSVHandler.appendTurkeyCsvLine(ByteLineBuilder.get(), info, date, zones);
+			return println(line.getBuffer(), line.length(), false);
+		}
+
+		/**
+		 * Checks whether the max number of lines was written.
+		 * 
+		 * @return {@code true} if all following lines will be dropped.
+		 */
+		public boolean isFull() {
+			return lines >= limit;
+		}
+
+		@Override
+		public boolean printsTemporary() {
+			return false;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			output.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			output.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.tome25.auswertung.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tome25.auswertung.DataHandler;
+import com.tome25.auswertung.args.Arguments;
+import com.tome25.auswertung.stream.FileInputStreamHandler;
+import com.tome25.auswertung.stream.IInputStreamHandler;
+import com.tome25.auswertung.stream.MappedFileInputStreamHandler;
+
+/**
+ * A benchmark running a full analysis of a generated antenna records file
+ * using {@link DataHandler#handleStreams}.<br/>
+ * The output is discarded, so writing the output files isn't measured.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class DataHandlerBenchmark {
+
+	/**
+	 * The number of antenna records to analyze.
+	 */
+	@Param({ "100000", "1000000", "10000000" })
+	public int records;
+
+	/**
+	 * The additional command line arguments to use for the analysis.<br/>
+	 * Used to compare the serial analysis to the parallel and pipelined ones.
+	 */
+	@Param({ "", "--parallel", "--pipeline" })
+	public String arguments;
+
+	/**
+	 * The directory containing the input files.
+	 */
+	private File dir;
+
+	/**
+	 * The arguments to use for the analysis.
+	 */
+	private Arguments args;
+
+	/**
+	 * Generates the input files, if necessary.
+	 * 
+	 * @throws IOException If generating the input files fails.
+	 */
+	@Setup
+	public void setup() throws IOException {
+		dir = BenchmarkData.getDirectory(records);
+		args = new Arguments("--silent", arguments);
+	}
+
+	/**
+	 * Analyzes the antenna records file.
+	 * 
+	 * @return The output stream handler the stays were written to.
+	 * @throws IOException If opening or closing an input file fails.
+	 */
+	@Benchmark
+	public NullOutputStreamHandler handleStreams() throws IOException {
+		IInputStreamHandler antennaIn = args.memoryMap
+				? new MappedFileInputStreamHandler(new File(dir, BenchmarkData.ANTENNA_FILE))
+				: new FileInputStreamHandler(new File(dir, BenchmarkData.ANTENNA_FILE));
+		FileInputStreamHandler turkeysIn = new FileInputStreamHandler(new File(dir, BenchmarkData.TURKEYS_FILE));
+		FileInputStreamHandler zonesIn = new FileInputStreamHandler(new File(dir, BenchmarkData.ZONES_FILE));
+		NullOutputStreamHandler totalsOut = new NullOutputStreamHandler();
+		NullOutputStreamHandler staysOut = new NullOutputStreamHandler();
+		try {
+			DataHandler.handleStreams(antennaIn, turkeysIn, zonesIn, null, totalsOut, staysOut, args);
+		} finally {
+			antennaIn.close();
+			turkeysIn.close();
+			zonesIn.close();
+		}
+		return staysOut;
+	}
+
+}
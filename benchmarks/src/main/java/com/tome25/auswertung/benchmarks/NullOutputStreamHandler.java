@@ -0,0 +1,72 @@
+package com.tome25.auswertung.benchmarks;
+
+import java.util.Collection;
+
+import com.tome25.auswertung.CSVHandler;
+import com.tome25.auswertung.TurkeyInfo;
+import com.tome25.auswertung.stream.ByteLineBuilder;
+import com.tome25.auswertung.stream.IOutputStreamHandler;
+
+/**
+ * An output stream handler discarding all lines written to it.<br/>
+ * Used by benchmarks to measure the analysis without the cost of writing the
+ * output files.<br/>
+ * Daily totals are still converted to csv lines, like the
+ * {@link com.tome25.auswertung.stream.FileOutputStreamHandler
+ * FileOutputStreamHandler} does.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class NullOutputStreamHandler implements IOutputStreamHandler {
+
+	/**
+	 * The number of lines written to this stream handler.
+	 */
+	private long lines = 0;
+
+	@Override
+	public boolean println(String line) {
+		lines++;
+		return true;
+	}
+
+	@Override
+	public boolean println(String line, boolean temporary) {
+		return println(line);
+	}
+
+	@Override
+	public boolean println(byte[] line, int length, boolean temporary) {
+		lines++;
+		return true;
+	}
+
+	@Override
+	public boolean printDay(TurkeyInfo info, String date, Collection<String> zones) {
+		ByteLineBuilder line = CSVHandler.appendTurkeyCsvLine(ByteLineBuilder.get(), info, date, zones);
+		return println(line.getBuffer(), line.length(), false);
+	}
+
+	/**
+	 * Gets the number of lines written to this stream handler.
+	 * 
+	 * @return The number of discarded lines.
+	 */
+	public long getLines() {
+		return lines;
+	}
+
+	@Override
+	public boolean printsTemporary() {
+		return false;
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.tome25.auswertung.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tome25.auswertung.utils.TimeUtils;
+
+/**
+ * Benchmarks for parsing and encoding times and dates using the
+ * {@link TimeUtils}.<br/>
+ * Uses the times and dates of a sample of generated antenna records.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TimeUtilsBenchmark {
+
+	/**
+	 * The time strings of the sample records.
+	 */
+	private String[] times;
+
+	/**
+	 * The time of day of each sample record, in milliseconds.
+	 */
+	private long[] msOfDay;
+
+	/**
+	 * The timestamp of each sample record.
+	 */
+	private long[] timestamps;
+
+	/**
+	 * The index of the next sample record to use.
+	 */
+	private int index = 0;
+
+	/**
+	 * Reads the sample records, and parses their times.
+	 * 
+	 * @throws IOException If generating or reading the antenna records file fails.
+	 */
+	@Setup
+	public void setup() throws IOException {
+		String[] lines = BenchmarkData.readLines(BenchmarkData.SAMPLE_SIZE, BenchmarkData.SAMPLE_SIZE);
+		times = new String[lines.length];
+		msOfDay = new long[lines.length];
+		timestamps = new long[lines.length];
+		for (int i = 0; i < lines.length; i++) {
+			String[] tokens = lines[i].split(";");
+			times[i] = tokens[2];
+			msOfDay[i] = TimeUtils.parseTime(tokens[2]);
+			timestamps[i] = TimeUtils.parseTimestamp(tokens[1], tokens[2]);
+		}
+	}
+
+	/**
+	 * Gets the index of the sample record to use next.
+	 * 
+	 * @return The index of the next sample record.
+	 */
+	private int next() {
+		int i = index++;
+		if (index == times.length) {
+			index = 0;
+		}
+		return i;
+	}
+
+	/**
+	 * Parses a time string using {@link TimeUtils#parseTime(String)}.
+	 * 
+	 * @return The parsed time of day.
+	 */
+	@Benchmark
+	public long parseTime() {
+		return TimeUtils.parseTime(times[next()]);
+	}
+
+	/**
+	 * Encodes a time of day using {@link TimeUtils#encodeTime(long)}.
+	 * 
+	 * @return The encoded time.
+	 */
+	@Benchmark
+	public String encodeTime() {
+		return TimeUtils.encodeTime(msOfDay[next()]);
+	}
+
+	/**
+	 * Encodes the date of a timestamp using {@link TimeUtils#encodeDate(long)}.
+	 * 
+	 * @return The encoded date.
+	 */
+	@Benchmark
+	public String encodeDate() {
+		return TimeUtils.encodeDate(timestamps[next()]);
+	}
+
+}
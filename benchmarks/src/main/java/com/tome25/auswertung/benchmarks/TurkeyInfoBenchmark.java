@@ -0,0 +1,133 @@
+package com.tome25.auswertung.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tome25.auswertung.TurkeyInfo;
+import com.tome25.auswertung.ZoneInfo;
+import com.tome25.auswertung.args.Arguments;
+import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.testdata.AntennaDataGenerator;
+import com.tome25.auswertung.testdata.ZoneGenerator;
+import com.tome25.auswertung.utils.TimeUtils;
+
+/**
+ * Benchmarks for handling zone changes using
+ * {@link TurkeyInfo#changeZone(ZoneInfo, long)}.<br/>
+ * The turkey moves between random zones in fixed intervals, so nearly every
+ * call changes the zone, and some of them finish a stay or a day.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TurkeyInfoBenchmark {
+
+	/**
+	 * The number of zones the turkey moves between.
+	 */
+	private static final int ZONES = 8;
+
+	/**
+	 * The number of precomputed zone changes.
+	 */
+	private static final int CHANGES = 1024;
+
+	/**
+	 * The time between two zone changes, in milliseconds.<br/>
+	 * Alternates stays shorter and longer than the default min zone time of five
+	 * minutes.
+	 */
+	private static final long[] INTERVALS = { 90000, 420000 };
+
+	/**
+	 * The time of the first zone change.
+	 */
+	private static final long START_TIME = TimeUtils.parseTimestamp("01.01.2022", 0);
+
+	/**
+	 * The zone the turkey starts in.
+	 */
+	private ZoneInfo startZone;
+
+	/**
+	 * The zones to move the turkey to, in order.<br/>
+	 * Each zone differs from the previous one.
+	 */
+	private ZoneInfo[] zones;
+
+	/**
+	 * The turkey to move.
+	 */
+	private TurkeyInfo turkey;
+
+	/**
+	 * The time of the last zone change.
+	 */
+	private long time;
+
+	/**
+	 * The number of zone changes so far.
+	 */
+	private int changes;
+
+	/**
+	 * Generates the zones to move the turkey to.
+	 */
+	@Setup
+	public void setup() {
+		LogHandler.setSilent(true);
+		AntennaDataGenerator.resetSeed();
+		List<ZoneInfo> zoneList = ZoneGenerator.generateZones(ZONES);
+		startZone = zoneList.get(0);
+		zones = new ZoneInfo[CHANGES];
+		int last = 0;
+		for (int i = 0; i < CHANGES; i++) {
+			int zone = (last + AntennaDataGenerator.nextInt(ZONES - 1, 1)) % ZONES;
+			zones[i] = zoneList.get(zone);
+			last = zone;
+		}
+	}
+
+	/**
+	 * Creates a new turkey for each iteration, so the amount of stored data
+	 * doesn't grow across iterations.
+	 */
+	@Setup(Level.Iteration)
+	public void setupIteration() {
+		time = START_TIME;
+		changes = 0;
+		turkey = new TurkeyInfo("1", Collections.singletonList("1"), new NullOutputStreamHandler(), startZone, time,
+				time, TimeUtils.NO_TIME, Arguments.empty());
+	}
+
+	/**
+	 * Moves the turkey to the next zone.
+	 * 
+	 * @return The turkey that was moved.
+	 */
+	@Benchmark
+	public TurkeyInfo changeZone() {
+		time += INTERVALS[changes & 1];
+		turkey.changeZone(zones[changes++ % CHANGES], time);
+		return turkey;
+	}
+
+}
@@ -0,0 +1,393 @@
+package com.tome25.auswertung;
+
+import com.tome25.auswertung.stream.IOutputStreamHandler;
+
+/**
+ * A single step of the analysis of the antenna records.<br/>
+ * Events are either global, and applied to all known turkeys, or belong to a
+ * single turkey.<br/>
+ * The sequence number of an event determines the order in which events have to
+ * be applied to a turkey, and in which the output they generate has to be
+ * written.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+abstract class AnalysisEvent {
+
+	/**
+	 * The sequence number of this event.<br/>
+	 * Unique and ascending for all events of a single analysis.
+	 */
+	final long sequence;
+
+	/**
+	 * Creates a new analysis event.
+	 * 
+	 * @param sequence The sequence number of the new event.
+	 */
+	AnalysisEvent(long sequence) {
+		this.sequence = sequence;
+	}
+
+	/**
+	 * Gets the turkey this event belongs to.
+	 * 
+	 * @return The turkey to apply this event to. {@code null} for global events.
+	 */
+	TurkeyInfo getTurkey() {
+		return null;
+	}
+
+	/**
+	 * Applies this event to the given turkey.
+	 * 
+	 * @param handler The data handler doing the analysis.
+	 * @param turkey  The turkey to apply this event to.
+	 * @param totals  The output stream handler to write daily totals to.
+	 */
+	abstract void apply(DataHandler handler, TurkeyInfo turkey, IOutputStreamHandler totals);
+
+	/**
+	 * The global time boundaries at the time of an event.<br/>
+	 * Instances are immutable, and shared between all events until one of the
+	 * boundaries changes.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	static final class Boundaries {
+
+		/**
+		 * The start time of the current recording period.<br/>
+		 * Either the time of the first record, or the end of the last downtime.
+		 */
+		final long startTime;
+
+		/**
+		 * The start time of the previous recording period.
+		 */
+		final long prevStartTime;
+
+		/**
+		 * The start time of the last downtime.
+		 */
+		final long lastDts;
+
+		/**
+		 * Creates a new boundaries object.
+		 * 
+		 * @param startTime     The start time of the current recording period.
+		 * @param prevStartTime The start time of the previous recording period.
+		 * @param lastDts       The start time of the last downtime.
+		 */
+		Boundaries(long startTime, long prevStartTime, long lastDts) {
+			this.startTime = startTime;
+			this.prevStartTime = prevStartTime;
+			this.lastDts = lastDts;
+		}
+
+	}
+
+	/**
+	 * The event setting the start time of all turkeys once the first record was
+	 * read.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	static final class StartEvent extends AnalysisEvent {
+
+		/**
+		 * The time of the first record.
+		 */
+		private final long startTime;
+
+		/**
+		 * Creates a new start event.
+		 * 
+		 * @param sequence  The sequence number of the new event.
+		 * @param startTime The time of the first record.
+		 */
+		StartEvent(long sequence, long startTime) {
+			super(sequence);
+			this.startTime = startTime;
+		}
+
+		@Override
+		void apply(DataHandler handler, TurkeyInfo turkey, IOutputStreamHandler totals) {
+			turkey.setStartTime(startTime);
+		}
+
+	}
+
+	/**
+	 * The event for a downtime that starts and ends on the same day.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	static final class SameDayDowntimeEvent extends AnalysisEvent {
+
+		/**
+		 * The start time of the downtime.
+		 */
+		private final long downtimeStart;
+
+		/**
+		 * The end time of the downtime.
+		 */
+		private final long downtimeEnd;
+
+		/**
+		 * The day of the first record after the downtime.
+		 */
+		private final int day;
+
+		/**
+		 * Creates a new same day downtime event.
+		 * 
+		 * @param sequence      The sequence number of the new event.
+		 * @param downtimeStart The start time of the downtime.
+		 * @param downtimeEnd   The end time of the downtime.
+		 * @param day           The day of the first record after the downtime.
+		 */
+		SameDayDowntimeEvent(long sequence, long downtimeStart, long downtimeEnd, int day) {
+			super(sequence);
+			this.downtimeStart = downtimeStart;
+			this.downtimeEnd = downtimeEnd;
+			this.day = day;
+		}
+
+		@Override
+		void apply(DataHandler handler, TurkeyInfo turkey, IOutputStreamHandler totals) {
+			handler.handleSameDayDowntime(turkey, downtimeStart, downtimeEnd, day);
+		}
+
+	}
+
+	/**
+	 * The event for a downtime spanning multiple days.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	static final class MultiDayDowntimeEvent extends AnalysisEvent {
+
+		/**
+		 * The start time of the downtime.
+		 */
+		private final long downtimeStart;
+
+		/**
+		 * The end time of the downtime.
+		 */
+		private final long downtimeEnd;
+
+		/**
+		 * The start time of the recording period before the downtime.
+		 */
+		private final long startTime;
+
+		/**
+		 * The day of the last record before the downtime.
+		 */
+		private final int lastDay;
+
+		/**
+		 * Creates a new multi day downtime event.
+		 * 
+		 * @param sequence      The sequence number of the new event.
+		 * @param downtimeStart The start time of the downtime.
+		 * @param downtimeEnd   The end time of the downtime.
+		 * @param startTime     The start time of the recording period before the
+		 *                      downtime.
+		 * @param lastDay       The day of the last record before the downtime.
+		 */
+		MultiDayDowntimeEvent(long sequence, long downtimeStart, long downtimeEnd, long startTime, int lastDay) {
+			super(sequence);
+			this.downtimeStart = downtimeStart;
+			this.downtimeEnd = downtimeEnd;
+			this.startTime = startTime;
+			this.lastDay = lastDay;
+		}
+
+		@Override
+		void apply(DataHandler handler, TurkeyInfo turkey, IOutputStreamHandler totals) {
+			handler.handleMultiDayDowntime(turkey, downtimeStart, downtimeEnd, startTime, lastDay);
+		}
+
+	}
+
+	/**
+	 * The event ending the previous day, once the first record of a new day was
+	 * read.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	static final class DayChangeEvent extends AnalysisEvent {
+
+		/**
+		 * The global time boundaries at the time of the day change.
+		 */
+		private final Boundaries boundaries;
+
+		/**
+		 * The day that ended.
+		 */
+		private final int lastDay;
+
+		/**
+		 * Creates a new day change event.
+		 * 
+		 * @param sequence   The sequence number of the new event.
+		 * @param boundaries The global time boundaries at the time of the day change.
+		 * @param lastDay    The day that ended.
+		 */
+		DayChangeEvent(long sequence, Boundaries boundaries, int lastDay) {
+			super(sequence);
+			this.boundaries = boundaries;
+			this.lastDay = lastDay;
+		}
+
+		@Override
+		void apply(DataHandler handler, TurkeyInfo turkey, IOutputStreamHandler totals) {
+			handler.handleDayChange(turkey, boundaries, lastDay);
+		}
+
+	}
+
+	/**
+	 * The event for a single antenna record of a single turkey.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	static final class RecordEvent extends AnalysisEvent {
+
+		/**
+		 * The turkey the record belongs to.
+		 */
+		private final TurkeyInfo turkey;
+
+		/**
+		 * The antenna record to handle.
+		 */
+		private final AntennaRecord record;
+
+		/**
+		 * The zone the record was recorded in.
+		 */
+		private final ZoneInfo zone;
+
+		/**
+		 * The global time boundaries at the time of the record.
+		 */
+		private final Boundaries boundaries;
+
+		/**
+		 * Creates a new record event.
+		 * 
+		 * @param sequence   The sequence number of the new event.
+		 * @param turkey     The turkey the record belongs to.
+		 * @param record     The antenna record to handle.
+		 * @param zone       The zone the record was recorded in.
+		 * @param boundaries The global time boundaries at the time of the record.
+		 */
+		RecordEvent(long sequence, TurkeyInfo turkey, AntennaRecord record, ZoneInfo zone, Boundaries boundaries) {
+			super(sequence);
+			this.turkey = turkey;
+			this.record = record;
+			this.zone = zone;
+			this.boundaries = boundaries;
+		}
+
+		@Override
+		TurkeyInfo getTurkey() {
+			return turkey;
+		}
+
+		@Override
+		void apply(DataHandler handler, TurkeyInfo turkey, IOutputStreamHandler totals) {
+			handler.handleRecord(turkey, record, zone, boundaries);
+		}
+
+	}
+
+	/**
+	 * The event ending the analysis after the last record was read.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	static final class EndEvent extends AnalysisEvent {
+
+		/**
+		 * The time of the last record.
+		 */
+		private final long lastTime;
+
+		/**
+		 * The global time boundaries at the end of the input.
+		 */
+		private final Boundaries boundaries;
+
+		/**
+		 * Creates a new end event.
+		 * 
+		 * @param sequence   The sequence number of the new event.
+		 * @param lastTime   The time of the last record.
+		 * @param boundaries The global time boundaries at the end of the input.
+		 */
+		EndEvent(long sequence, long lastTime, Boundaries boundaries) {
+			super(sequence);
+			this.lastTime = lastTime;
+			this.boundaries = boundaries;
+		}
+
+		@Override
+		void apply(DataHandler handler, TurkeyInfo turkey, IOutputStreamHandler totals) {
+			handler.handleEnd(turkey, lastTime, boundaries);
+		}
+
+	}
+
+	/**
+	 * The event writing the totals of a single day, or the entire analysis.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	static final class PrintDayEvent extends AnalysisEvent {
+
+		/**
+		 * The date to write the totals of. {@code null} for the total output.
+		 */
+		private final String date;
+
+		/**
+		 * The index of the day to write the totals of.
+		 */
+		private final int day;
+
+		/**
+		 * Whether the day is complete, rather than temporary.
+		 */
+		private final boolean finished;
+
+		/**
+		 * Creates a new print day event.
+		 * 
+		 * @param sequence The sequence number of the new event.
+		 * @param date     The date to write the totals of. {@code null} for the total
+		 *                 output.
+		 * @param day      The index of the day to write the totals of.
+		 * @param finished Whether the day is complete, rather than temporary.
+		 */
+		PrintDayEvent(long sequence, String date, int day, boolean finished) {
+			super(sequence);
+			this.date = date;
+			this.day = day;
+			this.finished = finished;
+		}
+
+		@Override
+		void apply(DataHandler handler, TurkeyInfo turkey, IOutputStreamHandler totals) {
+			handler.printDayOutput(totals, turkey, date, day, finished);
+		}
+
+	}
+
+}
@@ -0,0 +1,365 @@
+package com.tome25.auswertung;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.tome25.auswertung.args.Arguments;
+import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.stream.ByteLineBuilder;
+import com.tome25.auswertung.stream.CompressedFileInputStreamHandler;
+
+/**
+ * A snapshot of the state of a data analysis, taken after its last antenna
+ * record was analyzed.<br/>
+ * Allows a later analysis of the same antenna data file, after new records were
+ * appended to it, to continue where this one stopped, instead of analyzing all
+ * records again.<br/>
+ * <br/>
+ * The snapshot is taken before the end of the input is handled, so the output
+ * written for the end of the input is removed from the output files again when
+ * resuming.<br/>
+ * To detect changes to the files since the snapshot was written, it contains
+ * the length and a hash of the first and last bytes of the antenna data read,
+ * and of the output files written so far.<br/>
+ * As well as a hash of the turkey, zone, and downtime files, and the arguments
+ * affecting the analysis.<br/>
+ * The state of the analysis itself is stored compressed.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public final class AnalysisSnapshot {
+
+	/**
+	 * The magic number at the start of each snapshot.
+	 */
+	private static final int MAGIC = 0x50415353;
+
+	/**
+	 * The version of the snapshot format.
+	 */
+	private static final int VERSION = 2;
+
+	/**
+	 * The number of bytes at the start and end of a file to hash.
+	 */
+	private static final int HASH_SIZE = 64 * 1024;
+
+	/**
+	 * The size of the buffers used to read and write snapshots.
+	 */
+	private static final int STREAM_BUFFER_SIZE = 65536;
+
+	/**
+	 * The number of bytes of the antenna data file that were analyzed.
+	 */
+	private final long inputPosition;
+
+	/**
+	 * The compressed state of the analysis.
+	 */
+	private final byte[] state;
+
+	/**
+	 * Creates a new snapshot.
+	 * 
+	 * @param inputPosition The number of bytes of the antenna data file that were
+	 *                      analyzed.
+	 * @param state         The compressed state of the analysis.
+	 */
+	private AnalysisSnapshot(long inputPosition, byte[] state) {
+		this.inputPosition = inputPosition;
+		this.state = state;
+	}
+
+	/**
+	 * Reads the given snapshot file, and prepares resuming the analysis it was
+	 * written for.<br/>
+	 * Checks that the snapshot matches the given files and arguments, and that
+	 * none of the data it is based on was changed.<br/>
+	 * If it does, the output files are truncated to the length they had when the
+	 * snapshot was written.<br/>
+	 * They then have to be opened for appending, and the antenna data file has to
+	 * be read starting at {@link #getInputPosition()}.
+	 * 
+	 * @param snapshotFile  The snapshot file to read.
+	 * @param antennaFiles  The antenna data files to analyze.
+	 * @param turkeysFile   The file containing the turkey mappings.
+	 * @param zonesFile     The file containing the zone mappings.
+	 * @param downtimesFile The file containing the downtimes. Can be {@code null}.
+	 * @param totalsFile    The file to write the totals to.
+	 * @param staysFile     The file to write the zone stays to.
+	 * @param args          The arguments to be used for the analysis.
+	 * @return The snapshot to resume the analysis from, or {@code null} if the
+	 *         analysis has to start from the beginning.
+	 * @throws NullPointerException If one of the arguments except
+	 *                              {@code downtimesFile} is {@code null}.
+	 */
+	public static AnalysisSnapshot resume(File snapshotFile, List<File> antennaFiles, File turkeysFile,
+			File zonesFile, File downtimesFile, File totalsFile, File staysFile, Arguments args)
+			throws NullPointerException {
+		Objects.requireNonNull(snapshotFile, "The snapshot file to read can't be null.");
+		Objects.requireNonNull(antennaFiles, "The antenna data files can't be null.");
+		Objects.requireNonNull(turkeysFile, "The turkey mappings file can't be null.");
+		Objects.requireNonNull(zonesFile, "The zone mappings file can't be null.");
+		Objects.requireNonNull(totalsFile, "The totals output file can't be null.");
+		Objects.requireNonNull(staysFile, "The stays output file can't be null.");
+		Objects.requireNonNull(args, "The arguments to use can't be null.");
+
+		if (!snapshotFile.isFile()) {
+			LogHandler.out_println("The analysis snapshot file " + snapshotFile.getPath()
+					+ " doesn't exist. Analyzing all antenna records.", true);
+			return null;
+		}
+
+		String reason = null;
+		AnalysisSnapshot snapshot = null;
+		long totalsLength = -1;
+		long staysLength = -1;
+		try {
+			if (antennaFiles.size() != 1) {
+				reason = "it only supports a single antenna data file";
+			} else if (CompressedFileInputStreamHandler.detectFormat(antennaFiles.get(0)) != null) {
+				reason = "it doesn't support compressed antenna data files";
+			} else if (args.gzipOutput || args.asyncOutput) {
+				reason = "it only supports uncompressed, synchronously written output files";
+			} else if (args.pipeline || args.parseThreads > 0 || args.recordCache || args.sortBuffer > 0) {
+				reason = "it requires the antenna records to be read on the analysis thread";
+			} else {
+				try (DataInputStream in = new DataInputStream(
+						new BufferedInputStream(new FileInputStream(snapshotFile), STREAM_BUFFER_SIZE))) {
+					long inputPosition = -1;
+					if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+						reason = "it isn't a valid snapshot file";
+					} else if ((inputPosition = readLength(in, antennaFiles.get(0))) < 0) {
+						reason = "the antenna data file was changed";
+					} else if (in.readLong() != hashConfig(turkeysFile, zonesFile, downtimesFile, args)) {
+						reason = "the turkeys, zones, downtimes, or arguments were changed";
+					} else if ((totalsLength = readLength(in, totalsFile)) < 0
+							|| (staysLength = readLength(in, staysFile)) < 0) {
+						reason = "an output file was changed";
+					} else {
+						byte[] state = new byte[in.readInt()];
+						in.readFully(state);
+						snapshot = new AnalysisSnapshot(inputPosition, state);
+					}
+				}
+			}
+		} catch (IOException e) {
+			LogHandler.err_println("Reading the analysis snapshot file " + snapshotFile.getPath()
+					+ " failed. Analyzing all antenna records.");
+			LogHandler.print_exception(e, "read analysis snapshot", "Snapshot File: %s, Antenna Files: %s",
+					snapshotFile, antennaFiles);
+			return null;
+		}
+
+		if (snapshot == null) {
+			LogHandler.out_println("Not resuming from the analysis snapshot file " + snapshotFile.getPath()
+					+ ", because " + reason + ". Analyzing all antenna records.");
+			return null;
+		}
+
+		try {
+			truncate(totalsFile, totalsLength);
+			truncate(staysFile, staysLength);
+		} catch (IOException e) {
+			LogHandler.err_println("Truncating the output files to resume the analysis failed.");
+			LogHandler.print_exception(e, "truncate output files", "Totals File: %s, Stays File: %s", totalsFile,
+					staysFile);
+			return null;
+		}
+
+		LogHandler.out_println("Resuming the analysis from the snapshot file " + snapshotFile.getPath() + ", after "
+				+ snapshot.inputPosition + " bytes of the antenna data file.");
+		return snapshot;
+	}
+
+	/**
+	 * Writes a new snapshot file.<br/>
+	 * The snapshot is written to a temporary file first, which then replaces the
+	 * previous snapshot, so that an interrupted write never leaves a broken
+	 * snapshot.
+	 * 
+	 * @param snapshotFile  The snapshot file to write.
+	 * @param antennaFile   The antenna data file that was analyzed.
+	 * @param inputPosition The number of bytes of the antenna data file that were
+	 *                      analyzed.
+	 * @param configHash    The hash of the mappings and arguments, as returned by
+	 *                      {@link #hashConfig}.
+	 * @param totalsFile    The file the totals were written to.
+	 * @param staysFile     The file the zone stays were written to.
+	 * @param state         The uncompressed state of the analysis.
+	 * @throws IOException If writing the snapshot or hashing one of the files
+	 *                     fails.
+	 */
+	static void write(File snapshotFile, File antennaFile, long inputPosition, long configHash, File totalsFile,
+			File staysFile, byte[] state) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+			deflater.write(state);
+		}
+
+		File temp = new File(snapshotFile.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temp), STREAM_BUFFER_SIZE))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeFile(out, antennaFile, inputPosition);
+			out.writeLong(configHash);
+			writeFile(out, totalsFile, totalsFile.length());
+			writeFile(out, staysFile, staysFile.length());
+			out.writeInt(compressed.size());
+			compressed.writeTo(out);
+		} catch (IOException e) {
+			temp.delete();
+			throw e;
+		}
+
+		Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Calculates a hash of the turkey, zone, and downtime files, as well as the
+	 * arguments affecting the analysis results.
+	 * 
+	 * @param turkeysFile   The file containing the turkey mappings.
+	 * @param zonesFile     The file containing the zone mappings.
+	 * @param downtimesFile The file containing the downtimes. Can be {@code null}.
+	 * @param args          The arguments to be used for the analysis.
+	 * @return The calculated hash.
+	 * @throws IOException If reading one of the files fails.
+	 */
+	static long hashConfig(File turkeysFile, File zonesFile, File downtimesFile, Arguments args)
+			throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+		for (File file : new File[] { turkeysFile, zonesFile, downtimesFile }) {
+			if (file == null) {
+				crc.update(0);
+				continue;
+			}
+
+			crc.update(1);
+			try (FileInputStream in = new FileInputStream(file)) {
+				int read;
+				while ((read = in.read(buffer)) > 0) {
+					crc.update(buffer, 0, read);
+				}
+			}
+		}
+
+		String settings = (args.fillDays ? "fill" : "nofill") + ';' + args.minTime + ';' + args.decimalSeparator;
+		crc.update(settings.getBytes(ByteLineBuilder.UTF_8));
+		return crc.getValue();
+	}
+
+	/**
+	 * Gets the number of bytes of the antenna data file that were analyzed before
+	 * this snapshot was taken.
+	 * 
+	 * @return The position to continue reading the antenna data file at.
+	 */
+	public long getInputPosition() {
+		return inputPosition;
+	}
+
+	/**
+	 * Opens a stream to read the state of the analysis from.
+	 * 
+	 * @return A stream reading the uncompressed state.
+	 */
+	DataInputStream openState() {
+		return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(state)));
+	}
+
+	/**
+	 * Writes the path, the given length, and the hash of the given file.
+	 * 
+	 * @param out    The stream to write to.
+	 * @param file   The file to write the info of.
+	 * @param length The number of bytes of the file to hash.
+	 * @throws IOException If writing or hashing fails.
+	 */
+	private static void writeFile(DataOutputStream out, File file, long length) throws IOException {
+		out.writeUTF(file.getCanonicalPath());
+		out.writeLong(length);
+		out.writeLong(hash(file, length));
+	}
+
+	/**
+	 * Reads the info written by {@link #writeFile}, and checks whether it matches
+	 * the given file.
+	 * 
+	 * @param in   The stream to read from.
+	 * @param file The file to check.
+	 * @return The length of the file when the info was written, or -1 if it isn't
+	 *         the same file, or its content up to that length was changed.
+	 * @throws IOException If reading or hashing fails.
+	 */
+	private static long readLength(DataInputStream in, File file) throws IOException {
+		String path = in.readUTF();
+		long length = in.readLong();
+		long hash = in.readLong();
+		if (!path.equals(file.getCanonicalPath()) || file.length() < length || hash(file, length) != hash) {
+			return -1;
+		}
+		return length;
+	}
+
+	/**
+	 * Truncates the given output file to the given length.
+	 * 
+	 * @param file   The file to truncate.
+	 * @param length The length to truncate the file to.
+	 * @throws IOException If truncating the file fails.
+	 */
+	private static void truncate(File file, long length) throws IOException {
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+			out.setLength(length);
+		}
+	}
+
+	/**
+	 * Calculates a hash of the first and last bytes of the first {@code length}
+	 * bytes of the given file.
+	 * 
+	 * @param input  The file to hash.
+	 * @param length The number of bytes of the file to consider.
+	 * @return The calculated hash.
+	 * @throws IOException If reading the file fails.
+	 */
+	private static long hash(File input, long length) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(Long.toString(length).getBytes(ByteLineBuilder.UTF_8));
+		byte[] buffer = new byte[HASH_SIZE];
+		try (RandomAccessFile file = new RandomAccessFile(input, "r")) {
+			int read = (int) Math.min(length, HASH_SIZE);
+			file.readFully(buffer, 0, read);
+			crc.update(buffer, 0, read);
+
+			if (length > HASH_SIZE) {
+				read = (int) Math.min(length - HASH_SIZE, HASH_SIZE);
+				file.seek(length - read);
+				file.readFully(buffer, 0, read);
+				crc.update(buffer, 0, read);
+			}
+		}
+		return crc.getValue();
+	}
+
+}
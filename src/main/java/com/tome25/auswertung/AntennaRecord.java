@@ -1,9 +1,10 @@
 package com.tome25.auswertung;
 
-import java.util.Calendar;
 import java.util.Objects;
 
+import com.tome25.auswertung.utils.SymbolTable;
 import com.tome25.auswertung.utils.TimeUtils;
+import com.tome25.auswertung.utils.TimestampParser;
 
 /**
  * A class storing the data about a single time an antenna recorded a
@@ -18,6 +19,14 @@ public class AntennaRecord {
 	 */
 	public final String transponder;
 
+	/**
+	 * The handle of the {@link #transponder} in the transponder
+	 * {@link SymbolTable}.<br/>
+	 * {@link SymbolTable#NO_SYMBOL} if the record was created without a symbol
+	 * table.
+	 */
+	public final int transponderId;
+
 	/**
 	 * The string representation of the date(DD.MM.YYYY) at which this record was
 	 * recorded.
@@ -29,15 +38,30 @@ public class AntennaRecord {
 	 */
 	public final String antenna;
 
+	/**
+	 * The handle of the {@link #antenna} in the antenna {@link SymbolTable}.<br/>
+	 * {@link SymbolTable#NO_SYMBOL} if the record was created without a symbol
+	 * table.
+	 */
+	public final int antennaId;
+
 	/**
 	 * The time of day of this record in milliseconds.
 	 */
 	public final int tod;
 
 	/**
-	 * A {@link Calendar} encoding the date and time of day.
+	 * The timestamp of this record in milliseconds since the epoch.<br/>
+	 * Encodes both the date and the time of day.
+	 */
+	public final long time;
+
+	/**
+	 * The index of the day of this record, in days since the epoch.
+	 * 
+	 * @see TimeUtils#getDay(long)
 	 */
-	public final Calendar cal;
+	public final int day;
 
 	/**
 	 * Creates a new AntennaRecord containing all the given data.
@@ -57,6 +81,31 @@ public class AntennaRecord {
 	 */
 	public AntennaRecord(String transponder, String date, String time, String antenna)
 			throws NullPointerException, IllegalArgumentException {
+		this(transponder, SymbolTable.NO_SYMBOL, date, time, antenna, SymbolTable.NO_SYMBOL);
+	}
+
+	/**
+	 * Creates a new AntennaRecord containing all the given data.
+	 * 
+	 * @param transponder   The string id of the transponder that was recorded.
+	 * @param transponderId The handle of the transponder in the transponder
+	 *                      {@link SymbolTable}.
+	 * @param date          The date at which this data was recorded. Format
+	 *                      "DD.MM.YYYY".<br/>
+	 *                      Shorter date, month, or year components will be
+	 *                      prefixed with zeros.
+	 * @param time          The time of day at which this record was created.
+	 *                      Format "HH:MM:SS.2".
+	 * @param antenna       The antenna that recorded this data set.
+	 * @param antennaId     The handle of the antenna in the antenna
+	 *                      {@link SymbolTable}.
+	 * @throws NullPointerException     If one of the arguments if {@code null}.
+	 * @throws IllegalArgumentException If one of the arguments is empty, or the
+	 *                                  {@code date} or {@code time} doesn't match
+	 *                                  the required format.
+	 */
+	public AntennaRecord(String transponder, int transponderId, String date, String time, String antenna,
+			int antennaId) throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(transponder, "The transponder that was recorded can not be null.");
 		Objects.requireNonNull(date, "The date the record was taken on can't be null.");
 		Objects.requireNonNull(time, "The time at which the record was created cannot be null.");
@@ -66,10 +115,80 @@ public AntennaRecord(String transponder, String date, String time, String antenn
 			throw new IllegalArgumentException("The given transponder id was empty.");
 		}
 		this.transponder = transponder;
+		this.transponderId = transponderId;
 
 		if (date.isEmpty()) {
 			throw new IllegalArgumentException("The given date string was empty.");
 		}
+		this.date = normalizeDate(date);
+
+		if (time.isEmpty()) {
+			throw new IllegalArgumentException("The given time string was empty.");
+		}
+
+		if (antenna.isEmpty()) {
+			throw new IllegalArgumentException("The given antenna id was empty.");
+		}
+		this.antenna = antenna;
+		this.antennaId = antennaId;
+
+		tod = (int) TimeUtils.parseTime(time);
+		if (tod < 0) {
+			throw new IllegalArgumentException("The time \"" + time + "\" represents the negative time of day " + tod
+					+ ". Time of Day cannot be negative.");
+		} else if (tod > TurkeyInfo.DAY_END) {
+			throw new IllegalArgumentException(
+					"The time \"" + time + "\" is more than 23:59:59.99, which is not allowed.");
+		}
+		this.time = TimestampParser.get().parseTimestamp(this.date, tod);
+		day = TimeUtils.getDay(this.time);
+	}
+
+	/**
+	 * Creates a new AntennaRecord from the already parsed data of another
+	 * record.<br/>
+	 * Used to restore records that were temporarily written to a file.<br/>
+	 * Does NOT validate its arguments.
+	 * 
+	 * @param transponder   The string id of the transponder that was recorded.
+	 * @param transponderId The handle of the transponder in the transponder
+	 *                      {@link SymbolTable}.
+	 * @param date          The normalized date at which this data was recorded.
+	 * @param tod           The time of day of the record in milliseconds.
+	 * @param time          The timestamp of the record in milliseconds since the
+	 *                      epoch.
+	 * @param antenna       The antenna that recorded this data set.
+	 * @param antennaId     The handle of the antenna in the antenna
+	 *                      {@link SymbolTable}.
+	 */
+	AntennaRecord(String transponder, int transponderId, String date, int tod, long time, String antenna,
+			int antennaId) {
+		this.transponder = transponder;
+		this.transponderId = transponderId;
+		this.date = date;
+		this.antenna = antenna;
+		this.antennaId = antennaId;
+		this.tod = tod;
+		this.time = time;
+		day = TimeUtils.getDay(time);
+	}
+
+	/**
+	 * Prefixes the day, month, and year components of the given date with zeros
+	 * until they have the required length.<br/>
+	 * Dates that already have the format "DD.MM.YYYY" are returned as is.
+	 * 
+	 * @param date The date string to normalize.
+	 * @return The normalized date string.
+	 * @throws IllegalArgumentException If {@code date} does not have exactly three
+	 *                                  non-empty components.
+	 */
+	private static String normalizeDate(String date) throws IllegalArgumentException {
+		if (date.length() == 10 && date.indexOf('.') == 2 && date.indexOf('.', 3) == 5
+				&& date.indexOf('.', 6) == -1) {
+			return date;
+		}
+
 		String dateSplit[] = date.split("\\.");
 		if (dateSplit.length != 3) {
 			throw new IllegalArgumentException("The date \"" + date + "\" did not match the required format.");
@@ -96,26 +215,7 @@ public AntennaRecord(String transponder, String date, String time, String antenn
 			dateBuilder.append('0');
 		}
 		dateBuilder.append(dateSplit[2]);
-		this.date = dateBuilder.toString();
-
-		if (time.isEmpty()) {
-			throw new IllegalArgumentException("The given time string was empty.");
-		}
-
-		if (antenna.isEmpty()) {
-			throw new IllegalArgumentException("The given antenna id was empty.");
-		}
-		this.antenna = antenna;
-
-		tod = (int) TimeUtils.parseTime(time);
-		if (tod < 0) {
-			throw new IllegalArgumentException("The time \"" + time + "\" represents the negative time of day " + tod
-					+ ". Time of Day cannot be negative.");
-		} else if (tod > TurkeyInfo.DAY_END) {
-			throw new IllegalArgumentException(
-					"The time \"" + time + "\" is more than 23:59:59.99, which is not allowed.");
-		}
-		cal = TimeUtils.parseTime(date, tod);
+		return dateBuilder.toString();
 	}
 
 	/**
@@ -142,17 +242,17 @@ public String toString() {
 		builder.append(tod);
 		builder.append(", tod=");
 		builder.append(getTime());
-		builder.append(", cal date=");
-		builder.append(TimeUtils.encodeDate(cal));
-		builder.append(", cal time=");
-		builder.append(TimeUtils.encodeTime(TimeUtils.getMsOfDay(cal)));
+		builder.append(", timestamp date=");
+		builder.append(TimeUtils.encodeDate(time));
+		builder.append(", timestamp time=");
+		builder.append(TimeUtils.encodeTime(TimeUtils.getMsOfDay(time)));
 		builder.append("]");
 		return builder.toString();
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(antenna, date, tod, transponder, cal);
+		return Objects.hash(antenna, date, tod, transponder, time);
 	}
 
 	@Override
@@ -186,7 +286,7 @@ public boolean equals(Object obj) {
 			return false;
 		}
 
-		if (!Objects.equals(cal, other.cal)) {
+		if (time != other.time) {
 			return false;
 		}
 
@@ -0,0 +1,617 @@
+package com.tome25.auswertung;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.utils.FileUtils;
+import com.tome25.auswertung.utils.SymbolTable;
+import com.tome25.auswertung.utils.TimeUtils;
+
+/**
+ * A compact binary archive of the parsed {@link AntennaRecord AntennaRecords}
+ * of an antenna data file.<br/>
+ * Used as a cache, to skip parsing the same antenna data file again in later
+ * runs.<br/>
+ * <br/>
+ * The archive starts with a fixed size header, identifying the file it was
+ * created from by its size, its last modification time, and a hash of its first
+ * and last bytes.<br/>
+ * The header is followed by the records, each consisting of the difference of
+ * its timestamp to the previous one, and the indices of its transponder and
+ * antenna id in the dictionary.<br/>
+ * All three are written as variable length integers, so a record usually takes
+ * less than 8 bytes.<br/>
+ * The records are followed by the dictionary, containing the transponder ids,
+ * antenna ids, and dates of all records.<br/>
+ * The offset of the dictionary is written to the header last, so an archive
+ * that wasn't finished is never used.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class AntennaRecordArchive {
+
+	/**
+	 * The magic number at the start of each archive.
+	 */
+	private static final int MAGIC = 0x50415243;
+
+	/**
+	 * The version of the archive format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The size of the archive header, in bytes.
+	 */
+	private static final int HEADER_SIZE = 40;
+
+	/**
+	 * The offset of the dictionary offset in the archive header.
+	 */
+	private static final int DICTIONARY_OFFSET_POSITION = 32;
+
+	/**
+	 * The number of bytes at the start and end of the input file to hash.
+	 */
+	private static final int HASH_SIZE = 64 * 1024;
+
+	/**
+	 * The size of the buffers used to read and write archives.
+	 */
+	private static final int STREAM_BUFFER_SIZE = 65536;
+
+	/**
+	 * The extension added to the name of the input file to get the name of its
+	 * archive.
+	 */
+	static final String EXTENSION = FileUtils.RECORD_ARCHIVE_EXTENSION;
+
+	/**
+	 * This class only contains static methods and nested classes, and should not
+	 * be instantiated.
+	 */
+	private AntennaRecordArchive() {
+	}
+
+	/**
+	 * Gets the archive file to use for the given antenna data file.
+	 * 
+	 * @param input The antenna data file.
+	 * @return The archive file next to it.
+	 * @throws NullPointerException If {@code input} is {@code null}.
+	 */
+	static File getArchiveFile(File input) throws NullPointerException {
+		Objects.requireNonNull(input, "The input file to get the archive for can't be null.");
+		return new File(input.getPath() + EXTENSION);
+	}
+
+	/**
+	 * Opens the archive of the given antenna data file, if there is a valid one.
+	 * 
+	 * @param input        The antenna data file to read the records of.
+	 * @param transponders The symbol table to resolve the transponder ids with.
+	 * @param antennas     The symbol table to resolve the antenna ids with.
+	 * @return A source reading the records from the archive, or {@code null} if
+	 *         there is no valid archive for the input file.
+	 * @throws NullPointerException If one of the arguments is {@code null}.
+	 */
+	static IAntennaRecordSource open(File input, SymbolTable transponders, SymbolTable antennas)
+			throws NullPointerException {
+		File archive = getArchiveFile(input);
+		if (!archive.isFile()) {
+			return null;
+		}
+
+		try {
+			Reader reader = new Reader(archive, input, transponders, antennas);
+			if (!reader.valid) {
+				reader.close();
+				LogHandler.out_println("The record cache file " + archive.getPath()
+						+ " doesn't match the antenna data file. Recreating it.", true);
+				return null;
+			}
+
+			LogHandler.out_println("Reading antenna records from the record cache file " + archive.getPath() + ".",
+					true);
+			return reader;
+		} catch (IOException e) {
+			LogHandler.err_println("Reading the record cache file " + archive.getPath() + " failed. Recreating it.");
+			LogHandler.print_exception(e, "read record cache", "Archive File: %s, Input File: %s", archive, input);
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a new archive for the given antenna data file, which is filled with
+	 * the records read from the given source.
+	 * 
+	 * @param input  The antenna data file the records are read from.
+	 * @param source The source to read the records from.
+	 * @return A source returning the records from {@code source}, and writing
+	 *         them to the archive.<br/>
+	 *         {@code source} itself if creating the archive failed.
+	 * @throws NullPointerException If one of the arguments is {@code null}.
+	 */
+	static IAntennaRecordSource write(File input, IAntennaRecordSource source) throws NullPointerException {
+		Objects.requireNonNull(source, "The source to read the records from can't be null.");
+		File archive = getArchiveFile(input);
+		try {
+			LogHandler.out_println("Writing antenna records to the record cache file " + archive.getPath() + ".",
+					true);
+			return new Writer(archive, input, source);
+		} catch (IOException e) {
+			LogHandler.err_println("Creating the record cache file " + archive.getPath() + " failed.");
+			LogHandler.print_exception(e, "create record cache", "Archive File: %s, Input File: %s", archive, input);
+			return source;
+		}
+	}
+
+	/**
+	 * Calculates a hash of the first and last {@link #HASH_SIZE} bytes of the
+	 * given file.<br/>
+	 * Used together with the size and modification time of the file to detect
+	 * changes, without reading the whole file.
+	 * 
+	 * @param input The file to hash.
+	 * @return The hash of the file.
+	 * @throws IOException If reading the file fails.
+	 */
+	private static long hash(File input) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[HASH_SIZE];
+		try (RandomAccessFile file = new RandomAccessFile(input, "r")) {
+			long length = file.length();
+			int read = (int) Math.min(length, HASH_SIZE);
+			file.readFully(buffer, 0, read);
+			crc.update(buffer, 0, read);
+
+			if (length > HASH_SIZE) {
+				read = (int) Math.min(length - HASH_SIZE, HASH_SIZE);
+				file.seek(length - read);
+				file.readFully(buffer, 0, read);
+				crc.update(buffer, 0, read);
+			}
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Writes the given value as a variable length integer, using 7 bits per byte.
+	 * 
+	 * @param out   The stream to write to.
+	 * @param value The value to write. Handled as unsigned.
+	 * @return The number of bytes written.
+	 * @throws IOException If writing fails.
+	 */
+	private static int writeVarLong(DataOutputStream out, long value) throws IOException {
+		int size = 1;
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+			size++;
+		}
+		out.write((int) value);
+		return size;
+	}
+
+	/**
+	 * An {@link IAntennaRecordSource} passing through the records of another
+	 * source, and writing them to an archive.<br/>
+	 * The archive is finished once the source is done, and deleted if it is
+	 * closed before that.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static final class Writer implements IAntennaRecordSource {
+
+		/**
+		 * The archive file to write.
+		 */
+		private final File archive;
+
+		/**
+		 * The source to read the records from.
+		 */
+		private final IAntennaRecordSource source;
+
+		/**
+		 * The stream writing the archive.<br/>
+		 * {@code null} once the archive was finished, or writing it failed.
+		 */
+		private DataOutputStream out;
+
+		/**
+		 * The transponder ids of the written records, by their index in the
+		 * dictionary.
+		 */
+		private final SymbolTable transponders = new SymbolTable();
+
+		/**
+		 * The antenna ids of the written records, by their index in the
+		 * dictionary.
+		 */
+		private final SymbolTable antennas = new SymbolTable();
+
+		/**
+		 * The dates of the written records, by their day index.
+		 */
+		private final Map<Integer, String> dates = new LinkedHashMap<Integer, String>();
+
+		/**
+		 * The number of bytes written to the archive.
+		 */
+		private long size = HEADER_SIZE;
+
+		/**
+		 * The timestamp of the last written record.
+		 */
+		private long lastTime = 0;
+
+		/**
+		 * Creates a new archive, and writes its header.
+		 * 
+		 * @param archive The archive file to write.
+		 * @param input   The antenna data file the records are read from.
+		 * @param source  The source to read the records from.
+		 * @throws IOException If creating the archive fails.
+		 */
+		private Writer(File archive, File input, IAntennaRecordSource source) throws IOException {
+			this.archive = archive;
+			this.source = source;
+
+			long length = input.length();
+			long modified = input.lastModified();
+			long hash = hash(input);
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(archive), STREAM_BUFFER_SIZE));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(length);
+				out.writeLong(modified);
+				out.writeLong(hash);
+				out.writeLong(0);
+			} catch (IOException e) {
+				abort();
+				throw e;
+			}
+		}
+
+		@Override
+		public boolean done() throws RuntimeException {
+			if (!source.done()) {
+				return false;
+			}
+
+			if (out != null) {
+				try {
+					finish();
+				} catch (IOException e) {
+					LogHandler.err_println("Finishing the record cache file " + archive.getPath() + " failed.");
+					LogHandler.print_exception(e, "finish record cache", "Archive File: %s", archive);
+					abort();
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public AntennaRecord next() {
+			AntennaRecord record = source.next();
+			if (record != null && out != null) {
+				try {
+					size += writeVarLong(out, zigzag(record.time - lastTime));
+					size += writeVarLong(out, transponders.intern(record.transponder));
+					size += writeVarLong(out, antennas.intern(record.antenna));
+					lastTime = record.time;
+					if (!dates.containsKey(record.day)) {
+						dates.put(record.day, record.date);
+					}
+				} catch (IOException e) {
+					LogHandler.err_println("Writing to the record cache file " + archive.getPath() + " failed.");
+					LogHandler.print_exception(e, "write record cache", "Archive File: %s", archive);
+					abort();
+				}
+			}
+			return record;
+		}
+
+		/**
+		 * Writes the dictionary, and then the offset of the dictionary to the
+		 * header.
+		 * 
+		 * @throws IOException If writing the archive fails.
+		 */
+		private void finish() throws IOException {
+			out.writeInt(transponders.size());
+			for (int i = 0; i < transponders.size(); i++) {
+				out.writeUTF(transponders.getSymbol(i));
+			}
+
+			out.writeInt(antennas.size());
+			for (int i = 0; i < antennas.size(); i++) {
+				out.writeUTF(antennas.getSymbol(i));
+			}
+
+			out.writeInt(dates.size());
+			for (Map.Entry<Integer, String> date : dates.entrySet()) {
+				out.writeInt(date.getKey());
+				out.writeUTF(date.getValue());
+			}
+
+			out.close();
+			out = null;
+
+			try (RandomAccessFile file = new RandomAccessFile(archive, "rw")) {
+				file.seek(DICTIONARY_OFFSET_POSITION);
+				file.writeLong(size);
+			}
+			LogHandler.out_println("Finished writing the record cache file " + archive.getPath() + ".", true);
+		}
+
+		/**
+		 * Stops writing the archive, and deletes it.
+		 */
+		private void abort() {
+			try {
+				if (out != null) {
+					out.close();
+				}
+			} catch (IOException e) {
+				LogHandler.print_exception(e, "close record cache", "Archive File: %s", archive);
+			}
+
+			out = null;
+			if (!archive.delete() && archive.exists()) {
+				LogHandler.err_println("Deleting the unfinished record cache file " + archive.getPath() + " failed.");
+			}
+		}
+
+		/**
+		 * Closes the source the records are read from.<br/>
+		 * Deletes the archive if not all records were written to it.
+		 */
+		@Override
+		public void close() {
+			source.close();
+			if (out != null) {
+				abort();
+			}
+		}
+
+		/**
+		 * Converts the given signed value to an unsigned value, keeping small
+		 * negative values small.
+		 * 
+		 * @param value The value to convert.
+		 * @return The converted value.
+		 */
+		private static long zigzag(long value) {
+			return (value << 1) ^ (value >> 63);
+		}
+
+	}
+
+	/**
+	 * An {@link IAntennaRecordSource} reading the records from an archive.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static final class Reader implements IAntennaRecordSource {
+
+		/**
+		 * The archive file to read.
+		 */
+		private final File archive;
+
+		/**
+		 * Whether the archive is finished, and was created from the current version
+		 * of the input file.
+		 */
+		private final boolean valid;
+
+		/**
+		 * The stream reading the records of the archive.
+		 */
+		private final DataInputStream in;
+
+		/**
+		 * The offset of the dictionary in the archive.<br/>
+		 * The records end at this offset.
+		 */
+		private long dictionaryOffset;
+
+		/**
+		 * The number of bytes read from the archive.
+		 */
+		private long position = HEADER_SIZE;
+
+		/**
+		 * The timestamp of the last record read.
+		 */
+		private long lastTime = 0;
+
+		/**
+		 * The handles of the transponder ids of the dictionary in the shared
+		 * symbol table.
+		 */
+		private int[] transponderMap;
+
+		/**
+		 * The handles of the antenna ids of the dictionary in the shared symbol
+		 * table.
+		 */
+		private int[] antennaMap;
+
+		/**
+		 * The dates of the records, by their day index.
+		 */
+		private final Map<Integer, String> dates = new HashMap<Integer, String>();
+
+		/**
+		 * The shared symbol table to resolve the transponder ids with.
+		 */
+		private final SymbolTable transponders;
+
+		/**
+		 * The shared symbol table to resolve the antenna ids with.
+		 */
+		private final SymbolTable antennas;
+
+		/**
+		 * Opens the given archive, and reads its header.<br/>
+		 * If the archive is valid, the dictionary is read as well.
+		 * 
+		 * @param archive      The archive file to read.
+		 * @param input        The antenna data file the archive was created from.
+		 * @param transponders The symbol table to resolve the transponder ids with.
+		 * @param antennas     The symbol table to resolve the antenna ids with.
+		 * @throws IOException If reading the archive fails.
+		 */
+		private Reader(File archive, File input, SymbolTable transponders, SymbolTable antennas)
+				throws IOException {
+			this.archive = archive;
+			this.transponders = Objects.requireNonNull(transponders, "The transponder symbol table can't be null.");
+			this.antennas = Objects.requireNonNull(antennas, "The antenna symbol table can't be null.");
+
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(archive), STREAM_BUFFER_SIZE));
+			try {
+				valid = readHeader(input);
+				if (valid) {
+					readDictionary();
+				}
+			} catch (IOException e) {
+				in.close();
+				throw e;
+			}
+		}
+
+		/**
+		 * Reads the archive header, and checks whether it matches the input file.
+		 * 
+		 * @param input The antenna data file the archive was created from.
+		 * @return {@code true} if the archive is finished, and matches the input
+		 *         file.
+		 * @throws IOException If reading the archive or the input file fails.
+		 */
+		private boolean readHeader(File input) throws IOException {
+			if (archive.length() < HEADER_SIZE || in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return false;
+			}
+
+			long length = in.readLong();
+			long modified = in.readLong();
+			long hash = in.readLong();
+			dictionaryOffset = in.readLong();
+			return dictionaryOffset >= HEADER_SIZE && dictionaryOffset <= archive.length()
+					&& length == input.length() && modified == input.lastModified() && hash == hash(input);
+		}
+
+		/**
+		 * Reads the dictionary at the end of the archive, and maps its ids to the
+		 * shared symbol tables.
+		 * 
+		 * @throws IOException If reading the archive fails.
+		 */
+		private void readDictionary() throws IOException {
+			try (DataInputStream din = new DataInputStream(
+					new BufferedInputStream(new FileInputStream(archive), STREAM_BUFFER_SIZE))) {
+				long skip = dictionaryOffset;
+				while (skip > 0) {
+					long skipped = din.skip(skip);
+					if (skipped <= 0) {
+						throw new EOFException("The record cache file ended before its dictionary.");
+					}
+					skip -= skipped;
+				}
+
+				transponderMap = new int[din.readInt()];
+				for (int i = 0; i < transponderMap.length; i++) {
+					transponderMap[i] = transponders.intern(din.readUTF());
+				}
+
+				antennaMap = new int[din.readInt()];
+				for (int i = 0; i < antennaMap.length; i++) {
+					antennaMap[i] = antennas.intern(din.readUTF());
+				}
+
+				int days = din.readInt();
+				for (int i = 0; i < days; i++) {
+					int day = din.readInt();
+					dates.put(day, din.readUTF());
+				}
+			}
+		}
+
+		@Override
+		public boolean done() {
+			return position >= dictionaryOffset;
+		}
+
+		@Override
+		public AntennaRecord next() throws RuntimeException {
+			try {
+				long delta = readVarLong();
+				int transponder = (int) readVarLong();
+				int antenna = (int) readVarLong();
+
+				long time = lastTime + ((delta >>> 1) ^ -(delta & 1));
+				lastTime = time;
+				int tod = TimeUtils.getMsOfDay(time);
+				int day = TimeUtils.getDay(time);
+				int transponderId = transponderMap[transponder];
+				int antennaId = antennaMap[antenna];
+				return new AntennaRecord(transponders.getSymbol(transponderId), transponderId, dates.get(day), tod,
+						time, antennas.getSymbol(antennaId), antennaId);
+			} catch (IOException | IndexOutOfBoundsException e) {
+				throw new RuntimeException("Reading a record from the record cache file " + archive.getPath()
+						+ " failed.", e);
+			}
+		}
+
+		/**
+		 * Reads a variable length integer from the records of the archive, and
+		 * updates the {@link #position}.
+		 * 
+		 * @return The value that was read.
+		 * @throws IOException If reading fails, or the value is invalid.
+		 */
+		private long readVarLong() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = in.readUnsignedByte();
+				position++;
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Invalid variable length integer in record cache file.");
+		}
+
+		@Override
+		public void close() {
+			try {
+				in.close();
+			} catch (IOException e) {
+				LogHandler.err_println("Closing the record cache file " + archive.getPath() + " failed.", true);
+				LogHandler.print_exception(e, "close record cache", "Archive File: %s", archive);
+			}
+		}
+
+	}
+
+}
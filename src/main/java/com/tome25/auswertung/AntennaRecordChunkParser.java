@@ -0,0 +1,534 @@
+package com.tome25.auswertung;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.stream.ByteArrayInputStreamHandler;
+import com.tome25.auswertung.utils.SymbolTable;
+
+/**
+ * An {@link IAntennaRecordSource} parsing a single antenna data file on
+ * multiple threads.<br/>
+ * The file is split into chunks of roughly equal size, that end at line
+ * separators.<br/>
+ * Each chunk is read and parsed into a compact batch of records by a thread
+ * pool, and the batches are returned in file order.<br/>
+ * The header line is read once, before parsing the rest of the file, and its
+ * column order is shared by all chunks.<br/>
+ * Each chunk resolves its ids using its own symbol tables, which are mapped to
+ * the shared ones on the thread using this parser.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class AntennaRecordChunkParser implements IAntennaRecordSource {
+
+	/**
+	 * The default size of a chunk, in bytes.
+	 */
+	static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+	/**
+	 * The smallest chunk size used by {@link #getChunkSize}, in bytes.
+	 */
+	static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * The number of chunks per thread {@link #getChunkSize} tries to split a file
+	 * into.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/**
+	 * The number of bytes read at once while searching for the end of a chunk.
+	 */
+	private static final int SCAN_SIZE = 4096;
+
+	/**
+	 * The file to read the records from.
+	 */
+	private final File inputFile;
+
+	/**
+	 * The {@link FileInputStream} the {@link #channel} belongs to.
+	 */
+	private final FileInputStream stream;
+
+	/**
+	 * The channel used to read the chunks.<br/>
+	 * Only used for positional reads, which can be done by multiple threads at
+	 * once.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The size of the file when this parser was created.
+	 */
+	private final long size;
+
+	/**
+	 * The minimum size of a chunk, in bytes.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * The order of the tokens in the input file, as defined by its header
+	 * line.<br/>
+	 * Each chunk uses a copy of this.
+	 */
+	private final short[] tokenOrder = new short[] { 0, 1, 2, 3 };
+
+	/**
+	 * The thread pool parsing the chunks.
+	 */
+	private final ExecutorService parsers;
+
+	/**
+	 * The maximum number of chunks read or parsed at once.
+	 */
+	private final int maxPending;
+
+	/**
+	 * The chunks that are being parsed, in file order.
+	 */
+	private final Queue<Future<Chunk>> pending = new ArrayDeque<Future<Chunk>>();
+
+	/**
+	 * The symbol table to resolve the transponder ids with.
+	 */
+	private final SymbolTable transponders;
+
+	/**
+	 * The symbol table to resolve the antenna ids with.
+	 */
+	private final SymbolTable antennas;
+
+	/**
+	 * The offset of the first byte of the next chunk to submit.
+	 */
+	private long position = 0;
+
+	/**
+	 * The chunk records are currently returned from.<br/>
+	 * {@code null} if no chunk was parsed yet.
+	 */
+	private Chunk current;
+
+	/**
+	 * The index of the next record in {@link #current}.
+	 */
+	private int index = 0;
+
+	/**
+	 * The handles in {@link #transponders} of the transponder ids of
+	 * {@link #current}, indexed by their handles in its own table.
+	 */
+	private int[] transponderMap;
+
+	/**
+	 * The handles in {@link #antennas} of the antenna ids of {@link #current},
+	 * indexed by their handles in its own table.
+	 */
+	private int[] antennaMap;
+
+	/**
+	 * Creates a new parser reading the given file using the given number of
+	 * threads.<br/>
+	 * Reads the header line of the file, if it has one, and starts parsing the
+	 * first chunks.
+	 * 
+	 * @param input        The file to read the antenna records from.
+	 * @param threads      The number of threads to parse the chunks with.
+	 * @param chunkSize    The minimum size of a chunk, in bytes.
+	 * @param transponders The symbol table to resolve the transponder ids with.
+	 * @param antennas     The symbol table to resolve the antenna ids with.
+	 * @throws IOException              If opening the file or reading its header
+	 *                                  line fails.
+	 * @throws NullPointerException     If one of the arguments is {@code null}.
+	 * @throws IllegalArgumentException If {@code threads} or {@code chunkSize} is
+	 *                                  less than 1.
+	 */
+	AntennaRecordChunkParser(File input, int threads, int chunkSize, SymbolTable transponders, SymbolTable antennas)
+			throws IOException, NullPointerException, IllegalArgumentException {
+		inputFile = Objects.requireNonNull(input, "The file to read can't be null.");
+		this.transponders = Objects.requireNonNull(transponders, "The transponder symbol table can't be null.");
+		this.antennas = Objects.requireNonNull(antennas, "The antenna symbol table can't be null.");
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of parser threads has to be at least 1.");
+		}
+
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("The chunk size has to be at least 1.");
+		}
+
+		this.chunkSize = chunkSize;
+		maxPending = threads * 2;
+		stream = new FileInputStream(input);
+		channel = stream.getChannel();
+		try {
+			size = channel.size();
+			readHeader();
+		} catch (IOException e) {
+			stream.close();
+			throw e;
+		}
+
+		parsers = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private int count = 0;
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "PutenAuswertung-Parser-" + ++count);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		try {
+			submit();
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Calculates the chunk size to use for a file of the given size.<br/>
+	 * Splits smaller files into multiple chunks per thread, so that all threads
+	 * are used, while never making chunks bigger than
+	 * {@link #DEFAULT_CHUNK_SIZE}.
+	 * 
+	 * @param fileSize The size of the file to parse, in bytes.
+	 * @param threads  The number of threads to parse the file with.
+	 * @return The chunk size to use, in bytes.
+	 */
+	static int getChunkSize(long fileSize, int threads) {
+		return (int) Math.max(MIN_CHUNK_SIZE,
+				Math.min(DEFAULT_CHUNK_SIZE, fileSize / Math.max(1, threads * CHUNKS_PER_THREAD)));
+	}
+
+	/**
+	 * Reads the first line of the file, and updates the {@link #tokenOrder} if it
+	 * is a header line.<br/>
+	 * If it is, the first chunk starts after it.
+	 * 
+	 * @throws IOException If reading the file fails.
+	 */
+	private void readHeader() throws IOException {
+		long end = findLineEnd(0);
+		if (end > SCAN_SIZE) {
+			// A line this long can't be a valid header line.
+			return;
+		}
+
+		if (CSVHandler.readAntennaHeader(new ByteArrayInputStreamHandler(read(0, (int) end)).readline(), tokenOrder)) {
+			position = end;
+		}
+	}
+
+	/**
+	 * Submits chunks to the thread pool until {@link #maxPending} chunks are
+	 * pending, or the end of the file was reached.
+	 * 
+	 * @throws IOException If reading the file to find the end of a chunk fails.
+	 */
+	private void submit() throws IOException {
+		while (pending.size() < maxPending && position < size) {
+			final long start = position;
+			final long end = findLineEnd(Math.min(size, start + chunkSize - 1));
+			if (end - start > Integer.MAX_VALUE) {
+				throw new IOException("The line at offset " + start + " is too long to be parsed.");
+			}
+
+			position = end;
+			final short[] order = tokenOrder.clone();
+			pending.add(parsers.submit(new Callable<Chunk>() {
+				@Override
+				public Chunk call() throws IOException {
+					return parse(read(start, (int) (end - start)), order);
+				}
+			}));
+		}
+	}
+
+	/**
+	 * Finds the end of the line containing the byte at the given offset.
+	 * 
+	 * @param offset The offset of the byte to find the end of the line of.
+	 * @return The offset after the next line separator, or the size of the file
+	 *         if there is none.
+	 * @throws IOException If reading the file fails.
+	 */
+	private long findLineEnd(long offset) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+		while (offset < size) {
+			buffer.clear();
+			int read = channel.read(buffer, offset);
+			if (read < 0) {
+				break;
+			}
+
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return offset + i + 1;
+				}
+			}
+			offset += read;
+		}
+
+		return size;
+	}
+
+	/**
+	 * Reads a part of the input file.<br/>
+	 * May be called by multiple threads at once.
+	 * 
+	 * @param start  The offset of the first byte to read.
+	 * @param length The number of bytes to read.
+	 * @return The bytes read from the file.
+	 * @throws IOException If reading the file fails, or it got shorter.
+	 */
+	private byte[] read(long start, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, start + buffer.position());
+			if (read < 0) {
+				throw new IOException("The input file ended at offset " + (start + buffer.position())
+						+ " while reading a chunk.");
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Parses all records in the given chunk.<br/>
+	 * Run by the parser threads.
+	 * 
+	 * @param bytes      The content of the chunk.
+	 * @param tokenOrder The order of the tokens in the chunk.<br/>
+	 *                   Only used by this chunk.
+	 * @return The parsed records.
+	 */
+	private static Chunk parse(byte[] bytes, short[] tokenOrder) {
+		ByteArrayInputStreamHandler input = new ByteArrayInputStreamHandler(bytes);
+		Chunk chunk = new Chunk(Math.max(16, bytes.length / 32));
+		while (!input.done()) {
+			AntennaRecord record = CSVHandler.readAntennaRecord(input, tokenOrder, chunk.transponders, chunk.antennas);
+			if (record != null) {
+				chunk.add(record);
+			} else if (!input.done()) {
+				LogHandler.err_println("Reading an antenna record from the input file failed.", true);
+			}
+		}
+		return chunk;
+	}
+
+	/**
+	 * {@inheritDoc}<br/>
+	 * Blocks until the next chunk was parsed.
+	 * 
+	 * @throws RuntimeException If reading or parsing a chunk failed.
+	 */
+	@Override
+	public boolean done() throws RuntimeException {
+		while (current == null || index >= current.size) {
+			if (pending.isEmpty()) {
+				return true;
+			}
+
+			try {
+				current = pending.poll().get();
+				submit();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while waiting for a chunk to be parsed.", e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("Parsing a chunk of the antenna data file failed.", e.getCause());
+			} catch (IOException e) {
+				throw new RuntimeException("Reading the antenna data file failed.", e);
+			}
+
+			index = 0;
+			transponderMap = map(current.transponders, transponders);
+			antennaMap = map(current.antennas, antennas);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Interns all symbols of the given chunk symbol table in the given shared
+	 * symbol table.
+	 * 
+	 * @param local  The symbol table of a chunk.
+	 * @param shared The shared symbol table.
+	 * @return The handles in {@code shared}, indexed by the handles in
+	 *         {@code local}.
+	 */
+	private static int[] map(SymbolTable local, SymbolTable shared) {
+		int[] handles = new int[local.size()];
+		for (int i = 0; i < handles.length; i++) {
+			handles[i] = shared.intern(local.getSymbol(i));
+		}
+		return handles;
+	}
+
+	@Override
+	public AntennaRecord next() {
+		int transponder = transponderMap[current.transponderIds[index]];
+		int antenna = antennaMap[current.antennaIds[index]];
+		AntennaRecord record = new AntennaRecord(transponders.getSymbol(transponder), transponder,
+				current.dateTable.get(current.dates[index]), current.tods[index], current.times[index],
+				antennas.getSymbol(antenna), antenna);
+		index++;
+		return record;
+	}
+
+	/**
+	 * Stops the parser threads, and closes the input file.
+	 */
+	@Override
+	public void close() {
+		parsers.shutdownNow();
+		pending.clear();
+		try {
+			parsers.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		try {
+			stream.close();
+		} catch (IOException e) {
+			LogHandler.err_println("Closing the antenna data file failed.", true);
+			LogHandler.print_exception(e, "close input file", "Input File: %s", inputFile);
+		}
+	}
+
+	/**
+	 * A compact batch of the records parsed from a single chunk.<br/>
+	 * Stores the records in arrays, instead of one object per record.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static final class Chunk {
+
+		/**
+		 * The transponder ids of this chunk.
+		 */
+		private final SymbolTable transponders = new SymbolTable();
+
+		/**
+		 * The antenna ids of this chunk.
+		 */
+		private final SymbolTable antennas = new SymbolTable();
+
+		/**
+		 * The dates of this chunk, by their index in {@link #dateTable}.
+		 */
+		private final Map<String, Integer> dateIndices = new HashMap<String, Integer>();
+
+		/**
+		 * The dates of this chunk.
+		 */
+		private final List<String> dateTable = new ArrayList<String>();
+
+		/**
+		 * The handles of the transponder ids of the records in
+		 * {@link #transponders}.
+		 */
+		private int[] transponderIds;
+
+		/**
+		 * The handles of the antenna ids of the records in {@link #antennas}.
+		 */
+		private int[] antennaIds;
+
+		/**
+		 * The indices of the dates of the records in {@link #dateTable}.
+		 */
+		private int[] dates;
+
+		/**
+		 * The times of day of the records.
+		 */
+		private int[] tods;
+
+		/**
+		 * The timestamps of the records.
+		 */
+		private long[] times;
+
+		/**
+		 * The number of records in this chunk.
+		 */
+		private int size = 0;
+
+		/**
+		 * Creates a new empty chunk.
+		 * 
+		 * @param capacity The initial number of records this chunk can hold.
+		 */
+		private Chunk(int capacity) {
+			transponderIds = new int[capacity];
+			antennaIds = new int[capacity];
+			dates = new int[capacity];
+			tods = new int[capacity];
+			times = new long[capacity];
+		}
+
+		/**
+		 * Adds the given record to this chunk.
+		 * 
+		 * @param record The record to add.<br/>
+		 *               Its ids have to be resolved using the symbol tables of
+		 *               this chunk.
+		 */
+		private void add(AntennaRecord record) {
+			if (size == times.length) {
+				int capacity = size * 2;
+				transponderIds = Arrays.copyOf(transponderIds, capacity);
+				antennaIds = Arrays.copyOf(antennaIds, capacity);
+				dates = Arrays.copyOf(dates, capacity);
+				tods = Arrays.copyOf(tods, capacity);
+				times = Arrays.copyOf(times, capacity);
+			}
+
+			Integer date = dateIndices.get(record.date);
+			if (date == null) {
+				date = dateTable.size();
+				dateIndices.put(record.date, date);
+				dateTable.add(record.date);
+			}
+
+			transponderIds[size] = record.transponderId;
+			antennaIds[size] = record.antennaId;
+			dates[size] = date;
+			tods[size] = record.tod;
+			times[size] = record.time;
+			size++;
+		}
+
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.tome25.auswertung;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.stream.IInputStreamHandler;
+import com.tome25.auswertung.stream.PipelinedInputStreamHandler;
+import com.tome25.auswertung.utils.SymbolTable;
+
+/**
+ * An {@link IAntennaRecordSource} merging the records of multiple antenna data
+ * inputs by their timestamp.<br/>
+ * Each input has to be sorted by itself, for example because it contains the
+ * records of a single day or a single reader.<br/>
+ * Only the next record of each input is kept in memory, in a heap ordered by
+ * timestamp.<br/>
+ * Records with the same timestamp are returned in the order of their inputs.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class AntennaRecordMerger implements IAntennaRecordSource {
+
+	/**
+	 * The maximum number of line batches each reader thread reads ahead.
+	 */
+	private static final int QUEUE_CAPACITY = 16;
+
+	/**
+	 * The number of lines per batch passed from the reader threads.
+	 */
+	private static final int BATCH_SIZE = 1024;
+
+	/**
+	 * The order the heads are sorted in.<br/>
+	 * By timestamp first, and input index second.
+	 */
+	private static final Comparator<Head> HEAD_ORDER = new Comparator<Head>() {
+		@Override
+		public int compare(Head h1, Head h2) {
+			int result = Long.compare(h1.record.time, h2.record.time);
+			return result != 0 ? result : Integer.compare(h1.input, h2.input);
+		}
+	};
+
+	/**
+	 * The stream handlers to read the records from.
+	 */
+	private final List<IInputStreamHandler> inputs;
+
+	/**
+	 * The reader threads created by this merger, to be closed with it.
+	 */
+	private final List<PipelinedInputStreamHandler> readers;
+
+	/**
+	 * The order of the tokens in each input.<br/>
+	 * Each input can have its own header line.
+	 */
+	private final short[][] tokenOrders;
+
+	/**
+	 * The next record of each input that has more records.
+	 */
+	private final PriorityQueue<Head> heads;
+
+	/**
+	 * The symbol table to resolve the transponder ids with.
+	 */
+	private final SymbolTable transponders;
+
+	/**
+	 * The symbol table to resolve the antenna ids with.
+	 */
+	private final SymbolTable antennas;
+
+	/**
+	 * Whether the first record of each input was read already.
+	 */
+	private boolean started = false;
+
+	/**
+	 * Creates a new merger reading from the given inputs.<br/>
+	 * The first record of each input is read when {@link #done()} is called for
+	 * the first time.
+	 * 
+	 * @param inputs       The stream handlers to read the records from.
+	 * @param transponders The symbol table to resolve the transponder ids with.
+	 * @param antennas     The symbol table to resolve the antenna ids with.
+	 * @param readAhead    Whether each input should be read on its own reader
+	 *                     thread.<br/>
+	 *                     The records are still parsed and merged on the thread
+	 *                     using this merger.
+	 * @throws NullPointerException     If one of the arguments is {@code null}.
+	 * @throws IllegalArgumentException If {@code inputs} is empty.
+	 */
+	AntennaRecordMerger(List<? extends IInputStreamHandler> inputs, SymbolTable transponders, SymbolTable antennas,
+			boolean readAhead) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(inputs, "The input stream handlers to read from can't be null.");
+		this.transponders = Objects.requireNonNull(transponders, "The transponder symbol table can't be null.");
+		this.antennas = Objects.requireNonNull(antennas, "The antenna symbol table can't be null.");
+
+		if (inputs.isEmpty()) {
+			throw new IllegalArgumentException("The merger needs at least one input to read from.");
+		}
+
+		this.inputs = new ArrayList<IInputStreamHandler>(inputs.size());
+		readers = new ArrayList<PipelinedInputStreamHandler>();
+		for (IInputStreamHandler input : inputs) {
+			Objects.requireNonNull(input, "The input stream handlers to read from can't be null.");
+			if (readAhead) {
+				PipelinedInputStreamHandler reader = new PipelinedInputStreamHandler(input, QUEUE_CAPACITY,
+						BATCH_SIZE);
+				readers.add(reader);
+				this.inputs.add(reader);
+			} else {
+				this.inputs.add(input);
+			}
+		}
+
+		tokenOrders = new short[inputs.size()][];
+		for (int i = 0; i < tokenOrders.length; i++) {
+			tokenOrders[i] = new short[] { 0, 1, 2, 3 };
+		}
+		heads = new PriorityQueue<Head>(inputs.size(), HEAD_ORDER);
+	}
+
+	@Override
+	public boolean done() {
+		if (!started) {
+			started = true;
+			for (int i = 0; i < inputs.size(); i++) {
+				Head head = new Head(i);
+				if (advance(head)) {
+					heads.add(head);
+				}
+			}
+		}
+
+		return heads.isEmpty();
+	}
+
+	@Override
+	public AntennaRecord next() {
+		Head head = heads.poll();
+		AntennaRecord record = head.record;
+		if (advance(head)) {
+			heads.add(head);
+		}
+		return record;
+	}
+
+	/**
+	 * Reads the next record of the input of the given head into it.
+	 * 
+	 * @param head The head to read the next record for.
+	 * @return {@code false} if the input of the head has no more records.
+	 */
+	private boolean advance(Head head) {
+		IInputStreamHandler input = inputs.get(head.input);
+		head.record = null;
+		while (head.record == null && !input.done()) {
+			head.record = CSVHandler.readAntennaRecord(input, tokenOrders[head.input], transponders, antennas);
+			if (head.record == null && !input.done()) {
+				LogHandler.err_println("Reading an antenna record from an input file failed.", true);
+				LogHandler.print_debug_info("Antenna Input Stream Handler: %s", input);
+			}
+		}
+
+		if (head.record == null) {
+			LogHandler.out_println("Finished reading antenna input " + (head.input + 1) + "/" + inputs.size() + ".",
+					true);
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public void close() {
+		for (PipelinedInputStreamHandler reader : readers) {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				LogHandler.err_println("Stopping an antenna data reader thread failed.", true);
+				LogHandler.print_exception(e, "stop reader thread", "Input Stream Handler: %s", reader);
+			}
+		}
+	}
+
+	/**
+	 * The next record of a single input.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static final class Head {
+
+		/**
+		 * The index of the input this head belongs to.
+		 */
+		private final int input;
+
+		/**
+		 * The next record of the input.
+		 */
+		private AntennaRecord record;
+
+		/**
+		 * Creates a new empty head.
+		 * 
+		 * @param input The index of the input the head belongs to.
+		 */
+		private Head(int input) {
+			this.input = input;
+		}
+
+	}
+
+}
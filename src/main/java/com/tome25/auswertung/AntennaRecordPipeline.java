@@ -0,0 +1,199 @@
+package com.tome25.auswertung;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.stream.IInputStreamHandler;
+import com.tome25.auswertung.stream.PipelinedInputStreamHandler;
+import com.tome25.auswertung.utils.BatchQueue;
+import com.tome25.auswertung.utils.SymbolTable;
+
+/**
+ * A pipeline reading and parsing {@link AntennaRecord AntennaRecords} on
+ * separate threads.<br/>
+ * The first stage reads the raw lines from the input, the second one parses
+ * them using {@link CSVHandler#readAntennaRecord}.<br/>
+ * The third stage is the thread reading the records from this pipeline.<br/>
+ * The stages are connected by bounded {@link BatchQueue BatchQueues}, whose
+ * depths are reported in debug mode.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class AntennaRecordPipeline implements IAntennaRecordSource {
+
+	/**
+	 * The maximum number of batches waiting in each queue.
+	 */
+	private static final int QUEUE_CAPACITY = 64;
+
+	/**
+	 * The number of lines or records per batch.
+	 */
+	private static final int BATCH_SIZE = 1024;
+
+	/**
+	 * The number of record batches between two queue depth reports.
+	 */
+	private static final int REPORT_INTERVAL = 1024;
+
+	/**
+	 * The stream handler reading the input lines on the reader thread.
+	 */
+	private final PipelinedInputStreamHandler lines;
+
+	/**
+	 * The queue passing the parsed records from the parser thread.
+	 */
+	private final BatchQueue<AntennaRecord> records = new BatchQueue<AntennaRecord>(QUEUE_CAPACITY, BATCH_SIZE);
+
+	/**
+	 * The thread parsing the input lines.
+	 */
+	private final Thread parser;
+
+	/**
+	 * The order of the tokens in the input file.<br/>
+	 * Only used by the parser thread.
+	 */
+	private final short[] tokenOrder = new short[] { 0, 1, 2, 3 };
+
+	/**
+	 * The symbol table to resolve the transponder ids with.<br/>
+	 * Only used by the parser thread once the pipeline was started.
+	 */
+	private final SymbolTable transponders;
+
+	/**
+	 * The symbol table to resolve the antenna ids with.<br/>
+	 * Only used by the parser thread once the pipeline was started.
+	 */
+	private final SymbolTable antennas;
+
+	/**
+	 * The number of record batches at the time of the last queue depth report.
+	 */
+	private long lastReport = 0;
+
+	/**
+	 * Creates a new pipeline, and starts reading and parsing the given input.
+	 * 
+	 * @param input        The stream handler to read the antenna records from.
+	 * @param transponders The symbol table to resolve the transponder ids
+	 *                     with.<br/>
+	 *                     Must not be used by any other thread until the
+	 *                     pipeline was closed.
+	 * @param antennas     The symbol table to resolve the antenna ids with.<br/>
+	 *                     Must not be used by any other thread until the
+	 *                     pipeline was closed.
+	 * @throws NullPointerException If one of the arguments is {@code null}.
+	 */
+	AntennaRecordPipeline(IInputStreamHandler input, SymbolTable transponders, SymbolTable antennas)
+			throws NullPointerException {
+		Objects.requireNonNull(input, "The input stream handler to read from can't be null.");
+		this.transponders = Objects.requireNonNull(transponders, "The transponder symbol table can't be null.");
+		this.antennas = Objects.requireNonNull(antennas, "The antenna symbol table can't be null.");
+
+		lines = new PipelinedInputStreamHandler(input, QUEUE_CAPACITY, BATCH_SIZE);
+		parser = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				parseRecords();
+			}
+		}, "PutenAuswertung-Parser");
+		parser.setDaemon(true);
+		parser.start();
+	}
+
+	/**
+	 * Parses all records from {@link #lines}, and adds them to
+	 * {@link #records}.<br/>
+	 * Failed records are added as {@code null}, like
+	 * {@link CSVHandler#readAntennaRecord} returns them.<br/>
+	 * Run by the parser thread.
+	 */
+	private void parseRecords() {
+		RuntimeException error = null;
+		try {
+			while (!lines.done()) {
+				if (!records.put(CSVHandler.readAntennaRecord(lines, tokenOrder, transponders, antennas))) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			return;
+		} catch (RuntimeException e) {
+			error = e;
+		}
+
+		try {
+			records.finish(error);
+		} catch (InterruptedException e) {
+		}
+	}
+
+	/**
+	 * Checks whether all records were read.<br/>
+	 * Blocks until the next batch of records was parsed, or the input ended.
+	 * 
+	 * @return {@code true} if there are no more records.
+	 * @throws RuntimeException If parsing the records failed with an unexpected
+	 *                          exception.
+	 */
+	@Override
+	public boolean done() throws RuntimeException {
+		boolean done;
+		try {
+			done = !records.hasNext();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return true;
+		}
+
+		if (done && records.getError() != null) {
+			throw (RuntimeException) records.getError();
+		}
+
+		if (LogHandler.isDebug() && records.getBatches() - lastReport >= REPORT_INTERVAL) {
+			lastReport = records.getBatches();
+			LogHandler.out_println(String.format("Pipeline queue depths: lines %d/%d, records %d/%d.",
+					lines.getQueue().getDepth(), QUEUE_CAPACITY, records.getDepth(), QUEUE_CAPACITY), true);
+		}
+
+		return done;
+	}
+
+	/**
+	 * Gets the next record.<br/>
+	 * Must only be called after {@link #done()} returned {@code false}.
+	 * 
+	 * @return The next record. {@code null} if parsing a record failed.
+	 */
+	@Override
+	public AntennaRecord next() {
+		return records.next();
+	}
+
+	/**
+	 * Stops the reader and parser threads, and waits for them to finish.<br/>
+	 * Reports the maximum queue depths in debug mode.<br/>
+	 * Does NOT close the input stream handler.
+	 */
+	@Override
+	public void close() {
+		records.close();
+		try {
+			parser.join();
+			lines.close();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			LogHandler.err_println("Stopping the antenna data reader thread failed.", true);
+			LogHandler.print_exception(e, "stop reader thread", "Input Stream Handler: %s", lines);
+		}
+
+		LogHandler.out_println(String.format("Max pipeline queue depths: lines %d/%d, records %d/%d.",
+				lines.getQueue().getMaxDepth(), QUEUE_CAPACITY, records.getMaxDepth(), QUEUE_CAPACITY), true);
+	}
+
+}
@@ -0,0 +1,504 @@
+package com.tome25.auswertung;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.utils.SymbolTable;
+
+/**
+ * An {@link IAntennaRecordSource} sorting the records of another source by
+ * their timestamp.<br/>
+ * Up to a configurable number of records are kept in memory, in a heap ordered
+ * by timestamp.<br/>
+ * <br/>
+ * By default the buffer is used as a sliding window.<br/>
+ * Once it is full, its earliest record is returned before the next record is
+ * read.<br/>
+ * Records that arrive after a later record was already returned can't be
+ * sorted anymore, and are reported and skipped.<br/>
+ * <br/>
+ * For badly ordered input, an external sort can be used instead.<br/>
+ * Then all records are read first.<br/>
+ * If all records fit into the buffer, they are simply sorted in memory.<br/>
+ * Otherwise the buffer is used for replacement selection, writing sorted runs
+ * to temporary files.<br/>
+ * For nearly sorted input, where no record is more than the buffer size
+ * records too late, this produces a single run.<br/>
+ * For badly out of order input, the runs are merged using a heap holding the
+ * next record of each run.<br/>
+ * Records with the same timestamp keep the order they were read in.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class AntennaRecordSorter implements IAntennaRecordSource {
+
+	/**
+	 * The size of the buffers used to read and write the temporary files.
+	 */
+	private static final int STREAM_BUFFER_SIZE = 65536;
+
+	/**
+	 * The order of the records in the sort buffer.<br/>
+	 * By run first, timestamp second, and read order third.
+	 */
+	private static final Comparator<Entry> BUFFER_ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry e1, Entry e2) {
+			int result = Integer.compare(e1.run, e2.run);
+			return result != 0 ? result : ENTRY_ORDER.compare(e1, e2);
+		}
+	};
+
+	/**
+	 * The order of the records in a single run.<br/>
+	 * By timestamp first, and read order second.
+	 */
+	private static final Comparator<Entry> ENTRY_ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry e1, Entry e2) {
+			int result = Long.compare(e1.record.time, e2.record.time);
+			return result != 0 ? result : Long.compare(e1.index, e2.index);
+		}
+	};
+
+	/**
+	 * The order of the run readers while merging the runs.<br/>
+	 * Ordered by their next record.
+	 */
+	private static final Comparator<RunReader> READER_ORDER = new Comparator<RunReader>() {
+		@Override
+		public int compare(RunReader r1, RunReader r2) {
+			return ENTRY_ORDER.compare(r1.next, r2.next);
+		}
+	};
+
+	/**
+	 * The source to read the unsorted records from.
+	 */
+	private final IAntennaRecordSource input;
+
+	/**
+	 * The symbol table to resolve the transponder ids of records read from the
+	 * temporary files with.
+	 */
+	private final SymbolTable transponders;
+
+	/**
+	 * The symbol table to resolve the antenna ids of records read from the
+	 * temporary files with.
+	 */
+	private final SymbolTable antennas;
+
+	/**
+	 * The maximum number of records to keep in memory.
+	 */
+	private final int bufferSize;
+
+	/**
+	 * Whether all records are read, and sorted using temporary files if
+	 * necessary, before the first one is returned.<br/>
+	 * Otherwise the sort buffer is used as a sliding window.
+	 */
+	private final boolean external;
+
+	/**
+	 * The sort buffer.<br/>
+	 * Contains all records if they fit into memory.
+	 */
+	private final PriorityQueue<Entry> buffer;
+
+	/**
+	 * The temporary files containing the sorted runs.
+	 */
+	private final List<File> runFiles = new ArrayList<File>();
+
+	/**
+	 * The readers for the runs that still have records.<br/>
+	 * {@code null} if the records fit into memory.
+	 */
+	private PriorityQueue<RunReader> readers;
+
+	/**
+	 * The number of records read from the input so far.
+	 */
+	private long index = 0;
+
+	/**
+	 * Whether the records were read from the input already.
+	 */
+	private boolean sorted = false;
+
+	/**
+	 * The last record returned in the sliding window mode.<br/>
+	 * {@code null} if no record was returned yet.
+	 */
+	private AntennaRecord lastRecord;
+
+	/**
+	 * The number of records skipped in the sliding window mode, because they
+	 * arrived after a later record was returned.
+	 */
+	private long lateRecords = 0;
+
+	/**
+	 * Creates a new sorter reading from the given source.<br/>
+	 * For an external sort, the records are read and sorted when {@link #done()}
+	 * is called for the first time.
+	 * 
+	 * @param input        The source to read the unsorted records from.
+	 * @param transponders The symbol table to resolve the transponder ids with.
+	 * @param antennas     The symbol table to resolve the antenna ids with.
+	 * @param bufferSize   The maximum number of records to keep in memory.
+	 * @param external     Whether to read all records before returning the first
+	 *                     one, writing sorted runs to temporary files if they
+	 *                     don't fit into the buffer.<br/>
+	 *                     Otherwise the buffer is used as a sliding window.
+	 * @throws NullPointerException     If one of the arguments is {@code null}.
+	 * @throws IllegalArgumentException If {@code bufferSize} is less than 1.
+	 */
+	AntennaRecordSorter(IAntennaRecordSource input, SymbolTable transponders, SymbolTable antennas, int bufferSize,
+			boolean external) throws NullPointerException, IllegalArgumentException {
+		this.input = Objects.requireNonNull(input, "The source to read the records from can't be null.");
+		this.transponders = Objects.requireNonNull(transponders, "The transponder symbol table can't be null.");
+		this.antennas = Objects.requireNonNull(antennas, "The antenna symbol table can't be null.");
+
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("The sort buffer has to be able to hold at least one record.");
+		}
+
+		this.bufferSize = bufferSize;
+		this.external = external;
+		buffer = new PriorityQueue<Entry>(Math.min(bufferSize, 1024), BUFFER_ORDER);
+	}
+
+	/**
+	 * {@inheritDoc}<br/>
+	 * For an external sort, reads all records from the input the first time it is
+	 * called.<br/>
+	 * Otherwise fills the sliding window.
+	 * 
+	 * @throws RuntimeException If writing or reading a temporary file failed.
+	 */
+	@Override
+	public boolean done() throws RuntimeException {
+		if (!external) {
+			fillWindow();
+			return buffer.isEmpty();
+		}
+
+		if (!sorted) {
+			sorted = true;
+			try {
+				sort();
+			} catch (IOException e) {
+				throw new RuntimeException("Sorting the antenna records using temporary files failed.", e);
+			}
+		}
+
+		return readers == null ? buffer.isEmpty() : readers.isEmpty();
+	}
+
+	@Override
+	public AntennaRecord next() throws RuntimeException {
+		if (!external) {
+			fillWindow();
+			lastRecord = buffer.poll().record;
+			return lastRecord;
+		}
+
+		if (readers == null) {
+			return buffer.poll().record;
+		}
+
+		RunReader reader = readers.poll();
+		AntennaRecord record = reader.next.record;
+		try {
+			if (reader.advance()) {
+				readers.add(reader);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Reading a sorted run from a temporary file failed.", e);
+		}
+		return record;
+	}
+
+	/**
+	 * Reads records from the input until the sliding window is full, or the input
+	 * ended.<br/>
+	 * Reports and skips records that are earlier than the last returned record.
+	 */
+	private void fillWindow() {
+		while (buffer.size() < bufferSize) {
+			AntennaRecord record = nextRecord();
+			if (record == null) {
+				return;
+			}
+
+			if (lastRecord != null && record.time < lastRecord.time) {
+				lateRecords++;
+				LogHandler.err_println("Antenna record at " + record.date + ' ' + record.getTime()
+						+ " arrived after the sort buffer already returned a record at " + lastRecord.date + ' '
+						+ lastRecord.getTime() + ". Skipping line.");
+				LogHandler.print_debug_info("Late Antenna Record: %s, Last Returned Record: %s, Sort Buffer Size: %d",
+						record, lastRecord, bufferSize);
+				continue;
+			}
+
+			buffer.add(new Entry(record, index++, 0));
+		}
+	}
+
+	/**
+	 * Reads all records from the input.<br/>
+	 * Keeps them in the sort buffer if they fit, or writes them to sorted runs
+	 * and opens a reader for each run otherwise.
+	 * 
+	 * @throws IOException If writing or reading a temporary file fails.
+	 */
+	private void sort() throws IOException {
+		AntennaRecord record = nextRecord();
+		while (record != null && buffer.size() < bufferSize) {
+			buffer.add(new Entry(record, index++, 0));
+			record = nextRecord();
+		}
+
+		if (record == null) {
+			return;
+		}
+
+		LogHandler.out_println("The antenna records don't fit into the sort buffer of " + bufferSize
+				+ " records, writing sorted runs to temporary files.", true);
+
+		int run = 0;
+		DataOutputStream out = createRun();
+		try {
+			while (!buffer.isEmpty()) {
+				Entry entry = buffer.poll();
+				if (entry.run != run) {
+					out.close();
+					run = entry.run;
+					out = createRun();
+				}
+
+				write(out, entry);
+
+				if (record != null) {
+					buffer.add(new Entry(record, index++, record.time < entry.record.time ? run + 1 : run));
+					record = nextRecord();
+				}
+			}
+		} finally {
+			out.close();
+		}
+
+		LogHandler.out_println("Merging " + runFiles.size() + " sorted runs of antenna records.", true);
+
+		readers = new PriorityQueue<RunReader>(runFiles.size(), READER_ORDER);
+		for (File file : runFiles) {
+			RunReader reader = new RunReader(file);
+			if (reader.advance()) {
+				readers.add(reader);
+			}
+		}
+	}
+
+	/**
+	 * Gets the next valid record from the input.
+	 * 
+	 * @return The next record, or {@code null} if the input ended.
+	 */
+	private AntennaRecord nextRecord() {
+		while (!input.done()) {
+			AntennaRecord record = input.next();
+			if (record != null) {
+				return record;
+			}
+
+			LogHandler.err_println("Reading an antenna record from the input file failed.", true);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Creates a new temporary file for a sorted run.
+	 * 
+	 * @return The stream to write the run to.
+	 * @throws IOException If creating the file fails.
+	 */
+	private DataOutputStream createRun() throws IOException {
+		File file = File.createTempFile("PutenAuswertung-sort-", ".tmp");
+		file.deleteOnExit();
+		runFiles.add(file);
+		return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), STREAM_BUFFER_SIZE));
+	}
+
+	/**
+	 * Writes the given entry to a run file.<br/>
+	 * The ids are written as their handles in the symbol tables.
+	 * 
+	 * @param out   The stream to write to.
+	 * @param entry The entry to write.
+	 * @throws IOException If writing fails.
+	 */
+	private static void write(DataOutputStream out, Entry entry) throws IOException {
+		AntennaRecord record = entry.record;
+		out.writeLong(entry.index);
+		out.writeLong(record.time);
+		out.writeInt(record.tod);
+		out.writeUTF(record.date);
+		out.writeInt(record.transponderId);
+		out.writeInt(record.antennaId);
+	}
+
+	/**
+	 * Closes the source the records are read from, as well as all temporary
+	 * files, and deletes them.
+	 */
+	@Override
+	public void close() {
+		input.close();
+
+		if (lateRecords > 0) {
+			LogHandler.err_println(lateRecords + " antenna records were too late for the sort buffer of " + bufferSize
+					+ " records. Use a larger sort buffer, or an external sort, to include them.");
+		}
+
+		if (readers != null) {
+			for (RunReader reader : readers) {
+				try {
+					reader.in.close();
+				} catch (IOException e) {
+					LogHandler.err_println("Closing a sorted run file failed.", true);
+					LogHandler.print_exception(e, "close run file", "Run File: %s", reader.file);
+				}
+			}
+			readers.clear();
+		}
+
+		for (File file : runFiles) {
+			if (!file.delete() && file.exists()) {
+				LogHandler.err_println("Deleting the temporary file \"" + file.getPath() + "\" failed.", true);
+			}
+		}
+		runFiles.clear();
+	}
+
+	/**
+	 * A single record in the sort buffer or a run file.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static final class Entry {
+
+		/**
+		 * The record itself.
+		 */
+		private final AntennaRecord record;
+
+		/**
+		 * The index of the record in the input.<br/>
+		 * Used to keep the order of records with the same timestamp.
+		 */
+		private final long index;
+
+		/**
+		 * The index of the run this record is written to.
+		 */
+		private final int run;
+
+		/**
+		 * Creates a new entry.
+		 * 
+		 * @param record The record of the entry.
+		 * @param index  The index of the record in the input.
+		 * @param run    The index of the run to write the record to.
+		 */
+		private Entry(AntennaRecord record, long index, int run) {
+			this.record = record;
+			this.index = index;
+			this.run = run;
+		}
+
+	}
+
+	/**
+	 * A reader reading the entries of a single run file.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private final class RunReader {
+
+		/**
+		 * The file this reader reads.
+		 */
+		private final File file;
+
+		/**
+		 * The stream to read the entries from.
+		 */
+		private final DataInputStream in;
+
+		/**
+		 * The next entry of the run.
+		 */
+		private Entry next;
+
+		/**
+		 * Creates a new reader for the given run file.
+		 * 
+		 * @param file The run file to read.
+		 * @throws IOException If opening the file fails.
+		 */
+		private RunReader(File file) throws IOException {
+			this.file = file;
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), STREAM_BUFFER_SIZE));
+		}
+
+		/**
+		 * Reads the next entry of the run.<br/>
+		 * Closes the file once it was fully read.
+		 * 
+		 * @return {@code false} if the run has no more entries.
+		 * @throws IOException If reading the file fails.
+		 */
+		private boolean advance() throws IOException {
+			long index;
+			try {
+				index = in.readLong();
+			} catch (EOFException e) {
+				in.close();
+				next = null;
+				return false;
+			}
+
+			long time = in.readLong();
+			int tod = in.readInt();
+			String date = in.readUTF();
+			if (next != null && date.equals(next.record.date)) {
+				date = next.record.date;
+			}
+
+			int transponderId = in.readInt();
+			int antennaId = in.readInt();
+			next = new Entry(new AntennaRecord(transponders.getSymbol(transponderId), transponderId, date, tod, time,
+					antennas.getSymbol(antennaId), antennaId), index, 0);
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,307 @@
+package com.tome25.auswertung;
+
+import java.util.Objects;
+
+/**
+ * A single pass tokenizer for the four column antenna records format.<br/>
+ * Instead of creating a string for each token, this stores the start and end
+ * index of each token in the tokenized line.<br/>
+ * Instances are reused for all lines tokenized by a thread, so tokenizing a line
+ * does not allocate any objects.<br/>
+ * Produces the same tokens as {@code CSVHandler.splitLine}, including the
+ * re-joining of hundredths separated from a time using a comma.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class AntennaRecordTokenizer {
+
+	/**
+	 * The number of tokens a valid antenna record line has.
+	 */
+	static final int TOKENS = 4;
+
+	/**
+	 * The tokenizer instance for each thread.
+	 */
+	private static final ThreadLocal<AntennaRecordTokenizer> INSTANCE = new ThreadLocal<AntennaRecordTokenizer>() {
+		@Override
+		protected AntennaRecordTokenizer initialValue() {
+			return new AntennaRecordTokenizer();
+		}
+	};
+
+	/**
+	 * The index of the first char of each token.
+	 */
+	private final int[] starts = new int[TOKENS];
+
+	/**
+	 * The index after the last char of each token.
+	 */
+	private final int[] ends = new int[TOKENS];
+
+	/**
+	 * The line that was last tokenized.
+	 */
+	private String line;
+
+	/**
+	 * The number of tokens in the last tokenized line.<br/>
+	 * Can be larger than {@link #TOKENS}, in which case the additional tokens were
+	 * not stored.
+	 */
+	private int count;
+
+	/**
+	 * Creates a new tokenizer.<br/>
+	 * Use {@link #get()} instead.
+	 */
+	private AntennaRecordTokenizer() {
+	}
+
+	/**
+	 * Gets the tokenizer instance for the current thread.
+	 * 
+	 * @return The tokenizer of the current thread.
+	 */
+	static AntennaRecordTokenizer get() {
+		return INSTANCE.get();
+	}
+
+	/**
+	 * Splits the given line into its tokens.<br/>
+	 * Leading and trailing whitespace of the line are ignored, as is a single
+	 * trailing separator.
+	 * 
+	 * @param line      The line to tokenize.
+	 * @param timeIndex The index of the time token, to re-join hundredths
+	 *                  separated using a comma.
+	 * @return The number of tokens in the line.
+	 * @throws NullPointerException If {@code line} is {@code null}.
+	 */
+	int tokenize(String line, int timeIndex) throws NullPointerException {
+		this.line = Objects.requireNonNull(line, "The line to tokenize can't be null.");
+		count = 0;
+
+		int lineStart = 0;
+		int lineEnd = line.length();
+		while (lineStart < lineEnd && line.charAt(lineStart) <= ' ') {
+			lineStart++;
+		}
+		while (lineEnd > lineStart && line.charAt(lineEnd - 1) <= ' ') {
+			lineEnd--;
+		}
+
+		int index = lineStart;
+		for (int i = lineStart; i < lineEnd; i++) {
+			char c = line.charAt(i);
+			if (!isSeparator(c)) {
+				continue;
+			}
+
+			if (count == timeIndex && c == ',' && line.lastIndexOf('.', i - 1) < index
+					&& countSeparators(lineStart, lineEnd) >= TOKENS) {
+				int next = i + 1;
+				while (next < lineEnd && !isSeparator(line.charAt(next))) {
+					next++;
+				}
+
+				if (next == lineEnd) {
+					break;
+				}
+
+				if (next - i - 1 <= 2 && next > i + 1 && isDigits(i + 1, next)) {
+					addToken(index, next);
+				} else {
+					addToken(index, i);
+					addToken(i + 1, next);
+				}
+				index = next + 1;
+				i = next;
+			} else {
+				addToken(index, i);
+				index = i + 1;
+			}
+		}
+
+		if (index < lineEnd) {
+			addToken(index, lineEnd);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Removes leading and trailing whitespace from all tokens.
+	 * 
+	 * @return The index of the first token that is empty after trimming, or -1 if
+	 *         none is.
+	 */
+	int trim() {
+		for (int i = 0; i < count && i < TOKENS; i++) {
+			while (starts[i] < ends[i] && line.charAt(starts[i]) <= ' ') {
+				starts[i]++;
+			}
+			while (ends[i] > starts[i] && line.charAt(ends[i] - 1) <= ' ') {
+				ends[i]--;
+			}
+
+			if (starts[i] == ends[i]) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Checks whether any of the tokens is the string "transponder", ignoring case.
+	 * 
+	 * @return {@code true} if the tokenized line is a header line.
+	 */
+	boolean isHeader() {
+		for (int i = 0; i < count && i < TOKENS; i++) {
+			if (ends[i] - starts[i] == 11 && line.regionMatches(true, starts[i], "transponder", 0, 11)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Checks whether the token with the given index is a valid id.<br/>
+	 * Ids are valid if they match {@link CSVHandler#ID_REGEX}.
+	 * 
+	 * @param token The index of the token to check.
+	 * @return {@code true} if the token is a valid id.
+	 */
+	boolean isValidId(int token) {
+		if (starts[token] == ends[token]) {
+			return false;
+		}
+
+		for (int i = starts[token]; i < ends[token]; i++) {
+			char c = line.charAt(i);
+			if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z') && (c < '0' || c > '9') && c != '-' && c != ' '
+					&& (c < '\t' || c > '\r')) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the token with the given index as a string.
+	 * 
+	 * @param token The index of the token to get.
+	 * @return The token with the given index.
+	 */
+	String getToken(int token) {
+		return line.substring(starts[token], ends[token]);
+	}
+
+	/**
+	 * Gets the index of the first char of the token with the given index.
+	 * 
+	 * @param token The index of the token.
+	 * @return The start of the token in the tokenized line.
+	 */
+	int getStart(int token) {
+		return starts[token];
+	}
+
+	/**
+	 * Gets the index after the last char of the token with the given index.
+	 * 
+	 * @param token The index of the token.
+	 * @return The end of the token in the tokenized line.
+	 */
+	int getEnd(int token) {
+		return ends[token];
+	}
+
+	/**
+	 * Gets the line that was last tokenized.
+	 * 
+	 * @return The last tokenized line.
+	 */
+	String getLine() {
+		return line;
+	}
+
+	/**
+	 * Gets all tokens of the last tokenized line as strings.<br/>
+	 * Only intended for error messages.
+	 * 
+	 * @return The tokens of the last tokenized line.
+	 */
+	String[] getTokens() {
+		String[] tokens = new String[Math.min(count, TOKENS)];
+		for (int i = 0; i < tokens.length; i++) {
+			tokens[i] = getToken(i);
+		}
+		return tokens;
+	}
+
+	/**
+	 * Stores the given token, if there is space for it, and increments the token
+	 * count.
+	 * 
+	 * @param start The index of the first char of the token.
+	 * @param end   The index after the last char of the token.
+	 */
+	private void addToken(int start, int end) {
+		if (count < TOKENS) {
+			starts[count] = start;
+			ends[count] = end;
+		}
+		count++;
+	}
+
+	/**
+	 * Counts the separators in the given part of the current line.<br/>
+	 * A separator at the very end is not counted.
+	 * 
+	 * @param start The first index to check.
+	 * @param end   The index after the last char to check.
+	 * @return The number of separators.
+	 */
+	private int countSeparators(int start, int end) {
+		int separators = 0;
+		for (int i = start; i < end - 1; i++) {
+			if (isSeparator(line.charAt(i))) {
+				separators++;
+			}
+		}
+		return separators;
+	}
+
+	/**
+	 * Checks whether the given part of the current line consists only of digits.
+	 * 
+	 * @param start The first index to check.
+	 * @param end   The index after the last char to check.
+	 * @return {@code true} if all chars in the range are digits.
+	 */
+	private boolean isDigits(int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!Character.isDigit(line.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether the given char is a value separator.
+	 * 
+	 * @param c The char to check.
+	 * @return {@code true} if the char is a comma, semicolon, or tab.
+	 */
+	private static boolean isSeparator(char c) {
+		return c == ';' || c == ',' || c == '\t';
+	}
+
+}
@@ -4,7 +4,6 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -21,6 +20,7 @@
 
 import com.tome25.auswertung.args.Arguments;
 import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.stream.ByteLineBuilder;
 import com.tome25.auswertung.stream.FileInputStreamHandler;
 import com.tome25.auswertung.stream.IInputStreamHandler;
 import com.tome25.auswertung.stream.IOutputStreamHandler;
@@ -28,7 +28,9 @@
 import com.tome25.auswertung.utils.MapUtils;
 import com.tome25.auswertung.utils.Pair;
 import com.tome25.auswertung.utils.StringUtils;
+import com.tome25.auswertung.utils.SymbolTable;
 import com.tome25.auswertung.utils.TimeUtils;
+import com.tome25.auswertung.utils.TimestampParser;
 
 /**
  * This class is responsible for converting between internal data structures and
@@ -92,7 +94,8 @@ private static void checkInput(IInputStreamHandler input) throws EOFException, N
 
 	/**
 	 * Splits the given input line into its separate tokens.<br/>
-	 * Attempts to re-join hundredth separated from a time using a comma.
+	 * Attempts to re-join hundredth separated from a time using a comma.<br/>
+	 * Package-private to allow benchmarking it.
 	 * 
 	 * @param line       The input line to split.
 	 * @param min_tokens The minimum number of tokens expected.
@@ -102,7 +105,7 @@ private static void checkInput(IInputStreamHandler input) throws EOFException, N
 	 * @throws IllegalArgumentException If {@code line} is empty or contains less
 	 *                                  than {@code min_tokens} tokens.
 	 */
-	private static String[] splitLine(String line, int min_tokens, Collection<Integer> times)
+	static String[] splitLine(String line, int min_tokens, Collection<Integer> times)
 			throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(line, "The line to split cannot be null.");
 		line = line.trim();
@@ -502,7 +505,7 @@ public static Map<String, TurkeyInfo> readTurkeyCSV(IInputStreamHandler input, f
 					startZone = null;
 				}
 
-				Calendar endTime = null;
+				long endTime = TimeUtils.NO_TIME;
 				if (!tokens[2].isEmpty() && tokens[3].isEmpty()) {
 					LogHandler.err_println("Found end time \"" + tokens[2] + "\" without end date for turkey \""
 							+ tokens[0] + "\". Ignoring.");
@@ -511,7 +514,7 @@ public static Map<String, TurkeyInfo> readTurkeyCSV(IInputStreamHandler input, f
 							SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), line, input.toString());
 				} else if (tokens[2].isEmpty() && !tokens[3].isEmpty()) {
 					try {
-						endTime = TimeUtils.parseDate(tokens[3]);
+						endTime = TimeUtils.parseTimestamp(tokens[3], 0);
 						LogHandler.err_println("Found end date \"" + tokens[3] + "\" without end time for turkey \""
 								+ tokens[0] + "\". Removing turkey at beginning of the day.");
 						LogHandler.print_debug_info(
@@ -528,7 +531,7 @@ public static Map<String, TurkeyInfo> readTurkeyCSV(IInputStreamHandler input, f
 					}
 				} else if (!tokens[2].isEmpty() && !tokens[3].isEmpty()) {
 					try {
-						endTime = TimeUtils.parseTime(tokens[3], tokens[2]);
+						endTime = TimeUtils.parseTimestamp(tokens[3], tokens[2]);
 					} catch (IllegalArgumentException e) {
 						LogHandler.err_println("Failed to parse end time \"" + tokens[2] + "\" or end date \""
 								+ tokens[3] + "\" for turkey \"" + tokens[0] + "\". Ignoring end time and date.");
@@ -572,8 +575,8 @@ public static Map<String, TurkeyInfo> readTurkeyCSV(IInputStreamHandler input, f
 					continue;
 				}
 
-				TurkeyInfo turkey = new TurkeyInfo(tokens[0], transponders, null, idToZone.get(startZone), null, null,
-						endTime, args);
+				TurkeyInfo turkey = new TurkeyInfo(tokens[0], transponders, null, idToZone.get(startZone),
+						TimeUtils.NO_TIME, TimeUtils.NO_TIME, endTime, args);
 				for (String transponder : transponders) {
 					turkeys.put(transponder, turkey);
 				}
@@ -652,12 +655,12 @@ public static void writeTurkeyCSV(List<TurkeyInfo> turkeys, IOutputStreamHandler
 			}
 
 			sb.append(DEFAULT_SEPARATOR);
-			if (ti.getEndCal() != null) {
-				sb.append(TimeUtils.encodeTime(TimeUtils.getMsOfDay(ti.getEndCal())));
+			if (ti.getEndMs() != TimeUtils.NO_TIME) {
+				sb.append(TimeUtils.encodeTime(TimeUtils.getMsOfDay(ti.getEndMs())));
 			}
 			sb.append(DEFAULT_SEPARATOR);
-			if (ti.getEndCal() != null) {
-				sb.append(TimeUtils.encodeDate(ti.getEndCal()));
+			if (ti.getEndMs() != TimeUtils.NO_TIME) {
+				sb.append(TimeUtils.encodeDate(ti.getEndMs()));
 			}
 
 			List<String> trans = ti.getTransponders();
@@ -699,7 +702,7 @@ public static List<Pair<Long, Long>> readDowntimesCSV(IInputStreamHandler input)
 		while (!input.done()) {
 			String line = null;
 			String tokens[] = null;
-			Calendar start = null;
+			long start = TimeUtils.NO_TIME;
 			try {
 				line = input.readline();
 				if (line == null || line.trim().isEmpty()) {
@@ -733,9 +736,9 @@ public static List<Pair<Long, Long>> readDowntimesCSV(IInputStreamHandler input)
 					continue;
 				}
 
-				start = TimeUtils.parseTime(tokens[0], tokens[1]);
-				Calendar end = TimeUtils.parseTime(tokens[2], tokens[3]);
-				if (!end.after(start)) {
+				start = TimeUtils.parseTimestamp(tokens[0], tokens[1]);
+				long end = TimeUtils.parseTimestamp(tokens[2], tokens[3]);
+				if (end <= start) {
 					LogHandler.err_println("Downtime end wasn't after its start. Skipping line.");
 					LogHandler.print_debug_info(
 							"Start Date: %s, Start Time: %s, End Date: %s, End Time: %s, Line: \"%s\", "
@@ -747,8 +750,8 @@ public static List<Pair<Long, Long>> readDowntimesCSV(IInputStreamHandler input)
 				}
 
 				// Handle overlapping downtimes.
-				long startMs = start.getTimeInMillis();
-				long endMs = end.getTimeInMillis();
+				long startMs = start;
+				long endMs = end;
 				Iterator<Pair<Long, Long>> downtimesIt = downtimes.iterator();
 				while (downtimesIt.hasNext()) {
 					Pair<Long, Long> downtime = downtimesIt.next();
@@ -781,7 +784,7 @@ public static List<Pair<Long, Long>> readDowntimesCSV(IInputStreamHandler input)
 					last_failed = true;
 				}
 			} catch (IllegalArgumentException e) {
-				if (start == null) {
+				if (start == TimeUtils.NO_TIME) {
 					LogHandler
 							.err_println("Failed to parse start time or date of line \"" + line + "\". Skipping line.");
 				} else {
@@ -789,8 +792,8 @@ public static List<Pair<Long, Long>> readDowntimesCSV(IInputStreamHandler input)
 				}
 				LogHandler.print_exception(e, "parse downtime line",
 						"Start Date: %s, Start Time: %s, Line: \"%s\", Separator Chars: %s, Tokens: [%s], Input Stream Handler: %s",
-						start == null ? "null" : TimeUtils.encodeDate(start),
-						start == null ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(start)), line,
+						start == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeDate(start),
+						start == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(start)), line,
 						SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), input.toString());
 			}
 		}
@@ -835,6 +838,33 @@ public static List<Pair<Long, Long>> readDowntimesCSV(IInputStreamHandler input)
 	 */
 	public static AntennaRecord readAntennaRecord(IInputStreamHandler input, short[] tokenOrder)
 			throws NullPointerException, IllegalArgumentException {
+		return readAntennaRecord(input, tokenOrder, null, null);
+	}
+
+	/**
+	 * Reads the next {@link AntennaRecord} from the given input.<br/>
+	 * Handles skipping the header line and unparsable lines.<br/>
+	 * Resolves the transponder and antenna ids using the given symbol tables,
+	 * without creating new strings for ids that are already in them.<br/>
+	 * Ids that aren't in the tables yet are added to them.
+	 * 
+	 * @param input        The stream handler to read from.
+	 * @param tokenOrder   The order in which the tokens to be parsed are in the
+	 *                     input file.<br/>
+	 *                     See {@link #readAntennaRecord(IInputStreamHandler, short[])}.
+	 * @param transponders The symbol table containing the known transponder
+	 *                     ids.<br/>
+	 *                     {@code null} to create a new string for each
+	 *                     transponder.
+	 * @param antennas     The symbol table containing the known antenna
+	 *                     ids.<br/>
+	 *                     {@code null} to create a new string for each antenna.
+	 * @return The newly created {@link AntennaRecord}. Or null if there was none.
+	 * @throws NullPointerException If the input stream handler to read from is
+	 *                              {@code null}.
+	 */
+	public static AntennaRecord readAntennaRecord(IInputStreamHandler input, short[] tokenOrder,
+			SymbolTable transponders, SymbolTable antennas) throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(input, "The input stream handler to read can't be null.");
 
 		if (tokenOrder == null) {
@@ -855,8 +885,9 @@ public static AntennaRecord readAntennaRecord(IInputStreamHandler input, short[]
 		}
 
 		AntennaRecord result = null;
+		AntennaRecordTokenizer tokenizer = AntennaRecordTokenizer.get();
 		boolean last_failed = false;
-		main_loop: while (!input.done()) {
+		while (!input.done()) {
 			String line = null;
 			String tokens[] = null;
 			try {
@@ -867,18 +898,19 @@ public static AntennaRecord readAntennaRecord(IInputStreamHandler input, short[]
 					continue;
 				}
 
-				try {
-					tokens = splitLine(line, 4, Collections.singleton((int) tokenOrder[2]));
-				} catch (IllegalArgumentException e) {
-					LogHandler.err_println(
-							"Input line \"" + line + "\" did not contain exactly four tokens. Skipping line.");
-					LogHandler.print_exception(e, "split input line",
-							"Spearator Chars: %s, Line: \"%s\", Input Stream Handler: %s", SEPARATOR_REGEX.toString(),
-							line, input.toString());
-					continue;
-				}
+				if (tokenizer.tokenize(line, tokenOrder[2]) != AntennaRecordTokenizer.TOKENS) {
+					// Use the generic, slower, split method to get the same error output as other files.
+					try {
+						tokens = splitLine(line, 4, Collections.singleton((int) tokenOrder[2]));
+					} catch (IllegalArgumentException e) {
+						LogHandler.err_println(
+								"Input line \"" + line + "\" did not contain exactly four tokens. Skipping line.");
+						LogHandler.print_exception(e, "split input line",
+								"Spearator Chars: %s, Line: \"%s\", Input Stream Handler: %s",
+								SEPARATOR_REGEX.toString(), line, input.toString());
+						continue;
+					}
 
-				if (tokens.length != 4) {
 					LogHandler.err_println(
 							"Input line \"" + line + "\" did not contain exactly four tokens. Skipping line.");
 					LogHandler.print_debug_info(
@@ -887,70 +919,32 @@ public static AntennaRecord readAntennaRecord(IInputStreamHandler input, short[]
 					continue;
 				}
 
-				if (tokens[0].equalsIgnoreCase("transponder") || tokens[1].equalsIgnoreCase("transponder")
-						|| tokens[2].equalsIgnoreCase("transponder") || tokens[3].equalsIgnoreCase("transponder")) {
+				if (tokenizer.isHeader()) {
+					tokens = tokenizer.getTokens();
 					LogHandler.out_println("Read header line \"" + line + "\".", true);
-					tokenOrder[0] = tokenOrder[1] = tokenOrder[2] = tokenOrder[3] = 0;
-
-					for (short i = 0; i < tokens.length; i++) {
-						tokens[i] = tokens[i].toLowerCase();
-						if (tokens[i].equals("transponder")) {
-							tokenOrder[0] = i;
-						} else if (tokens[i].equals("date") || tokens[i].equals("datum")) {
-							tokenOrder[1] = i;
-						} else if (tokens[i].equals("time") || tokens[i].equals("zeit")) {
-							tokenOrder[2] = i;
-						} else if (tokens[i].equals("antenna") || tokens[i].equals("antenne")) {
-							tokenOrder[3] = i;
-						} else {
-							LogHandler.err_println("Found invalid header \"" + tokens[i] + "\".");
-							LogHandler.print_debug_info(
-									"Separator Chars: %s, Tokens: [%s], Line: \"%s\", Input Stream Handler: %s",
-									SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), line, input.toString());
-							break;
-						}
-					}
-
-					valid = 0;
-					for (int i = 0; i < tokenOrder.length; i++) {
-						valid ^= (1 << tokenOrder[i]);
-					}
-
-					if (valid != 0b1111) {
-						LogHandler.err_println(
-								"Header line \"" + line + "\" was invalid. Assuming default column order.");
-						LogHandler.print_debug_info(
-								"Separator Chars: %s, Tokens: [%s], Line: \"%s\", Input Stream Handler: %s",
-								SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), line, input.toString());
-						tokenOrder[0] = 0;
-						tokenOrder[1] = 1;
-						tokenOrder[2] = 2;
-						tokenOrder[3] = 3;
-					} else {
-						LogHandler.out_println("Valid header line \"" + line + "\" found. Reordering columns.");
-					}
+					parseAntennaHeader(line, tokens, tokenOrder, input);
 					continue;
 				}
 
-				for (int i = 0; i < tokens.length; i++) {
-					tokens[i] = tokens[i].trim();
-					if (tokens[i].isEmpty()) {
-						LogHandler.err_println("Input line \"" + line + "\" contained an empty token. Skipping line.");
-						LogHandler.print_debug_info(
-								"Separator Chars: %s, Tokens: [%s], Line: \"%s\", Input Stream Handler: %s",
-								SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), line, input.toString());
-						continue main_loop;
-					}
+				if (tokenizer.trim() != -1) {
+					tokens = tokenizer.getTokens();
+					LogHandler.err_println("Input line \"" + line + "\" contained an empty token. Skipping line.");
+					LogHandler.print_debug_info(
+							"Separator Chars: %s, Tokens: [%s], Line: \"%s\", Input Stream Handler: %s",
+							SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), line, input.toString());
+					continue;
 				}
 
-				if (!ID_REGEX.matcher(tokens[tokenOrder[0]]).matches()) {
+				if (!tokenizer.isValidId(tokenOrder[0])) {
+					tokens = tokenizer.getTokens();
 					LogHandler.err_println("Input line \"" + line + "\" contains invalid transponder id \""
 							+ tokens[tokenOrder[0]] + "\". Skipping line.");
 					LogHandler.print_debug_info(
 							"Separator Chars: %s, Tokens: [%s], Line: \"%s\", Input Stream Handler: %s",
 							SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), line, input.toString());
 					continue;
-				} else if (!ID_REGEX.matcher(tokens[tokenOrder[3]]).matches()) {
+				} else if (!tokenizer.isValidId(tokenOrder[3])) {
+					tokens = tokenizer.getTokens();
 					LogHandler.err_println("Input line \"" + line + "\" contains invalid antenna id \""
 							+ tokens[tokenOrder[3]] + "\". Skipping line.");
 					LogHandler.print_debug_info(
@@ -959,8 +953,18 @@ public static AntennaRecord readAntennaRecord(IInputStreamHandler input, short[]
 					continue;
 				}
 
-				result = new AntennaRecord(tokens[tokenOrder[0]], tokens[tokenOrder[1]], tokens[tokenOrder[2]],
-						tokens[tokenOrder[3]]);
+				if (transponders == null || antennas == null) {
+					result = new AntennaRecord(tokenizer.getToken(tokenOrder[0]), tokenizer.getToken(tokenOrder[1]),
+							tokenizer.getToken(tokenOrder[2]), tokenizer.getToken(tokenOrder[3]));
+				} else {
+					int transponder = transponders.intern(line, tokenizer.getStart(tokenOrder[0]),
+							tokenizer.getEnd(tokenOrder[0]));
+					int antenna = antennas.intern(line, tokenizer.getStart(tokenOrder[3]),
+							tokenizer.getEnd(tokenOrder[3]));
+					result = new AntennaRecord(transponders.getSymbol(transponder), transponder,
+							tokenizer.getToken(tokenOrder[1]), tokenizer.getToken(tokenOrder[2]),
+							antennas.getSymbol(antenna), antenna);
+				}
 				break;
 			} catch (IOException e) {
 				if (last_failed) {
@@ -977,6 +981,10 @@ public static AntennaRecord readAntennaRecord(IInputStreamHandler input, short[]
 					last_failed = true;
 				}
 			} catch (IllegalArgumentException e) {
+				if (tokens == null) {
+					tokens = tokenizer.getTokens();
+				}
+
 				LogHandler.err_println("Parsing time of day or date of line \"" + line + "\" failed. Skipping line.");
 				LogHandler.print_exception(e, "parse record time",
 						"Line: \"%s\", Separator Chars: %s, Tokens: [%s], Input Stream Handler: %s", line,
@@ -992,6 +1000,84 @@ public static AntennaRecord readAntennaRecord(IInputStreamHandler input, short[]
 		return result;
 	}
 
+	/**
+	 * Checks whether the given line is an antenna data header line, and updates
+	 * the given token order to match it if it is.<br/>
+	 * Used to read the header line once before reading the rest of the file in
+	 * parallel.
+	 * 
+	 * @param line       The line to check.
+	 * @param tokenOrder The token order to update.<br/>
+	 *                   See {@link #readAntennaRecord(IInputStreamHandler, short[])}.
+	 * @return {@code true} if the line was a header line.
+	 * @throws NullPointerException If one of the arguments is {@code null}.
+	 */
+	public static boolean readAntennaHeader(String line, short[] tokenOrder) throws NullPointerException {
+		Objects.requireNonNull(line, "The line to check can't be null.");
+		Objects.requireNonNull(tokenOrder, "The token order to update can't be null.");
+
+		AntennaRecordTokenizer tokenizer = AntennaRecordTokenizer.get();
+		if (tokenizer.tokenize(line, tokenOrder[2]) != AntennaRecordTokenizer.TOKENS || !tokenizer.isHeader()) {
+			return false;
+		}
+
+		LogHandler.out_println("Read header line \"" + line + "\".", true);
+		parseAntennaHeader(line, tokenizer.getTokens(), tokenOrder, null);
+		return true;
+	}
+
+	/**
+	 * Updates the given token order to match the given antenna data header line.
+	 * 
+	 * @param line       The header line.
+	 * @param tokens     The tokens of the header line.
+	 * @param tokenOrder The token order to update.
+	 * @param input      The stream handler the line was read from, for debug
+	 *                   output. Can be {@code null}.
+	 */
+	private static void parseAntennaHeader(String line, String[] tokens, short[] tokenOrder,
+			IInputStreamHandler input) {
+		tokenOrder[0] = tokenOrder[1] = tokenOrder[2] = tokenOrder[3] = 0;
+
+		for (short i = 0; i < tokens.length; i++) {
+			tokens[i] = tokens[i].toLowerCase();
+			if (tokens[i].equals("transponder")) {
+				tokenOrder[0] = i;
+			} else if (tokens[i].equals("date") || tokens[i].equals("datum")) {
+				tokenOrder[1] = i;
+			} else if (tokens[i].equals("time") || tokens[i].equals("zeit")) {
+				tokenOrder[2] = i;
+			} else if (tokens[i].equals("antenna") || tokens[i].equals("antenne")) {
+				tokenOrder[3] = i;
+			} else {
+				LogHandler.err_println("Found invalid header \"" + tokens[i] + "\".");
+				LogHandler.print_debug_info(
+						"Separator Chars: %s, Tokens: [%s], Line: \"%s\", Input Stream Handler: %s",
+						SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), line, input);
+				break;
+			}
+		}
+
+		short valid = 0;
+		for (int i = 0; i < tokenOrder.length; i++) {
+			valid ^= (1 << tokenOrder[i]);
+		}
+
+		if (valid != 0b1111) {
+			LogHandler.err_println(
+					"Header line \"" + line + "\" was invalid. Assuming default column order.");
+			LogHandler.print_debug_info(
+					"Separator Chars: %s, Tokens: [%s], Line: \"%s\", Input Stream Handler: %s",
+					SEPARATOR_REGEX.toString(), StringUtils.join(", ", tokens), line, input);
+			tokenOrder[0] = 0;
+			tokenOrder[1] = 1;
+			tokenOrder[2] = 2;
+			tokenOrder[3] = 3;
+		} else {
+			LogHandler.out_println("Valid header line \"" + line + "\" found. Reordering columns.");
+		}
+	}
+
 	/**
 	 * Returns the headers to be used for a totals csv with the given zones.
 	 * 
@@ -1038,50 +1124,67 @@ public static String turkeyCsvHeader(Collection<String> zones) throws NullPointe
 	 */
 	public static String turkeyToCsvLine(TurkeyInfo turkey, String date, Collection<String> zones)
 			throws NullPointerException {
-		Objects.requireNonNull(turkey, "The turkey object to convert cannot be null.");
+		return appendTurkeyCsvLine(new ByteLineBuilder(), turkey, date, zones).toString();
+	}
 
-		Map<String, ?> zoneTimes = date == null ? turkey.getTotalZoneTimes() : turkey.getDayZoneTimes(date);
+	/**
+	 * Appends the csv output line for the given turkey and date to the given
+	 * builder.<br/>
+	 * Produces the same line as
+	 * {@link #turkeyToCsvLine(TurkeyInfo, String, Collection)}, without creating
+	 * strings for its values.
+	 * 
+	 * @param line   The builder to append the line to.
+	 * @param turkey The turkey for which an output line should be generated.
+	 * @param date   The date for which to generate an output line. Set to
+	 *               {@code null} to generate a total line.
+	 * @param zones  A collection containing the names of all the zones to
+	 *               write.<br/>
+	 *               See {@link #turkeyToCsvLine(TurkeyInfo, String, Collection)}.
+	 * @return The given builder.
+	 * @throws NullPointerException If {@code line} or {@code turkey} is
+	 *                              {@code null}.
+	 */
+	public static ByteLineBuilder appendTurkeyCsvLine(ByteLineBuilder line, TurkeyInfo turkey, String date,
+			Collection<String> zones) throws NullPointerException {
+		Objects.requireNonNull(line, "The builder to append the line to cannot be null.");
+		Objects.requireNonNull(turkey, "The turkey object to convert cannot be null.");
 
+		int day = date == null ? 0 : TimestampParser.get().parseDay(date);
 		if (zones == null || zones.isEmpty()) {
+			Map<String, ?> zoneTimes = date == null ? turkey.getTotalZoneTimes() : turkey.getDayZoneTimes(day);
 			zones = new ArrayList<String>(zoneTimes.keySet());
 			Collections.sort((List<String>) zones, IntOrStringComparator.INSTANCE);
 		}
 
-		StringBuilder result = new StringBuilder();
+		line.append(turkey.getIdBytes());
+		line.append(DEFAULT_SEPARATOR);
 		if (date != null) {
-			result.append(turkey.getId());
-			result.append(DEFAULT_SEPARATOR);
-			result.append(date);
-			result.append(DEFAULT_SEPARATOR);
-			result.append(Integer.toString(turkey.getDayZoneChanges(date)));
+			line.append(date);
+			line.append(DEFAULT_SEPARATOR);
+			line.appendNumber(turkey.getDayZoneChanges(day));
 		} else {
-			result.append(turkey.getId());
-			result.append(DEFAULT_SEPARATOR);
-			result.append("total");
-			result.append(DEFAULT_SEPARATOR);
-			result.append(Integer.toString(turkey.getTotalZoneChanges()));
+			line.append("total");
+			line.append(DEFAULT_SEPARATOR);
+			line.appendNumber(turkey.getTotalZoneChanges());
 		}
 
 		for (String zone : zones) {
-			result.append(DEFAULT_SEPARATOR);
-			if (zoneTimes.containsKey(zone)) {
-				Object time = zoneTimes.get(zone);
-				if (time instanceof Long) {
-					result.append(TimeUtils.encodeTime((long) (Long) zoneTimes.get(zone)));
-				} else if (time instanceof Integer) {
-					result.append(TimeUtils.encodeTime((int) (Integer) zoneTimes.get(zone)));
-				}
-			} else {
-				result.append(TimeUtils.encodeTime(0));
+			line.append(DEFAULT_SEPARATOR);
+			int zoneIndex = turkey.findZoneIndex(zone);
+			long time = ZoneTimeTable.ABSENT;
+			if (zoneIndex != -1) {
+				time = date == null ? turkey.getTotalZoneTime(zoneIndex) : turkey.getDayZoneTime(day, zoneIndex);
 			}
+			line.appendTime(time == ZoneTimeTable.ABSENT ? 0 : time);
 		}
 
-		result.append(DEFAULT_SEPARATOR);
-		if ((date != null && turkey.isDayUnreliable(date)) || (date == null && turkey.hasUnreliableDay())) {
-			result.append('X');
+		line.append(DEFAULT_SEPARATOR);
+		if ((date != null && turkey.isDayUnreliable(day)) || (date == null && turkey.hasUnreliableDay())) {
+			line.append('X');
 		}
 
-		return result.toString();
+		return line;
 	}
 
 	/**
@@ -1275,9 +1378,50 @@ public static String stayToCsvLine(ZoneStay stay) throws NullPointerException, I
 			throw new IllegalArgumentException("The zone to convert has no exit time.");
 		}
 
-		return StringUtils.join(DEFAULT_SEPARATOR, stay.getTurkey(), stay.getZone().getId(), stay.getEntryDate(),
-				TimeUtils.encodeTime(stay.getEntryTime()), stay.getExitDate(), TimeUtils.encodeTime(stay.getExitTime()),
-				TimeUtils.encodeTime(stay.getStayTime()), stay.isUnreliable() ? "X" : "");
+		return appendStayCsvLine(new ByteLineBuilder(), stay).toString();
+	}
+
+	/**
+	 * Appends the csv line for the given {@link ZoneStay} to the given
+	 * builder.<br/>
+	 * Produces the same line as {@link #stayToCsvLine(ZoneStay)}, without
+	 * creating strings for its values.
+	 * 
+	 * @param line The builder to append the line to.
+	 * @param stay The {@link ZoneStay} to convert to a csv line.
+	 * @return The given builder.
+	 * @throws NullPointerException     If {@code line} or {@code stay} is
+	 *                                  {@code null}.
+	 * @throws IllegalArgumentException If the zone stay does not have an exit time
+	 *                                  yet.
+	 */
+	public static ByteLineBuilder appendStayCsvLine(ByteLineBuilder line, ZoneStay stay)
+			throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(line, "The builder to append the line to cannot be null.");
+		Objects.requireNonNull(stay, "The zone stay to convert to a string can't be null.");
+		if (!stay.hasLeft()) {
+			throw new IllegalArgumentException("The zone to convert has no exit time.");
+		}
+
+		line.append(stay.getTurkey());
+		line.append(DEFAULT_SEPARATOR);
+		line.append(stay.getZone().getId());
+		line.append(DEFAULT_SEPARATOR);
+		line.appendDay(TimeUtils.getDay(stay.getEntryMs()));
+		line.append(DEFAULT_SEPARATOR);
+		line.appendTime(stay.getEntryTime());
+		line.append(DEFAULT_SEPARATOR);
+		line.appendDay(TimeUtils.getDay(stay.getExitMs()));
+		line.append(DEFAULT_SEPARATOR);
+		line.appendTime(stay.getExitTime());
+		line.append(DEFAULT_SEPARATOR);
+		line.appendTime(stay.getStayTime());
+		line.append(DEFAULT_SEPARATOR);
+		if (stay.isUnreliable()) {
+			line.append('X');
+		}
+
+		return line;
 	}
 
 	/**
@@ -1373,11 +1517,11 @@ public static Map<String, List<ZoneStay>> readStaysCSV(IInputStreamHandler input
 					continue;
 				}
 
-				Calendar entryCal = TimeUtils.parseTime(tokens[2], tokens[3]);
-				Calendar exitCal = TimeUtils.parseTime(tokens[4], tokens[5]);
+				long entryTime = TimeUtils.parseTimestamp(tokens[2], tokens[3]);
+				long exitTime = TimeUtils.parseTimestamp(tokens[4], tokens[5]);
 				long fileStayTime = TimeUtils.parseTime(tokens[6]);
 
-				ZoneStay stay = new ZoneStay(turkey, idToZone.get(tokens[1]), entryCal, exitCal);
+				ZoneStay stay = new ZoneStay(turkey, idToZone.get(tokens[1]), entryTime, exitTime);
 				if (fileStayTime != stay.getStayTime()) {
 					LogHandler.err_println("Input line \"" + line
 							+ "\" + stay time did not match match entry and exit time. Skipping line.");
@@ -1406,7 +1550,7 @@ public static Map<String, List<ZoneStay>> readStaysCSV(IInputStreamHandler input
 				}
 
 				// The actual last record is not known at this point.
-				stay.setLastRecord(exitCal, false);
+				stay.setLastRecord(exitTime, false);
 				if (unreliable) {
 					stay.markUnreliable();
 				}
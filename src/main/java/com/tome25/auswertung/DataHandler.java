@@ -2,29 +2,41 @@
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import com.tome25.auswertung.args.Arguments;
 import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.stream.ByteLineBuilder;
+import com.tome25.auswertung.stream.CompressedFileInputStreamHandler;
 import com.tome25.auswertung.stream.FileInputStreamHandler;
+import com.tome25.auswertung.stream.FileOutputStreamHandler;
+import com.tome25.auswertung.stream.FollowFileInputStreamHandler;
 import com.tome25.auswertung.stream.IInputStreamHandler;
 import com.tome25.auswertung.stream.IOutputStreamHandler;
+import com.tome25.auswertung.stream.MappedFileInputStreamHandler;
+import com.tome25.auswertung.stream.SequencedOutputStreamHandler;
 import com.tome25.auswertung.utils.ConsoleHelper;
-import com.tome25.auswertung.utils.MapUtils;
 import com.tome25.auswertung.utils.Pair;
+import com.tome25.auswertung.utils.SymbolTable;
 import com.tome25.auswertung.utils.TimeUtils;
+import com.tome25.auswertung.utils.TimestampParser;
 
 /**
  * The class handling the main data analysis/conversion.
@@ -33,6 +45,217 @@
  */
 public class DataHandler {
 
+	/**
+	 * The arguments to be used for this data analysis.
+	 */
+	private final Arguments args;
+
+	/**
+	 * The ids of all known zones.
+	 */
+	private final Set<String> zoneIds;
+
+	/**
+	 * The index of the system downtimes. {@code null} if there is no downtimes
+	 * file.
+	 */
+	private final DowntimeIndex downtimes;
+
+	/**
+	 * The output stream handler to write the daily total times per zone and zone
+	 * changes to.
+	 */
+	private final IOutputStreamHandler totalsStream;
+
+	/**
+	 * The output stream handler to write the individual zone stays to.
+	 */
+	private final IOutputStreamHandler staysStream;
+
+	/**
+	 * All the turkeys from the turkeys file, in the order of their output.
+	 */
+	private final List<TurkeyInfo> turkeyInfos;
+
+	/**
+	 * All known turkeys, indexed by the handle of their transponders.<br/>
+	 * Only used for lookups, the output order is defined by {@link #turkeyInfos}.
+	 */
+	private TurkeyInfo[] turkeys;
+
+	/**
+	 * All known zones, indexed by the handle of their antennas.
+	 */
+	private final ZoneInfo[] zones;
+
+	/**
+	 * The events of the current day to apply to all turkeys from the turkeys
+	 * file.<br/>
+	 * Only used when analyzing in parallel.
+	 */
+	private final List<AnalysisEvent> globalEvents = new ArrayList<AnalysisEvent>();
+
+	/**
+	 * The parallel analysis task of each turkey.<br/>
+	 * {@code null} when analyzing serially.
+	 */
+	private final Map<TurkeyInfo, TurkeyTask> tasks;
+
+	/**
+	 * The parallel analysis tasks in the order their output is written in.
+	 */
+	private final List<TurkeyTask> taskList = new ArrayList<TurkeyTask>();
+
+	/**
+	 * The pool running the parallel analysis tasks.<br/>
+	 * {@code null} when analyzing serially.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * The turkeys from the turkeys file that can still change the totals of a
+	 * day.<br/>
+	 * {@code null} if the totals aren't streamed.
+	 */
+	private final List<TurkeyInfo> openTurkeys;
+
+	/**
+	 * The turkeys created for unknown transponders.<br/>
+	 * Their days aren't written, but are still removed from memory.<br/>
+	 * {@code null} if the totals aren't streamed.
+	 */
+	private final List<TurkeyInfo> unknownTurkeys;
+
+	/**
+	 * The sequence number of the next {@link AnalysisEvent}.
+	 */
+	private long sequence = 0;
+
+	/**
+	 * The date of the last antenna record that was read.<br/>
+	 * {@code null} if no record was read yet.
+	 */
+	private String lastDate = null;
+
+	/**
+	 * The index of the day of the last antenna record that was read.
+	 */
+	private int lastDay = 0;
+
+	/**
+	 * The latest timestamp of an antenna record that was read.
+	 */
+	private long lastTime = TimeUtils.NO_TIME;
+
+	/**
+	 * The dates whose totals weren't written yet, in order.
+	 */
+	private final List<String> dates = new ArrayList<String>();
+
+	/**
+	 * The order of the tokens in the antenna data file.
+	 */
+	private final short[] tokenOrder = new short[] { 0, 1, 2, 3 };
+
+	/**
+	 * The timestamp at which the current recording period started.<br/>
+	 * This is either the first record, or the end of the last downtime.
+	 */
+	private long startTime = TimeUtils.NO_TIME;
+
+	/**
+	 * The start time of the recording period before the last downtime.
+	 */
+	private long prevStartTime = TimeUtils.NO_TIME;
+
+	/**
+	 * The start time of the last downtime.
+	 */
+	private long lastDts = TimeUtils.NO_TIME;
+
+	/**
+	 * The global time boundaries, based on {@link #startTime},
+	 * {@link #prevStartTime}, and {@link #lastDts}.
+	 */
+	private AnalysisEvent.Boundaries boundaries = new AnalysisEvent.Boundaries(startTime, prevStartTime, lastDts);
+
+	/**
+	 * The unknown antenna ids the user chose to skip all records of.
+	 */
+	private final Set<String> skippedUnknownAntennaIds = new HashSet<String>();
+
+	/**
+	 * The hash of the mappings and arguments to write to the analysis
+	 * snapshot.<br/>
+	 * {@code null} if no snapshot should be written.
+	 */
+	private Long snapshotConfig = null;
+
+	/**
+	 * Whether antenna records were read since the last provisional output update,
+	 * while following a growing antenna data file.
+	 */
+	private boolean pendingUpdate = false;
+
+	/**
+	 * The time of the last provisional output update, as returned by
+	 * {@link System#currentTimeMillis()}.
+	 */
+	private long lastUpdate = 0;
+
+	/**
+	 * Creates a new data handler for a single data analysis.
+	 * 
+	 * @param args         The arguments to be used for this data analysis.
+	 * @param zoneIds      The ids of all known zones.
+	 * @param downtimes    The index of the system downtimes. Can be {@code null}.
+	 * @param totalsStream The output stream handler to write the daily total times
+	 *                     per zone and zone changes to.
+	 * @param staysStream  The output stream handler to write the individual zone
+	 *                     stays to.
+	 * @param turkeyInfos  All the turkeys from the turkeys file, in the order of
+	 *                     their output.
+	 * @param turkeys      All known turkeys, indexed by the handle of their
+	 *                     transponders.
+	 * @param zones        All known zones, indexed by the handle of their antennas.
+	 * @param parallel     Whether the turkeys should be analyzed in parallel.
+	 * @param streaming    Whether the totals of each day should be written as soon
+	 *                     as they are final.<br/>
+	 *                     Only supported when analyzing serially.
+	 */
+	private DataHandler(Arguments args, Set<String> zoneIds, DowntimeIndex downtimes,
+			IOutputStreamHandler totalsStream, IOutputStreamHandler staysStream, List<TurkeyInfo> turkeyInfos,
+			TurkeyInfo[] turkeys, ZoneInfo[] zones, boolean parallel, boolean streaming) {
+		this.args = args;
+		this.zoneIds = zoneIds;
+		this.downtimes = downtimes;
+		this.totalsStream = totalsStream;
+		this.staysStream = staysStream;
+		this.turkeyInfos = turkeyInfos;
+		this.turkeys = turkeys;
+		this.zones = zones;
+
+		if (parallel) {
+			// TurkeyInfo equality depends on its mutable state.
+			tasks = new IdentityHashMap<TurkeyInfo, TurkeyTask>();
+			for (TurkeyInfo turkey : turkeyInfos) {
+				addTask(turkey, globalEvents);
+			}
+			pool = new ForkJoinPool(args.threads);
+		} else {
+			tasks = null;
+			pool = null;
+		}
+
+		if (streaming) {
+			openTurkeys = new ArrayList<TurkeyInfo>(turkeyInfos);
+			unknownTurkeys = new ArrayList<TurkeyInfo>();
+		} else {
+			openTurkeys = null;
+			unknownTurkeys = null;
+		}
+	}
+
 	/**
 	 * Does all the primary data handling.<br/>
 	 * Reads the data from the given streams, and generates output based on it.<br/>
@@ -58,12 +281,87 @@ public static void handleStreams(IInputStreamHandler antennaStream, IInputStream
 			IInputStreamHandler zonesStream, IInputStreamHandler downtimesStream, IOutputStreamHandler totalsStream,
 			IOutputStreamHandler staysStream, Arguments args) throws NullPointerException {
 		Objects.requireNonNull(antennaStream, "The stream handler to read antenna data from can't be null.");
+		handleStreams(Collections.singletonList(antennaStream), turkeyStream, zonesStream, downtimesStream,
+				totalsStream, staysStream, args);
+	}
+
+	/**
+	 * Does all the primary data handling.<br/>
+	 * Reads the data from the given streams, and generates output based on it.<br/>
+	 * Calculates all the expected data.<br/>
+	 * The antenna records of multiple antenna streams are merged by their
+	 * timestamp, so each of them only has to be sorted by itself.
+	 * 
+	 * @param antennaStreams  The stream handlers to read the antenna records from.
+	 * @param turkeyStream    The stream handler to read
+	 *                        {@code turkey id -> transponder ids} mappings from.
+	 * @param zonesStream     The stream handler to read zone definitions from.
+	 * @param downtimesStream The stream handler to read the downtimes from. Can be
+	 *                        {@code null}.
+	 * @param totalsStream    The output stream handler to write the daily total
+	 *                        times per zone and zone changes to.
+	 * @param staysStream     The output stream handler to write the individual zone
+	 *                        stays to.
+	 * @param args            The arguments to be used for this data analysis.
+	 * @throws NullPointerException     If {@code antennaStreams},
+	 *                                  {@code turkeyStream}, {@code zonesStream},
+	 *                                  {@code totalsStream}, {@code staysStream},
+	 *                                  or {@code args} is {@code null}.
+	 * @throws IllegalArgumentException If {@code antennaStreams} is empty.
+	 */
+	public static void handleStreams(List<? extends IInputStreamHandler> antennaStreams,
+			IInputStreamHandler turkeyStream, IInputStreamHandler zonesStream, IInputStreamHandler downtimesStream,
+			IOutputStreamHandler totalsStream, IOutputStreamHandler staysStream, Arguments args)
+			throws NullPointerException, IllegalArgumentException {
+		handleStreams(antennaStreams, turkeyStream, zonesStream, downtimesStream, totalsStream, staysStream, args,
+				null);
+	}
+
+	/**
+	 * Does all the primary data handling.<br/>
+	 * Reads the data from the given streams, and generates output based on it.<br/>
+	 * Calculates all the expected data.<br/>
+	 * If {@code snapshot} isn't {@code null}, the analysis continues from the
+	 * state stored in it.<br/>
+	 * In that case the antenna stream has to start after the last record of the
+	 * previous analysis, and the output streams have to append to the output of
+	 * the previous analysis.
+	 * 
+	 * @param antennaStreams  The stream handlers to read the antenna records from.
+	 * @param turkeyStream    The stream handler to read
+	 *                        {@code turkey id -> transponder ids} mappings from.
+	 * @param zonesStream     The stream handler to read zone definitions from.
+	 * @param downtimesStream The stream handler to read the downtimes from. Can be
+	 *                        {@code null}.
+	 * @param totalsStream    The output stream handler to write the daily total
+	 *                        times per zone and zone changes to.
+	 * @param staysStream     The output stream handler to write the individual zone
+	 *                        stays to.
+	 * @param args            The arguments to be used for this data analysis.
+	 * @param snapshot        The snapshot of a previous analysis to continue. Can
+	 *                        be {@code null}.
+	 * @throws NullPointerException     If {@code antennaStreams},
+	 *                                  {@code turkeyStream}, {@code zonesStream},
+	 *                                  {@code totalsStream}, {@code staysStream},
+	 *                                  or {@code args} is {@code null}.
+	 * @throws IllegalArgumentException If {@code antennaStreams} is empty.
+	 */
+	public static void handleStreams(List<? extends IInputStreamHandler> antennaStreams,
+			IInputStreamHandler turkeyStream, IInputStreamHandler zonesStream, IInputStreamHandler downtimesStream,
+			IOutputStreamHandler totalsStream, IOutputStreamHandler staysStream, Arguments args,
+			AnalysisSnapshot snapshot) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(antennaStreams, "The stream handlers to read antenna data from can't be null.");
 		Objects.requireNonNull(turkeyStream, "The stream handler to read turkey mappings from can't be null.");
 		Objects.requireNonNull(zonesStream, "The stream handler to read zone mappings from can't be null.");
 		Objects.requireNonNull(totalsStream, "The stream handler to write totals to can't be null.");
 		Objects.requireNonNull(staysStream, "The stream handler to write stays to can't be null.");
 		Objects.requireNonNull(args, "The arguments to use cannot be null.");
 
+		if (antennaStreams.isEmpty()) {
+			throw new IllegalArgumentException("There has to be at least one stream to read antenna data from.");
+		}
+		IInputStreamHandler antennaStream = antennaStreams.get(0);
+
 		Map<String, ZoneInfo> zones = CSVHandler.readZonesCSV(zonesStream);
 		if (zones == null) {
 			LogHandler.err_println("Failed to read zone mappings from the input file.");
@@ -88,17 +386,24 @@ public static void handleStreams(IInputStreamHandler antennaStream, IInputStream
 			return;
 		}
 
-		List<Pair<Long, Long>> downtimes = null;
+		DowntimeIndex downtimes = null;
 		if (downtimesStream != null) {
-			downtimes = CSVHandler.readDowntimesCSV(downtimesStream);
+			List<Pair<Long, Long>> downtimeList = CSVHandler.readDowntimesCSV(downtimesStream);
+			if (downtimeList != null) {
+				downtimes = new DowntimeIndex(downtimeList);
+			}
 		}
 
-		totalsStream.println(CSVHandler.turkeyCsvHeader(zoneIds));
-		staysStream.println(CSVHandler.staysCsvHeader());
+		if (snapshot == null) {
+			totalsStream.println(CSVHandler.turkeyCsvHeader(zoneIds));
+			staysStream.println(CSVHandler.staysCsvHeader());
+		}
 
-		if (antennaStream instanceof FileInputStreamHandler) {// TODO convert to some kind of generic getInputName
-			LogHandler.out_println(
-					"Started reading file " + ((FileInputStreamHandler) antennaStream).getInputFile().getPath(), true);
+		for (IInputStreamHandler stream : antennaStreams) {
+			File file = getInputFile(stream);
+			if (file != null) {
+				LogHandler.out_println("Started reading file " + file.getPath(), true);
+			}
 		}
 
 		List<TurkeyInfo> turkeyInfos = new ArrayList<TurkeyInfo>(new LinkedHashSet<TurkeyInfo>(turkeys.values()));
@@ -108,429 +413,118 @@ public static void handleStreams(IInputStreamHandler antennaStream, IInputStream
 			}
 		}
 
-		boolean interactive = args.interactive == null ? System.console() != null : args.interactive;
-
-		String lastDate = null;
-		Map<String, Calendar> lastTimes = new HashMap<String, Calendar>();
-		List<String> dates = new ArrayList<String>();
-		short[] tokenOrder = new short[] { 0, 1, 2, 3 };
-		Calendar startTime = null;
-		Calendar prevStartTime = null;
-		Calendar lastDts = null;
-		Set<String> skippedUnknownAntennaIds = new HashSet<String>();
-
-		read_loop: while (!antennaStream.done()) {
-			AntennaRecord record = CSVHandler.readAntennaRecord(antennaStream, tokenOrder);
-			if (record == null) {
-				LogHandler.err_println("Reading an antenna record from the input file failed.", true);
-				LogHandler.print_debug_info("Antenna Input Stream Handler: %s", antennaStream);
-				continue;
-			}
+		boolean follow = antennaStreams.size() == 1 && antennaStream instanceof FollowFileInputStreamHandler;
+		boolean parallel = args.threads > 0;
+		if (parallel && follow) {
+			LogHandler.out_println("Following the antenna data file, analyzing turkeys serially.", true);
+			parallel = false;
+		}
 
-			TurkeyInfo turkey = null;
-			if (turkeys.containsKey(record.transponder)) {
-				turkey = turkeys.get(record.transponder);
-			} else {
-				LogHandler.err_println(
-						"Received antenna record for unknown transponder id \"" + record.transponder + "\" on day "
-								+ record.date + " at " + record.getTime() + ". Considering it a separate turkey.");
-				LogHandler.print_debug_info("Antenna Record: %s, Arguments: %s", record, args);
-			}
+		if (parallel && totalsStream.printsTemporary()) {
+			LogHandler.out_println("Totals output handles temporary data, analyzing turkeys serially.", true);
+			parallel = false;
+		}
 
-			if (!zones.containsKey(record.antenna)) {
-				LogHandler.err_println(
-						"Received antenna record from unknown antenna id \"" + record.antenna + "\" on day "
-								+ record.date + " at " + record.getTime() + (interactive ? "." : ". Skipping line."));
-				LogHandler.print_debug_info("Antenna Record: %s, Arguments: %s", record, args);
-				if (interactive) {
-					if (skippedUnknownAntennaIds.contains(record.antenna)) {
-						LogHandler.out_println("Skipping record due to previous confirmation.");
-						continue;
-					}
+		if (parallel && args.streaming) {
+			LogHandler.out_println("Streaming the totals output, analyzing turkeys serially.", true);
+			parallel = false;
+		}
 
-					try {
-						BufferedWriter out = ConsoleHelper.getConsoleWriter();
-						out.write("Skip [O]nce, Skip [A]ll with same antenna, or [E]xit?");
-						out.newLine();
-						out.flush();
+		boolean writeSnapshot = args.snapshotFile != null;
+		if (writeSnapshot && (antennaStreams.size() != 1 || !(antennaStream instanceof FileInputStreamHandler)
+				|| !(totalsStream instanceof FileOutputStreamHandler)
+				|| !(staysStream instanceof FileOutputStreamHandler) || getInputFile(turkeyStream) == null
+				|| getInputFile(zonesStream) == null
+				|| (downtimesStream != null && getInputFile(downtimesStream) == null))) {
+			LogHandler.err_println("Analysis snapshots are only supported for a single uncompressed antenna data file,"
+					+ " and uncompressed output files. Not writing a snapshot.");
+			writeSnapshot = false;
+		} else if (writeSnapshot && (args.pipeline || args.parseThreads > 0 || args.recordCache
+				|| args.sortBuffer > 0)) {
+			LogHandler.err_println("Analysis snapshots require the antenna records to be read on the analysis thread."
+					+ " Not writing a snapshot.");
+			writeSnapshot = false;
+		}
 
-						BufferedReader in = ConsoleHelper.getConsoleReader();
-						String response = in.readLine();
-						if (response == null) {
-							LogHandler.err_println("Failed to read response. Exiting");
-							return;
-						}
-						response = response.trim();
-						while (response.length() == 0) {
-							response = in.readLine();
-							if (response == null) {
-								LogHandler.err_println("Failed to read response. Exiting");
-								return;
-							}
-							response = response.trim();
-						}
+		if (snapshot != null && !writeSnapshot) {
+			LogHandler.err_println("Can't continue the analysis from the snapshot. Terminating.");
+			return;
+		}
 
-						if (response.length() > 1) {
-							LogHandler.err_println("Received invalid input \"" + response + "\". Exiting");
-							return;
-						}
+		if (parallel && writeSnapshot) {
+			LogHandler.out_println("Writing an analysis snapshot, analyzing turkeys serially.", true);
+			parallel = false;
+		}
 
-						char c = response.charAt(0);
-						if (c == 'o' || c == 'O') {
-							LogHandler.out_println("Skipping this line and continuing.");
-							continue;
-						} else if (c == 'a' || c == 'A') {
-							LogHandler.out_println("Skipping this line and all future occurrences of this id.");
-							skippedUnknownAntennaIds.add(record.antenna);
-							continue;
-						} else if (c == 'e' || c == 'E') {
-							LogHandler.out_println("Exiting.");
-							return;
-						} else {
-							LogHandler.err_println("Received invalid input " + c + ". Exiting.");
-							return;
-						}
-					} catch (IOException e) {
-						LogHandler.err_println("Getting user confirmation to skip record failed. Exiting.");
-						LogHandler.print_exception(e, "get confirmation to skip record",
-								"Antenna Record: %s, Arguments: %s", record, args);
-						return;
-					}
-				}
-				continue;
-			}
+		if (follow && (args.pipeline || args.parseThreads > 0 || args.recordCache || args.sortBuffer > 0)) {
+			LogHandler.err_println("Following the antenna data file requires reading it on the analysis thread."
+					+ " Ignoring the pipeline, parse threads, record cache, and sort arguments.");
+		}
 
-			long recordMs = record.cal.getTimeInMillis();
-			Calendar downtimeStart = null;
-			Calendar downtimeEnd = null;
-			if (downtimes != null) {
-				for (Pair<Long, Long> downtime : downtimes) {
-					if (recordMs > downtime.getValue()) {
-						// Last record was before or during the downtime, current one is after.
-						if (lastDate != null && lastTimes.get(lastDate).getTimeInMillis() <= downtime.getValue()) {
-							if (downtimeStart == null) {
-								downtimeStart = new GregorianCalendar();
-								downtimeStart.setTimeInMillis(downtime.getKey());
-							}
-							downtimeEnd = new GregorianCalendar();
-							downtimeEnd.setTimeInMillis(downtime.getValue());
-						}
-						continue;
-					}
+		SymbolTable transponders = new SymbolTable();
+		TurkeyInfo[] turkeysById = new TurkeyInfo[turkeys.size()];
+		for (Map.Entry<String, TurkeyInfo> turkey : turkeys.entrySet()) {
+			turkeysById[transponders.intern(turkey.getKey())] = turkey.getValue();
+		}
 
-					if (recordMs >= downtime.getKey()) {
-						downtimeStart = new GregorianCalendar();
-						downtimeStart.setTimeInMillis(downtime.getKey());
-						downtimeEnd = new GregorianCalendar();
-						downtimeEnd.setTimeInMillis(downtime.getValue());
-						LogHandler.err_println(String.format(
-								"Received antenna record for time %s %s, which is during the downtime from %s %s to %s %s. Skipping record.",
-								record.date, record.getTime(), TimeUtils.encodeDate(downtimeStart),
-								TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeStart)),
-								TimeUtils.encodeDate(downtimeEnd),
-								TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeEnd))));
-						LogHandler.print_debug_info(
-								"Antenna Record: %s, Downtime Start Date: %s, Downtime Start Time: %s, Downtime End Date: %s, Downtime End Time: %s, Arguments: %s",
-								record, TimeUtils.encodeDate(downtimeStart),
-								TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeStart)),
-								TimeUtils.encodeDate(downtimeEnd),
-								TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeEnd)), args);
-						if (lastTimes.containsKey(record.date) && record.cal.after(lastTimes.get(record.date))) {
-							lastTimes.put(record.date, record.cal);
-						}
-						continue read_loop;
-					} else {
-						break;
-					}
-				}
-			}
+		SymbolTable antennas = new SymbolTable();
+		ZoneInfo[] zonesById = new ZoneInfo[zones.size()];
+		for (Map.Entry<String, ZoneInfo> zone : zones.entrySet()) {
+			zonesById[antennas.intern(zone.getKey())] = zone.getValue();
+		}
 
-			// Check if there were missing days, indicating an unrecorded downtime.
-			if (downtimeStart == null && downtimeEnd == null && lastDate != null && !record.date.equals(lastDate)
-					&& !TimeUtils.isNextDay(lastDate, record.date)) {
-				downtimeStart = lastTimes.get(lastDate);
-				downtimeEnd = record.cal;
-				LogHandler.out_println(String.format("Skipping days from %s %s to %s %s because there are no records.",
-						TimeUtils.encodeDate(downtimeStart), TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeStart)),
-						record.date, record.getTime()), true);
-				LogHandler.print_debug_info("Antenna Record: %s, Last Date: %s, Last Time: %s, Arguments: %s", record,
-						TimeUtils.encodeDate(downtimeStart), TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeStart)),
+		DataHandler handler = new DataHandler(args, zoneIds, downtimes, totalsStream, staysStream, turkeyInfos,
+				turkeysById, zonesById, parallel, args.streaming || follow);
+		if (writeSnapshot) {
+			try {
+				handler.snapshotConfig = AnalysisSnapshot.hashConfig(getInputFile(turkeyStream),
+						getInputFile(zonesStream), downtimesStream == null ? null : getInputFile(downtimesStream),
 						args);
+			} catch (IOException e) {
+				LogHandler.err_println("Hashing the input mappings failed. Not writing a snapshot.");
+				LogHandler.print_exception(e, "hash input mappings", "Arguments: %s", args);
 			}
+		}
 
-			if (startTime == null) {
-				startTime = record.cal;
-				if (!args.fillDays) {
-					for (TurkeyInfo ti : turkeyInfos) {
-						ti.setStartTime(startTime);
-					}
-				}
-			}
-
-			if (downtimeStart != null && downtimeEnd != null) {
-				if (TimeUtils.isSameDay(downtimeStart, downtimeEnd)) {
-					for (TurkeyInfo ti : turkeyInfos) {
-						if (!args.fillDays) {
-							if (ti.tryUpdate(downtimeStart)) {
-								ti.printCurrentStay(false);
-							}
-						} else if (args.fillDays && ti.hasDay(record.date)) {
-							if (ti.tryUpdate(downtimeStart)) {
-								ti.printCurrentStay(false);
-							}
-						}
-						ti.setStartTime(downtimeEnd);
-					}
-					prevStartTime = startTime;
-					startTime = downtimeEnd;
-					lastDts = downtimeStart;
+		if (snapshot != null) {
+			try {
+				handler.readSnapshot(snapshot, transponders);
+			} catch (IOException e) {
+				File badFile = new File(args.snapshotFile.getPath() + ".bad");
+				if (!badFile.exists() && args.snapshotFile.renameTo(badFile)) {
+					LogHandler.err_println("Reading the analysis snapshot failed. Moved it to " + badFile.getPath()
+							+ ", and terminating.");
 				} else {
-					for (TurkeyInfo ti : turkeyInfos) {
-						if (ti.getCurrentCal() != null && ti.getCurrentCal().after(startTime)) {
-							if (!args.fillDays) {
-								if (ti.tryUpdate(downtimeStart)) {
-									ti.endDay(ti.getCurrentCal());
-									ti.printCurrentStay(false);
-								}
-							} else if (args.fillDays && ti.getCurrentCal() != null) {
-								if (downtimes != null && ti.hasDay(lastDate)) {
-									if (ti.tryUpdate(downtimeStart)) {
-										ti.endDay(downtimeStart, false);
-									}
-								} else if (downtimes == null) {
-									Calendar end = ti.getCurrentCal();
-									end.set(Calendar.HOUR_OF_DAY, 23);
-									end.set(Calendar.MINUTE, 59);
-									end.set(Calendar.SECOND, 59);
-									end.set(Calendar.MILLISECOND, 999);
-									if (ti.tryUpdate(end)) {
-										ti.endDay(ti.getCurrentCal(), false);
-									}
-								}
-								ti.printCurrentStay(false);
-							}
-						}
-
-						if (!args.fillDays || downtimes != null) {
-							ti.setStartTime(downtimeEnd);
-						}
-					}
-
-					prevStartTime = startTime;
-					startTime = downtimeEnd;
-					lastDts = downtimeStart;
-
-					for (String date : dates) {
-						printDayOutput(totalsStream, turkeyInfos, date, zoneIds, true);
-					}
-					dates.clear();
-
-					dates.add(record.date);
-				}
-			}
-
-			if (!record.date.equals(lastDate)) {
-				if (lastDate != null) {
-					if (TimeUtils.parseDate(lastDate).after(record.cal)) {
-						LogHandler.err_println("New antenna record on date " + record.date
-								+ " is on a day before the previous date " + lastDate + ". Skipping line.");
-						LogHandler.print_debug_info(
-								"New Antenna Record: %s, New Time of Day: %s, New Date: %s, Current Time of Day: %s, Current Date: %s, Arguments: %s",
-								record, record.getTime(), record.date,
-								TimeUtils.encodeTime(TimeUtils.getMsOfDay(lastTimes.get(record.date))), lastDate, args);
-						continue;
-					}
-
-					for (TurkeyInfo ti : turkeyInfos) {
-						if (!args.fillDays && ti.getCurrentCal() != null && !ti.getCurrentCal().before(startTime)) {
-							ti.endDay(ti.getCurrentCal());
-						} else if (args.fillDays && ti.hasDay(lastDate)) {
-							if (ti.getEndCal() != null && TimeUtils.isSameDay(ti.getEndCal(), ti.getCurrentCal())) {
-								Calendar end = ti.getCurrentCal();
-								end.set(Calendar.HOUR_OF_DAY, 23);
-								end.set(Calendar.MINUTE, 59);
-								end.set(Calendar.SECOND, 59);
-								end.set(Calendar.MILLISECOND, 999);
-								if (ti.getCurrentCal().before(startTime)) {
-									end = lastDts;
-									ti.setStartTime(prevStartTime);
-								}
-								if (ti.tryUpdate(end)) {
-									ti.endDay(ti.getCurrentCal(), false);
-								}
-								ti.setStartTime(startTime);
-								ti.printCurrentStay(false);
-							} else if (downtimes != null && ti.getCurrentCal().before(startTime)) {
-								ti.setStartTime(prevStartTime);
-								if (ti.tryUpdate(lastDts)) {
-									ti.endDay(ti.getCurrentCal(), false);
-								}
-								ti.setStartTime(startTime);
-								ti.printCurrentStay(false);
-							} else {
-								ti.endDay(ti.getCurrentCal());
-							}
-						}
-					}
-
-					if (totalsStream.printsTemporary()) {
-						printDayOutput(totalsStream, turkeyInfos, lastDate, zoneIds, false);
-					}
-				}
-
-				lastDate = record.date;
-				if (!dates.contains(lastDate)) {
-					dates.add(lastDate);
+					LogHandler.err_println("Reading the analysis snapshot failed. Terminating.");
 				}
-				lastTimes.put(record.date, record.cal);
-			} else if (record.cal.after(lastTimes.get(record.date))) {
-				lastTimes.put(record.date, record.cal);
+				LogHandler.print_exception(e, "read analysis snapshot", "Snapshot File: %s, Arguments: %s",
+						args.snapshotFile, args);
+				return;
 			}
+		}
 
-			// Only happens if the transponder is unknown.
-			if (turkey == null) {
-				try {
-					LogHandler.out_println(
-							"Creating a TurkeyInfo object for unknown id \"" + record.transponder + "\".", true);
-					turkeys.put(record.transponder,
-							new TurkeyInfo(record.transponder, Collections.singletonList(record.transponder),
-									staysStream, zones.get(record.antenna), record.cal,
-									args.fillDays ? null : startTime, null, args));
-					// Adding a turkey could mess up the sorting, since self-sorting maps can't sort
-					// by value.
-					turkeys = MapUtils.sortByValue(turkeys, null);
-				} catch (NullPointerException e) {
-					LogHandler.err_println("Creating a new TurkeyInfo object failed. Terminating.");
-					LogHandler.print_exception(e, "create a new TurkeyInfo",
-							"Turkey id: \"%s\", Transponder: \"%s\", Stays Stream Handler: %s, Initial Zone: \"%s\", Initial Date: %s, Initial Time: %s, Start Date: %s, Start Time %s, Arguments: %s",
-							record.transponder, record.transponder, staysStream, zones.get(record.antenna).getId(),
-							record.date, record.getTime(), startTime == null ? "null" : TimeUtils.encodeDate(startTime),
-							startTime == null ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(startTime)), args);
-					break;
-				}
-			} else {
-				try {
-					if (args.fillDays && lastDts != null && turkey.getCurrentCal() != null
-							&& TimeUtils.isNextDay(turkey.getCurrentCal(), lastDts)
-							&& TimeUtils.isSameDay(lastDts, record.cal) && prevStartTime != null) {
-						turkey.setStartTime(prevStartTime);
-						turkey.tryUpdate(lastDts);
-						turkey.setStartTime(startTime);
-					}
+		IAntennaRecordSource source = writeSnapshot || follow ? null
+				: createRecordSource(antennaStreams, args, transponders, antennas);
 
-					if (turkey.getCurrentCal() != null && record.cal.before(turkey.getCurrentCal())) {
-						LogHandler.err_println("New antenna record at " + record.date + ' ' + record.getTime()
-								+ " for turkey \"" + turkey.getId()
-								+ "\" is before the last one for the same turkey. Skipping line.");
-						LogHandler.print_debug_info(
-								"New Antenna Record: %s, New Time of Day: %s, New Date: %s, Current Time of Day: %s, Current Date: %s, Turkey: %s",
-								record, record.getTime(), record.date, TimeUtils.encodeTime(turkey.getCurrentTime()),
-								turkey.getCurrentDate(), turkey);
-						continue;
-					} else if (turkey.getEndCal() != null && record.cal.after(turkey.getEndCal())) {
-						LogHandler.err_println("New antenna record at " + record.date + ' ' + record.getTime()
-								+ " for turkey \"" + turkey.getId()
-								+ "\" is after that turkeys end time. Updating to its end time instead.");
-						LogHandler.print_debug_info(
-								"New Antenna Record: %s, Record Time of Day: %s, Record Date: %s, End Time of Day: %s, End Date: %s, Turkey: %s",
-								record, record.getTime(), record.date,
-								TimeUtils.encodeTime(TimeUtils.getMsOfDay(turkey.getEndCal())),
-								TimeUtils.encodeDate(turkey.getEndCal()), turkey);
-						if (turkey.tryUpdate(record.cal)) {
-							turkey.endDay(turkey.getCurrentCal(), false);
-							turkey.printCurrentStay(false);
-						} else if (args.fillDays && turkey.getCurrentCal() != null
-								&& !TimeUtils.isSameDay(turkey.getCurrentCal(), turkey.getEndCal())) {
-							turkey.printCurrentStay(false);
-						}
-						continue;
-					} else {
-						turkey.changeZone(zones.get(record.antenna), record.cal);
-					}
-				} catch (IllegalArgumentException e) {
-					LogHandler.err_println(
-							"An error occurred while updating turkey \"" + turkey.getId() + "\". Skipping line.");
-					LogHandler.print_exception(e, "update turkey zone", "New Antenna Record: %s, Turkey: %s", record,
-							turkey);
-				}
+		boolean finished;
+		try {
+			finished = handler.readRecords(antennaStream, source, transponders, antennas);
+		} finally {
+			if (source != null) {
+				source.close();
 			}
 		}
 
-		for (TurkeyInfo ti : turkeyInfos) {
-			if (ti.getCurrentCal() == null) {
-				continue;
-			}
-
-			if (!args.fillDays) {
-				Calendar endCal = lastTimes.get(lastDate);
-				if (downtimes != null) {
-					for (Pair<Long, Long> downtime : downtimes) {
-						if (downtime.getKey() <= endCal.getTimeInMillis()
-								&& downtime.getValue() >= endCal.getTimeInMillis()) {
-							endCal = new GregorianCalendar();
-							endCal.setTimeInMillis(downtime.getKey());
-							break;
-						}
-					}
-				}
-
-				if (ti.tryUpdate(endCal)) {
-					ti.endDay(ti.getCurrentCal());
-					ti.printCurrentStay(false);
-				}
-			} else {
-				if (ti.getCurrentCal().before(startTime) && !ti.getCurrentCal().before(prevStartTime)) {
-					ti.setStartTime(prevStartTime);
-				}
-
-				if (ti.getStartCal() == null || ti.getCurrentCal().after(ti.getStartCal())) {
-					if (downtimes != null) {
-						Calendar dtsCal = null;
-						long current = ti.getCurrentCal().getTimeInMillis();
-						for (Pair<Long, Long> downtime : downtimes) {
-							if (downtime.getKey() >= current) {
-								dtsCal = new GregorianCalendar();
-								dtsCal.setTimeInMillis(downtime.getKey());
-								if (!TimeUtils.isSameDay(ti.getCurrentCal(), dtsCal)) {
-									dtsCal = null;
-								}
-								break;
-							}
-						}
-
-						if (dtsCal != null) {
-							if (ti.tryUpdate(dtsCal)) {
-								ti.endDay(dtsCal, false);
-							}
-						} else {
-							Calendar end = ti.getCurrentCal();
-							end.set(Calendar.HOUR_OF_DAY, 23);
-							end.set(Calendar.MINUTE, 59);
-							end.set(Calendar.SECOND, 59);
-							end.set(Calendar.MILLISECOND, 999);
-							if (ti.tryUpdate(end)) {
-								ti.endDay(ti.getCurrentCal(), false);
-							}
-						}
-					} else {
-						Calendar end = ti.getCurrentCal();
-						end.set(Calendar.HOUR_OF_DAY, 23);
-						end.set(Calendar.MINUTE, 59);
-						end.set(Calendar.SECOND, 59);
-						end.set(Calendar.MILLISECOND, 999);
-						if (ti.tryUpdate(end)) {
-							ti.endDay(ti.getCurrentCal(), false);
-						}
-					}
-					ti.printCurrentStay(false);
-				}
+		if (!finished) {
+			if (parallel) {
+				handler.pool.shutdown();
 			}
+			return;
 		}
 
-		for (String date : dates) {
-			printDayOutput(totalsStream, turkeyInfos, date, zoneIds, true);
+		if (parallel) {
+			handler.analyzeParallel();
 		}
-		printDayOutput(totalsStream, turkeyInfos, null, zoneIds, true);
 
 		try {
 			totalsStream.close();
@@ -541,39 +535,1174 @@ public static void handleStreams(IInputStreamHandler antennaStream, IInputStream
 					"Totals stream handler: %s, Stays stream handler: %s", totalsStream, staysStream);
 		}
 
-		if (antennaStream instanceof FileInputStreamHandler) {// TODO convert to some kind of generic getInputName
-			LogHandler.out_println(
-					"Finished reading file " + ((FileInputStreamHandler) antennaStream).getInputFile().getPath(), true);
+		for (IInputStreamHandler stream : antennaStreams) {
+			File file = getInputFile(stream);
+			if (file != null) {
+				LogHandler.out_println("Finished reading file " + file.getPath(), true);
+			}
 		}
 	}
 
 	/**
-	 * Generates the CSV output for all turkeys that have antenna records on the
-	 * given date.<br/>
-	 * Prints a line for each turkey that has been updated on the given day.<br/>
-	 * Or all turkeys of used for total output.
+	 * Analyzes the antenna records with multiple configurations, while reading
+	 * and parsing them only once.<br/>
+	 * Each configuration has its own analysis state, and writes to its own output
+	 * stream handlers.<br/>
+	 * Records from unknown antennas are always skipped, since the user can't be
+	 * asked separately for each configuration.
 	 * 
-	 * @param output   The {@link IOutputStreamHandler} to write the generated data
-	 *                 to.
-	 * @param turkeys  A collection of all the turkeys that are known.
-	 * @param date     The date for which to generate output. Set to {@code null} to
-	 *                 produce total output.
-	 * @param zones    A collection containing the names of all the zones to write.
-	 * @param finished If {@code true} all data is handled as non temporary.
-	 * @return The newly generated output.
-	 */
-	private static void printDayOutput(IOutputStreamHandler output, Collection<TurkeyInfo> turkeys, String date,
-			Collection<String> zones, boolean finished) {
-		boolean total = date == null;
-		for (TurkeyInfo ti : turkeys) {
-			if (total || ti.hasDay(date)) {
-				if (finished) {
-					output.println(CSVHandler.turkeyToCsvLine(ti, date, zones));
-				} else {
-					output.printDay(ti, date, zones);
-				}
-			}
-		}
+	 * @param antennaStreams  The stream handlers to read the antenna records from.
+	 * @param turkeyStream    The stream handler to read
+	 *                        {@code turkey id -> transponder ids} mappings from.
+	 * @param zonesStream     The stream handler to read zone definitions from.
+	 * @param downtimesStream The stream handler to read the downtimes from. Can be
+	 *                        {@code null}.
+	 * @param totalsStreams   The output stream handlers to write the daily total
+	 *                        times per zone and zone changes of each configuration
+	 *                        to.
+	 * @param staysStreams    The output stream handlers to write the individual
+	 *                        zone stays of each configuration to.
+	 * @param configs         The arguments of each configuration.<br/>
+	 *                        The way the antenna records are read is defined by
+	 *                        the first configuration.
+	 * @throws NullPointerException     If {@code antennaStreams},
+	 *                                  {@code turkeyStream}, {@code zonesStream},
+	 *                                  {@code totalsStreams},
+	 *                                  {@code staysStreams}, or {@code configs} is
+	 *                                  {@code null}.
+	 * @throws IllegalArgumentException If {@code antennaStreams} or
+	 *                                  {@code configs} is empty, or the number of
+	 *                                  output stream handlers doesn't match the
+	 *                                  number of configurations.
+	 */
+	public static void handleSweep(List<? extends IInputStreamHandler> antennaStreams,
+			IInputStreamHandler turkeyStream, IInputStreamHandler zonesStream, IInputStreamHandler downtimesStream,
+			List<? extends IOutputStreamHandler> totalsStreams, List<? extends IOutputStreamHandler> staysStreams,
+			List<Arguments> configs) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(antennaStreams, "The stream handlers to read antenna data from can't be null.");
+		Objects.requireNonNull(turkeyStream, "The stream handler to read turkey mappings from can't be null.");
+		Objects.requireNonNull(zonesStream, "The stream handler to read zone mappings from can't be null.");
+		Objects.requireNonNull(totalsStreams, "The stream handlers to write totals to can't be null.");
+		Objects.requireNonNull(staysStreams, "The stream handlers to write stays to can't be null.");
+		Objects.requireNonNull(configs, "The configurations to use cannot be null.");
+
+		if (antennaStreams.isEmpty()) {
+			throw new IllegalArgumentException("There has to be at least one stream to read antenna data from.");
+		}
+
+		if (configs.isEmpty()) {
+			throw new IllegalArgumentException("There has to be at least one configuration to analyze.");
+		}
+
+		if (totalsStreams.size() != configs.size() || staysStreams.size() != configs.size()) {
+			throw new IllegalArgumentException("There has to be one totals and one stays stream per configuration.");
+		}
+
+		Arguments args = configs.get(0);
+		Map<String, ZoneInfo> zones = CSVHandler.readZonesCSV(zonesStream);
+		if (zones == null) {
+			LogHandler.err_println("Failed to read zone mappings from the input file.");
+			LogHandler.print_debug_info("Zones Input Stream Handler: %s", zonesStream);
+		}
+
+		Set<String> zoneIds = new HashSet<String>();
+		if (zones != null) {
+			for (ZoneInfo zone : zones.values()) {
+				zoneIds.add(zone.getId());
+			}
+		}
+
+		Map<String, TurkeyInfo> turkeys = CSVHandler.readTurkeyCSV(turkeyStream, args,
+				zones == null ? new HashSet<ZoneInfo>() : zones.values());
+		if (turkeys == null) {
+			LogHandler.err_println("Failed to read turkey mappings from the input file.");
+			LogHandler.print_debug_info("Turkey Input Stream Handler: %s", turkeyStream);
+		}
+
+		if (zones == null || turkeys == null) {
+			return;
+		}
+
+		DowntimeIndex downtimes = null;
+		if (downtimesStream != null) {
+			List<Pair<Long, Long>> downtimeList = CSVHandler.readDowntimesCSV(downtimesStream);
+			if (downtimeList != null) {
+				downtimes = new DowntimeIndex(downtimeList);
+			}
+		}
+
+		for (IInputStreamHandler stream : antennaStreams) {
+			File file = getInputFile(stream);
+			if (file != null) {
+				LogHandler.out_println("Started reading file " + file.getPath(), true);
+			}
+		}
+
+		SymbolTable transponders = new SymbolTable();
+		for (String transponder : turkeys.keySet()) {
+			transponders.intern(transponder);
+		}
+
+		SymbolTable antennas = new SymbolTable();
+		ZoneInfo[] zonesById = new ZoneInfo[zones.size()];
+		for (Map.Entry<String, ZoneInfo> zone : zones.entrySet()) {
+			zonesById[antennas.intern(zone.getKey())] = zone.getValue();
+		}
+
+		List<DataHandler> handlers = new ArrayList<DataHandler>();
+		for (int i = 0; i < configs.size(); i++) {
+			Arguments config = configs.get(i);
+			IOutputStreamHandler totalsStream = totalsStreams.get(i);
+			IOutputStreamHandler staysStream = staysStreams.get(i);
+
+			// Each configuration needs its own turkeys, since they hold the analysis state.
+			Map<TurkeyInfo, TurkeyInfo> copies = new IdentityHashMap<TurkeyInfo, TurkeyInfo>();
+			TurkeyInfo[] turkeysById = new TurkeyInfo[turkeys.size()];
+			List<TurkeyInfo> turkeyInfos = new ArrayList<TurkeyInfo>();
+			for (Map.Entry<String, TurkeyInfo> turkey : turkeys.entrySet()) {
+				TurkeyInfo ti = turkey.getValue();
+				TurkeyInfo copy = copies.get(ti);
+				if (copy == null) {
+					copy = new TurkeyInfo(ti.getId(), ti.getTransponders(), staysStream, ti.getCurrentZone(),
+							TimeUtils.NO_TIME, TimeUtils.NO_TIME, ti.getEndMs(), config);
+					copies.put(ti, copy);
+					turkeyInfos.add(copy);
+				}
+				turkeysById[transponders.intern(turkey.getKey())] = copy;
+			}
+
+			totalsStream.println(CSVHandler.turkeyCsvHeader(zoneIds));
+			staysStream.println(CSVHandler.staysCsvHeader());
+
+			boolean parallel = config.threads > 0 && !totalsStream.printsTemporary() && !config.streaming;
+			handlers.add(new DataHandler(config, zoneIds, downtimes, totalsStream, staysStream, turkeyInfos,
+					turkeysById, zonesById, parallel, config.streaming));
+		}
+
+		IAntennaRecordSource source = createRecordSource(antennaStreams, args, transponders, antennas);
+		try {
+			sweepRecords(antennaStreams.get(0), source, transponders, antennas, handlers);
+		} finally {
+			if (source != null) {
+				source.close();
+			}
+		}
+
+		for (int i = 0; i < handlers.size(); i++) {
+			if (handlers.get(i).tasks != null) {
+				handlers.get(i).analyzeParallel();
+			}
+
+			try {
+				totalsStreams.get(i).close();
+				staysStreams.get(i).close();
+			} catch (IOException e) {
+				LogHandler.err_println("An exception occurred while closing an output stream handler.", true);
+				LogHandler.print_exception(e, "close output stream handler",
+						"Totals stream handler: %s, Stays stream handler: %s", totalsStreams.get(i),
+						staysStreams.get(i));
+			}
+		}
+
+		for (IInputStreamHandler stream : antennaStreams) {
+			File file = getInputFile(stream);
+			if (file != null) {
+				LogHandler.out_println("Finished reading file " + file.getPath(), true);
+			}
+		}
+	}
+
+	/**
+	 * Creates the source to read the antenna records from, based on the given
+	 * arguments.
+	 * 
+	 * @param antennaStreams The stream handlers to read the antenna records from.
+	 * @param args           The arguments defining how to read the records.
+	 * @param transponders   The symbol table to resolve the transponder ids with.
+	 * @param antennas       The symbol table to resolve the antenna ids with.
+	 * @return The source to read the antenna records from, or {@code null} to
+	 *         read them from the single antenna stream on the analysis thread.
+	 */
+	private static IAntennaRecordSource createRecordSource(List<? extends IInputStreamHandler> antennaStreams,
+			Arguments args, SymbolTable transponders, SymbolTable antennas) {
+		IInputStreamHandler antennaStream = antennaStreams.get(0);
+		File inputFile = antennaStreams.size() == 1 ? getInputFile(antennaStream) : null;
+
+		IAntennaRecordSource source = null;
+		boolean writeCache = false;
+		if (args.recordCache && inputFile == null) {
+			LogHandler.err_println("The record cache only supports a single antenna data file. Not using it.");
+		} else if (args.recordCache) {
+			source = AntennaRecordArchive.open(inputFile, transponders, antennas);
+			writeCache = source == null;
+		}
+
+		if (source == null && antennaStreams.size() > 1) {
+			source = new AntennaRecordMerger(antennaStreams, transponders, antennas, args.pipeline);
+		} else if (source == null && args.parseThreads > 0
+				&& !(antennaStream instanceof CompressedFileInputStreamHandler) && inputFile != null) {
+			try {
+				source = new AntennaRecordChunkParser(inputFile, args.parseThreads,
+						AntennaRecordChunkParser.getChunkSize(inputFile.length(), args.parseThreads), transponders,
+						antennas);
+			} catch (IOException e) {
+				LogHandler.err_println(
+						"Opening the antenna data file for parallel parsing failed. Parsing it serially.");
+				LogHandler.print_exception(e, "open antenna data file", "Input Stream Handler: %s", antennaStream);
+			}
+		}
+
+		if (source == null && args.pipeline) {
+			source = new AntennaRecordPipeline(antennaStream, transponders, antennas);
+		}
+
+		if (writeCache) {
+			if (source == null) {
+				source = new AntennaRecordMerger(antennaStreams, transponders, antennas, false);
+			}
+			source = AntennaRecordArchive.write(inputFile, source);
+		}
+
+		if (args.sortBuffer > 0) {
+			if (source == null) {
+				source = new AntennaRecordMerger(antennaStreams, transponders, antennas, false);
+			}
+			source = new AntennaRecordSorter(source, transponders, antennas, args.sortBuffer, args.externalSort);
+		}
+
+		return source;
+	}
+
+	/**
+	 * Gets the file the given input stream handler reads from.
+	 * 
+	 * @param input The input stream handler to get the file of.
+	 * @return The input file, or {@code null} if the handler doesn't read from a
+	 *         file.
+	 */
+	private static File getInputFile(IInputStreamHandler input) {
+		if (input instanceof FileInputStreamHandler) {
+			return ((FileInputStreamHandler) input).getInputFile();
+		} else if (input instanceof MappedFileInputStreamHandler) {
+			return ((MappedFileInputStreamHandler) input).getInputFile();
+		} else if (input instanceof CompressedFileInputStreamHandler) {
+			return ((CompressedFileInputStreamHandler) input).getInputFile();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads all antenna records from the given stream, and generates the
+	 * {@link AnalysisEvent AnalysisEvents} for them.<br/>
+	 * When analyzing serially, the events are applied immediately.<br/>
+	 * Otherwise they are collected, and analyzed at the end of each day.
+	 * 
+	 * @param antennaStream The stream handler to read the antenna records from.
+	 * @param source        The source providing the parsed antenna records, for
+	 *                      example on separate threads. {@code null} to read them
+	 *                      from {@code antennaStream} on this thread.
+	 * @param transponders  The symbol table to resolve the transponder ids
+	 *                      with.<br/>
+	 *                      Only used by this thread if {@code source} is
+	 *                      {@code null}.
+	 * @param antennas      The symbol table to resolve the antenna ids with.<br/>
+	 *                      Only used by this thread if {@code source} is
+	 *                      {@code null}.
+	 * @return {@code false} if the analysis was canceled, and no further output
+	 *         should be written.
+	 */
+	private boolean readRecords(IInputStreamHandler antennaStream, IAntennaRecordSource source,
+			SymbolTable transponders, SymbolTable antennas) {
+		boolean interactive = args.interactive == null ? System.console() != null : args.interactive;
+		FollowFileInputStreamHandler followStream = null;
+		if (source == null && antennaStream instanceof FollowFileInputStreamHandler) {
+			followStream = (FollowFileInputStreamHandler) antennaStream;
+		}
+
+		FileInputStreamHandler snapshotStream = null;
+		if (snapshotConfig != null) {
+			snapshotStream = (FileInputStreamHandler) antennaStream;
+		}
+
+		while (source == null ? !antennaStream.done() : !source.done()) {
+			if (followStream != null && !followStream.available()) {
+				awaitRecords(followStream);
+				continue;
+			}
+
+			AntennaRecord record = source == null
+					? CSVHandler.readAntennaRecord(antennaStream, tokenOrder, transponders, antennas)
+					: source.next();
+			pendingUpdate = true;
+			if (snapshotStream != null && snapshotStream.getLineStartPosition() != snapshotStream.getPosition()) {
+				// The line may still be incomplete, so the snapshot is taken before it, and resumes at its start.
+				LogHandler.out_println("The last line of the antenna data file isn't terminated."
+						+ " Writing the snapshot before it.", true);
+				writeSnapshot(snapshotStream);
+				snapshotStream = null;
+			}
+
+			if (record == null) {
+				LogHandler.err_println("Reading an antenna record from the input file failed.", true);
+				LogHandler.print_debug_info("Antenna Input Stream Handler: %s", antennaStream);
+				continue;
+			}
+
+			RecordResult result = handleRecord(record, interactive);
+			if (result == RecordResult.ABORT) {
+				return false;
+			} else if (result == RecordResult.STOP) {
+				break;
+			}
+		}
+
+		if (snapshotStream != null) {
+			writeSnapshot(snapshotStream);
+		}
+
+		finishRecords();
+		return true;
+	}
+
+	/**
+	 * Generates the {@link AnalysisEvent AnalysisEvents} for a single antenna
+	 * record.
+	 * 
+	 * @param record      The antenna record to handle.
+	 * @param interactive Whether the user should be asked what to do with records
+	 *                    from unknown antennas.
+	 * @return What to do after handling this record.
+	 */
+	private RecordResult handleRecord(AntennaRecord record, boolean interactive) {
+		TurkeyInfo turkey = record.transponderId < turkeys.length ? turkeys[record.transponderId] : null;
+		if (turkey == null) {
+			LogHandler.err_println(
+					"Received antenna record for unknown transponder id \"" + record.transponder + "\" on day "
+							+ record.date + " at " + record.getTime() + ". Considering it a separate turkey.");
+			LogHandler.print_debug_info("Antenna Record: %s, Arguments: %s", record, args);
+		}
+
+		ZoneInfo zone = record.antennaId < zones.length ? zones[record.antennaId] : null;
+		if (zone == null) {
+			LogHandler.err_println(
+					"Received antenna record from unknown antenna id \"" + record.antenna + "\" on day "
+							+ record.date + " at " + record.getTime() + (interactive ? "." : ". Skipping line."));
+			LogHandler.print_debug_info("Antenna Record: %s, Arguments: %s", record, args);
+			if (interactive) {
+				if (skippedUnknownAntennaIds.contains(record.antenna)) {
+					LogHandler.out_println("Skipping record due to previous confirmation.");
+					return RecordResult.CONTINUE;
+				}
+
+				try {
+					BufferedWriter out = ConsoleHelper.getConsoleWriter();
+					out.write("Skip [O]nce, Skip [A]ll with same antenna, or [E]xit?");
+					out.newLine();
+					out.flush();
+
+					BufferedReader in = ConsoleHelper.getConsoleReader();
+					String response = in.readLine();
+					if (response == null) {
+						LogHandler.err_println("Failed to read response. Exiting");
+						return RecordResult.ABORT;
+					}
+					response = response.trim();
+					while (response.length() == 0) {
+						response = in.readLine();
+						if (response == null) {
+							LogHandler.err_println("Failed to read response. Exiting");
+							return RecordResult.ABORT;
+						}
+						response = response.trim();
+					}
+
+					if (response.length() > 1) {
+						LogHandler.err_println("Received invalid input \"" + response + "\". Exiting");
+						return RecordResult.ABORT;
+					}
+
+					char c = response.charAt(0);
+					if (c == 'o' || c == 'O') {
+						LogHandler.out_println("Skipping this line and continuing.");
+						return RecordResult.CONTINUE;
+					} else if (c == 'a' || c == 'A') {
+						LogHandler.out_println("Skipping this line and all future occurrences of this id.");
+						skippedUnknownAntennaIds.add(record.antenna);
+						return RecordResult.CONTINUE;
+					} else if (c == 'e' || c == 'E') {
+						LogHandler.out_println("Exiting.");
+						return RecordResult.ABORT;
+					} else {
+						LogHandler.err_println("Received invalid input " + c + ". Exiting.");
+						return RecordResult.ABORT;
+					}
+				} catch (IOException e) {
+					LogHandler.err_println("Getting user confirmation to skip record failed. Exiting.");
+					LogHandler.print_exception(e, "get confirmation to skip record",
+							"Antenna Record: %s, Arguments: %s", record, args);
+					return RecordResult.ABORT;
+				}
+			}
+			return RecordResult.CONTINUE;
+		}
+
+		long downtimeStart = TimeUtils.NO_TIME;
+		long downtimeEnd = TimeUtils.NO_TIME;
+		if (downtimes != null) {
+			int next = downtimes.nextEnding(record.time);
+			if (next < downtimes.size() && record.time >= downtimes.getStart(next)) {
+				downtimeStart = downtimes.getStart(next);
+				downtimeEnd = downtimes.getEnd(next);
+				LogHandler.err_println(String.format(
+						"Received antenna record for time %s %s, which is during the downtime from %s %s to %s %s. Skipping record.",
+						record.date, record.getTime(), TimeUtils.encodeDate(downtimeStart),
+						TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeStart)),
+						TimeUtils.encodeDate(downtimeEnd),
+						TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeEnd))));
+				LogHandler.print_debug_info(
+						"Antenna Record: %s, Downtime Start Date: %s, Downtime Start Time: %s, Downtime End Date: %s, Downtime End Time: %s, Arguments: %s",
+						record, TimeUtils.encodeDate(downtimeStart),
+						TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeStart)),
+						TimeUtils.encodeDate(downtimeEnd),
+						TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeEnd)), args);
+				if (lastDate != null && record.day == lastDay && record.time > lastTime) {
+					lastTime = record.time;
+				}
+				return RecordResult.CONTINUE;
+			} else if (lastDate != null && next > 0 && lastTime <= downtimes.getEnd(next - 1)) {
+				// Last record was before or during these downtimes, current one is after.
+				int first = downtimes.searchEnding(lastTime);
+				downtimeStart = downtimes.getStart(first);
+				downtimeEnd = downtimes.getEnd(next - 1);
+			}
+		}
+
+		// Check if there were missing days, indicating an unrecorded downtime.
+		if (downtimeStart == TimeUtils.NO_TIME && downtimeEnd == TimeUtils.NO_TIME && lastDate != null
+				&& record.day != lastDay && record.day != lastDay + 1) {
+			downtimeStart = lastTime;
+			downtimeEnd = record.time;
+			LogHandler.out_println(String.format("Skipping days from %s %s to %s %s because there are no records.",
+					TimeUtils.encodeDate(downtimeStart), TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeStart)),
+					record.date, record.getTime()), true);
+			LogHandler.print_debug_info("Antenna Record: %s, Last Date: %s, Last Time: %s, Arguments: %s", record,
+					TimeUtils.encodeDate(downtimeStart), TimeUtils.encodeTime(TimeUtils.getMsOfDay(downtimeStart)),
+					args);
+		}
+
+		if (startTime == TimeUtils.NO_TIME) {
+			startTime = record.time;
+			boundaries = new AnalysisEvent.Boundaries(startTime, prevStartTime, lastDts);
+			if (!args.fillDays) {
+				dispatch(new AnalysisEvent.StartEvent(sequence++, startTime));
+			}
+		}
+
+		if (downtimeStart != TimeUtils.NO_TIME && downtimeEnd != TimeUtils.NO_TIME) {
+			if (TimeUtils.isSameDay(downtimeStart, downtimeEnd)) {
+				dispatch(new AnalysisEvent.SameDayDowntimeEvent(sequence++, downtimeStart, downtimeEnd,
+						record.day));
+				prevStartTime = startTime;
+				startTime = downtimeEnd;
+				lastDts = downtimeStart;
+				boundaries = new AnalysisEvent.Boundaries(startTime, prevStartTime, lastDts);
+			} else {
+				dispatch(new AnalysisEvent.MultiDayDowntimeEvent(sequence++, downtimeStart, downtimeEnd, startTime,
+						lastDay));
+				prevStartTime = startTime;
+				startTime = downtimeEnd;
+				lastDts = downtimeStart;
+				boundaries = new AnalysisEvent.Boundaries(startTime, prevStartTime, lastDts);
+
+				for (String date : dates) {
+					printDayOutput(date, true);
+				}
+				dates.clear();
+
+				dates.add(record.date);
+			}
+		}
+
+		if (lastDate == null || record.day != lastDay) {
+			if (lastDate != null) {
+				if (record.day < lastDay) {
+					LogHandler.err_println("New antenna record on date " + record.date
+							+ " is on a day before the previous date " + lastDate + ". Skipping line.");
+					LogHandler.print_debug_info(
+							"New Antenna Record: %s, New Time of Day: %s, New Date: %s, Current Time of Day: %s, Current Date: %s, Arguments: %s",
+							record, record.getTime(), record.date,
+							TimeUtils.encodeTime(TimeUtils.getMsOfDay(lastTime)), lastDate, args);
+					return RecordResult.CONTINUE;
+				}
+
+				dispatch(new AnalysisEvent.DayChangeEvent(sequence++, boundaries, lastDay));
+				if (tasks != null) {
+					analyzeSegment();
+				}
+
+				if (totalsStream.printsTemporary()) {
+					printDayOutput(lastDate, false);
+				}
+			}
+
+			lastDate = record.date;
+			lastDay = record.day;
+			if (!dates.contains(lastDate)) {
+				dates.add(lastDate);
+			}
+			lastTime = record.time;
+
+			if (openTurkeys != null) {
+				streamDays(dates, lastDay, record.time);
+			}
+		} else if (record.time > lastTime) {
+			lastTime = record.time;
+		}
+
+		// Only happens if the transponder is unknown.
+		if (turkey == null) {
+			try {
+				LogHandler.out_println(
+						"Creating a TurkeyInfo object for unknown id \"" + record.transponder + "\".", true);
+				turkey = new TurkeyInfo(record.transponder, Collections.singletonList(record.transponder),
+						staysStream, zone, record.time,
+						args.fillDays ? TimeUtils.NO_TIME : startTime, TimeUtils.NO_TIME, args);
+				if (record.transponderId >= turkeys.length) {
+					turkeys = Arrays.copyOf(turkeys, Math.max(record.transponderId + 1, turkeys.length * 2));
+				}
+				turkeys[record.transponderId] = turkey;
+				if (tasks != null) {
+					addTask(turkey, Collections.<AnalysisEvent>emptyList());
+				}
+				if (unknownTurkeys != null) {
+					unknownTurkeys.add(turkey);
+				}
+			} catch (NullPointerException e) {
+				LogHandler.err_println("Creating a new TurkeyInfo object failed. Terminating.");
+				LogHandler.print_exception(e, "create a new TurkeyInfo",
+						"Turkey id: \"%s\", Transponder: \"%s\", Stays Stream Handler: %s, Initial Zone: \"%s\", Initial Date: %s, Initial Time: %s, Start Date: %s, Start Time %s, Arguments: %s",
+						record.transponder, record.transponder, staysStream, zone.getId(),
+						record.date, record.getTime(),
+						startTime == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeDate(startTime),
+						startTime == TimeUtils.NO_TIME ? "null"
+								: TimeUtils.encodeTime(TimeUtils.getMsOfDay(startTime)),
+						args);
+				return RecordResult.STOP;
+			}
+		} else {
+			dispatch(new AnalysisEvent.RecordEvent(sequence++, turkey, record, zone,
+					boundaries));
+		}
+
+		return RecordResult.CONTINUE;
+	}
+
+	/**
+	 * Handles the end of the antenna records, and writes the remaining totals.
+	 */
+	private void finishRecords() {
+		dispatch(new AnalysisEvent.EndEvent(sequence++, lastTime, boundaries));
+
+		for (String date : dates) {
+			printDayOutput(date, true);
+		}
+		printDayOutput(null, true);
+	}
+
+	/**
+	 * Reads all antenna records from the given stream, and passes each of them to
+	 * all given data handlers.<br/>
+	 * A data handler that stops reading records doesn't receive further records,
+	 * but the others still do.
+	 * 
+	 * @param antennaStream The stream handler to read the antenna records from.
+	 * @param source        The source providing the parsed antenna records.
+	 *                      {@code null} to read them from {@code antennaStream}
+	 *                      on this thread.
+	 * @param transponders  The symbol table to resolve the transponder ids with.
+	 * @param antennas      The symbol table to resolve the antenna ids with.
+	 * @param handlers      The data handlers to analyze the records with.
+	 */
+	private static void sweepRecords(IInputStreamHandler antennaStream, IAntennaRecordSource source,
+			SymbolTable transponders, SymbolTable antennas, List<DataHandler> handlers) {
+		// The token order is detected once, and shared by all configurations.
+		short[] tokenOrder = handlers.get(0).tokenOrder;
+		List<DataHandler> active = new ArrayList<DataHandler>(handlers);
+		while (!active.isEmpty() && (source == null ? !antennaStream.done() : !source.done())) {
+			AntennaRecord record = source == null
+					? CSVHandler.readAntennaRecord(antennaStream, tokenOrder, transponders, antennas)
+					: source.next();
+			if (record == null) {
+				LogHandler.err_println("Reading an antenna record from the input file failed.", true);
+				LogHandler.print_debug_info("Antenna Input Stream Handler: %s", antennaStream);
+				continue;
+			}
+
+			Iterator<DataHandler> it = active.iterator();
+			while (it.hasNext()) {
+				if (it.next().handleRecord(record, false) != RecordResult.CONTINUE) {
+					it.remove();
+				}
+			}
+		}
+
+		for (DataHandler handler : handlers) {
+			handler.finishRecords();
+		}
+	}
+
+	/**
+	 * Waits for new antenna records in a followed antenna data file.<br/>
+	 * Writes the totals of the current day as temporary data, and flushes the
+	 * output streams, if records were read since the last update, and the last
+	 * update was at least {@link Arguments#followInterval args.followInterval}
+	 * seconds ago.
+	 * 
+	 * @param antennaStream The stream handler following the antenna data file.
+	 */
+	private void awaitRecords(FollowFileInputStreamHandler antennaStream) {
+		long now = System.currentTimeMillis();
+		if (pendingUpdate && now - lastUpdate >= args.followInterval * 1000L) {
+			if (lastDate != null && totalsStream.printsTemporary()) {
+				printDayOutput(lastDate, false);
+			}
+
+			try {
+				totalsStream.flush();
+				staysStream.flush();
+			} catch (IOException e) {
+				LogHandler.err_println("Flushing the provisional output failed.");
+				LogHandler.print_exception(e, "flush provisional output",
+						"Totals stream handler: %s, Stays stream handler: %s", totalsStream, staysStream);
+			}
+
+			pendingUpdate = false;
+			lastUpdate = now;
+		}
+
+		try {
+			Thread.sleep(FollowFileInputStreamHandler.POLL_INTERVAL);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			antennaStream.stop();
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the current analysis state to
+	 * {@link Arguments#snapshotFile args.snapshotFile}.<br/>
+	 * Called after the last antenna record was read, but before the end of the
+	 * input is handled.
+	 * 
+	 * @param antennaStream The stream handler the antenna records were read from.
+	 */
+	private void writeSnapshot(FileInputStreamHandler antennaStream) {
+		try {
+			totalsStream.flush();
+			staysStream.flush();
+
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bout);
+			out.writeBoolean(lastDate != null);
+			if (lastDate != null) {
+				out.writeUTF(lastDate);
+			}
+			out.writeInt(lastDay);
+			out.writeLong(lastTime);
+			out.writeInt(dates.size());
+			for (String date : dates) {
+				out.writeUTF(date);
+			}
+			for (short token : tokenOrder) {
+				out.writeShort(token);
+			}
+			out.writeLong(startTime);
+			out.writeLong(prevStartTime);
+			out.writeLong(lastDts);
+			out.writeLong(sequence);
+			out.writeInt(skippedUnknownAntennaIds.size());
+			for (String antenna : skippedUnknownAntennaIds) {
+				out.writeUTF(antenna);
+			}
+
+			out.writeInt(turkeyInfos.size());
+			for (TurkeyInfo ti : turkeyInfos) {
+				out.writeUTF(ti.getId());
+				out.writeBoolean(openTurkeys != null && openTurkeys.contains(ti));
+				ti.writeState(out);
+			}
+
+			Set<TurkeyInfo> unknown = Collections.newSetFromMap(new IdentityHashMap<TurkeyInfo, Boolean>());
+			for (TurkeyInfo ti : turkeys) {
+				if (ti != null) {
+					unknown.add(ti);
+				}
+			}
+			unknown.removeAll(turkeyInfos);
+
+			out.writeInt(unknown.size());
+			for (TurkeyInfo ti : unknown) {
+				out.writeUTF(ti.getId());
+				ti.writeState(out);
+			}
+			out.close();
+
+			AnalysisSnapshot.write(args.snapshotFile, antennaStream.getInputFile(),
+					antennaStream.getLineStartPosition(), snapshotConfig,
+					((FileOutputStreamHandler) totalsStream).getOutputFile(),
+					((FileOutputStreamHandler) staysStream).getOutputFile(), bout.toByteArray());
+			LogHandler.out_println("Wrote the analysis snapshot to " + args.snapshotFile.getPath() + ".", true);
+		} catch (IOException e) {
+			LogHandler.err_println("Writing the analysis snapshot failed.");
+			LogHandler.print_exception(e, "write analysis snapshot", "Snapshot File: %s, Arguments: %s",
+					args.snapshotFile, args);
+		}
+	}
+
+	/**
+	 * Restores the analysis state from the given snapshot.<br/>
+	 * Also adds the turkeys created for unknown transponders before the snapshot
+	 * was taken.
+	 * 
+	 * @param snapshot     The snapshot to restore the state from.
+	 * @param transponders The symbol table to resolve the transponder ids with.
+	 * @throws IOException If reading the snapshot fails, or it doesn't match the
+	 *                     turkeys or zones.
+	 */
+	private void readSnapshot(AnalysisSnapshot snapshot, SymbolTable transponders) throws IOException {
+		Map<String, ZoneInfo> zonesById = new HashMap<String, ZoneInfo>();
+		for (ZoneInfo zone : zones) {
+			if (zone != null) {
+				zonesById.put(zone.getId(), zone);
+			}
+		}
+
+		try (DataInputStream in = snapshot.openState()) {
+			lastDate = in.readBoolean() ? in.readUTF() : null;
+			lastDay = in.readInt();
+			lastTime = in.readLong();
+			dates.clear();
+			int dateCount = in.readInt();
+			for (int i = 0; i < dateCount; i++) {
+				dates.add(in.readUTF());
+			}
+			for (int i = 0; i < tokenOrder.length; i++) {
+				tokenOrder[i] = in.readShort();
+			}
+			startTime = in.readLong();
+			prevStartTime = in.readLong();
+			lastDts = in.readLong();
+			boundaries = new AnalysisEvent.Boundaries(startTime, prevStartTime, lastDts);
+			sequence = in.readLong();
+			skippedUnknownAntennaIds.clear();
+			int skipped = in.readInt();
+			for (int i = 0; i < skipped; i++) {
+				skippedUnknownAntennaIds.add(in.readUTF());
+			}
+
+			if (in.readInt() != turkeyInfos.size()) {
+				throw new IOException("The number of turkeys doesn't match.");
+			}
+
+			for (TurkeyInfo ti : turkeyInfos) {
+				String id = in.readUTF();
+				if (!id.equals(ti.getId())) {
+					throw new IOException("Expected turkey \"" + ti.getId() + "\", but got \"" + id + "\".");
+				}
+
+				if (!in.readBoolean() && openTurkeys != null) {
+					openTurkeys.remove(ti);
+				}
+				ti.readState(in, zonesById);
+			}
+
+			int unknownCount = in.readInt();
+			for (int i = 0; i < unknownCount; i++) {
+				String transponder = in.readUTF();
+				TurkeyInfo turkey = new TurkeyInfo(transponder, Collections.singletonList(transponder), staysStream,
+						null, TimeUtils.NO_TIME, TimeUtils.NO_TIME, TimeUtils.NO_TIME, args);
+				turkey.readState(in, zonesById);
+
+				int id = transponders.intern(transponder);
+				if (id >= turkeys.length) {
+					turkeys = Arrays.copyOf(turkeys, Math.max(id + 1, turkeys.length * 2));
+				}
+				turkeys[id] = turkey;
+				if (unknownTurkeys != null) {
+					unknownTurkeys.add(turkey);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the given event to the turkeys it belongs to, or adds it to the
+	 * tasks of those turkeys.
+	 * 
+	 * @param event The event to dispatch.
+	 */
+	private void dispatch(AnalysisEvent event) {
+		TurkeyInfo turkey = event.getTurkey();
+		if (tasks != null) {
+			if (turkey == null) {
+				globalEvents.add(event);
+			} else {
+				tasks.get(turkey).add(event);
+			}
+		} else if (turkey == null) {
+			for (TurkeyInfo ti : turkeyInfos) {
+				event.apply(this, ti, totalsStream);
+			}
+		} else {
+			event.apply(this, turkey, totalsStream);
+		}
+	}
+
+	/**
+	 * Creates the parallel analysis task for the given turkey.
+	 * 
+	 * @param turkey       The turkey to create a task for.
+	 * @param globalEvents The global events to apply to the turkey.
+	 */
+	private void addTask(TurkeyInfo turkey, List<AnalysisEvent> globalEvents) {
+		TurkeyTask task = new TurkeyTask(this, turkey, globalEvents);
+		tasks.put(turkey, task);
+		taskList.add(task);
+	}
+
+	/**
+	 * Runs the tasks of all turkeys on the {@link ForkJoinPool}, and writes their
+	 * output in the same order as when analyzing them serially.<br/>
+	 * Afterwards the applied events and the buffered output are discarded, so only
+	 * the events of a single day are kept in memory.
+	 */
+	private void analyzeSegment() {
+		for (TurkeyTask task : taskList) {
+			task.reinitialize();
+			pool.execute(task);
+		}
+
+		for (TurkeyTask task : taskList) {
+			task.join();
+		}
+
+		List<SequencedOutputStreamHandler> stays = new ArrayList<SequencedOutputStreamHandler>(taskList.size());
+		List<SequencedOutputStreamHandler> totals = new ArrayList<SequencedOutputStreamHandler>(taskList.size());
+		for (TurkeyTask task : taskList) {
+			stays.add(task.stays);
+			totals.add(task.totals);
+		}
+
+		SequencedOutputStreamHandler.writeMerged(stays, staysStream);
+		SequencedOutputStreamHandler.writeMerged(totals, totalsStream);
+
+		for (TurkeyTask task : taskList) {
+			task.clear();
+		}
+		globalEvents.clear();
+	}
+
+	/**
+	 * Analyzes the events after the last day change in parallel, and shuts down
+	 * the {@link ForkJoinPool} afterwards.
+	 */
+	private void analyzeParallel() {
+		try {
+			analyzeSegment();
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Handles a downtime that starts and ends on the same day for a single turkey.
+	 * 
+	 * @param ti            The turkey to update.
+	 * @param downtimeStart The start time of the downtime.
+	 * @param downtimeEnd   The end time of the downtime.
+	 * @param day           The day of the first record after the downtime.
+	 */
+	void handleSameDayDowntime(TurkeyInfo ti, long downtimeStart, long downtimeEnd, int day) {
+		if (!args.fillDays) {
+			if (ti.tryUpdate(downtimeStart)) {
+				ti.printCurrentStay(false);
+			}
+		} else if (args.fillDays && ti.hasDay(day)) {
+			if (ti.tryUpdate(downtimeStart)) {
+				ti.printCurrentStay(false);
+			}
+		}
+		ti.setStartTime(downtimeEnd);
+	}
+
+	/**
+	 * Handles a downtime spanning multiple days for a single turkey.
+	 * 
+	 * @param ti            The turkey to update.
+	 * @param downtimeStart The start time of the downtime.
+	 * @param downtimeEnd   The end time of the downtime.
+	 * @param startTime     The start time of the recording period before the
+	 *                      downtime.
+	 * @param lastDay       The day of the last record before the downtime.
+	 */
+	void handleMultiDayDowntime(TurkeyInfo ti, long downtimeStart, long downtimeEnd, long startTime, int lastDay) {
+		if (ti.getCurrentMs() != TimeUtils.NO_TIME && ti.getCurrentMs() > startTime) {
+			if (!args.fillDays) {
+				if (ti.tryUpdate(downtimeStart)) {
+					ti.endDay(ti.getCurrentMs());
+					ti.printCurrentStay(false);
+				}
+			} else if (args.fillDays) {
+				if (downtimes != null && ti.hasDay(lastDay)) {
+					if (ti.tryUpdate(downtimeStart)) {
+						ti.endDay(downtimeStart, false);
+					}
+				} else if (downtimes == null) {
+					if (ti.tryUpdate(TimeUtils.getDayEnd(ti.getCurrentMs()))) {
+						ti.endDay(ti.getCurrentMs(), false);
+					}
+				}
+				ti.printCurrentStay(false);
+			}
+		}
+
+		if (!args.fillDays || downtimes != null) {
+			ti.setStartTime(downtimeEnd);
+		}
+	}
+
+	/**
+	 * Ends the previous day for a single turkey, once the first record of a new
+	 * day was read.
+	 * 
+	 * @param ti         The turkey to update.
+	 * @param boundaries The global time boundaries at the time of the day change.
+	 * @param lastDay    The day that ended.
+	 */
+	void handleDayChange(TurkeyInfo ti, AnalysisEvent.Boundaries boundaries, int lastDay) {
+		if (!args.fillDays && ti.getCurrentMs() != TimeUtils.NO_TIME && ti.getCurrentMs() >= boundaries.startTime) {
+			ti.endDay(ti.getCurrentMs());
+		} else if (args.fillDays && ti.hasDay(lastDay)) {
+			if (ti.getEndMs() != TimeUtils.NO_TIME
+					&& TimeUtils.isSameDay(ti.getEndMs(), ti.getCurrentMs())) {
+				long end = TimeUtils.getDayEnd(ti.getCurrentMs());
+				if (ti.getCurrentMs() < boundaries.startTime) {
+					end = boundaries.lastDts;
+					ti.setStartTime(boundaries.prevStartTime);
+				}
+				if (ti.tryUpdate(end)) {
+					ti.endDay(ti.getCurrentMs(), false);
+				}
+				ti.setStartTime(boundaries.startTime);
+				ti.printCurrentStay(false);
+			} else if (downtimes != null && ti.getCurrentMs() < boundaries.startTime) {
+				ti.setStartTime(boundaries.prevStartTime);
+				if (ti.tryUpdate(boundaries.lastDts)) {
+					ti.endDay(ti.getCurrentMs(), false);
+				}
+				ti.setStartTime(boundaries.startTime);
+				ti.printCurrentStay(false);
+			} else {
+				ti.endDay(ti.getCurrentMs());
+			}
+		}
+	}
+
+	/**
+	 * Applies a single antenna record to its turkey.
+	 * 
+	 * @param turkey     The turkey the record belongs to.
+	 * @param record     The antenna record to apply.
+	 * @param zone       The zone the record was recorded in.
+	 * @param boundaries The global time boundaries at the time of the record.
+	 */
+	void handleRecord(TurkeyInfo turkey, AntennaRecord record, ZoneInfo zone, AnalysisEvent.Boundaries boundaries) {
+		try {
+			if (args.fillDays && boundaries.lastDts != TimeUtils.NO_TIME && turkey.getCurrentMs() != TimeUtils.NO_TIME
+					&& TimeUtils.isNextDay(turkey.getCurrentMs(), boundaries.lastDts)
+					&& TimeUtils.isSameDay(boundaries.lastDts, record.time)
+					&& boundaries.prevStartTime != TimeUtils.NO_TIME) {
+				turkey.setStartTime(boundaries.prevStartTime);
+				turkey.tryUpdate(boundaries.lastDts);
+				turkey.setStartTime(boundaries.startTime);
+			}
+
+			if (turkey.getCurrentMs() != TimeUtils.NO_TIME && record.time < turkey.getCurrentMs()) {
+				LogHandler.err_println("New antenna record at " + record.date + ' ' + record.getTime()
+						+ " for turkey \"" + turkey.getId()
+						+ "\" is before the last one for the same turkey. Skipping line.");
+				LogHandler.print_debug_info(
+						"New Antenna Record: %s, New Time of Day: %s, New Date: %s, Current Time of Day: %s, Current Date: %s, Turkey: %s",
+						record, record.getTime(), record.date, TimeUtils.encodeTime(turkey.getCurrentTime()),
+						turkey.getCurrentDate(), turkey);
+				return;
+			} else if (turkey.getEndMs() != TimeUtils.NO_TIME && record.time > turkey.getEndMs()) {
+				LogHandler.err_println("New antenna record at " + record.date + ' ' + record.getTime()
+						+ " for turkey \"" + turkey.getId()
+						+ "\" is after that turkeys end time. Updating to its end time instead.");
+				LogHandler.print_debug_info(
+						"New Antenna Record: %s, Record Time of Day: %s, Record Date: %s, End Time of Day: %s, End Date: %s, Turkey: %s",
+						record, record.getTime(), record.date,
+						TimeUtils.encodeTime(TimeUtils.getMsOfDay(turkey.getEndMs())),
+						TimeUtils.encodeDate(turkey.getEndMs()), turkey);
+				if (turkey.tryUpdate(record.time)) {
+					turkey.endDay(turkey.getCurrentMs(), false);
+					turkey.printCurrentStay(false);
+				} else if (args.fillDays && turkey.getCurrentMs() != TimeUtils.NO_TIME
+						&& !TimeUtils.isSameDay(turkey.getCurrentMs(), turkey.getEndMs())) {
+					turkey.printCurrentStay(false);
+				}
+				return;
+			} else {
+				turkey.changeZone(zone, record.time);
+			}
+		} catch (IllegalArgumentException e) {
+			LogHandler.err_println(
+					"An error occurred while updating turkey \"" + turkey.getId() + "\". Skipping line.");
+			LogHandler.print_exception(e, "update turkey zone", "New Antenna Record: %s, Turkey: %s", record,
+					turkey);
+		}
+	}
+
+	/**
+	 * Ends the analysis for a single turkey, after the last record was read.
+	 * 
+	 * @param ti         The turkey to update.
+	 * @param lastTime   The time of the last record.
+	 * @param boundaries The global time boundaries at the end of the input.
+	 */
+	void handleEnd(TurkeyInfo ti, long lastTime, AnalysisEvent.Boundaries boundaries) {
+		if (ti.getCurrentMs() == TimeUtils.NO_TIME) {
+			return;
+		}
+
+		if (!args.fillDays) {
+			long end = lastTime;
+			if (downtimes != null) {
+				int downtime = downtimes.indexOf(end);
+				if (downtime != -1) {
+					end = downtimes.getStart(downtime);
+				}
+			}
+
+			if (ti.tryUpdate(end)) {
+				ti.endDay(ti.getCurrentMs());
+				ti.printCurrentStay(false);
+			}
+		} else {
+			if (ti.getCurrentMs() < boundaries.startTime && ti.getCurrentMs() >= boundaries.prevStartTime) {
+				ti.setStartTime(boundaries.prevStartTime);
+			}
+
+			if (ti.getStartMs() == TimeUtils.NO_TIME || ti.getCurrentMs() > ti.getStartMs()) {
+				long end = TimeUtils.getDayEnd(ti.getCurrentMs());
+				if (downtimes != null) {
+					long current = ti.getCurrentMs();
+					int downtime = downtimes.nextStarting(current);
+					if (downtime < downtimes.size() && TimeUtils.isSameDay(current, downtimes.getStart(downtime))) {
+						end = downtimes.getStart(downtime);
+					}
+				}
+
+				if (ti.tryUpdate(end)) {
+					ti.endDay(ti.getCurrentMs(), false);
+				}
+				ti.printCurrentStay(false);
+			}
+		}
+	}
+
+	/**
+	 * Writes the totals of all days no turkey can change anymore, and removes their
+	 * data from memory.<br/>
+	 * Turkeys that ended, and have no data left, are no longer checked.
+	 * 
+	 * @param dates   The dates that weren't written yet, in order.<br/>
+	 *                Written dates are removed from this list.
+	 * @param readDay The index of the day of the last record read from the input.
+	 * @param now     The time of the last record read from the input.
+	 */
+	private void streamDays(List<String> dates, int readDay, long now) {
+		int open = readDay;
+		for (TurkeyInfo ti : openTurkeys) {
+			open = Math.min(open, ti.getFirstOpenDay(now));
+		}
+
+		while (!dates.isEmpty() && TimestampParser.get().parseDay(dates.get(0)) < open) {
+			printDayOutput(dates.remove(0), true);
+		}
+
+		Iterator<TurkeyInfo> it = openTurkeys.iterator();
+		while (it.hasNext()) {
+			TurkeyInfo ti = it.next();
+			if (ti.evictDays(open) && ti.getFirstOpenDay(now) == Integer.MAX_VALUE
+					&& ti.getEndMs() != TimeUtils.NO_TIME && now > ti.getEndMs()) {
+				it.remove();
+			}
+		}
+
+		for (TurkeyInfo ti : unknownTurkeys) {
+			ti.evictDays(Math.min(readDay, ti.getFirstOpenDay(now)));
+		}
+	}
+
+	/**
+	 * Generates the CSV output for all turkeys that have antenna records on the
+	 * given date.<br/>
+	 * Prints a line for each turkey that has been updated on the given day.<br/>
+	 * Or all turkeys of used for total output.
+	 * 
+	 * @param date     The date for which to generate output. Set to {@code null} to
+	 *                 produce total output.
+	 * @param finished If {@code true} all data is handled as non temporary.
+	 */
+	private void printDayOutput(String date, boolean finished) {
+		int day = date == null ? 0 : TimestampParser.get().parseDay(date);
+		dispatch(new AnalysisEvent.PrintDayEvent(sequence++, date, day, finished));
+	}
+
+	/**
+	 * Generates the CSV output for a single turkey, if it has antenna records on
+	 * the given date.
+	 * 
+	 * @param output   The {@link IOutputStreamHandler} to write the generated data
+	 *                 to.
+	 * @param ti       The turkey to write the output for.
+	 * @param date     The date for which to generate output. Set to {@code null} to
+	 *                 produce total output.
+	 * @param day      The index of the day for which to generate output.
+	 * @param finished If {@code true} all data is handled as non temporary.
+	 */
+	void printDayOutput(IOutputStreamHandler output, TurkeyInfo ti, String date, int day, boolean finished) {
+		if (date == null || ti.hasDay(day)) {
+			if (finished) {
+				ByteLineBuilder line = CSVHandler.appendTurkeyCsvLine(ByteLineBuilder.get(), ti, date, zoneIds);
+				output.println(line.getBuffer(), line.length(), false);
+			} else {
+				output.printDay(ti, date, zoneIds);
+			}
+		}
+	}
+
+	/**
+	 * An enum specifying what to do after handling a single antenna record.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private enum RecordResult {
+		/**
+		 * Continue with the next antenna record.
+		 */
+		CONTINUE,
+		/**
+		 * Stop reading antenna records, but still write the output.
+		 */
+		STOP,
+		/**
+		 * Cancel the analysis, without writing further output.
+		 */
+		ABORT;
 	}
 
 }
@@ -0,0 +1,231 @@
+package com.tome25.auswertung;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import com.tome25.auswertung.utils.Pair;
+
+/**
+ * A sorted index of the system downtimes.<br/>
+ * Stores the start and end times of the downtimes in primitive arrays, sorted
+ * by their start time.<br/>
+ * Overlapping downtimes are merged, so the end times are sorted too.<br/>
+ * <br/>
+ * {@link #nextEnding(long)} uses a cursor, which only moves forward while the
+ * queried times don't decrease, like the times of sorted antenna records.<br/>
+ * Queries for earlier times fall back to a binary search.<br/>
+ * Because of this cursor {@link #nextEnding(long)} is NOT thread safe.<br/>
+ * All other methods only read the immutable arrays, and can be used by multiple
+ * threads at once.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public final class DowntimeIndex {
+
+	/**
+	 * The comparator used to sort the downtimes by their start time.
+	 */
+	private static final Comparator<Pair<Long, Long>> START_COMPARATOR = new Comparator<Pair<Long, Long>>() {
+		@Override
+		public int compare(Pair<Long, Long> o1, Pair<Long, Long> o2) {
+			return o1.getKey().compareTo(o2.getKey());
+		}
+	};
+
+	/**
+	 * The start times of the downtimes.
+	 */
+	private final long[] starts;
+
+	/**
+	 * The end times of the downtimes.
+	 */
+	private final long[] ends;
+
+	/**
+	 * The index of the first downtime that ended at or after the time of the last
+	 * {@link #nextEnding(long)} query.
+	 */
+	private int cursor = 0;
+
+	/**
+	 * The time of the last {@link #nextEnding(long)} query.
+	 */
+	private long cursorTime = Long.MIN_VALUE;
+
+	/**
+	 * Creates a new downtime index containing the given downtimes.<br/>
+	 * The downtimes don't have to be sorted, and may overlap.
+	 * 
+	 * @param downtimes The downtimes to index, as start and end time pairs.
+	 * @throws NullPointerException     If {@code downtimes}, one of its pairs, or
+	 *                                  one of their times is {@code null}.
+	 * @throws IllegalArgumentException If a downtime ends before it starts.
+	 */
+	public DowntimeIndex(Collection<Pair<Long, Long>> downtimes)
+			throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(downtimes, "The downtimes to index can't be null.");
+
+		List<Pair<Long, Long>> sorted = new ArrayList<Pair<Long, Long>>(downtimes);
+		for (Pair<Long, Long> downtime : sorted) {
+			Objects.requireNonNull(downtime, "The downtimes to index can't contain null.");
+			Objects.requireNonNull(downtime.getKey(), "The start of a downtime can't be null.");
+			Objects.requireNonNull(downtime.getValue(), "The end of a downtime can't be null.");
+			if (downtime.getValue() < downtime.getKey()) {
+				throw new IllegalArgumentException("A downtime can't end before it starts.");
+			}
+		}
+		Collections.sort(sorted, START_COMPARATOR);
+
+		long[] starts = new long[sorted.size()];
+		long[] ends = new long[sorted.size()];
+		int size = 0;
+		for (Pair<Long, Long> downtime : sorted) {
+			if (size > 0 && downtime.getKey() <= ends[size - 1]) {
+				if (downtime.getValue() > ends[size - 1]) {
+					ends[size - 1] = downtime.getValue();
+				}
+			} else {
+				starts[size] = downtime.getKey();
+				ends[size] = downtime.getValue();
+				size++;
+			}
+		}
+
+		this.starts = size < starts.length ? Arrays.copyOf(starts, size) : starts;
+		this.ends = size < ends.length ? Arrays.copyOf(ends, size) : ends;
+	}
+
+	/**
+	 * Gets the number of downtimes in this index, after merging overlapping ones.
+	 * 
+	 * @return The number of downtimes.
+	 */
+	public int size() {
+		return starts.length;
+	}
+
+	/**
+	 * Gets the start time of the downtime with the given index.
+	 * 
+	 * @param index The index of the downtime.
+	 * @return The start time of the downtime.
+	 * @throws ArrayIndexOutOfBoundsException If {@code index} is less than 0, or
+	 *                                        not less than {@link #size()}.
+	 */
+	public long getStart(int index) throws ArrayIndexOutOfBoundsException {
+		return starts[index];
+	}
+
+	/**
+	 * Gets the end time of the downtime with the given index.
+	 * 
+	 * @param index The index of the downtime.
+	 * @return The end time of the downtime.
+	 * @throws ArrayIndexOutOfBoundsException If {@code index} is less than 0, or
+	 *                                        not less than {@link #size()}.
+	 */
+	public long getEnd(int index) throws ArrayIndexOutOfBoundsException {
+		return ends[index];
+	}
+
+	/**
+	 * Gets the index of the first downtime that ends at or after the given
+	 * time.<br/>
+	 * Moves the cursor forward if {@code time} isn't before the time of the last
+	 * call, and uses a binary search otherwise.<br/>
+	 * <b>WARNING:</b> This method is NOT thread safe.
+	 * 
+	 * @param time The time to look up.
+	 * @return The index of the downtime. {@link #size()} if all downtimes ended
+	 *         before {@code time}.
+	 */
+	public int nextEnding(long time) {
+		if (time >= cursorTime) {
+			while (cursor < ends.length && ends[cursor] < time) {
+				cursor++;
+			}
+		} else {
+			cursor = search(ends, time);
+		}
+
+		cursorTime = time;
+		return cursor;
+	}
+
+	/**
+	 * Gets the index of the first downtime that ends at or after the given
+	 * time.<br/>
+	 * Same as {@link #nextEnding(long)}, but always uses a binary search and
+	 * doesn't move the cursor.<br/>
+	 * Thread safe, since it doesn't use the cursor.
+	 * 
+	 * @param time The time to look up.
+	 * @return The index of the downtime. {@link #size()} if all downtimes ended
+	 *         before {@code time}.
+	 */
+	public int searchEnding(long time) {
+		return search(ends, time);
+	}
+
+	/**
+	 * Gets the index of the downtime containing the given time.<br/>
+	 * The start and end times of a downtime are part of it.<br/>
+	 * Thread safe, since it doesn't use the cursor.
+	 * 
+	 * @param time The time to look up.
+	 * @return The index of the downtime, or -1 if {@code time} isn't in a
+	 *         downtime.
+	 */
+	public int indexOf(long time) {
+		int index = search(ends, time);
+		return index < starts.length && starts[index] <= time ? index : -1;
+	}
+
+	/**
+	 * Gets the index of the first downtime that starts at or after the given
+	 * time.<br/>
+	 * Thread safe, since it doesn't use the cursor.
+	 * 
+	 * @param time The time to look up.
+	 * @return The index of the downtime. {@link #size()} if all downtimes started
+	 *         before {@code time}.
+	 */
+	public int nextStarting(long time) {
+		return search(starts, time);
+	}
+
+	/**
+	 * Finds the index of the first value that is at least {@code time} in a sorted
+	 * array.
+	 * 
+	 * @param values The sorted values to search.
+	 * @param time   The time to look up.
+	 * @return The index of the first value not less than {@code time}, or the
+	 *         length of {@code values} if there is none.
+	 */
+	private static int search(long[] values, long time) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (values[mid] < time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(getClass().getSimpleName() + "[downtimes=%d, cursor=%d]", starts.length, cursor);
+	}
+
+}
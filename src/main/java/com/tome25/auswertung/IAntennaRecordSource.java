@@ -0,0 +1,37 @@
+package com.tome25.auswertung;
+
+/**
+ * The interface defining the common methods for all classes providing parsed
+ * {@link AntennaRecord AntennaRecords} to the {@link DataHandler}.<br/>
+ * Used instead of reading the records from a single input stream handler on
+ * the analysis thread.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+interface IAntennaRecordSource {
+
+	/**
+	 * Checks whether all records were read.<br/>
+	 * May block until the next record is available.
+	 * 
+	 * @return {@code true} if there are no more records.
+	 * @throws RuntimeException If reading the records failed with an unexpected
+	 *                          exception.
+	 */
+	boolean done() throws RuntimeException;
+
+	/**
+	 * Gets the next record.<br/>
+	 * Must only be called after {@link #done()} returned {@code false}.
+	 * 
+	 * @return The next record. {@code null} if parsing a record failed.
+	 */
+	AntennaRecord next();
+
+	/**
+	 * Stops all threads used by this source, and waits for them to finish.<br/>
+	 * Does NOT close the input stream handlers the records are read from.
+	 */
+	void close();
+
+}
@@ -3,13 +3,22 @@
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import com.tome25.auswertung.args.Arguments;
 import com.tome25.auswertung.log.LogHandler;
+import com.tome25.auswertung.stream.AsyncOutputStreamHandler;
+import com.tome25.auswertung.stream.CompressedFileInputStreamHandler;
 import com.tome25.auswertung.stream.FileInputStreamHandler;
 import com.tome25.auswertung.stream.FileOutputStreamHandler;
+import com.tome25.auswertung.stream.FollowFileInputStreamHandler;
+import com.tome25.auswertung.stream.FollowShutdownHook;
+import com.tome25.auswertung.stream.GzipFileOutputStreamHandler;
 import com.tome25.auswertung.stream.IInputStreamHandler;
 import com.tome25.auswertung.stream.IOutputStreamHandler;
+import com.tome25.auswertung.stream.MappedFileInputStreamHandler;
 import com.tome25.auswertung.utils.FileUtils;
 import com.tome25.auswertung.utils.StringUtils;
 
@@ -65,6 +74,11 @@ public class PutenAuswertung {
 	 */
 	public static final String DEFAULT_LOG_FILE = "PutenAuswertung.log";
 
+	/**
+	 * The default file to write the analysis snapshot to.
+	 */
+	public static final String DEFAULT_SNAPSHOT_FILE = "PutenAuswertung.snapshot";
+
 	/**
 	 * The method initially called by the JVM on program startup.<br/>
 	 * A wrapper calling {@link #run} and exiting with its returned int.
@@ -103,11 +117,19 @@ public static int run(String... args) {
 		}
 
 		File antennaFile = null;
+		List<File> antennaFiles = null;
 		if (argHandler.antennaDataInput != null) {
-			antennaFile = new File(argHandler.antennaDataInput);
+			try {
+				antennaFiles = FileUtils.listInputFiles(argHandler.antennaDataInput);
+			} catch (IOException e) {
+				LogHandler.err_println("Failed to list the antenna data input files.");
+				LogHandler.print_exception(e, "list antenna data input files", "Antenna data input: \"%s\"",
+						argHandler.antennaDataInput);
+				antennaFiles = new ArrayList<File>();
+			}
 
-			if (!antennaFile.exists() || !antennaFile.isFile()) {
-				antennaFile = null;
+			if (antennaFiles.isEmpty()) {
+				antennaFiles = null;
 				LogHandler.err_println("The antenna data input file \"" + argHandler.antennaDataInput
 						+ "\" doesn't exist or isn't a file.");
 			}
@@ -134,16 +156,20 @@ public static int run(String... args) {
 			if (antennaFile == null) {
 				LogHandler.err_println("No antenna records input file found. This program looks for a file called \""
 						+ DEFAULT_INPUT_FILE[0] + "\" in the directory you are executing this command in.");
+			} else {
+				antennaFiles = Collections.singletonList(antennaFile);
 			}
 		}
 
-		if (antennaFile != null) {
-			try {
-				LogHandler.out_println(
-						String.format("Using antenna records input file \"%s\".", antennaFile.getCanonicalPath()));
-			} catch (IOException e) {
-				LogHandler.err_println("An error occurred while getting a files canonical path.");
-				LogHandler.print_exception(e, "get canonical path", "File: %s", antennaFile);
+		if (antennaFiles != null) {
+			for (File file : antennaFiles) {
+				try {
+					LogHandler.out_println(
+							String.format("Using antenna records input file \"%s\".", file.getCanonicalPath()));
+				} catch (IOException e) {
+					LogHandler.err_println("An error occurred while getting a files canonical path.");
+					LogHandler.print_exception(e, "get canonical path", "File: %s", file);
+				}
 			}
 		}
 
@@ -246,9 +272,14 @@ public static int run(String... args) {
 			}
 		}
 
-		if (antennaFile != null && antennaFile.exists() && !antennaFile.canRead()) {
-			LogHandler.err_println("The antenna records input file cannot be read.");
-			antennaFile = null;
+		if (antennaFiles != null) {
+			for (File file : antennaFiles) {
+				if (file.exists() && !file.canRead()) {
+					LogHandler.err_println("The antenna records input file \"" + file + "\" cannot be read.");
+					antennaFiles = null;
+					break;
+				}
+			}
 		}
 
 		if (turkeyFile != null && turkeyFile.exists() && !turkeyFile.canRead()) {
@@ -266,33 +297,60 @@ public static int run(String... args) {
 			downtimeFile = null;
 		}
 
-		if (antennaFile == null || turkeyFile == null || zoneFile == null || (downtimeFile == null && usingDowntimes)) {
+		if (antennaFiles == null || turkeyFile == null || zoneFile == null
+				|| (downtimeFile == null && usingDowntimes)) {
 			return 2;
 		}
 
-		File totalFile = null;
-		if (argHandler.totalsOutput != null) {
-			totalFile = new File(argHandler.totalsOutput);
+		List<Arguments> configs = new ArrayList<Arguments>();
+		List<String> suffixes = new ArrayList<String>();
+		boolean sweep = argHandler.sweepMinTimes != null || argHandler.sweepFillDays;
+		if (sweep) {
+			if (argHandler.snapshotFile != null) {
+				LogHandler.err_println("Analysis snapshots aren't supported for sweeps. Not using a snapshot.");
+				argHandler.snapshotFile = null;
+			}
+
+			if (argHandler.followInterval > 0) {
+				LogHandler.err_println("Following the antenna data isn't supported for sweeps. Reading it once.");
+				argHandler.followInterval = 0;
+			}
+
+			int[] minTimes = argHandler.sweepMinTimes;
+			if (minTimes == null) {
+				minTimes = new int[] { argHandler.minTime };
+			}
+
+			for (int minTime : minTimes) {
+				if (argHandler.sweepFillDays) {
+					configs.add(argHandler.forSweep(minTime, false));
+					suffixes.add("_min" + minTime);
+					configs.add(argHandler.forSweep(minTime, true));
+					suffixes.add("_min" + minTime + "_fill");
+				} else {
+					configs.add(argHandler.forSweep(minTime, argHandler.fillDays));
+					suffixes.add("_min" + minTime);
+				}
+			}
 		} else {
-			totalFile = new File(DEFAULT_TOTALS_FILE);
+			configs.add(argHandler);
+			suffixes.add("");
 		}
 
-		try {
-			totalFile = FileUtils.getOutputFile(totalFile, argHandler);
-		} catch (IOException e) {
-			LogHandler.err_println("Failed to check what file to write totals to.");
-			totalFile = null;
+		AnalysisSnapshot snapshot = null;
+		if (argHandler.snapshotFile != null) {
+			snapshot = AnalysisSnapshot.resume(argHandler.snapshotFile, antennaFiles, turkeyFile, zoneFile,
+					usingDowntimes && downtimeFile != null && downtimeFile.exists() ? downtimeFile : null,
+					new File(argHandler.totalsOutput != null ? argHandler.totalsOutput : DEFAULT_TOTALS_FILE),
+					new File(argHandler.staysOutput != null ? argHandler.staysOutput : DEFAULT_STAYS_FILE),
+					argHandler);
 		}
 
-		if (totalFile != null) {
-			try {
-				LogHandler.out_println("Writing totals to file \"" + totalFile.getCanonicalPath() + "\".");
-			} catch (IOException e) {
-				LogHandler.err_println("An error occurred while getting a files canonical path.");
-				LogHandler.print_exception(e, "get canonical path", "File: %s", totalFile);
-			}
+		File totalFile = null;
+		if (argHandler.totalsOutput != null) {
+			totalFile = new File(argHandler.totalsOutput);
 		} else {
-			return 3;
+			totalFile = new File(DEFAULT_TOTALS_FILE);
 		}
 
 		File stayFile = null;
@@ -302,72 +360,62 @@ public static int run(String... args) {
 			stayFile = new File(DEFAULT_STAYS_FILE);
 		}
 
-		try {
-			stayFile = FileUtils.getOutputFile(stayFile, argHandler);
-		} catch (IOException e) {
-			LogHandler.err_println("Failed to check what file to write stays to.");
-			stayFile = null;
-		}
+		List<File> totalFiles = new ArrayList<File>();
+		List<File> stayFiles = new ArrayList<File>();
+		for (String suffix : suffixes) {
+			File file = getOutputFile(FileUtils.addSuffix(totalFile, suffix), "totals", snapshot != null, argHandler);
+			if (file == null) {
+				return 3;
+			}
+			totalFiles.add(file);
 
-		if (stayFile != null) {
-			try {
-				LogHandler.out_println("Writing zone stays to file \"" + stayFile.getCanonicalPath() + "\".");
-			} catch (IOException e) {
-				LogHandler.err_println("An error occurred while getting a files canonical path.");
-				LogHandler.print_exception(e, "get canonical path", "File: %s", stayFile);
+			file = getOutputFile(FileUtils.addSuffix(stayFile, suffix), "zone stays", snapshot != null, argHandler);
+			if (file == null) {
+				return 3;
 			}
-		} else {
-			return 3;
+			stayFiles.add(file);
 		}
 
-		if (totalFile != null) {
-			try {
-				if (!FileUtils.createFile(totalFile)) {
-					totalFile = null;
-				}
-			} catch (IOException e) {
-				LogHandler.err_println("Failed to create totals output file.");
-				LogHandler.print_exception(e, "create totals file", "Totals File: %s, Arguments: %s", totalFile, args);
-				totalFile = null;
-			}
+		boolean follow = argHandler.followInterval > 0;
+		if (follow && antennaFiles.size() != 1) {
+			LogHandler.err_println("Following the antenna data is only supported for a single file. Reading it once.");
+			follow = false;
 		}
 
-		if (stayFile != null) {
+		FollowFileInputStreamHandler followHandler = null;
+		List<IInputStreamHandler> antennaHandlers = new ArrayList<IInputStreamHandler>();
+		for (File file : antennaFiles) {
 			try {
-				if (!FileUtils.createFile(stayFile)) {
-					stayFile = null;
+				CompressedFileInputStreamHandler.Format format = CompressedFileInputStreamHandler.detectFormat(file);
+				if (format != null && follow) {
+					LogHandler.err_println("Following compressed antenna data files isn't supported. Reading it once.");
+					follow = false;
+				}
+
+				if (format != null) {
+					antennaHandlers.add(new CompressedFileInputStreamHandler(file, format));
+				} else if (follow) {
+					followHandler = new FollowFileInputStreamHandler(file, FileInputStreamHandler.DEFAULT_BUFFER_SIZE,
+							snapshot == null ? 0 : snapshot.getInputPosition());
+					antennaHandlers.add(followHandler);
+				} else if (snapshot != null) {
+					antennaHandlers.add(new FileInputStreamHandler(file, FileInputStreamHandler.DEFAULT_BUFFER_SIZE,
+							snapshot.getInputPosition()));
+				} else if (argHandler.memoryMap) {
+					antennaHandlers.add(new MappedFileInputStreamHandler(file));
+				} else {
+					antennaHandlers.add(new FileInputStreamHandler(file));
 				}
 			} catch (IOException e) {
-				LogHandler.err_println("Failed to create stays output file.");
-				LogHandler.print_exception(e, "create stays file", "Stays File: %s, Arguments: %s", stayFile, args);
-				stayFile = null;
+				LogHandler.err_println("Failed to open input stream for antenna record input file.");
+				LogHandler.print_exception(e, "init file input stream handler",
+						"Antenna record file: \"%s\", Arguments: [%s]", file.getAbsolutePath(),
+						StringUtils.join(", ", args));
+				antennaHandlers = null;
+				break;
 			}
 		}
 
-		if (totalFile != null && !totalFile.canWrite()) {
-			LogHandler.err_println("Cannot write to the totals output file.");
-			totalFile = null;
-		}
-
-		if (stayFile != null && !stayFile.canWrite()) {
-			LogHandler.err_println("Cannot write to the zone stays output file.");
-			stayFile = null;
-		}
-
-		if (totalFile == null || stayFile == null) {
-			return 3;
-		}
-
-		IInputStreamHandler antennaHandler = null;
-		try {
-			antennaHandler = new FileInputStreamHandler(antennaFile);
-		} catch (FileNotFoundException e) {
-			LogHandler.err_println("Failed to open input stream for antenna record input file.");
-			LogHandler.print_exception(e, "init file input stream handler",
-					"Antenna record file: \"%s\", Arguments: [%s]", antennaFile.getAbsolutePath(),
-					StringUtils.join(", ", args));
-		}
-
 		IInputStreamHandler turkeyHandler = null;
 		try {
 			turkeyHandler = new FileInputStreamHandler(turkeyFile);
@@ -400,33 +448,141 @@ public static int run(String... args) {
 					StringUtils.join(", ", args));
 		}
 
-		IOutputStreamHandler totalHandler = null;
-		try {
-			totalHandler = new FileOutputStreamHandler(totalFile, false, true);
-		} catch (FileNotFoundException e) {
-			LogHandler.err_println("Faild to open file output stream for generated totals data.");
-			LogHandler.print_exception(e, "init totals output stream handler", "Totals file: \"%s\"",
-					totalFile.getAbsolutePath());
-		}
+		List<IOutputStreamHandler> totalHandlers = new ArrayList<IOutputStreamHandler>();
+		List<IOutputStreamHandler> staysHandlers = new ArrayList<IOutputStreamHandler>();
+		for (int i = 0; i < configs.size(); i++) {
+			IOutputStreamHandler totalHandler = openOutput(totalFiles.get(i), "totals", follow, snapshot != null,
+					argHandler);
+			IOutputStreamHandler staysHandler = openOutput(stayFiles.get(i), "zone stays", false, snapshot != null,
+					argHandler);
+			if (totalHandler == null || staysHandler == null) {
+				return 4;
+			}
 
-		IOutputStreamHandler staysHandler = null;
-		try {
-			staysHandler = new FileOutputStreamHandler(stayFile, false, true);
-		} catch (FileNotFoundException e) {
-			LogHandler.err_println("Faild to open file output stream for generated zone stays data.");
-			LogHandler.print_exception(e, "init stays output stream handler", "Stays file: \"%s\"",
-					stayFile.getAbsolutePath());
+			totalHandlers.add(totalHandler);
+			staysHandlers.add(staysHandler);
 		}
 
-		if (antennaHandler == null || turkeyHandler == null || zoneHandler == null || totalHandler == null
-				|| staysHandler == null) {
+		if (antennaHandlers == null || turkeyHandler == null || zoneHandler == null) {
 			return 4;
 		}
 
-		DataHandler.handleStreams(antennaHandler, turkeyHandler, zoneHandler, downtimeHandler, totalHandler,
-				staysHandler, argHandler);
+		FollowShutdownHook followHook = null;
+		Thread followHookThread = null;
+		if (followHandler != null) {
+			followHook = new FollowShutdownHook(followHandler);
+			followHookThread = new Thread(followHook, "Follow Shutdown Hook");
+			Runtime.getRuntime().addShutdownHook(followHookThread);
+			LogHandler.out_println("Following the antenna data file. Terminate the program to stop.");
+		}
+
+		if (sweep) {
+			DataHandler.handleSweep(antennaHandlers, turkeyHandler, zoneHandler, downtimeHandler, totalHandlers,
+					staysHandlers, configs);
+		} else {
+			DataHandler.handleStreams(antennaHandlers, turkeyHandler, zoneHandler, downtimeHandler,
+					totalHandlers.get(0), staysHandlers.get(0), argHandler, snapshot);
+		}
+
+		if (followHook != null) {
+			followHook.finished();
+			try {
+				Runtime.getRuntime().removeShutdownHook(followHookThread);
+			} catch (IllegalStateException e) {
+				// The program is already shutting down, so the hook is running.
+			}
+		}
 
 		LogHandler.out_println("Finished data analysis. Exiting.");
 		return 0;
 	}
+
+	/**
+	 * Checks what file to write the given output to, and creates it.<br/>
+	 * Adds the ".gz" extension to the file, if the output is written gzip
+	 * compressed.
+	 * 
+	 * @param file   The default file to write the output to.
+	 * @param name   The name of the output, for log messages.
+	 * @param append Whether the output is appended to the existing file, so it
+	 *               doesn't have to be checked.
+	 * @param args   The arguments to use.
+	 * @return The file to write the output to, or {@code null} if it can't be
+	 *         written.
+	 */
+	private static File getOutputFile(File file, String name, boolean append, Arguments args) {
+		if (args.gzipOutput && !file.getName().toLowerCase().endsWith(".gz")) {
+			file = new File(file.getPath() + ".gz");
+		}
+
+		try {
+			if (!append) {
+				file = FileUtils.getOutputFile(file, args);
+			}
+		} catch (IOException e) {
+			LogHandler.err_println("Failed to check what file to write " + name + " to.");
+			return null;
+		}
+
+		if (file == null) {
+			return null;
+		}
+
+		try {
+			LogHandler.out_println("Writing " + name + " to file \"" + file.getCanonicalPath() + "\".");
+		} catch (IOException e) {
+			LogHandler.err_println("An error occurred while getting a files canonical path.");
+			LogHandler.print_exception(e, "get canonical path", "File: %s", file);
+		}
+
+		try {
+			if (!FileUtils.createFile(file)) {
+				return null;
+			}
+		} catch (IOException e) {
+			LogHandler.err_println("Failed to create " + name + " output file.");
+			LogHandler.print_exception(e, "create " + name + " file", "File: %s, Arguments: %s", file, args);
+			return null;
+		}
+
+		if (!file.canWrite()) {
+			LogHandler.err_println("Cannot write to the " + name + " output file.");
+			return null;
+		}
+
+		return file;
+	}
+
+	/**
+	 * Opens the output stream handler to write the given output with.
+	 * 
+	 * @param file      The file to write the output to.
+	 * @param name      The name of the output, for log messages.
+	 * @param writeTemp Whether the output stream handler should write temporary
+	 *                  data.
+	 * @param append    Whether the output should be appended to the existing file.
+	 * @param args      The arguments to use.
+	 * @return The newly created output stream handler, or {@code null} if opening
+	 *         the file failed.
+	 */
+	private static IOutputStreamHandler openOutput(File file, String name, boolean writeTemp, boolean append,
+			Arguments args) {
+		IOutputStreamHandler handler = null;
+		try {
+			if (args.gzipOutput) {
+				handler = new GzipFileOutputStreamHandler(file);
+			} else {
+				handler = new FileOutputStreamHandler(file, writeTemp, !args.asyncOutput, append);
+			}
+			if (args.asyncOutput) {
+				handler = new AsyncOutputStreamHandler(handler);
+			}
+		} catch (FileNotFoundException e) {
+			LogHandler.err_println("Failed to open file output stream for generated " + name + " data.");
+			LogHandler.print_exception(e, "init " + name + " output stream handler", "Output file: \"%s\"",
+					file.getAbsolutePath());
+		}
+
+		return handler;
+	}
 }
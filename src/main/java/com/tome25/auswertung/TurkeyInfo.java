@@ -1,19 +1,25 @@
 package com.tome25.auswertung;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
 import com.tome25.auswertung.args.Arguments;
+import com.tome25.auswertung.stream.ByteLineBuilder;
 import com.tome25.auswertung.stream.IOutputStreamHandler;
 import com.tome25.auswertung.utils.IntOrStringComparator;
 import com.tome25.auswertung.utils.TimeUtils;
+import com.tome25.auswertung.utils.TimestampParser;
 
 /**
  * The class storing the current state of a single turkey.<br/>
@@ -41,6 +47,12 @@ public class TurkeyInfo implements Comparable<TurkeyInfo> {
 	 */
 	private final String id;
 
+	/**
+	 * The UTF-8 encoded {@link #id}.<br/>
+	 * Cached to write output lines without encoding the id every time.
+	 */
+	private final byte[] idBytes;
+
 	/**
 	 * The {@link Arguments} object storing the configuration to be used by this
 	 * object.
@@ -59,34 +71,53 @@ public class TurkeyInfo implements Comparable<TurkeyInfo> {
 	private IOutputStreamHandler stayOut;
 
 	/**
-	 * The time at which records on the next day not immediately following another
-	 * recorded one should start.<br/>
-	 * Set to {@code null} to start at midnight.
+	 * The timestamp at which records on the next day not immediately following
+	 * another recorded one should start.<br/>
+	 * Set to {@link TimeUtils#NO_TIME} to start at midnight.
+	 */
+	private long startTime;
+
+	/**
+	 * The timestamp at which this turkey stops existing.<br/>
+	 * Use {@link TimeUtils#NO_TIME} if the end time is unknown.
 	 */
-	private Calendar startTime;
+	private final long endTime;
 
 	/**
-	 * The time at which this turkey stops existing.<br/>
-	 * Use {@code null} if the end time is unknown.
+	 * The ids of the zones this turkey was recorded in, indexed by their zone
+	 * index.<br/>
+	 * Zone indices are assigned by each turkey, in the order it is first recorded
+	 * in each zone, so they stay dense without any global state.
+	 */
+	private String[] zoneIds = new String[0];
+
+	/**
+	 * A table containing the time this turkey spent in each recorded zone for each
+	 * day.<br/>
+	 * Days are stored as their index, in days since the epoch.<br/>
+	 * Zones are stored as their index in {@link #zoneIds}.
 	 */
-	private final Calendar endTime;
+	private ZoneTimeTable dayZoneTimes = new ZoneTimeTable();
 
 	/**
-	 * A map containing a map containing the time this turkey spent in each recorded
-	 * zone for each day.
+	 * The time this turkey spent in each recorded zone in all the evaluated
+	 * data.<br/>
+	 * Indexed by the zone index in {@link #zoneIds}, zones that weren't recorded
+	 * are {@link ZoneTimeTable#ABSENT}.
 	 */
-	private Map<String, Map<String, Integer>> dayZoneTimes = new HashMap<String, Map<String, Integer>>();
+	private long[] totalZoneTimes = new long[0];
 
 	/**
-	 * A map containing the time this turkey spent in each recorded zone in all the
-	 * evaluated data.
+	 * A set containing the indices of all the days at which this turkeys data was
+	 * unreliable.
 	 */
-	private Map<String, Long> totalZoneTimes = new HashMap<String, Long>();
+	private Set<Integer> unreliableDays = new HashSet<Integer>();
 
 	/**
-	 * A set containing all the dates at which this turkeys data was unreliable.
+	 * Whether a day that was already removed by {@link #evictDays(int)} was
+	 * unreliable.
 	 */
-	private Set<String> unreliableDays = new HashSet<String>();
+	private boolean evictedUnreliableDay = false;
 
 	/**
 	 * The string name of the zone the turkey is currently in.
@@ -106,9 +137,10 @@ public class TurkeyInfo implements Comparable<TurkeyInfo> {
 	private ZoneStay lastStay;
 
 	/**
-	 * The time for which the other values are currently calculated.
+	 * The timestamp for which the other values are currently calculated.<br/>
+	 * {@link TimeUtils#NO_TIME} if this turkey wasn't recorded yet.
 	 */
-	private Calendar currentTime;
+	private long currentTime;
 
 	/**
 	 * The last time the turkey represented by this object changed the zone it is
@@ -129,9 +161,9 @@ public class TurkeyInfo implements Comparable<TurkeyInfo> {
 
 	/**
 	 * A map containing the number of zone changes for this turkey, for each day
-	 * before the current.
+	 * index before the current.
 	 */
-	private Map<String, Integer> dayZoneChanges = new HashMap<>();
+	private Map<Integer, Integer> dayZoneChanges = new HashMap<>();
 
 	/**
 	 * Creates a new TurkeyInfo object representing the state of a turkey.<br/>
@@ -188,26 +220,83 @@ public class TurkeyInfo implements Comparable<TurkeyInfo> {
 	public TurkeyInfo(final String id, final List<String> transponders, IOutputStreamHandler stayOut,
 			ZoneInfo currentZone, Calendar time, Calendar startTime, final Calendar endTime, final Arguments args)
 			throws NullPointerException, IllegalArgumentException {
+		this(id, transponders, stayOut, currentZone, TimeUtils.toTimestamp(time), TimeUtils.toTimestamp(startTime),
+				TimeUtils.toTimestamp(endTime), args);
+	}
+
+	/**
+	 * Creates a new TurkeyInfo object representing the state of a turkey.<br/>
+	 * Set {@code time} to {@link TimeUtils#NO_TIME} to mark this turkey as not yet
+	 * recorded.<br/>
+	 * {@code currentZone} is handled as the start zone in this case, and can be
+	 * {@code null} to represent the zone being unknown.
+	 * 
+	 * @param id           The string id used to represent this turkey.
+	 * @param transponders A list containing the string ids of the transponders
+	 *                     tracking this turkey.
+	 * @param stayOut      The stream handler to write {@link ZoneStay ZoneStays} to
+	 *                     after they are finished.<br/>
+	 *                     Settings this to {@code null} will prevent zone stays
+	 *                     from being written.
+	 * @param currentZone  The zone this turkey is currently in.<br/>
+	 *                     Can only be {@code null} if {@code time} is
+	 *                     {@link TimeUtils#NO_TIME}.
+	 * @param time         The timestamp of the first record of this turkey, in
+	 *                     milliseconds since the epoch.<br/>
+	 *                     Set to {@link TimeUtils#NO_TIME} to mark as not yet
+	 *                     known.
+	 * @param startTime    The timestamp of the first recorded day at which the
+	 *                     records should start.<br/>
+	 *                     Can only be {@link TimeUtils#NO_TIME} if
+	 *                     {@link Arguments#fillDays args.fillDays} is
+	 *                     {@code true}.
+	 * @param endTime      The timestamp at which the records for this turkey
+	 *                     should end.<br/>
+	 *                     {@link TimeUtils#NO_TIME} if the records end at the end
+	 *                     of the recording.
+	 * @param args         An {@link Arguments} instance containing the
+	 *                     configuration for the current data analysis.
+	 * @throws NullPointerException     If {@code id}, {@code transponders}, any
+	 *                                  transponder id, or {@code args} is
+	 *                                  {@code null}.<br/>
+	 *                                  Also if {@code time} is set, but
+	 *                                  {@code currentZone} is {@code null}.<br/>
+	 *                                  As well as if {@code time} is set,
+	 *                                  {@link Arguments#fillDays args.fillDays} is
+	 *                                  {@code false} and {@code startTime} is not
+	 *                                  set.
+	 * @throws IllegalArgumentException If {@code time} is before {@code startTime},
+	 *                                  {@code time} is after {@code endTime},
+	 *                                  {@code id} doesn't match
+	 *                                  {@link CSVHandler#ID_REGEX the required
+	 *                                  format}, or a transponder id doesn't match
+	 *                                  {@link CSVHandler#ID_REGEX the required
+	 *                                  format}.
+	 */
+	public TurkeyInfo(final String id, final List<String> transponders, IOutputStreamHandler stayOut,
+			ZoneInfo currentZone, long time, long startTime, final long endTime, final Arguments args)
+			throws NullPointerException, IllegalArgumentException {
 		this.id = Objects.requireNonNull(id, "The turkey id cannot be null.");
+		idBytes = id.getBytes(ByteLineBuilder.UTF_8);
 		this.args = Objects.requireNonNull(args, "The args object configuring this cannot be null.");
 
 		if (!CSVHandler.ID_REGEX.matcher(id).matches()) {
 			throw new IllegalArgumentException("The turkey id \"" + id + "\" does not match the required format.");
 		}
 
-		// If time is null this is just used as a static storage object.
-		if (time != null) {
+		// If time is not set this is just used as a static storage object.
+		if (time != TimeUtils.NO_TIME) {
 			Objects.requireNonNull(currentZone, "The current zone cannot be null when the current time isn't null.");
 
-			if (!args.fillDays) {
-				Objects.requireNonNull(startTime, "The start time cannot be null of args.fillDays is false.");
+			if (!args.fillDays && startTime == TimeUtils.NO_TIME) {
+				throw new NullPointerException("The start time cannot be null of args.fillDays is false.");
 			}
 
-			if (startTime != null && time.before(startTime)) {
+			if (startTime != TimeUtils.NO_TIME && time < startTime) {
 				throw new IllegalArgumentException("Current time cannot be before start time.");
 			}
 
-			if (endTime != null && time.after(endTime)) {
+			if (endTime != TimeUtils.NO_TIME && time > endTime) {
 				throw new IllegalArgumentException("Current time cannot be after end time.");
 			}
 		}
@@ -226,18 +315,16 @@ public TurkeyInfo(final String id, final List<String> transponders, IOutputStrea
 		this.currentTime = time;
 		this.startTime = startTime;
 		this.endTime = endTime;
-		this.lastZoneChange = time == null ? 0 : time.getTimeInMillis();
+		this.lastZoneChange = time == TimeUtils.NO_TIME ? 0 : time;
 
-		if (time != null) {
-			Calendar dayStart = new GregorianCalendar(time.get(Calendar.YEAR), time.get(Calendar.MONTH),
-					time.get(Calendar.DATE));
-			lastStay = new ZoneStay(id, currentZone, args.fillDays ? dayStart : startTime);
+		if (time != TimeUtils.NO_TIME) {
+			lastStay = new ZoneStay(id, currentZone, args.fillDays ? TimeUtils.getDayStart(time) : startTime);
 
-			dayZoneTimes.put(TimeUtils.encodeDate(time), new HashMap<String, Integer>());
+			dayZoneTimes.addDay(TimeUtils.getDay(time));
 			if (args.fillDays && currentZone != null) {
 				addTime(time, currentZone, TimeUtils.getMsOfDay(time));
 			} else if (currentZone != null) {
-				addTime(time, currentZone, (int) (time.getTimeInMillis() - startTime.getTimeInMillis()));
+				addTime(time, currentZone, time - startTime);
 			}
 		}
 	}
@@ -261,6 +348,29 @@ public TurkeyInfo(final String id, final List<String> transponders, IOutputStrea
 	 */
 	public void changeZone(final ZoneInfo newZone, final Calendar time)
 			throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(time, "The time at which the change occurred cannot be null.");
+		changeZone(newZone, time.getTimeInMillis(), true);
+	}
+
+	/**
+	 * Handles the turkey represented by this object being detected by an
+	 * antenna.<br/>
+	 * Adds time since the last zone change to zone time counters.<br/>
+	 * Increments zone changes counters if the new zone doesn't match the old
+	 * zone.<br/>
+	 * Updates the current time and the current zone.
+	 * 
+	 * @param newZone The zone by which this turkey was detected.
+	 * @param time    The timestamp in milliseconds at which the antenna record was
+	 *                created.
+	 * @throws NullPointerException     If {@code newZone} is {@code null}.
+	 * @throws IllegalArgumentException If {@code time} is before
+	 *                                  {@link #getCurrentMs() current time},
+	 *                                  before {@link #getStartMs() start time}, or
+	 *                                  after {@link #getEndMs() end time}.
+	 */
+	public void changeZone(final ZoneInfo newZone, final long time)
+			throws NullPointerException, IllegalArgumentException {
 		changeZone(newZone, time, true);
 	}
 
@@ -273,145 +383,133 @@ public void changeZone(final ZoneInfo newZone, final Calendar time)
 	 * Updates the current time and the current zone.
 	 * 
 	 * @param newZone    The zone by which this turkey was detected.
-	 * @param time       The time at which the antenna record was created.
+	 * @param time       The timestamp in milliseconds at which the antenna record
+	 *                   was created.
 	 * @param updateStay Whether the last record time of the current stay should be
 	 *                   updated.
-	 * @throws NullPointerException     If {@code newZone} or {@code date} is
-	 *                                  {@code null}.
+	 * @throws NullPointerException     If {@code newZone} is {@code null}.
 	 * @throws IllegalArgumentException If {@code time} is before
-	 *                                  {@link #getCurrentCal() current time},
-	 *                                  before {@link #getStartCal() start time}, or
-	 *                                  after {@link #getEndCal() end time}.
+	 *                                  {@link #getCurrentMs() current time},
+	 *                                  before {@link #getStartMs() start time}, or
+	 *                                  after {@link #getEndMs() end time}.
 	 */
-	private void changeZone(final ZoneInfo newZone, final Calendar time, boolean updateStay)
+	private void changeZone(final ZoneInfo newZone, final long time, boolean updateStay)
 			throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(newZone, "The zone the turkey moved into cannot be null.");
-		Objects.requireNonNull(time, "The time at which the change occurred cannot be null.");
 
-		if (currentTime != null && time.before(currentTime)) {
+		if (time == TimeUtils.NO_TIME) {
+			throw new IllegalArgumentException("The time at which the change occurred has to be set.");
+		}
+
+		if (currentTime != TimeUtils.NO_TIME && time < currentTime) {
 			throw new IllegalArgumentException("New time was before old time.");
 		}
 
-		if (startTime != null && time.before(startTime)) {
+		if (startTime != TimeUtils.NO_TIME && time < startTime) {
 			throw new IllegalArgumentException("New time was before start time.");
 		}
 
-		if (endTime != null && time.after(endTime)) {
+		if (endTime != TimeUtils.NO_TIME && time > endTime) {
 			throw new IllegalArgumentException("New time was after end time.");
 		}
 
-		if (currentTime != null && !TimeUtils.isSameDay(currentTime, time)) {
-			endDay(time, args.fillDays && (startTime == null || currentTime.after(startTime)));
+		if (currentTime != TimeUtils.NO_TIME && !TimeUtils.isSameDay(currentTime, time)) {
+			endDay(time, args.fillDays && (startTime == TimeUtils.NO_TIME || currentTime > startTime));
 		}
 
 		boolean newRec = true;
-		if (currentTime != null) {
+		if (currentTime != TimeUtils.NO_TIME) {
 			newRec = !TimeUtils.isSameDay(currentTime, time) && !TimeUtils.isNextDay(currentTime, time);
 		}
 
-		if (startTime != null && currentTime != null
+		if (startTime != TimeUtils.NO_TIME && currentTime != TimeUtils.NO_TIME
 				&& (!args.fillDays || TimeUtils.isSameDay(startTime, time) || TimeUtils.isNextDay(startTime, time))) {
-			newRec = startTime.after(currentTime);
+			newRec = startTime > currentTime;
 		}
 
-		long timeMs = time.getTimeInMillis();
-
 		if (currentZone != null && !newRec) {
-			long recordTime = timeMs - currentTime.getTimeInMillis();
+			long recordTime = time - currentTime;
 			addTime(time, currentZone, recordTime);
 
 			if (this.updateStay && !newRec && lastStay != null && lastStay.getZone().equals(currentZone)) {
-				if (!currentZone.hasFood() && currentTime.getTimeInMillis()
-						- lastStay.getLastRecordCal().getTimeInMillis() > ZoneStay.UNRELIABLE_TIME) {
-					markDaysUnreliable(lastStay.getLastRecordCal(), currentTime);
+				if (!currentZone.hasFood() && currentTime - lastStay.getLastRecordMs() > ZoneStay.UNRELIABLE_TIME) {
+					markDaysUnreliable(lastStay.getLastRecordMs(), currentTime);
 				}
 				lastStay.setLastRecord(currentTime);
 			}
-		} else if (currentTime == null && currentZone != null) {
-			Calendar startCal = startTime == null ? null : (Calendar) startTime.clone();
-			if (args.fillDays && (startTime == null || !TimeUtils.isSameDay(startTime, time))) {
-				startCal = new GregorianCalendar(time.get(Calendar.YEAR), time.get(Calendar.MONTH),
-						time.get(Calendar.DATE));
+		} else if (currentTime == TimeUtils.NO_TIME && currentZone != null) {
+			long start = startTime;
+			if (args.fillDays && (startTime == TimeUtils.NO_TIME || !TimeUtils.isSameDay(startTime, time))) {
+				start = TimeUtils.getDayStart(time);
 			}
-			if (time.equals(startCal)) {
+			if (time == start) {
 				currentZone = newZone;
 			}
 
-			long recordTime = timeMs - startCal.getTimeInMillis();
+			long recordTime = time - start;
 			addTime(time, currentZone, recordTime);
 			if (!currentZone.equals(newZone)) {
-				lastZoneChange = timeMs;
+				lastZoneChange = time;
 			} else {
-				lastZoneChange = startCal.getTimeInMillis();
+				lastZoneChange = start;
 			}
-			lastStay = new ZoneStay(id, currentZone, startCal);
-		} else if (args.fillDays && !(startTime != null && TimeUtils.isSameDay(startTime, time))) {
+			lastStay = new ZoneStay(id, currentZone, start);
+		} else if (args.fillDays && !(startTime != TimeUtils.NO_TIME && TimeUtils.isSameDay(startTime, time))) {
 			addTime(time, newZone, TimeUtils.getMsOfDay(time));
 
 			if (newRec && stayOut != null && lastStay != null && !lastStay.hasLeft()) {
-				Calendar lastCal = new GregorianCalendar();
-				lastCal.setTimeInMillis(lastZoneChange);
 				// FIXME probably produces 1ms offsets
-				Calendar cal = (Calendar) lastCal.clone();
-				cal.set(Calendar.HOUR_OF_DAY, 23);
-				cal.set(Calendar.MINUTE, 59);
-				cal.set(Calendar.SECOND, 59);
-				cal.set(Calendar.MILLISECOND, 999);
-
-				if (!currentZone.equals(lastStay.getZone()) && lastZoneChange < cal.getTimeInMillis()) {
-					printCurrentStay(lastCal, false);
-					lastStay = new ZoneStay(id, currentZone, lastCal, cal);
-					printCurrentStay(null, false);
-				} else if (currentTime.after(lastStay.getEntryCal())) {
-					printCurrentStay(cal, false);
+				long dayEnd = TimeUtils.getDayEnd(lastZoneChange);
+
+				if (!currentZone.equals(lastStay.getZone()) && lastZoneChange < dayEnd) {
+					printCurrentStay(lastZoneChange, false);
+					lastStay = new ZoneStay(id, currentZone, lastZoneChange, dayEnd);
+					printCurrentStay(TimeUtils.NO_TIME, false);
+				} else if (currentTime > lastStay.getEntryMs()) {
+					printCurrentStay(dayEnd, false);
 				}
 			}
 
 			currentZone = newZone;
-			Calendar dayStart = new GregorianCalendar(time.get(Calendar.YEAR), time.get(Calendar.MONTH),
-					time.get(Calendar.DATE));
-			lastZoneChange = dayStart.getTimeInMillis();
+			long dayStart = TimeUtils.getDayStart(time);
+			lastZoneChange = dayStart;
 			lastStay = new ZoneStay(id, newZone, dayStart);
 		} else {
-			long recordTime = timeMs - startTime.getTimeInMillis();
+			long recordTime = time - startTime;
 			addTime(time, newZone, recordTime);
 
 			if (newRec && stayOut != null && lastStay != null && !lastStay.hasLeft()) {
-				if (!currentZone.equals(lastStay.getZone()) && lastZoneChange < currentTime.getTimeInMillis()) {
-					Calendar lastCal = new GregorianCalendar();
-					lastCal.setTimeInMillis(lastZoneChange);
-					if (!lastCal.equals(lastStay.getEntryCal())) {
-						printCurrentStay(lastCal, false);
+				if (!currentZone.equals(lastStay.getZone()) && lastZoneChange < currentTime) {
+					if (lastZoneChange != lastStay.getEntryMs()) {
+						printCurrentStay(lastZoneChange, false);
 					}
-					lastStay = new ZoneStay(id, currentZone, lastCal, currentTime);
-					printCurrentStay(null, false);
-				} else if (currentTime.after(lastStay.getEntryCal())) {
+					lastStay = new ZoneStay(id, currentZone, lastZoneChange, currentTime);
+					printCurrentStay(TimeUtils.NO_TIME, false);
+				} else if (currentTime > lastStay.getEntryMs()) {
 					printCurrentStay(currentTime, false);
 				}
 			}
 
 			currentZone = newZone;
-			lastZoneChange = startTime.getTimeInMillis();
-			lastStay = new ZoneStay(id, newZone, (Calendar) startTime.clone());
+			lastZoneChange = startTime;
+			lastStay = new ZoneStay(id, newZone, startTime);
 		}
 
-		Calendar lastTime = currentTime;
+		long lastTime = currentTime;
 		currentTime = time;
 
-		long zoneTime = timeMs - lastZoneChange;
+		long zoneTime = time - lastZoneChange;
 		if (currentZone != null && !newZone.equals(currentZone)) {
 			if (args.minTime > 0 && zoneTime < args.minTime * 1000) {
 				addTime(time, currentZone, -zoneTime);
 				addTime(time, lastStay.getZone(), zoneTime);
 
 				if (zoneTime > TimeUtils.getMsOfDay(time)) {
-					Calendar yesterday = (Calendar) time.clone();
-					yesterday.add(Calendar.DATE, -1);
-					String yesterdayDate = TimeUtils.encodeDate(yesterday);
+					int yesterday = TimeUtils.getDay(time) - 1;
 
 					// FIXME not sure how to handle if it doesn't
-					if (dayZoneChanges.containsKey(yesterdayDate)) {
-						dayZoneChanges.put(yesterdayDate, Math.max(0, dayZoneChanges.get(yesterdayDate) - 1));
+					if (dayZoneChanges.containsKey(yesterday)) {
+						dayZoneChanges.put(yesterday, Math.max(0, dayZoneChanges.get(yesterday) - 1));
 						todayZoneChanges++;
 					}
 				}
@@ -428,35 +526,29 @@ private void changeZone(final ZoneInfo newZone, final Calendar time, boolean upd
 				totalZoneChanges++;
 
 				if (lastStay == null || !lastStay.getZone().equals(currentZone)) {
-					Calendar lastCal = new GregorianCalendar();
-					lastCal.setTimeInMillis(lastZoneChange);
 					if (lastStay != null && stayOut != null) {
-						printCurrentStay(lastCal, false);
+						printCurrentStay(lastZoneChange, false);
 					}
-					lastStay = new ZoneStay(id, currentZone, lastCal);
-					if (this.updateStay && lastTime != null) {
+					lastStay = new ZoneStay(id, currentZone, lastZoneChange);
+					if (this.updateStay && lastTime != TimeUtils.NO_TIME) {
 						lastStay.setLastRecord(lastTime);
-						if (!currentZone.hasFood()
-								&& lastTime.getTimeInMillis() - lastCal.getTimeInMillis() > ZoneStay.UNRELIABLE_TIME) {
-							markDaysUnreliable(lastCal, lastTime);
+						if (!currentZone.hasFood() && lastTime - lastZoneChange > ZoneStay.UNRELIABLE_TIME) {
+							markDaysUnreliable(lastZoneChange, lastTime);
 						}
 					}
 				}
 			}
 
-			lastZoneChange = timeMs;
+			lastZoneChange = time;
 		} else if ((args.minTime <= 0 || zoneTime >= args.minTime * 1000) && !lastStay.getZone().equals(currentZone)) {
-			Calendar lastCal = new GregorianCalendar();
-			lastCal.setTimeInMillis(lastZoneChange);
 			if (stayOut != null) {
-				printCurrentStay(lastCal, false);
+				printCurrentStay(lastZoneChange, false);
 			}
-			lastStay = new ZoneStay(id, currentZone, lastCal);
-			if (this.updateStay && lastTime != null) {
+			lastStay = new ZoneStay(id, currentZone, lastZoneChange);
+			if (this.updateStay && lastTime != TimeUtils.NO_TIME) {
 				lastStay.setLastRecord(lastTime);
-				if (!currentZone.hasFood()
-						&& lastTime.getTimeInMillis() - lastCal.getTimeInMillis() > ZoneStay.UNRELIABLE_TIME) {
-					markDaysUnreliable(lastCal, lastTime);
+				if (!currentZone.hasFood() && lastTime - lastZoneChange > ZoneStay.UNRELIABLE_TIME) {
+					markDaysUnreliable(lastZoneChange, lastTime);
 				}
 			}
 		}
@@ -472,99 +564,113 @@ private void changeZone(final ZoneInfo newZone, final Calendar time, boolean upd
 	 * whether the time to be added is positive, but does not allow for a negative
 	 * resulting day zone time.
 	 * 
-	 * @param now  The day for which to add the time to the given zone.
+	 * @param now  The timestamp for which to add the time to the given zone.
 	 * @param zone The zone in which the time was spent.
 	 * @param time The amount of time that was spent in the given zone.
-	 * @throws NullPointerException if {@code day} or {@code zone} is {@code null}.
+	 * @throws NullPointerException if {@code zone} is {@code null}.
 	 */
-	private void addTime(final Calendar now, final ZoneInfo zone, long time) throws NullPointerException {
-		Objects.requireNonNull(now, "The day to add zone time to cannot be null.");
+	private void addTime(final long now, final ZoneInfo zone, long time) throws NullPointerException {
 		Objects.requireNonNull(zone, "The zone to add time to cannot be null.");
 
-		String date = TimeUtils.encodeDate(now);
-
-		if (!dayZoneTimes.containsKey(date)) {
-			dayZoneTimes.put(date, new HashMap<String, Integer>());
-		}
+		final int ordinal = getZoneIndex(zone);
+		int date = TimeUtils.getDay(now);
+		int msOfDay = TimeUtils.getMsOfDay(now);
 
+		dayZoneTimes.addDay(date);
 		if (time > 0) {
-			if (time <= TimeUtils.getMsOfDay(now)) {
-				if (dayZoneTimes.get(date).containsKey(zone.getId())) {
-					dayZoneTimes.get(date).put(zone.getId(), dayZoneTimes.get(date).get(zone.getId()) + (int) time);
-				} else {
-					dayZoneTimes.get(date).put(zone.getId(), (int) time);
-				}
+			if (time <= msOfDay) {
+				dayZoneTimes.add(date, ordinal, time);
 			} else {
-				if (dayZoneTimes.get(date).containsKey(zone.getId())) {
-					dayZoneTimes.get(date).put(zone.getId(),
-							dayZoneTimes.get(date).get(zone.getId()) + TimeUtils.getMsOfDay(now));
-				} else {
-					dayZoneTimes.get(date).put(zone.getId(), TimeUtils.getMsOfDay(now));
-				}
+				dayZoneTimes.add(date, ordinal, msOfDay);
 
-				Calendar previousDay = (Calendar) now.clone();
-				long previousTime = time - TimeUtils.getMsOfDay(now);
+				int previousDate = date;
+				long previousTime = time - msOfDay;
 				while (previousTime > 0) {
-					previousDay.add(Calendar.DATE, -1);
-					String previousDate = TimeUtils.encodeDate(previousDay);
-
-					if (dayZoneTimes.containsKey(previousDate)) {
-						if (dayZoneTimes.get(previousDate).containsKey(zone.getId())) {
-							dayZoneTimes.get(previousDate).put(zone.getId(),
-									dayZoneTimes.get(previousDate).get(zone.getId())
-											+ (int) Math.min(DAY_END + 1, previousTime));
-						} else {
-							dayZoneTimes.get(previousDate).put(zone.getId(), (int) Math.min(DAY_END + 1, previousTime));
-						}
-					} else {
-						dayZoneTimes.put(previousDate, new HashMap<String, Integer>());
-						dayZoneTimes.get(previousDate).put(zone.getId(), (int) Math.min(DAY_END + 1, previousTime));
-						if (!dayZoneChanges.containsKey(previousDate)) {
-							dayZoneChanges.put(previousDate, 0);
-						}
+					previousDate--;
+
+					if (!dayZoneTimes.hasDay(previousDate) && !dayZoneChanges.containsKey(previousDate)) {
+						dayZoneChanges.put(previousDate, 0);
 					}
+					dayZoneTimes.add(previousDate, ordinal, Math.min(DAY_END + 1, previousTime));
 
 					previousTime = Math.max(0, previousTime - DAY_END - 1);
 				}
 			}
 		} else if (time < 0) {
-			if (-time <= TimeUtils.getMsOfDay(now)) {
-				if (dayZoneTimes.get(date).containsKey(zone.getId())) {
-					dayZoneTimes.get(date).put(zone.getId(),
-							Math.max(0, dayZoneTimes.get(date).get(zone.getId()) + (int) time));
-				} else {
-					dayZoneTimes.get(date).put(zone.getId(), 0);
-				}
+			if (-time <= msOfDay) {
+				dayZoneTimes.add(date, ordinal, time);
 			} else {
-				if (dayZoneTimes.get(date).containsKey(zone.getId())) {
-					dayZoneTimes.get(date).put(zone.getId(),
-							Math.max(0, dayZoneTimes.get(date).get(zone.getId()) - TimeUtils.getMsOfDay(now)));
-				} else {
-					dayZoneTimes.get(date).put(zone.getId(), 0);
-				}
-
-				Calendar yesterday = (Calendar) now.clone();
-				yesterday.add(Calendar.DATE, -1);
-				long yesterdayTime = time + TimeUtils.getMsOfDay(now);
-				String yesterdayDate = TimeUtils.encodeDate(yesterday);
+				dayZoneTimes.add(date, ordinal, -msOfDay);
 
 				// FIXME not sure how to handle if it doesn't
-				if (dayZoneTimes.containsKey(yesterdayDate)) {
-					if (dayZoneTimes.get(yesterdayDate).containsKey(zone.getId())) {
-						dayZoneTimes.get(yesterdayDate).put(zone.getId(),
-								(int) Math.max(0, dayZoneTimes.get(yesterdayDate).get(zone.getId()) + yesterdayTime));
-					} else {
-						dayZoneTimes.get(yesterdayDate).put(zone.getId(), 0);
-					}
+				int yesterdayDate = date - 1;
+				if (dayZoneTimes.hasDay(yesterdayDate)) {
+					dayZoneTimes.add(yesterdayDate, ordinal, time + msOfDay);
 				}
 			}
 		}
 
-		if (totalZoneTimes.containsKey(zone.getId())) {
-			totalZoneTimes.put(zone.getId(), Math.max(0, totalZoneTimes.get(zone.getId()) + time));
-		} else {
-			totalZoneTimes.put(zone.getId(), (long) Math.max(0, time));
+		addTotalTime(ordinal, time);
+	}
+
+	/**
+	 * Gets the index of the given zone in {@link #zoneIds}.<br/>
+	 * Assigns the next index if this turkey wasn't recorded in the zone before.
+	 * 
+	 * @param zone The zone to get the index of.
+	 * @return The index of the zone for this turkey.
+	 */
+	private int getZoneIndex(final ZoneInfo zone) {
+		final String zoneId = zone.getId();
+		for (int i = 0; i < zoneIds.length; i++) {
+			if (zoneIds[i] == zoneId || zoneIds[i].equals(zoneId)) {
+				return i;
+			}
 		}
+
+		zoneIds = Arrays.copyOf(zoneIds, zoneIds.length + 1);
+		zoneIds[zoneIds.length - 1] = zoneId;
+		return zoneIds.length - 1;
+	}
+
+	/**
+	 * Gets the index this turkey stores the times of the given zone at.<br/>
+	 * Zone indices are assigned per turkey, so the index of a zone can differ
+	 * between turkeys.
+	 * 
+	 * @param zoneId The id of the zone to get the index of.
+	 * @return The index of the zone, or -1 if this turkey was never recorded in
+	 *         it.
+	 * @throws NullPointerException If {@code zoneId} is {@code null}.
+	 */
+	public int findZoneIndex(final String zoneId) throws NullPointerException {
+		Objects.requireNonNull(zoneId, "The zone id to get the index of can't be null.");
+
+		for (int i = 0; i < zoneIds.length; i++) {
+			if (zoneIds[i].equals(zoneId)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds the given time to the total time this turkey spent in the given
+	 * zone.<br/>
+	 * Does not allow for a negative resulting total time.
+	 * 
+	 * @param ordinal The index of the zone in which the time was spent.
+	 * @param time    The amount of time that was spent in the given zone.
+	 */
+	private void addTotalTime(final int ordinal, long time) {
+		if (ordinal >= totalZoneTimes.length) {
+			int length = totalZoneTimes.length;
+			totalZoneTimes = Arrays.copyOf(totalZoneTimes, ordinal + 1);
+			Arrays.fill(totalZoneTimes, length, totalZoneTimes.length, ZoneTimeTable.ABSENT);
+		}
+
+		long total = totalZoneTimes[ordinal] == ZoneTimeTable.ABSENT ? 0 : totalZoneTimes[ordinal];
+		totalZoneTimes[ordinal] = Math.max(0, total + time);
 	}
 
 	/**
@@ -576,10 +682,11 @@ private void addTime(final Calendar now, final ZoneInfo zone, long time) throws
 	 * day.
 	 * 
 	 * @param date The date to which this object should be set.
-	 * @throws NullPointerException if {@code date} is {@code null}.
+	 * @throws NullPointerException  if {@code date} is {@code null}.
+	 * @throws IllegalStateException If this turkey wasn't recorded yet.
 	 */
-	public void endDay(String date) throws NullPointerException {
-		endDay(TimeUtils.parseDate(date));
+	public void endDay(String date) throws NullPointerException, IllegalStateException {
+		endDay(TimeUtils.parseTimestamp(date, 0));
 	}
 
 	/**
@@ -591,9 +698,10 @@ public void endDay(String date) throws NullPointerException {
 	 * day.
 	 * 
 	 * @param time The date to which this object should be set.
-	 * @throws NullPointerException if {@code time} is {@code null}.
+	 * @throws NullPointerException  if {@code time} is {@code null}.
+	 * @throws IllegalStateException If this turkey wasn't recorded yet.
 	 */
-	public void endDay(Calendar time) throws NullPointerException {
+	public void endDay(Calendar time) throws NullPointerException, IllegalStateException {
 		endDay(time, args.fillDays);
 	}
 
@@ -607,35 +715,66 @@ public void endDay(Calendar time) throws NullPointerException {
 	 * @param time       The date to which this object should be set.
 	 * @param changeTime Whether a zone change at the end of the current day should
 	 *                   be simulated.
-	 * @throws NullPointerException if {@code time} is {@code null}.
+	 * @throws NullPointerException  if {@code time} is {@code null}.
+	 * @throws IllegalStateException If this turkey wasn't recorded yet.
 	 */
-	public void endDay(Calendar time, boolean changeTime) throws NullPointerException {
+	public void endDay(Calendar time, boolean changeTime) throws NullPointerException, IllegalStateException {
 		Objects.requireNonNull(time, "Time can't be null.");
+		endDay(time.getTimeInMillis(), changeTime);
+	}
+
+	/**
+	 * If {@link Arguments#fillDays args.fillDays} is {@code true}: Sets the time to
+	 * the end of the current day, and adds the remaining time of the day to the
+	 * current zone.<br/>
+	 * <br/>
+	 * If the given day is not the current day: Initializes some things for the new
+	 * day.
+	 * 
+	 * @param time The timestamp in milliseconds to which this object should be
+	 *             set.
+	 * @throws IllegalStateException If this turkey wasn't recorded yet.
+	 */
+	public void endDay(long time) throws IllegalStateException {
+		endDay(time, args.fillDays);
+	}
+
+	/**
+	 * If {@code changeTime} is {@code true}: Sets the time to the end of the
+	 * current day, and adds the remaining time of the day to the current zone.<br/>
+	 * <br/>
+	 * If the given day is not the current day: Initializes some things for the new
+	 * day.
+	 * 
+	 * @param time       The timestamp in milliseconds to which this object should
+	 *                   be set.
+	 * @param changeTime Whether a zone change at the end of the current day should
+	 *                   be simulated.
+	 * @throws IllegalStateException If this turkey wasn't recorded yet.
+	 */
+	public void endDay(long time, boolean changeTime) throws IllegalStateException {
+		if (currentTime == TimeUtils.NO_TIME) {
+			throw new IllegalStateException("Can't end the day of a turkey that wasn't recorded yet.");
+		}
 
 		if (changeTime) {
 			// FIXME probably produces 1ms offsets
-			Calendar cal = (Calendar) currentTime.clone();
-			cal.set(Calendar.HOUR_OF_DAY, 23);
-			cal.set(Calendar.MINUTE, 59);
-			cal.set(Calendar.SECOND, 59);
-			cal.set(Calendar.MILLISECOND, 999);
-			if (cal.after(currentTime)) {
-				changeZone(currentZone, cal, false);
+			long end = TimeUtils.getDayEnd(currentTime);
+			if (end > currentTime) {
+				changeZone(currentZone, end, false);
 			}
 		}
 
 		if (!TimeUtils.isSameDay(currentTime, time)) {
-			String today = TimeUtils.encodeDate(currentTime);
+			int today = TimeUtils.getDay(currentTime);
 			if (!dayZoneChanges.containsKey(today)) {
 				dayZoneChanges.put(today, todayZoneChanges);
 			} else {
 				dayZoneChanges.put(today, dayZoneChanges.get(today) + todayZoneChanges);
 			}
 
-			String date = TimeUtils.encodeDate(time);
-			if (!dayZoneTimes.containsKey(date)) {
-				dayZoneTimes.put(date, new HashMap<String, Integer>());
-			}
+			int date = TimeUtils.getDay(time);
+			dayZoneTimes.addDay(date);
 			todayZoneChanges = 0;
 		}
 	}
@@ -654,17 +793,15 @@ public void printCurrentStay(boolean temporary) throws NullPointerException {
 		}
 
 		Objects.requireNonNull(lastStay, "The current stay cannot be null.");
-		if (!currentZone.equals(lastStay.getZone()) && lastZoneChange < currentTime.getTimeInMillis()) {
-			Calendar lastCal = new GregorianCalendar();
-			lastCal.setTimeInMillis(lastZoneChange);
-			printCurrentStay(lastCal, temporary);
-			lastStay = new ZoneStay(id, currentZone, lastCal, currentTime);
-			printCurrentStay(null, temporary);
-		} else if (currentTime.after(lastStay.getEntryCal())) {
-			Calendar oldExit = lastStay.getExitCal();
+		if (!currentZone.equals(lastStay.getZone()) && lastZoneChange < currentTime) {
+			printCurrentStay(lastZoneChange, temporary);
+			lastStay = new ZoneStay(id, currentZone, lastZoneChange, currentTime);
+			printCurrentStay(TimeUtils.NO_TIME, temporary);
+		} else if (currentTime > lastStay.getEntryMs()) {
+			long oldExit = lastStay.getExitMs();
 			lastStay.setExitTime(currentTime);
-			if (!args.fillDays || oldExit == null) {
-				printCurrentStay(null, temporary);
+			if (!args.fillDays || oldExit == TimeUtils.NO_TIME) {
+				printCurrentStay(TimeUtils.NO_TIME, temporary);
 			}
 		}
 	}
@@ -672,42 +809,45 @@ public void printCurrentStay(boolean temporary) throws NullPointerException {
 	/**
 	 * Prints the current {@link #lastStay} to the {@link #stayOut stays output
 	 * stream}.<br/>
-	 * Also sets the stay exit time if {@code exitCal} isn't {@code null}.<br/>
+	 * Also sets the stay exit time if {@code exit} isn't
+	 * {@link TimeUtils#NO_TIME}.<br/>
 	 * Does nothing if {@link #stayOut} is {@code null}.
 	 * 
-	 * @param exitCal   The exit time for the stay to print. Optional if it already
-	 *                  has one.
+	 * @param exit      The exit timestamp for the stay to print. Optional if it
+	 *                  already has one.
 	 * @param temporary Whether the stay should be printed as temporary output.
-	 * @throws IllegalArgumentException If {@code exitCal} is before the
-	 *                                  {@link ZoneStay#getEntryCal() entry time} of
-	 *                                  the {@link #lastStay current stay}.
+	 * @throws IllegalArgumentException If {@code exit} is before the
+	 *                                  {@link ZoneStay#getEntryMs() entry time} of
+	 *                                  the {@link #lastStay current stay}.<br/>
+	 *                                  Or if {@code exit} is not set and the
+	 *                                  {@link #lastStay current stay} doesn't have
+	 *                                  an exit time yet.
 	 * @throws NullPointerException     If the {@link #lastStay current stay} is
-	 *                                  {@code null}, or {@code exitCal} is
-	 *                                  {@code null} and the {@link #lastStay
-	 *                                  current stay} doesn't have an exit time yet.
+	 *                                  {@code null}.
 	 */
-	private void printCurrentStay(Calendar exitCal, boolean temporary)
+	private void printCurrentStay(long exit, boolean temporary)
 			throws IllegalArgumentException, NullPointerException {
 		if (stayOut == null) {
 			return;
 		}
 
 		Objects.requireNonNull(lastStay, "The current stay cannot be null.");
-		if (!lastStay.hasLeft()) {
-			Objects.requireNonNull(exitCal,
-					"The exit calendar cannot be null if the current stay does not have one yet.");
+		if (!lastStay.hasLeft() && exit == TimeUtils.NO_TIME) {
+			throw new IllegalArgumentException(
+					"The exit time has to be set if the current stay does not have one yet.");
 		}
 
-		if (exitCal != null) {
-			lastStay.setExitTime(exitCal);
+		if (exit != TimeUtils.NO_TIME) {
+			lastStay.setExitTime(exit);
 		}
 
-		if (!lastStay.getZone().hasFood() && lastStay.getExitCal().getTimeInMillis()
-				- lastStay.getLastRecordCal().getTimeInMillis() > ZoneStay.UNRELIABLE_TIME) {
-			markDaysUnreliable(lastStay.getLastRecordCal(), lastStay.getExitCal());
+		if (!lastStay.getZone().hasFood()
+				&& lastStay.getExitMs() - lastStay.getLastRecordMs() > ZoneStay.UNRELIABLE_TIME) {
+			markDaysUnreliable(lastStay.getLastRecordMs(), lastStay.getExitMs());
 		}
 
-		stayOut.println(CSVHandler.stayToCsvLine(lastStay), temporary);
+		ByteLineBuilder line = CSVHandler.appendStayCsvLine(ByteLineBuilder.get(), lastStay);
+		stayOut.println(line.getBuffer(), line.length(), temporary);
 	}
 
 	/**
@@ -735,24 +875,37 @@ private void printCurrentStay(Calendar exitCal, boolean temporary)
 	 */
 	public boolean tryUpdate(Calendar time) throws NullPointerException {
 		Objects.requireNonNull(time, "The time to update to cannot be null.");
+		return tryUpdate(time.getTimeInMillis());
+	}
 
-		if (currentTime == null || currentZone == null) {
+	/**
+	 * Attempts to change the current time of this turkey to the given
+	 * timestamp.<br/>
+	 * Works like {@link #tryUpdate(Calendar)}, but takes a timestamp in
+	 * milliseconds since the epoch.
+	 * 
+	 * @param time The timestamp to update this turkey to.
+	 * @return {@code true} if this turkey was updated, {@code false} otherwise.
+	 * @see #tryUpdate(Calendar)
+	 */
+	public boolean tryUpdate(long time) {
+		if (currentTime == TimeUtils.NO_TIME || currentZone == null) {
 			return false;
 		}
 
-		if (time.before(currentTime)) {
+		if (time < currentTime) {
 			return false;
 		}
 
-		if (startTime != null && currentTime.before(startTime)) {
+		if (startTime != TimeUtils.NO_TIME && currentTime < startTime) {
 			return false;
 		}
 
-		if (endTime != null && !currentTime.before(endTime)) {
+		if (endTime != TimeUtils.NO_TIME && currentTime >= endTime) {
 			return false;
 		}
 
-		if (endTime != null && time.after(endTime)) {
+		if (endTime != TimeUtils.NO_TIME && time > endTime) {
 			if (args.fillDays && !TimeUtils.isSameDay(currentTime, time)) {
 				return false;
 			}
@@ -772,6 +925,16 @@ public String getId() {
 		return id;
 	}
 
+	/**
+	 * Gets the UTF-8 encoded id of this turkey.<br/>
+	 * The returned array is shared, and must not be modified.
+	 * 
+	 * @return The encoded id of this turkey.
+	 */
+	public byte[] getIdBytes() {
+		return idBytes;
+	}
+
 	/**
 	 * Returns a list containing the string ids of all the transponders tracking the
 	 * turkey represented by this object.
@@ -785,36 +948,53 @@ public List<String> getTransponders() {
 
 	/**
 	 * Returns the date for which the values of this object are currently
-	 * calculated.
+	 * calculated.<br/>
+	 * {@code null} if this turkey wasn't recorded yet.
 	 * 
 	 * @return The current date of this object.
 	 */
 	public String getCurrentDate() {
-		return TimeUtils.encodeDate(currentTime);
+		if (currentTime == TimeUtils.NO_TIME) {
+			return null;
+		} else {
+			return TimeUtils.encodeDate(currentTime);
+		}
 	}
 
 	/**
-	 * Returns the time for which the values of this object are currently
-	 * calculated.
+	 * Returns the time of day for which the values of this object are currently
+	 * calculated.<br/>
+	 * -1 if this turkey wasn't recorded yet.
 	 * 
 	 * @return The current time of this object.
 	 */
 	public int getCurrentTime() {
-		return TimeUtils.getMsOfDay(currentTime);
+		if (currentTime == TimeUtils.NO_TIME) {
+			return -1;
+		} else {
+			return TimeUtils.getMsOfDay(currentTime);
+		}
 	}
 
 	/**
-	 * Gets a copy of the {@link Calendar} representing the time for which this
-	 * objects values are currently calculated.
+	 * Gets a {@link Calendar} representing the time for which this objects values
+	 * are currently calculated.
 	 * 
 	 * @return The current time of this object.
 	 */
 	public Calendar getCurrentCal() {
-		if (currentTime == null) {
-			return null;
-		} else {
-			return (Calendar) currentTime.clone();
-		}
+		return TimeUtils.toNullableCalendar(currentTime);
+	}
+
+	/**
+	 * Gets the timestamp in milliseconds for which this objects values are
+	 * currently calculated.<br/>
+	 * {@link TimeUtils#NO_TIME} if this turkey wasn't recorded yet.
+	 * 
+	 * @return The current time of this object.
+	 */
+	public long getCurrentMs() {
+		return currentTime;
 	}
 
 	/**
@@ -837,9 +1017,62 @@ public ZoneInfo getCurrentZone() {
 	 * 
 	 * @param date The date for which to get the zone times.
 	 * @return The zone times for the given date.
+	 * @throws NullPointerException     If {@code date} is {@code null}.
+	 * @throws IllegalArgumentException If {@code date} can't be parsed as a date.
 	 */
-	public Map<String, Integer> getDayZoneTimes(String date) {
-		return new HashMap<>(dayZoneTimes.get(date));
+	public Map<String, Integer> getDayZoneTimes(String date) throws NullPointerException, IllegalArgumentException {
+		return getDayZoneTimes(TimestampParser.get().parseDay(date));
+	}
+
+	/**
+	 * Returns the time the turkey spent in each zone on the given day.<br/>
+	 * Returns {@code null} if there are no records for the given day.<br/>
+	 * Has the same limitations as {@link #getDayZoneTimes(String)}.
+	 * 
+	 * @param day The index of the day for which to get the zone times.
+	 * @return The zone times for the given day.
+	 * @see TimeUtils#getDay(long)
+	 */
+	public Map<String, Integer> getDayZoneTimes(int day) {
+		int[] row = dayZoneTimes.getRow(day);
+		if (row == null) {
+			return null;
+		}
+
+		Map<String, Integer> times = new HashMap<String, Integer>();
+		for (int i = 0; i < row.length; i++) {
+			if (row[i] != ZoneTimeTable.ABSENT) {
+				times.put(zoneIds[i], row[i]);
+			}
+		}
+		return times;
+	}
+
+	/**
+	 * Gets the time the turkey spent in each zone, for each day stored for it.<br/>
+	 * Used to compare turkeys independently of the order of their zone indices.
+	 * 
+	 * @return A map from the day index to the zone times of that day.
+	 */
+	private Map<Integer, Map<String, Integer>> getAllDayZoneTimes() {
+		Map<Integer, Map<String, Integer>> times = new HashMap<Integer, Map<String, Integer>>();
+		for (int day : dayZoneTimes.getDays()) {
+			times.put(day, getDayZoneTimes(day));
+		}
+		return times;
+	}
+
+	/**
+	 * Gets the time the turkey spent in the given zone on the given day.
+	 * 
+	 * @param day  The index of the day for which to get the zone time.
+	 * @param zone The {@link #findZoneIndex(String) index} of the zone.
+	 * @return The time spent in the zone in milliseconds.<br/>
+	 *         -1 if the turkey wasn't recorded in the zone on that day.
+	 * @see TimeUtils#getDay(long)
+	 */
+	public int getDayZoneTime(int day, int zone) {
+		return dayZoneTimes.get(day, zone);
 	}
 
 	/**
@@ -848,7 +1081,24 @@ public Map<String, Integer> getDayZoneTimes(String date) {
 	 * @return A map of the zone name to the time spent in that zone.
 	 */
 	public Map<String, Long> getTotalZoneTimes() {
-		return new HashMap<>(totalZoneTimes);
+		Map<String, Long> times = new HashMap<String, Long>();
+		for (int i = 0; i < totalZoneTimes.length; i++) {
+			if (totalZoneTimes[i] != ZoneTimeTable.ABSENT) {
+				times.put(zoneIds[i], totalZoneTimes[i]);
+			}
+		}
+		return times;
+	}
+
+	/**
+	 * Gets the time the turkey spent in the given zone for all recorded days.
+	 * 
+	 * @param zone The {@link #findZoneIndex(String) index} of the zone.
+	 * @return The time spent in the zone in milliseconds.<br/>
+	 *         -1 if the turkey was never recorded in the zone.
+	 */
+	public long getTotalZoneTime(int zone) {
+		return zone < totalZoneTimes.length ? totalZoneTimes[zone] : ZoneTimeTable.ABSENT;
 	}
 
 	/**
@@ -860,16 +1110,31 @@ public Map<String, Long> getTotalZoneTimes() {
 	 * @throws NullPointerException     If {@code date} is {@code null}.
 	 * @throws IllegalArgumentException If {@code date} can't be parsed as a date.
 	 */
-	public int getDayZoneChanges(String date) {
+	public int getDayZoneChanges(String date) throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(date, "The date to check for can't be null.");
 
-		if (currentTime == null) {
+		return getDayZoneChanges(TimestampParser.get().parseDay(date));
+	}
+
+	/**
+	 * Get the number of zone changes for the turkey on the given day.<br/>
+	 * Returns -1 if there is no record for the given day.
+	 * 
+	 * @param day The index of the day for which to check.
+	 * @return The number of zone changes on the given day.
+	 * @see TimeUtils#getDay(long)
+	 */
+	public int getDayZoneChanges(int day) {
+		if (currentTime == TimeUtils.NO_TIME) {
 			return -1;
-		} else if (dayZoneChanges.containsKey(date)) {
-			return dayZoneChanges.get(date);
-		} else if (TimeUtils.isSameDay(currentTime, TimeUtils.parseDate(date))) {
+		}
+
+		Integer changes = dayZoneChanges.get(day);
+		if (changes != null) {
+			return changes;
+		} else if (TimeUtils.getDay(currentTime) == day) {
 			return todayZoneChanges;
-		} else if (hasDay(date)) {
+		} else if (hasDay(day)) {
 			return 0;
 		} else {
 			return -1;
@@ -892,7 +1157,8 @@ public int getTotalZoneChanges() {
 	 * @param date The day for which to check.
 	 * @return {@code true} if this object holds data for the given day.
 	 * @throws NullPointerException     If {@code date} is {@code null}.
-	 * @throws IllegalArgumentException If {@code date} is empty.
+	 * @throws IllegalArgumentException If {@code date} is empty, or can't be
+	 *                                  parsed as a date.
 	 */
 	public boolean hasDay(String date) throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(date, "The date to check for can't be null.");
@@ -901,7 +1167,100 @@ public boolean hasDay(String date) throws NullPointerException, IllegalArgumentE
 			throw new IllegalArgumentException("The date to check for can't be empty.");
 		}
 
-		return dayZoneTimes.containsKey(date);
+		return hasDay(TimestampParser.get().parseDay(date));
+	}
+
+	/**
+	 * Returns {@code true} if this object holds data for the given day.
+	 * 
+	 * @param day The index of the day for which to check.
+	 * @return {@code true} if this object holds data for the given day.
+	 * @see TimeUtils#getDay(long)
+	 */
+	public boolean hasDay(int day) {
+		return dayZoneTimes.hasDay(day);
+	}
+
+	/**
+	 * Gets the first day whose data might still be changed by future updates of
+	 * this turkey.<br/>
+	 * Zone changes can add time to, and mark as unreliable, days before the day
+	 * of the {@link #getCurrentMs() current time}.<br/>
+	 * This returns the first day any of the possible future updates can reach,
+	 * so all days before it are final.
+	 * 
+	 * @param now The time of the last record read from the input.<br/>
+	 *            No future update can be for an earlier time.
+	 * @return The index of the first day that isn't final yet, or
+	 *         {@link Integer#MAX_VALUE} if this turkey can no longer change.
+	 * @see TimeUtils#getDay(long)
+	 */
+	public int getFirstOpenDay(long now) {
+		// Records after the end time are rejected, and the time can't be updated past it.
+		boolean finished = endTime != TimeUtils.NO_TIME && now > endTime
+				&& (currentTime == TimeUtils.NO_TIME || currentTime >= endTime);
+		if (currentTime == TimeUtils.NO_TIME) {
+			// The first record adds the time since the start time.
+			if (finished || args.fillDays || startTime == TimeUtils.NO_TIME) {
+				return Integer.MAX_VALUE;
+			}
+			return TimeUtils.getDay(startTime);
+		}
+
+		int first = finished ? Integer.MAX_VALUE : TimeUtils.getDay(currentTime);
+		if (!finished && args.minTime > 0) {
+			first = Math.min(first, TimeUtils.getDay(Math.max(lastZoneChange, currentTime - args.minTime * 1000)));
+		}
+
+		if (!finished && currentZone != null && !currentZone.hasFood()) {
+			first = Math.min(first, TimeUtils.getDay(lastZoneChange));
+		}
+
+		if (lastStay != null && !lastStay.getZone().hasFood()
+				&& (!finished || currentTime - lastStay.getLastRecordMs() > ZoneStay.UNRELIABLE_TIME)) {
+			first = Math.min(first, TimeUtils.getDay(lastStay.getLastRecordMs()));
+		}
+
+		return first;
+	}
+
+	/**
+	 * Removes all per-day data of the days before the given day.<br/>
+	 * Totals are kept, and unreliable days are still considered by
+	 * {@link #hasUnreliableDay()}.<br/>
+	 * Only days before {@link #getFirstOpenDay(long)} should be removed.
+	 * 
+	 * @param day The index of the first day to keep.
+	 * @return {@code true} if this turkey has no per-day data left.
+	 * @see TimeUtils#getDay(long)
+	 */
+	public boolean evictDays(int day) {
+		dayZoneTimes.removeBefore(day);
+
+		Iterator<Integer> changes = dayZoneChanges.keySet().iterator();
+		while (changes.hasNext()) {
+			if (changes.next() < day) {
+				changes.remove();
+			}
+		}
+
+		Iterator<Integer> unreliable = unreliableDays.iterator();
+		while (unreliable.hasNext()) {
+			if (unreliable.next() < day) {
+				unreliable.remove();
+				evictedUnreliableDay = true;
+			}
+		}
+
+		if (dayZoneTimes.isEmpty() && dayZoneChanges.isEmpty() && unreliableDays.isEmpty()) {
+			// Release the backing arrays, which keep the size of their largest state.
+			dayZoneTimes = new ZoneTimeTable();
+			dayZoneChanges = new HashMap<>();
+			unreliableDays = new HashSet<Integer>();
+			return true;
+		}
+
+		return false;
 	}
 
 	/**
@@ -911,10 +1270,10 @@ public boolean hasDay(String date) throws NullPointerException, IllegalArgumentE
 	 *         unreliable.
 	 * 
 	 * @see #isDayUnreliable(String)
-	 * @see #markDaysUnreliable(Calendar, Calendar)
+	 * @see #markDaysUnreliable(long, long)
 	 */
 	public boolean hasUnreliableDay() {
-		return !unreliableDays.isEmpty();
+		return evictedUnreliableDay || !unreliableDays.isEmpty();
 	}
 
 	/**
@@ -923,10 +1282,11 @@ public boolean hasUnreliableDay() {
 	 * @param date The day for which to check.
 	 * @return {@code true} if the data for the given day is considered unreliable.
 	 * @throws NullPointerException     If {@code date} is {@code null}.
-	 * @throws IllegalArgumentException If {@code date} is empty.
+	 * @throws IllegalArgumentException If {@code date} is empty, or can't be
+	 *                                  parsed as a date.
 	 * 
 	 * @see #hasUnreliableDay()
-	 * @see #markDaysUnreliable(Calendar, Calendar)
+	 * @see #markDaysUnreliable(long, long)
 	 */
 	public boolean isDayUnreliable(String date) throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(date, "The date to check can't be null.");
@@ -935,39 +1295,43 @@ public boolean isDayUnreliable(String date) throws NullPointerException, Illegal
 			throw new IllegalArgumentException("The date to check can't be empty.");
 		}
 
-		return unreliableDays.contains(date);
+		return isDayUnreliable(TimestampParser.get().parseDay(date));
+	}
+
+	/**
+	 * Checks whether the data for a given day is considered unreliable.
+	 * 
+	 * @param day The index of the day for which to check.
+	 * @return {@code true} if the data for the given day is considered unreliable.
+	 * 
+	 * @see #hasUnreliableDay()
+	 * @see #markDaysUnreliable(long, long)
+	 * @see TimeUtils#getDay(long)
+	 */
+	public boolean isDayUnreliable(int day) {
+		return unreliableDays.contains(day);
 	}
 
 	/**
 	 * Marks all the days from the start time to the end time as unreliable.
 	 * 
-	 * @param start The {@link Calendar} representing the start of the unreliable
-	 *              segment.
-	 * @param end   The {@link Calendar} representing the end of the unreliable
-	 *              segment.
-	 * @throws NullPointerException     If one of the arguments is {@code null}.
+	 * @param start The timestamp representing the start of the unreliable segment.
+	 * @param end   The timestamp representing the end of the unreliable segment.
 	 * @throws IllegalArgumentException If the end time is before the start time.
 	 * 
 	 * @see #hasUnreliableDay()
 	 * @see #isDayUnreliable(String)
 	 */
-	private void markDaysUnreliable(final Calendar start, final Calendar end)
-			throws NullPointerException, IllegalArgumentException {
-		Objects.requireNonNull(start, "The start time cannot be null.");
-		Objects.requireNonNull(end, "The end time cannot be null.");
-		if (end.before(start)) {
+	private void markDaysUnreliable(final long start, final long end) throws IllegalArgumentException {
+		if (end < start) {
 			throw new IllegalArgumentException("End time cannot be before start time.");
 		}
 
-		unreliableDays.add(TimeUtils.encodeDate(start));
-		if (!TimeUtils.isSameDay(start, end)) {
-			Calendar day = new GregorianCalendar(start.get(Calendar.YEAR), start.get(Calendar.MONTH),
-					start.get(Calendar.DATE));
-			day.add(Calendar.DATE, 1);
-			while (day.before(end)) {
-				unreliableDays.add(TimeUtils.encodeDate(day));
-				day.add(Calendar.DATE, 1);
-			}
+		// Days starting exactly at the end time are not unreliable.
+		int lastDay = TimeUtils.getDay(end - 1);
+		unreliableDays.add(TimeUtils.getDay(start));
+		for (int day = TimeUtils.getDay(start) + 1; day <= lastDay; day++) {
+			unreliableDays.add(day);
 		}
 	}
 
@@ -978,11 +1342,18 @@ private void markDaysUnreliable(final Calendar start, final Calendar end)
 	 * @return The time where the records begin.
 	 */
 	public Calendar getStartCal() {
-		if (startTime == null) {
-			return null;
-		} else {
-			return (Calendar) startTime.clone();
-		}
+		return TimeUtils.toNullableCalendar(startTime);
+	}
+
+	/**
+	 * Gets the timestamp in milliseconds at which the current, or next recording
+	 * starts.<br/>
+	 * {@link TimeUtils#NO_TIME} if records start at midnight.
+	 * 
+	 * @return The time where the records begin.
+	 */
+	public long getStartMs() {
+		return startTime;
 	}
 
 	/**
@@ -994,6 +1365,20 @@ public Calendar getStartCal() {
 	 * @param startTime The time where the records should begin.
 	 */
 	public void setStartTime(Calendar startTime) {
+		this.startTime = TimeUtils.toTimestamp(startTime);
+	}
+
+	/**
+	 * Sets the timestamp at which records should start the next time there is a
+	 * new recording start.<br/>
+	 * A recording start is when zone times are recorded, after days where there
+	 * were no records.
+	 * 
+	 * @param startTime The timestamp in milliseconds where the records should
+	 *                  begin.<br/>
+	 *                  {@link TimeUtils#NO_TIME} to start at midnight.
+	 */
+	public void setStartTime(long startTime) {
 		this.startTime = startTime;
 	}
 
@@ -1004,11 +1389,18 @@ public void setStartTime(Calendar startTime) {
 	 * @return The time where the records should end.
 	 */
 	public Calendar getEndCal() {
-		if (endTime == null) {
-			return null;
-		} else {
-			return (Calendar) endTime.clone();
-		}
+		return TimeUtils.toNullableCalendar(endTime);
+	}
+
+	/**
+	 * Gets the timestamp in milliseconds after which no more data should be
+	 * recorded.<br/>
+	 * {@link TimeUtils#NO_TIME} if the end time is unknown.
+	 * 
+	 * @return The time where the records should end.
+	 */
+	public long getEndMs() {
+		return endTime;
 	}
 
 	/**
@@ -1020,6 +1412,114 @@ public void setStayOut(IOutputStreamHandler stayOut) {
 		this.stayOut = stayOut;
 	}
 
+	/**
+	 * Writes the mutable state of this turkey to the given output, to be restored
+	 * by {@link #readState}.<br/>
+	 * The id, transponders, end time, and arguments aren't written, since they
+	 * are defined by the input files.<br/>
+	 * Zones are written as their id, and the zone times by the zone index of this
+	 * turkey.
+	 * 
+	 * @param out The output to write to.
+	 * @throws IOException If writing to the output fails.
+	 */
+	void writeState(DataOutput out) throws IOException {
+		out.writeLong(startTime);
+		out.writeLong(currentTime);
+		out.writeLong(lastZoneChange);
+		out.writeBoolean(currentZone != null);
+		if (currentZone != null) {
+			out.writeUTF(currentZone.getId());
+		}
+		out.writeBoolean(updateStay);
+		out.writeBoolean(lastStay != null);
+		if (lastStay != null) {
+			lastStay.write(out);
+		}
+
+		out.writeInt(zoneIds.length);
+		for (String zoneId : zoneIds) {
+			out.writeUTF(zoneId);
+		}
+
+		dayZoneTimes.write(out);
+		out.writeInt(totalZoneTimes.length);
+		for (long time : totalZoneTimes) {
+			out.writeLong(time);
+		}
+
+		out.writeInt(unreliableDays.size());
+		for (int day : unreliableDays) {
+			out.writeInt(day);
+		}
+		out.writeBoolean(evictedUnreliableDay);
+
+		out.writeInt(todayZoneChanges);
+		out.writeInt(totalZoneChanges);
+		out.writeInt(dayZoneChanges.size());
+		for (Map.Entry<Integer, Integer> changes : dayZoneChanges.entrySet()) {
+			out.writeInt(changes.getKey());
+			out.writeInt(changes.getValue());
+		}
+	}
+
+	/**
+	 * Replaces the mutable state of this turkey with one written by
+	 * {@link #writeState}.
+	 * 
+	 * @param in    The input to read from.
+	 * @param zones All known zones, by their id.
+	 * @throws IOException If reading from the input fails, or the data is invalid.
+	 */
+	void readState(DataInput in, Map<String, ZoneInfo> zones) throws IOException {
+		startTime = in.readLong();
+		currentTime = in.readLong();
+		lastZoneChange = in.readLong();
+		currentZone = null;
+		if (in.readBoolean()) {
+			String zoneId = in.readUTF();
+			currentZone = zones.get(zoneId);
+			if (currentZone == null) {
+				throw new IOException("Unknown zone \"" + zoneId + "\".");
+			}
+		}
+		updateStay = in.readBoolean();
+		lastStay = in.readBoolean() ? ZoneStay.read(in, id, zones) : null;
+
+		zoneIds = new String[in.readInt()];
+		for (int i = 0; i < zoneIds.length; i++) {
+			zoneIds[i] = in.readUTF();
+			if (!zones.containsKey(zoneIds[i])) {
+				throw new IOException("Unknown zone \"" + zoneIds[i] + "\".");
+			}
+		}
+
+		dayZoneTimes = ZoneTimeTable.read(in, zoneIds.length);
+		int zoneCount = in.readInt();
+		if (zoneCount > zoneIds.length) {
+			throw new IOException("Invalid zone index " + (zoneCount - 1) + ".");
+		}
+		totalZoneTimes = new long[zoneCount];
+		for (int zone = 0; zone < zoneCount; zone++) {
+			totalZoneTimes[zone] = in.readLong();
+		}
+
+		unreliableDays.clear();
+		int unreliable = in.readInt();
+		for (int i = 0; i < unreliable; i++) {
+			unreliableDays.add(in.readInt());
+		}
+		evictedUnreliableDay = in.readBoolean();
+
+		todayZoneChanges = in.readInt();
+		totalZoneChanges = in.readInt();
+		dayZoneChanges.clear();
+		int days = in.readInt();
+		for (int i = 0; i < days; i++) {
+			dayZoneChanges.put(in.readInt(), in.readInt());
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
@@ -1032,35 +1532,37 @@ public String toString() {
 		builder.append(", stayOut=");
 		builder.append(stayOut);
 		builder.append(", startTimeDate=");
-		builder.append(startTime == null ? "null" : TimeUtils.encodeDate(startTime));
+		builder.append(startTime == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeDate(startTime));
 		builder.append(", startTimeOfDay=");
-		builder.append(startTime == null ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(startTime)));
+		builder.append(
+				startTime == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(startTime)));
 		builder.append(", endTimeDate=");
-		builder.append(endTime == null ? "null" : TimeUtils.encodeDate(endTime));
+		builder.append(endTime == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeDate(endTime));
 		builder.append(", endTimeOfDay=");
-		builder.append(endTime == null ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(endTime)));
+		builder.append(endTime == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(endTime)));
 		builder.append(", currentZone=");
 		builder.append(currentZone);
 		builder.append(", lastStay=");
 		builder.append(lastStay);
 		builder.append(", currentTimeDate=");
-		builder.append(currentTime == null ? "null" : TimeUtils.encodeDate(currentTime));
+		builder.append(currentTime == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeDate(currentTime));
 		builder.append(", currentTimeOfDay=");
-		builder.append(currentTime == null ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(currentTime)));
-		Calendar lastChange = new GregorianCalendar();
-		lastChange.setTimeInMillis(lastZoneChange);
+		builder.append(
+				currentTime == TimeUtils.NO_TIME ? "null" : TimeUtils.encodeTime(TimeUtils.getMsOfDay(currentTime)));
 		builder.append(", lastZoneChangeDate=");
-		builder.append(TimeUtils.encodeDate(lastChange));
+		builder.append(TimeUtils.encodeDate(lastZoneChange));
 		builder.append(", lastZoneChangeTimeOfDay=");
-		builder.append(TimeUtils.encodeTime(TimeUtils.getMsOfDay(lastChange)));
+		builder.append(TimeUtils.encodeTime(TimeUtils.getMsOfDay(lastZoneChange)));
 		builder.append(", todayZoneChanges=");
 		builder.append(todayZoneChanges);
 		builder.append(", totalZoneChanges=");
 		builder.append(totalZoneChanges);
+		builder.append(", zoneIds=");
+		builder.append(Arrays.toString(zoneIds));
 		builder.append(", dayZoneTimes=");
 		builder.append(dayZoneTimes);
 		builder.append(", totalZoneTimes=");
-		builder.append(totalZoneTimes);
+		builder.append(Arrays.toString(totalZoneTimes));
 		builder.append(", dayZoneChanges=");
 		builder.append(dayZoneChanges);
 		builder.append(", unreliableDays=");
@@ -1071,8 +1573,9 @@ public String toString() {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(args, currentTime, currentZone, dayZoneChanges, dayZoneTimes, endTime, id, lastStay,
-				lastZoneChange, startTime, stayOut, todayZoneChanges, totalZoneChanges, totalZoneTimes, transponders);
+		return Objects.hash(args, currentTime, currentZone, dayZoneChanges, getAllDayZoneTimes(), endTime, id, lastStay,
+				lastZoneChange, startTime, stayOut, todayZoneChanges, totalZoneChanges, getTotalZoneTimes(),
+				transponders);
 	}
 
 	@Override
@@ -1096,14 +1599,17 @@ public boolean equals(Object obj) {
 			return false;
 		}
 
-		return Objects.equals(args, other.args) && Objects.equals(currentTime, other.currentTime)
-				&& Objects.equals(currentZone, other.currentZone)
+		if (currentTime != other.currentTime || startTime != other.startTime || endTime != other.endTime) {
+			return false;
+		}
+
+		return Objects.equals(args, other.args) && Objects.equals(currentZone, other.currentZone)
 				&& Objects.equals(dayZoneChanges, other.dayZoneChanges)
-				&& Objects.equals(dayZoneTimes, other.dayZoneTimes) && Objects.equals(endTime, other.endTime)
-				&& Objects.equals(lastStay, other.lastStay) && Objects.equals(startTime, other.startTime)
-				&& Objects.equals(stayOut, other.stayOut) && Objects.equals(totalZoneTimes, other.totalZoneTimes);
+				&& getAllDayZoneTimes().equals(other.getAllDayZoneTimes()) && Objects.equals(lastStay, other.lastStay)
+				&& Objects.equals(stayOut, other.stayOut) && getTotalZoneTimes().equals(other.getTotalZoneTimes());
 	}
 
+
 	/**
 	 * Compares this object with the specified object for order. Returns a negative
 	 * integer, zero, or a positive integer as this object is less than, equal to,
@@ -0,0 +1,111 @@
+package com.tome25.auswertung;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import com.tome25.auswertung.stream.SequencedOutputStreamHandler;
+
+/**
+ * A task applying all the {@link AnalysisEvent AnalysisEvents} of a single
+ * turkey, in the order of their sequence numbers.<br/>
+ * Used to analyze multiple turkeys in parallel.<br/>
+ * The generated output is buffered in {@link SequencedOutputStreamHandler
+ * SequencedOutputStreamHandlers}, so it can be written in the same order as
+ * when analyzing the turkeys serially.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class TurkeyTask extends RecursiveAction {
+
+	/**
+	 * The serialization version of this class.
+	 */
+	private static final long serialVersionUID = -4785319628401529046L;
+
+	/**
+	 * The data handler doing the analysis.
+	 */
+	private final DataHandler handler;
+
+	/**
+	 * The turkey analyzed by this task.
+	 */
+	private final TurkeyInfo turkey;
+
+	/**
+	 * The global events to apply to the turkey.<br/>
+	 * Shared between all tasks, must not be modified while tasks are running.
+	 */
+	private final List<AnalysisEvent> globalEvents;
+
+	/**
+	 * The events belonging to the turkey of this task.
+	 */
+	private final List<AnalysisEvent> events = new ArrayList<AnalysisEvent>();
+
+	/**
+	 * The stream handler buffering the stays of the turkey.
+	 */
+	final SequencedOutputStreamHandler stays = new SequencedOutputStreamHandler();
+
+	/**
+	 * The stream handler buffering the daily totals of the turkey.
+	 */
+	final SequencedOutputStreamHandler totals = new SequencedOutputStreamHandler();
+
+	/**
+	 * Creates a new turkey task, and makes the turkey write its stays to this
+	 * task.
+	 * 
+	 * @param handler      The data handler doing the analysis.
+	 * @param turkey       The turkey to analyze.
+	 * @param globalEvents The global events to apply to the turkey.
+	 */
+	TurkeyTask(DataHandler handler, TurkeyInfo turkey, List<AnalysisEvent> globalEvents) {
+		this.handler = handler;
+		this.turkey = turkey;
+		this.globalEvents = globalEvents;
+		turkey.setStayOut(stays);
+	}
+
+	/**
+	 * Adds an event belonging to the turkey of this task.<br/>
+	 * Events have to be added in the order of their sequence numbers.
+	 * 
+	 * @param event The event to add.
+	 */
+	void add(AnalysisEvent event) {
+		events.add(event);
+	}
+
+	/**
+	 * Discards the events added to this task, and the output buffered by it.<br/>
+	 * Used after the events of a day were applied, and its output was written.
+	 */
+	void clear() {
+		events.clear();
+		stays.clear();
+		totals.clear();
+	}
+
+	@Override
+	protected void compute() {
+		int global = 0;
+		int own = 0;
+		while (global < globalEvents.size() || own < events.size()) {
+			AnalysisEvent event;
+			if (own >= events.size()
+					|| (global < globalEvents.size() && globalEvents.get(global).sequence < events.get(own).sequence)) {
+				event = globalEvents.get(global++);
+			} else {
+				event = events.get(own++);
+			}
+
+			stays.setSequence(event.sequence);
+			totals.setSequence(event.sequence);
+			event.apply(handler, turkey, totals);
+		}
+	}
+
+}
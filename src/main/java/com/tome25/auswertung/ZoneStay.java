@@ -1,6 +1,10 @@
 package com.tome25.auswertung;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Calendar;
+import java.util.Map;
 import java.util.Objects;
 
 import com.tome25.auswertung.utils.TimeUtils;
@@ -30,20 +34,21 @@ public class ZoneStay {
 	private final ZoneInfo zone;
 
 	/**
-	 * The date and time at which the zone was entered.
+	 * The timestamp in milliseconds at which the zone was entered.
 	 */
-	private final Calendar entry;
+	private final long entry;
 
 	/**
 	 * The last time at which a record for this stays turkey in this stays zone was
 	 * received.
 	 */
-	private Calendar lastRecord;
+	private long lastRecord;
 
 	/**
-	 * The time and date at which the zone was left.
+	 * The timestamp in milliseconds at which the zone was left.<br/>
+	 * {@link TimeUtils#NO_TIME} if the zone wasn't left yet.
 	 */
-	private Calendar exit;
+	private long exit;
 
 	/**
 	 * Whether this stay was already marked as unreliable.
@@ -79,11 +84,50 @@ public ZoneStay(String turkey, ZoneInfo zone, Calendar entry)
 	 */
 	public ZoneStay(final String turkey, final ZoneInfo zone, final Calendar entry, Calendar exit)
 			throws NullPointerException, IllegalArgumentException {
+		this(turkey, zone,
+				Objects.requireNonNull(entry, "The time at which the turkey entered the zone can't be null.")
+						.getTimeInMillis(),
+				exit == null ? TimeUtils.NO_TIME : exit.getTimeInMillis());
+	}
+
+	/**
+	 * Creates a new ZoneStay with the given values, without an exit time.
+	 * 
+	 * @param turkey The turkey for which the zone stay is being recorded.
+	 * @param zone   The zone in which the turkey spent the time recorded.
+	 * @param entry  The timestamp in milliseconds at which the turkey entered the
+	 *               zone.
+	 * @throws NullPointerException If {@code turkey} or {@code zone} is
+	 *                              {@code null}.
+	 */
+	public ZoneStay(String turkey, ZoneInfo zone, long entry) throws NullPointerException {
+		this(turkey, zone, entry, TimeUtils.NO_TIME);
+	}
+
+	/**
+	 * Creates a new ZoneStay with the given values.
+	 * 
+	 * @param turkey The turkey for which the zone stay is being recorded.
+	 * @param zone   The zone in which the turkey spent the time recorded.
+	 * @param entry  The timestamp in milliseconds at which the turkey entered the
+	 *               zone.
+	 * @param exit   The timestamp in milliseconds at which the turkey left the
+	 *               zone.<br/>
+	 *               Can be {@link TimeUtils#NO_TIME}.
+	 * @throws NullPointerException     If {@code turkey} or {@code zone} is
+	 *                                  {@code null}.
+	 * @throws IllegalArgumentException If the exit time isn't after the entry time.
+	 */
+	public ZoneStay(final String turkey, final ZoneInfo zone, final long entry, long exit)
+			throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(turkey, "The turkey spending the time can't be null.");
 		Objects.requireNonNull(zone, "The zone in which the turkey spends its time can't be null.");
-		Objects.requireNonNull(entry, "The time at which the turkey entered the zone can't be null.");
 
-		if (exit != null && !exit.after(entry)) {
+		if (entry == TimeUtils.NO_TIME) {
+			throw new IllegalArgumentException("The time at which the turkey entered the zone has to be set.");
+		}
+
+		if (exit != TimeUtils.NO_TIME && exit <= entry) {
 			throw new IllegalArgumentException("Exit time wasn't after entry time.");
 		}
 
@@ -131,10 +175,47 @@ public void setLastRecord(Calendar recordTime) throws NullPointerException, Ille
 	public void setLastRecord(Calendar recordTime, boolean checkTime)
 			throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(recordTime, "The new last record time cannot be null.");
-		if (recordTime.before(lastRecord)) {
+		setLastRecord(recordTime.getTimeInMillis(), checkTime);
+	}
+
+	/**
+	 * Updates the last received record in this stays zone for this stays
+	 * turkey.<br/>
+	 * Also marks this stay as unreliable if the zone doesn't have food and the new
+	 * time is more than 12 hours after the old time.
+	 * 
+	 * @param recordTime The timestamp in milliseconds of the new record of this
+	 *                   stays turkey in this stays zone.
+	 * @throws IllegalArgumentException If {@code recordTime} is before the previous
+	 *                                  record.
+	 * 
+	 * @see #markUnreliable()
+	 * @see #isUnreliable()
+	 */
+	public void setLastRecord(long recordTime) throws IllegalArgumentException {
+		setLastRecord(recordTime, !zone.hasFood());
+	}
+
+	/**
+	 * Updates the last received record in this stays zone for this stays
+	 * turkey.<br/>
+	 * Also marks this stay as unreliable if {@code checkTime} is {@code true} and
+	 * the new time is more than 12 hours after the old time.
+	 * 
+	 * @param recordTime The timestamp in milliseconds of the new record of this
+	 *                   stays turkey in this stays zone.
+	 * @param checkTime  Whether the time since the last record should be checked.
+	 * @throws IllegalArgumentException If {@code recordTime} is before the previous
+	 *                                  record.
+	 * 
+	 * @see #markUnreliable()
+	 * @see #isUnreliable()
+	 */
+	public void setLastRecord(long recordTime, boolean checkTime) throws IllegalArgumentException {
+		if (recordTime < lastRecord) {
 			throw new IllegalStateException("The new last record cannot be before the old last record.");
-		} else if (!recordTime.equals(lastRecord)) {
-			if (checkTime && recordTime.getTimeInMillis() - lastRecord.getTimeInMillis() > UNRELIABLE_TIME) {
+		} else if (recordTime != lastRecord) {
+			if (checkTime && recordTime - lastRecord > UNRELIABLE_TIME) {
 				markUnreliable();
 			}
 			lastRecord = recordTime;
@@ -151,13 +232,24 @@ public void setLastRecord(Calendar recordTime, boolean checkTime)
 	 * @see #getExitCal()
 	 */
 	public void setExitTime(Calendar exit) throws IllegalArgumentException {
-		if (exit == null) {
-			this.exit = null;
-		} else if (!exit.after(entry)) {
+		setExitTime(exit == null ? TimeUtils.NO_TIME : exit.getTimeInMillis());
+	}
+
+	/**
+	 * Sets the timestamp at which the turkey left the zone recorded in this object.
+	 * 
+	 * @param exit The new exit time in milliseconds.<br/>
+	 *             {@link TimeUtils#NO_TIME} to remove the exit time.
+	 * @throws IllegalArgumentException If the new exit time is before the entry
+	 *                                  time.
+	 * 
+	 * @see #getExitMs()
+	 */
+	public void setExitTime(long exit) throws IllegalArgumentException {
+		if (exit != TimeUtils.NO_TIME && exit <= entry) {
 			throw new IllegalArgumentException("Exit time wasn't after entry time.");
-		} else {
-			this.exit = exit;
 		}
+		this.exit = exit;
 	}
 
 	/**
@@ -196,7 +288,16 @@ public ZoneInfo getZone() {
 	 * @return The zone entry time.
 	 */
 	public Calendar getEntryCal() {
-		return (Calendar) entry.clone();
+		return TimeUtils.toCalendar(entry);
+	}
+
+	/**
+	 * Gets the timestamp in milliseconds at which the turkey entered this zone.
+	 * 
+	 * @return The zone entry time.
+	 */
+	public long getEntryMs() {
+		return entry;
 	}
 
 	/**
@@ -225,7 +326,16 @@ public int getEntryTime() {
 	 * @return The last record time.
 	 */
 	public Calendar getLastRecordCal() {
-		return (Calendar) lastRecord.clone();
+		return TimeUtils.toCalendar(lastRecord);
+	}
+
+	/**
+	 * Gets the timestamp in milliseconds of the last record of this stay.
+	 * 
+	 * @return The last record time.
+	 */
+	public long getLastRecordMs() {
+		return lastRecord;
 	}
 
 	/**
@@ -237,13 +347,25 @@ public Calendar getLastRecordCal() {
 	 * @see #setExitTime(Calendar)
 	 */
 	public Calendar getExitCal() {
-		if (exit == null) {
+		if (exit == TimeUtils.NO_TIME) {
 			return null;
 		} else {
-			return (Calendar) exit.clone();
+			return TimeUtils.toCalendar(exit);
 		}
 	}
 
+	/**
+	 * Gets the timestamp in milliseconds at which the turkey left this zone.<br/>
+	 * {@link TimeUtils#NO_TIME} if the exit time has not been set yet.
+	 * 
+	 * @return The zone exit time.
+	 * 
+	 * @see #setExitTime(long)
+	 */
+	public long getExitMs() {
+		return exit;
+	}
+
 	/**
 	 * Gets the date at which the turkey left the zone.<br/>
 	 * {@code null} if the exit time has not been set yet.
@@ -251,7 +373,7 @@ public Calendar getExitCal() {
 	 * @return The zone exit date.
 	 */
 	public String getExitDate() {
-		if (exit == null) {
+		if (exit == TimeUtils.NO_TIME) {
 			return null;
 		} else {
 			return TimeUtils.encodeDate(exit);
@@ -265,7 +387,7 @@ public String getExitDate() {
 	 * @return The exit time of day in ms.
 	 */
 	public int getExitTime() {
-		if (exit == null) {
+		if (exit == TimeUtils.NO_TIME) {
 			return -1;
 		} else {
 			return TimeUtils.getMsOfDay(exit);
@@ -283,7 +405,7 @@ public long getStayTime() throws IllegalStateException {
 			throw new IllegalStateException("ZoneStay has no exit time.");
 		}
 
-		return exit.getTimeInMillis() - entry.getTimeInMillis();
+		return exit - entry;
 	}
 
 	/**
@@ -292,7 +414,7 @@ public long getStayTime() throws IllegalStateException {
 	 * @return {@code true} if the exit time has been set already.
 	 */
 	public boolean hasLeft() {
-		return exit != null;
+		return exit != TimeUtils.NO_TIME;
 	}
 
 	/**
@@ -316,11 +438,11 @@ public boolean isUnreliable() throws IllegalStateException {
 			throw new IllegalStateException("ZoneStay has no exit time.");
 		}
 
-		if (lastRecord.after(exit)) {
+		if (lastRecord > exit) {
 			throw new IllegalStateException("Last record time was after exit time.");
 		}
 
-		return !zone.hasFood() && exit.getTimeInMillis() - lastRecord.getTimeInMillis() > UNRELIABLE_TIME;
+		return !zone.hasFood() && exit - lastRecord > UNRELIABLE_TIME;
 	}
 
 	/**
@@ -335,13 +457,57 @@ public boolean isValid() {
 			return false;
 		}
 
-		if (lastRecord.after(exit)) {
+		if (lastRecord > exit) {
 			return false;
 		}
 
 		return true;
 	}
 
+	/**
+	 * Writes the state of this stay to the given output, to be restored by
+	 * {@link #read}.<br/>
+	 * The turkey isn't written, since it is known by the reader.
+	 * 
+	 * @param out The output to write to.
+	 * @throws IOException If writing to the output fails.
+	 */
+	void write(DataOutput out) throws IOException {
+		out.writeUTF(zone.getId());
+		out.writeLong(entry);
+		out.writeLong(lastRecord);
+		out.writeLong(exit);
+		out.writeBoolean(isUnreliable);
+	}
+
+	/**
+	 * Reads a stay written by {@link #write}.
+	 * 
+	 * @param in     The input to read from.
+	 * @param turkey The id of the turkey the stay belongs to.
+	 * @param zones  All known zones, by their id.
+	 * @return The stay that was read.
+	 * @throws IOException If reading from the input fails, or the data is invalid.
+	 */
+	static ZoneStay read(DataInput in, String turkey, Map<String, ZoneInfo> zones) throws IOException {
+		String zoneId = in.readUTF();
+		ZoneInfo zone = zones.get(zoneId);
+		if (zone == null) {
+			throw new IOException("Unknown zone \"" + zoneId + "\".");
+		}
+
+		long entry = in.readLong();
+		if (entry == TimeUtils.NO_TIME) {
+			throw new IOException("Zone stay without entry time.");
+		}
+
+		ZoneStay stay = new ZoneStay(turkey, zone, entry);
+		stay.lastRecord = in.readLong();
+		stay.exit = in.readLong();
+		stay.isUnreliable = in.readBoolean();
+		return stay;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(entry, exit, turkey, zone, isValid() ? isUnreliable() : false);
@@ -363,8 +529,8 @@ public boolean equals(Object obj) {
 			return false;
 		}
 
-		return Objects.equals(entry, other.entry) && Objects.equals(exit, other.exit)
-				&& Objects.equals(turkey, other.turkey) && Objects.equals(zone, other.zone);
+		return entry == other.entry && exit == other.exit && Objects.equals(turkey, other.turkey)
+				&& Objects.equals(zone, other.zone);
 
 	}
 
@@ -373,8 +539,8 @@ public String toString() {
 		return String.format(
 				"ZoneStay[turkey=%s, zone=%s, zone has food=%s, entry date=%s, entry time=%s, exit date=%s, exit time=%s, last record date=%s, last record time=%s, is valid=%s, is unreliable=%s]",
 				turkey, zone.getId(), zone.hasFood() ? "true" : "false", getEntryDate(),
-				TimeUtils.encodeTime(getEntryTime()), exit == null ? "null" : getExitDate(),
-				exit == null ? "null" : TimeUtils.encodeTime(getExitTime()), TimeUtils.encodeDate(lastRecord),
+				TimeUtils.encodeTime(getEntryTime()), hasLeft() ? getExitDate() : "null",
+				hasLeft() ? TimeUtils.encodeTime(getExitTime()) : "null", TimeUtils.encodeDate(lastRecord),
 				TimeUtils.encodeTime(TimeUtils.getMsOfDay(lastRecord)), isValid() ? "true" : "false",
 				isValid() ? (isUnreliable() ? "true" : "false") : (isUnreliable ? "true" : "unknown"));
 	}
@@ -0,0 +1,330 @@
+package com.tome25.auswertung;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A growable table storing the time a single turkey spent in each zone, for each
+ * day.<br/>
+ * Each day is stored as a row of primitive ints, indexed by the
+ * {@link TurkeyInfo#findZoneIndex(String) zone index} of the turkey.<br/>
+ * Rows are indexed by their day, relative to the first day stored in the
+ * table.<br/>
+ * Zones the turkey did not spend any time in on a day are stored as
+ * {@link #ABSENT}, to keep them apart from zones that only got time removed.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class ZoneTimeTable {
+
+	/**
+	 * The value stored for zones without a time on a day.
+	 */
+	static final int ABSENT = -1;
+
+	/**
+	 * The number of days to initially allocate rows for.
+	 */
+	private static final int INITIAL_DAYS = 8;
+
+	/**
+	 * The rows of this table.<br/>
+	 * Days without data have a {@code null} row.
+	 */
+	private int[][] rows = new int[0][];
+
+	/**
+	 * The day index of the first row.
+	 */
+	private int firstDay;
+
+	/**
+	 * The number of days that have a row.
+	 */
+	private int days;
+
+	/**
+	 * Checks whether this table has a row for the given day.
+	 * 
+	 * @param day The index of the day to check.
+	 * @return {@code true} if the day exists in this table.
+	 */
+	boolean hasDay(int day) {
+		int index = day - firstDay;
+		return index >= 0 && index < rows.length && rows[index] != null;
+	}
+
+	/**
+	 * Creates an empty row for the given day, if it doesn't exist yet.
+	 * 
+	 * @param day The index of the day to add.
+	 */
+	void addDay(int day) {
+		getRowIndex(day);
+	}
+
+	/**
+	 * Gets the time spent in the given zone on the given day.
+	 * 
+	 * @param day  The index of the day to get the time for.
+	 * @param zone The index of the zone.
+	 * @return The time in milliseconds, or {@link #ABSENT} if there is none.
+	 */
+	int get(int day, int zone) {
+		if (!hasDay(day)) {
+			return ABSENT;
+		}
+
+		int[] row = rows[day - firstDay];
+		return zone < row.length ? row[zone] : ABSENT;
+	}
+
+	/**
+	 * Gets the indices of all days that have a row in this table.
+	 * 
+	 * @return The day indices, in ascending order.
+	 */
+	int[] getDays() {
+		int[] result = new int[days];
+		int i = 0;
+		for (int index = 0; index < rows.length; index++) {
+			if (rows[index] != null) {
+				result[i++] = firstDay + index;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the row of the given day.<br/>
+	 * The returned array is the internal row of this table, and must not be
+	 * modified.<br/>
+	 * It may be shorter than the number of zones, the missing zones are
+	 * {@link #ABSENT}.
+	 * 
+	 * @param day The index of the day to get.
+	 * @return The row of the day, or {@code null} if the day doesn't exist.
+	 */
+	int[] getRow(int day) {
+		return hasDay(day) ? rows[day - firstDay] : null;
+	}
+
+	/**
+	 * Adds the given time to the time spent in a zone on a day.<br/>
+	 * Creates the day, if it doesn't exist yet.<br/>
+	 * The resulting time is never negative.
+	 * 
+	 * @param day  The index of the day to add the time to.
+	 * @param zone The index of the zone to add the time to.
+	 * @param time The time in milliseconds to add. Can be negative.
+	 */
+	void add(int day, int zone, long time) {
+		int index = getRowIndex(day);
+		int[] row = rows[index];
+		if (zone >= row.length) {
+			int length = row.length;
+			row = Arrays.copyOf(row, zone + 1);
+			Arrays.fill(row, length, row.length, ABSENT);
+			rows[index] = row;
+		}
+
+		long current = row[zone] == ABSENT ? 0 : row[zone];
+		row[zone] = (int) Math.max(0, current + time);
+	}
+
+	/**
+	 * Removes the rows of all days before the given day.<br/>
+	 * The remaining rows are moved to the start of the table, so that the table
+	 * doesn't grow while old days are removed.
+	 * 
+	 * @param day The index of the first day to keep.
+	 */
+	void removeBefore(int day) {
+		int count = Math.min(day - firstDay, rows.length);
+		if (days == 0 || count <= 0) {
+			return;
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (rows[i] != null) {
+				days--;
+			}
+		}
+
+		System.arraycopy(rows, count, rows, 0, rows.length - count);
+		Arrays.fill(rows, rows.length - count, rows.length, null);
+		firstDay += count;
+	}
+
+	/**
+	 * Checks whether this table doesn't contain any days.
+	 * 
+	 * @return {@code true} if there is no row for any day.
+	 */
+	boolean isEmpty() {
+		return days == 0;
+	}
+
+	/**
+	 * Writes the content of this table to the given output, to be restored by
+	 * {@link #read}.<br/>
+	 * Zones are written as their index.
+	 * 
+	 * @param out The output to write to.
+	 * @throws IOException If writing to the output fails.
+	 */
+	void write(DataOutput out) throws IOException {
+		out.writeInt(days);
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] != null) {
+				out.writeInt(firstDay + i);
+				out.writeInt(rows[i].length);
+				for (int time : rows[i]) {
+					out.writeInt(time);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a table written by {@link #write}.
+	 * 
+	 * @param in        The input to read from.
+	 * @param zoneCount The number of zones the turkey of the table was recorded
+	 *                  in.
+	 * @return The table that was read.
+	 * @throws IOException If reading from the input fails, or the data is invalid.
+	 */
+	static ZoneTimeTable read(DataInput in, int zoneCount) throws IOException {
+		ZoneTimeTable table = new ZoneTimeTable();
+		int days = in.readInt();
+		for (int i = 0; i < days; i++) {
+			int day = in.readInt();
+			int zones = in.readInt();
+			table.addDay(day);
+			for (int zone = 0; zone < zones; zone++) {
+				int time = in.readInt();
+				if (time != ABSENT) {
+					if (zone >= zoneCount) {
+						throw new IOException("Invalid zone index " + zone + ".");
+					}
+					table.add(day, zone, time);
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Gets the index of the row of the given day.<br/>
+	 * Grows the table and creates the row, if necessary.
+	 * 
+	 * @param day The index of the day to get the row for.
+	 * @return The index of the row in {@link #rows}.
+	 */
+	private int getRowIndex(int day) {
+		if (days == 0) {
+			if (rows.length == 0) {
+				rows = new int[INITIAL_DAYS][];
+			}
+			firstDay = day;
+		}
+
+		int index = day - firstDay;
+		if (index < 0) {
+			int shift = Math.max(-index, rows.length);
+			int[][] newRows = new int[rows.length + shift][];
+			System.arraycopy(rows, 0, newRows, shift, rows.length);
+			rows = newRows;
+			firstDay -= shift;
+			index += shift;
+		} else if (index >= rows.length) {
+			rows = Arrays.copyOf(rows, Math.max(index + 1, rows.length * 2));
+		}
+
+		if (rows[index] == null) {
+			rows[index] = new int[0];
+			days++;
+		}
+
+		return index;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append('{');
+		boolean first = true;
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] != null) {
+				if (!first) {
+					builder.append(", ");
+				}
+				builder.append(firstDay + i);
+				builder.append('=');
+				builder.append(Arrays.toString(rows[i]));
+				first = false;
+			}
+		}
+		builder.append('}');
+		return builder.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] != null) {
+				int rowHash = firstDay + i;
+				int length = rows[i].length;
+				while (length > 0 && rows[i][length - 1] == ABSENT) {
+					length--;
+				}
+				for (int j = 0; j < length; j++) {
+					rowHash = 31 * rowHash + rows[i][j];
+				}
+				result += rowHash;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+
+		ZoneTimeTable other = (ZoneTimeTable) obj;
+		if (days != other.days) {
+			return false;
+		}
+
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] == null) {
+				continue;
+			}
+
+			int day = firstDay + i;
+			int[] otherRow = other.getRow(day);
+			if (otherRow == null) {
+				return false;
+			}
+
+			for (int j = 0; j < Math.max(rows[i].length, otherRow.length); j++) {
+				if (get(day, j) != other.get(day, j)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+}
@@ -5,10 +5,13 @@
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.jar.Manifest;
 
+import com.tome25.auswertung.PutenAuswertung;
 import com.tome25.auswertung.log.LogHandler;
 import com.tome25.auswertung.utils.FileUtils;
 import com.tome25.auswertung.utils.TimeUtils;
@@ -142,7 +145,9 @@ public void onReceived(Arguments inst, String val) throws IllegalArgumentExcepti
 
 		@Override
 		public String[] getDescription() {
-			return new String[] { "Sets the file this program should read antenna data records from." };
+			return new String[] { "Sets the file this program should read antenna data records from.",
+					"Can also be a directory, or a file name pattern like \"AntennenDaten*.csv\".",
+					"Multiple files are merged by the timestamps of their records." };
 		}
 	},
 	TURKEYS('t', ArgumentValue.REQUIRED, "FILE", (short) 5, "turkeys") {
@@ -369,6 +374,297 @@ public String[] getDescription() {
 					"If neither is specified, the program will attempt to detect whether its being run in an interactive environment." };
 		}
 
+	},
+	MEMORYMAP('M', (short) 5, "memory-map", "memorymap", "mmap") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			inst.memoryMap = true;
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program read the antenna data input file using memory mapping.",
+					"This can be faster for very large input files, but might use a lot of virtual memory." };
+		}
+	},
+	PARALLEL('p', ArgumentValue.OPTIONAL, "THREADS", (short) 5, "parallel", "threads") {
+		@Override
+		public void onReceived(Arguments inst, String val) throws IllegalArgumentException {
+			if (val == null || val.trim().isEmpty()) {
+				inst.threads = Runtime.getRuntime().availableProcessors();
+			} else {
+				int threads = 0;
+				try {
+					threads = Integer.parseInt(val.trim());
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Number of threads couldn't be parsed to an integer.", e);
+				}
+
+				if (threads < 0) {
+					throw new IllegalArgumentException("Number of threads cannot be negative.");
+				}
+
+				inst.threads = threads;
+			}
+
+			LogHandler.out_println("Analyzing turkeys using " + inst.threads + " threads.", true);
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program analyze the turkeys in parallel, using the given number of threads.",
+					"Uses one thread per available processor if no value is specified.",
+					"Set to 0 to analyze all turkeys on the main thread.",
+					"Analyzing in parallel keeps the antenna records of a single day in memory." };
+		}
+	},
+	PIPELINE('P', (short) 5, "pipeline", "pipelined") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			inst.pipeline = true;
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program read, parse, and analyze the antenna data on separate threads.",
+					"The threads pass batches of lines and records to each other through bounded queues." };
+		}
+	},
+	ASYNCOUTPUT('A', (short) 5, "async-output", "asyncoutput") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			inst.asyncOutput = true;
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program write the output files on a separate writer thread.",
+					"The output is collected in buffers, which are written once full, or at least once a second." };
+		}
+	},
+	STREAMING('e', (short) 5, "streaming", "stream-totals", "streamtotals") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			inst.streaming = true;
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program write the totals of each day as soon as no turkey can change them anymore.",
+					"The data of written days is removed from memory, only the totals of the whole recording are kept.",
+					"Requires the turkeys to be analyzed on the main thread." };
+		}
+	},
+	GZIPOUTPUT('g', (short) 5, "gzip-output", "gzipoutput", "gzip") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			inst.gzipOutput = true;
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program write gzip compressed output files.",
+					"Adds the extension \".gz\" to output file names that don't already have it.",
+					"The output is compressed in blocks, on one thread per available processor." };
+		}
+	},
+	SORT('r', ArgumentValue.OPTIONAL, "RECORDS", (short) 5, "sort", "sort-input", "sortinput") {
+		@Override
+		public void onReceived(Arguments inst, String val) throws IllegalArgumentException {
+			if (val == null || val.trim().isEmpty()) {
+				inst.sortBuffer = 1000000;
+			} else {
+				int records = 0;
+				try {
+					records = Integer.parseInt(val.trim());
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Sort buffer size couldn't be parsed to an integer.", e);
+				}
+
+				if (records < 1) {
+					throw new IllegalArgumentException("Sort buffer size has to be at least one record.");
+				}
+
+				inst.sortBuffer = records;
+			}
+
+			LogHandler.out_println("Sorting antenna records using a buffer of " + inst.sortBuffer + " records.",
+					true);
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program sort the antenna records by their time before analyzing them.",
+					"Keeps up to the given number of records in memory, 1000000 if no value is specified.",
+					"Once the buffer is full, its earliest record is analyzed before the next one is read.",
+					"Records arriving after a later record was analyzed are reported and skipped." };
+		}
+	},
+	EXTERNALSORT('X', (short) 5, "external-sort", "externalsort") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			inst.externalSort = true;
+			if (inst.sortBuffer == 0) {
+				inst.sortBuffer = 1000000;
+			}
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program read and sort all antenna records before analyzing them.",
+					"If they don't fit into the sort buffer, sorted runs of records are written to temporary files and merged.",
+					"Use this for badly ordered antenna data, with records more than the sort buffer too late.",
+					"Sorts with the default buffer of 1000000 records, unless the sort argument specifies one." };
+		}
+	},
+	PARSETHREADS('j', ArgumentValue.OPTIONAL, "THREADS", (short) 5, "parse-threads", "parsethreads") {
+		@Override
+		public void onReceived(Arguments inst, String val) throws IllegalArgumentException {
+			if (val == null || val.trim().isEmpty()) {
+				inst.parseThreads = Runtime.getRuntime().availableProcessors();
+			} else {
+				int threads = 0;
+				try {
+					threads = Integer.parseInt(val.trim());
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Number of parser threads couldn't be parsed to an integer.", e);
+				}
+
+				if (threads < 0) {
+					throw new IllegalArgumentException("Number of parser threads cannot be negative.");
+				}
+
+				inst.parseThreads = threads;
+			}
+
+			LogHandler.out_println("Parsing antenna records using " + inst.parseThreads + " threads.", true);
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program parse the antenna data file in chunks, using the given number of threads.",
+					"Uses one thread per available processor if no value is specified.",
+					"Set to 0 to parse the antenna data on a single thread.",
+					"Only used for a single, uncompressed, antenna data file." };
+		}
+	},
+	RECORDCACHE('C', (short) 5, "record-cache", "recordcache", "cache") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			inst.recordCache = true;
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program cache the parsed antenna records in a binary file next to the antenna data file.",
+					"The cache file has the name of the antenna data file, with the extension \".rec\" added.",
+					"Later runs read the records from the cache file, if the antenna data file didn't change.",
+					"Only used for a single antenna data file." };
+		}
+	},
+	SNAPSHOT('R', ArgumentValue.OPTIONAL, "FILE", (short) 5, "snapshot", "resume") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			if (val == null || val.trim().isEmpty()) {
+				inst.snapshotFile = new File(PutenAuswertung.DEFAULT_SNAPSHOT_FILE);
+			} else {
+				inst.snapshotFile = new File(val);
+			}
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program write a snapshot of the analysis state after the last antenna record.",
+					"If the snapshot file exists, the analysis continues from it, and only the new records are analyzed.",
+					"The output of the previous analysis is kept, and the new output is appended to it.",
+					"Uses \"" + PutenAuswertung.DEFAULT_SNAPSHOT_FILE + "\" if no value is specified.",
+					"Only used for a single, uncompressed, antenna data file, and uncompressed output files." };
+		}
+	},
+	FOLLOW('F', ArgumentValue.OPTIONAL, "SECONDS", (short) 5, "follow", "tail") {
+		@Override
+		public void onReceived(Arguments inst, String val) throws IllegalArgumentException {
+			if (val == null || val.trim().isEmpty()) {
+				inst.followInterval = 60;
+			} else {
+				int seconds = 0;
+				try {
+					seconds = Integer.parseInt(val.trim());
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Follow update interval couldn't be parsed to an integer.", e);
+				}
+
+				if (seconds < 1) {
+					throw new IllegalArgumentException("Follow update interval has to be at least one second.");
+				}
+
+				inst.followInterval = seconds;
+			}
+
+			LogHandler.out_println("Following the antenna data file, updating the output every "
+					+ inst.followInterval + " seconds.", true);
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program keep reading the antenna data file while it is still being written to.",
+					"Provisional totals of the current day are written at most once per interval, 60 seconds if no value is specified.",
+					"Days are written once they are complete, and zone stays once they end.",
+					"Stops when the program is terminated, for example using Ctrl+C, and then writes the remaining output.",
+					"Only used for a single, uncompressed, antenna data file." };
+		}
+	},
+	SWEEP('W', ArgumentValue.REQUIRED, "TIMES", (short) 5, "sweep", "min-time-sweep", "mintimesweep") {
+		@Override
+		public void onReceived(Arguments inst, String val) throws IllegalArgumentException {
+			if (val == null || val.trim().isEmpty()) {
+				throw new IllegalArgumentException("No minimum zone times to sweep specified.");
+			}
+
+			Set<Integer> minTimes = new LinkedHashSet<Integer>();
+			for (String time : val.split(",")) {
+				int min_time = 0;
+				try {
+					min_time = Integer.parseInt(time.trim());
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException(
+							"Minimum zone time \"" + time.trim() + "\" couldn't be parsed to an integer.", e);
+				}
+
+				if (min_time < 0) {
+					throw new IllegalArgumentException("Minimum zone time cannot be negative.");
+				}
+
+				minTimes.add(min_time);
+			}
+
+			inst.sweepMinTimes = new int[minTimes.size()];
+			int i = 0;
+			for (int min_time : minTimes) {
+				inst.sweepMinTimes[i++] = min_time;
+			}
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program analyze the antenna data with multiple minimum zone times, reading it only once.",
+					"The value is a comma separated list of minimum times, in seconds.",
+					"Each minimum time is written to its own output files, named after the normal output files with \"_min<TIME>\" added.",
+					"Can't be used with snapshots, or while following the antenna data file." };
+		}
+	},
+	SWEEPFILLDAYS('w', (short) 5, "sweep-fill-days", "sweepfilldays") {
+		@Override
+		public void onReceived(Arguments inst, String val) {
+			inst.sweepFillDays = true;
+		}
+
+		@Override
+		public String[] getDescription() {
+			return new String[] { "Makes the program analyze each minimum zone time both with and without filling the days.",
+					"The output files of the analysis with filled days get \"_fill\" added to their name.",
+					"Uses the normal minimum zone time if no sweep is specified." };
+		}
 	};
 
 	/**
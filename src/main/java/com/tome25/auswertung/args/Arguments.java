@@ -1,6 +1,7 @@
 package com.tome25.auswertung.args;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -125,6 +126,96 @@ public class Arguments {
 	 */
 	public Boolean interactive = null;
 
+	/**
+	 * Whether the antenna data input file should be read using memory mapping,
+	 * rather than a regular file input stream.
+	 */
+	public boolean memoryMap = false;
+
+	/**
+	 * The number of threads to use to analyze the turkeys in parallel.<br/>
+	 * 0 means the data is analyzed serially, on the main thread.
+	 */
+	public int threads = 0;
+
+	/**
+	 * Whether the antenna data should be read, parsed, and analyzed on separate
+	 * threads.
+	 */
+	public boolean pipeline = false;
+
+	/**
+	 * Whether the output files should be written on a separate writer thread.
+	 */
+	public boolean asyncOutput = false;
+
+	/**
+	 * Whether the totals of each day should be written, and removed from memory,
+	 * as soon as they are final.
+	 */
+	public boolean streaming = false;
+
+	/**
+	 * Whether the output files should be written gzip compressed.
+	 */
+	public boolean gzipOutput = false;
+
+	/**
+	 * The maximum number of antenna records to keep in memory while sorting
+	 * them.<br/>
+	 * 0 means the antenna records are not sorted.
+	 */
+	public int sortBuffer = 0;
+
+	/**
+	 * Whether all antenna records are read, and sorted using temporary files if
+	 * they don't fit into the sort buffer, before analyzing them.<br/>
+	 * Otherwise the sort buffer is used as a sliding window, skipping records
+	 * arriving too late for it.
+	 */
+	public boolean externalSort = false;
+
+	/**
+	 * The number of threads to parse chunks of the antenna data file with.<br/>
+	 * 0 means the antenna data is parsed on a single thread.
+	 */
+	public int parseThreads = 0;
+
+	/**
+	 * Whether the parsed antenna records should be cached in, and read from, a
+	 * binary file next to the antenna data file.
+	 */
+	public boolean recordCache = false;
+
+	/**
+	 * The file to read the analysis state from, and write it to after the last
+	 * antenna record.<br/>
+	 * {@code null} means no snapshot is used.
+	 */
+	public File snapshotFile = null;
+
+	/**
+	 * The minimum time between two provisional output updates while following a
+	 * growing antenna data file.<br/>
+	 * In seconds.<br/>
+	 * 0 means the antenna data file is read only up to its current end.
+	 */
+	public int followInterval = 0;
+
+	/**
+	 * The minimum times to analyze the antenna data with, in a single pass over
+	 * it.<br/>
+	 * In seconds.<br/>
+	 * {@code null} means only {@link #minTime} is used.
+	 */
+	public int[] sweepMinTimes = null;
+
+	/**
+	 * Whether each minimum time of the sweep should be analyzed both with and
+	 * without {@link #fillDays}.
+	 */
+	public boolean sweepFillDays = false;
+
 	/**
 	 * A set containing all the specified arguments, in case one argument needs to
 	 * check whether another argument was specified.<br/>
@@ -182,6 +273,44 @@ public Arguments(String... mainArgs) throws IllegalStateException {
 		}
 	}
 
+	/**
+	 * Creates a new Arguments object copying all values of the given one.
+	 * 
+	 * @param other The arguments to copy.
+	 */
+	private Arguments(Arguments other) {
+		debug = other.debug;
+		silent = other.silent;
+		antennaDataInput = other.antennaDataInput;
+		turkeysInput = other.turkeysInput;
+		zonesInput = other.zonesInput;
+		hasDowntimesInput = other.hasDowntimesInput;
+		downtimesInput = other.downtimesInput;
+		totalsOutput = other.totalsOutput;
+		staysOutput = other.staysOutput;
+		overrideOutput = other.overrideOutput;
+		logFile = other.logFile;
+		fillDays = other.fillDays;
+		minTime = other.minTime;
+		decimalSeparator = other.decimalSeparator;
+		interactive = other.interactive;
+		memoryMap = other.memoryMap;
+		threads = other.threads;
+		pipeline = other.pipeline;
+		asyncOutput = other.asyncOutput;
+		streaming = other.streaming;
+		gzipOutput = other.gzipOutput;
+		sortBuffer = other.sortBuffer;
+		externalSort = other.externalSort;
+		parseThreads = other.parseThreads;
+		recordCache = other.recordCache;
+		snapshotFile = other.snapshotFile;
+		followInterval = other.followInterval;
+		sweepMinTimes = other.sweepMinTimes == null ? null : other.sweepMinTimes.clone();
+		sweepFillDays = other.sweepFillDays;
+		arguments = new HashSet<Argument>(other.arguments);
+	}
+
 	/**
 	 * Parses the given arguments string.<br/>
 	 * Something is considered the value of the argument before if either:
@@ -520,7 +649,35 @@ public String toString() {
 		builder.append(minTime);
 		builder.append(", decimalSeparator='");
 		builder.append(decimalSeparator);
-		builder.append("', arguments=");
+		builder.append("', memoryMap=");
+		builder.append(memoryMap);
+		builder.append(", threads=");
+		builder.append(threads);
+		builder.append(", pipeline=");
+		builder.append(pipeline);
+		builder.append(", asyncOutput=");
+		builder.append(asyncOutput);
+		builder.append(", streaming=");
+		builder.append(streaming);
+		builder.append(", gzipOutput=");
+		builder.append(gzipOutput);
+		builder.append(", sortBuffer=");
+		builder.append(sortBuffer);
+		builder.append(", externalSort=");
+		builder.append(externalSort);
+		builder.append(", parseThreads=");
+		builder.append(parseThreads);
+		builder.append(", recordCache=");
+		builder.append(recordCache);
+		builder.append(", snapshotFile=");
+		builder.append(snapshotFile);
+		builder.append(", followInterval=");
+		builder.append(followInterval);
+		builder.append(", sweepMinTimes=");
+		builder.append(Arrays.toString(sweepMinTimes));
+		builder.append(", sweepFillDays=");
+		builder.append(sweepFillDays);
+		builder.append(", arguments=");
 		builder.append(arguments);
 		builder.append("]");
 		return builder.toString();
@@ -541,11 +698,30 @@ public static synchronized Arguments empty() {
 		return args;
 	}
 
+	/**
+	 * Creates a copy of these arguments for a single configuration of a minimum
+	 * time sweep.
+	 * 
+	 * @param minTime  The minimum time to use for this configuration.
+	 * @param fillDays Whether to fill the days for this configuration.
+	 * @return The newly created {@link Arguments} instance.
+	 */
+	public Arguments forSweep(int minTime, boolean fillDays) {
+		Arguments args = new Arguments(this);
+		args.minTime = minTime;
+		args.fillDays = fillDays;
+		args.sweepMinTimes = null;
+		args.sweepFillDays = false;
+		return args;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(antennaDataInput, arguments, debug, decimalSeparator, downtimesInput, fillDays,
-				hasDowntimesInput, logFile, minTime, overrideOutput, silent, staysOutput, totalsOutput, turkeysInput,
-				zonesInput);
+		return 31 * Objects.hash(antennaDataInput, arguments, asyncOutput, debug, decimalSeparator, downtimesInput,
+				externalSort, fillDays, followInterval, gzipOutput, hasDowntimesInput, logFile, memoryMap, minTime,
+				overrideOutput, parseThreads, pipeline, recordCache, silent, snapshotFile, sortBuffer, staysOutput,
+				streaming, sweepFillDays, threads, totalsOutput, turkeysInput, zonesInput)
+				+ Arrays.hashCode(sweepMinTimes);
 	}
 
 	@Override
@@ -570,13 +746,23 @@ public boolean equals(Object obj) {
 
 		if (hasDowntimesInput != other.hasDowntimesInput || overrideOutput != other.overrideOutput
 				|| fillDays != other.fillDays || minTime != other.minTime
-				|| decimalSeparator != other.decimalSeparator) {
+				|| decimalSeparator != other.decimalSeparator || memoryMap != other.memoryMap
+				|| threads != other.threads || pipeline != other.pipeline || asyncOutput != other.asyncOutput
+				|| streaming != other.streaming || gzipOutput != other.gzipOutput || sortBuffer != other.sortBuffer
+				|| externalSort != other.externalSort || parseThreads != other.parseThreads
+				|| recordCache != other.recordCache
+				|| followInterval != other.followInterval || sweepFillDays != other.sweepFillDays) {
+			return false;
+		}
+
+		if (!Arrays.equals(sweepMinTimes, other.sweepMinTimes)) {
 			return false;
 		}
 
 		return Objects.equals(antennaDataInput, other.antennaDataInput)
 				&& Objects.equals(downtimesInput, other.downtimesInput) && Objects.equals(logFile, other.logFile)
-				&& Objects.equals(staysOutput, other.staysOutput) && Objects.equals(totalsOutput, other.totalsOutput)
+				&& Objects.equals(snapshotFile, other.snapshotFile) && Objects.equals(staysOutput, other.staysOutput)
+				&& Objects.equals(totalsOutput, other.totalsOutput)
 				&& Objects.equals(turkeysInput, other.turkeysInput) && Objects.equals(zonesInput, other.zonesInput);
 	}
 
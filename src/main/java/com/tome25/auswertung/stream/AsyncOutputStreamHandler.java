@@ -0,0 +1,643 @@
+package com.tome25.auswertung.stream;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.tome25.auswertung.CSVHandler;
+import com.tome25.auswertung.TurkeyInfo;
+import com.tome25.auswertung.log.LogHandler;
+
+/**
+ * A wrapper {@link IOutputStreamHandler} writing to another
+ * {@link IOutputStreamHandler} on a separate writer thread.<br/>
+ * Lines are encoded into a fixed number of reusable buffers.<br/>
+ * Once a buffer is full, or its oldest line is older than the flush interval,
+ * it is handed to the writer thread, and the next free buffer is filled.<br/>
+ * If no more lines are written, the writer thread takes the current buffer
+ * itself once its oldest line is older than the flush interval.<br/>
+ * Writing only blocks if all buffers are waiting to be written.<br/>
+ * <br/>
+ * Errors of the wrapped handler are stored, and thrown by {@link #close()}.
+ * Lines written after an error are discarded.<br/>
+ * <br/>
+ * Note: This class is not thread safe, only a single thread should write to
+ * it.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class AsyncOutputStreamHandler implements IOutputStreamHandler {
+
+	/**
+	 * The default number of buffers.
+	 */
+	public static final int DEFAULT_BUFFERS = 4;
+
+	/**
+	 * The default size of each buffer in bytes.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The default flush interval in milliseconds.
+	 */
+	public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+	/**
+	 * The min time in nanoseconds the writer thread waits for a full buffer while
+	 * there is no current buffer.<br/>
+	 * Prevents it from spinning with a flush interval of zero.
+	 */
+	private static final long MIN_IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/**
+	 * The buffer marking the end of the output.
+	 */
+	private static final Buffer END = new Buffer(0);
+
+	/**
+	 * The handler the lines are written to by the writer thread.
+	 */
+	private final IOutputStreamHandler output;
+
+	/**
+	 * The buffers that can be filled with new lines.
+	 */
+	private final BlockingQueue<Buffer> free;
+
+	/**
+	 * The buffers waiting to be written by the writer thread.
+	 */
+	private final BlockingQueue<Buffer> full;
+
+	/**
+	 * The thread writing the full buffers.
+	 */
+	private final Thread writer;
+
+	/**
+	 * The size of each buffer in bytes.<br/>
+	 * Buffers grow beyond this size for single lines larger than it.
+	 */
+	private final int bufferSize;
+
+	/**
+	 * The max time in nanoseconds a line may wait in a buffer before the buffer
+	 * is handed to the writer thread, and the time between two flushes of
+	 * {@link #output}.<br/>
+	 * Negative to only hand buffers off once they are full, and to only flush
+	 * when {@link #flush()} is called.
+	 */
+	private final long flushInterval;
+
+	/**
+	 * The lock guarding {@link #current}, which is shared between the writing
+	 * thread and the writer thread.
+	 */
+	private final Object currentLock = new Object();
+
+	/**
+	 * The buffer currently being filled.<br/>
+	 * {@code null} if no buffer was taken yet, or while the writing thread adds a
+	 * line to it.
+	 */
+	private Buffer current;
+
+	/**
+	 * The array the writer thread copies each line into before writing it.<br/>
+	 * Only used by the writer thread.
+	 */
+	private byte[] writeLine;
+
+	/**
+	 * The first exception that occurred while writing to {@link #output}.
+	 */
+	private volatile IOException error;
+
+	/**
+	 * Whether this stream handler has been explicitly closed.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Creates a new async output stream handler writing to the given handler,
+	 * using the default settings.
+	 * 
+	 * @param output The output stream handler to write to.
+	 * @throws NullPointerException If {@code output} is {@code null}.
+	 */
+	public AsyncOutputStreamHandler(IOutputStreamHandler output) throws NullPointerException {
+		this(output, DEFAULT_BUFFERS, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL);
+	}
+
+	/**
+	 * Creates a new async output stream handler writing to the given handler.
+	 * 
+	 * @param output        The output stream handler to write to.<br/>
+	 *                      Must not be used by anything else until this handler
+	 *                      was closed.
+	 * @param buffers       The number of buffers to use.<br/>
+	 *                      At least two, one being filled while the other one is
+	 *                      written.
+	 * @param bufferSize    The size of each buffer in bytes.
+	 * @param flushInterval The max time in milliseconds a line is kept in a
+	 *                      buffer, and between two flushes of {@code output}.<br/>
+	 *                      Also enforced by the writer thread if no more lines
+	 *                      are written.<br/>
+	 *                      Negative to only write full buffers, and never flush
+	 *                      {@code output} until {@link #flush()} or
+	 *                      {@link #close()} is called.
+	 * @throws NullPointerException     If {@code output} is {@code null}.
+	 * @throws IllegalArgumentException If {@code buffers} is less than two, or
+	 *                                  {@code bufferSize} isn't positive.
+	 */
+	public AsyncOutputStreamHandler(IOutputStreamHandler output, int buffers, int bufferSize, long flushInterval)
+			throws NullPointerException, IllegalArgumentException {
+		this.output = Objects.requireNonNull(output, "The output stream handler to write to can't be null.");
+
+		if (buffers < 2) {
+			throw new IllegalArgumentException("An async output stream handler needs at least two buffers.");
+		}
+
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("The buffer size has to be positive.");
+		}
+
+		this.bufferSize = bufferSize;
+		this.flushInterval = flushInterval < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(flushInterval);
+		writeLine = new byte[bufferSize];
+
+		free = new ArrayBlockingQueue<Buffer>(buffers);
+		for (int i = 0; i < buffers; i++) {
+			free.add(new Buffer(bufferSize));
+		}
+		full = new ArrayBlockingQueue<Buffer>(buffers + 1);
+
+		writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeBuffers();
+			}
+		}, "PutenAuswertung-Writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public boolean println(String line) {
+		return println(line, false);
+	}
+
+	@Override
+	public boolean println(String line, boolean temporary) {
+		if (closed) {
+			LogHandler.err_println(
+					String.format("Tried to write line \"%s\" to an already closed AsyncOutputStreamHandler.", line),
+					true);
+			LogHandler.print_debug_info("stream handler: %s, line: \"%s\"", toString(), line);
+			return false;
+		}
+
+		if (temporary && !printsTemporary()) {
+			LogHandler.err_println(String.format(
+					"Trying to write line \"%s\" to async output that does not handle temporary data.", line), true);
+			LogHandler.print_debug_info("stream handler: %s, line: \"%s\", temporary: %s", toString(), line,
+					temporary ? "true" : "false");
+			return false;
+		}
+
+		ByteLineBuilder bytes = ByteLineBuilder.get();
+		if (line != null) {
+			bytes.append(line);
+		}
+		return add(bytes.getBuffer(), bytes.length(), temporary);
+	}
+
+	@Override
+	public boolean println(byte[] line, int length, boolean temporary) {
+		if (closed || (temporary && !printsTemporary())) {
+			return println(new String(line, 0, length, ByteLineBuilder.UTF_8), temporary);
+		}
+
+		return add(line, length, temporary);
+	}
+
+	@Override
+	public boolean printDay(TurkeyInfo info, String date, Collection<String> zones) {
+		ByteLineBuilder line = CSVHandler.appendTurkeyCsvLine(ByteLineBuilder.get(), info, date, zones);
+		return println(line.getBuffer(), line.length(),
+				info.getCurrentDate().equals(date) && info.getCurrentTime() != TurkeyInfo.DAY_END);
+	}
+
+	@Override
+	public boolean printsTemporary() {
+		return output.printsTemporary();
+	}
+
+	/**
+	 * Hands the current buffer to the writer thread, and waits until all lines
+	 * written so far were written to, and flushed by, the wrapped handler.
+	 * 
+	 * @throws IOException If writing to the wrapped handler failed, or waiting
+	 *                     for the writer thread was interrupted.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		try {
+			Buffer buffer = takeCurrent();
+			if (buffer == null) {
+				buffer = free.take();
+				buffer.reset(bufferSize, System.nanoTime());
+			}
+			CountDownLatch flushed = new CountDownLatch(1);
+			buffer.flushed = flushed;
+			full.put(buffer);
+			flushed.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the writer thread to flush.", e);
+		}
+
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Writes all remaining lines, stops the writer thread, and closes the wrapped
+	 * handler.
+	 * 
+	 * @throws IOException If writing to, or closing, the wrapped handler failed at
+	 *                     any point.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			LogHandler.err_println("Trying to close an already closed AsyncOutputStreamHandler.", true);
+			LogHandler.print_debug_info("stream handler: %s", toString());
+			return;
+		}
+
+		closed = true;
+		try {
+			Buffer buffer = takeCurrent();
+			if (buffer != null) {
+				full.put(buffer);
+			}
+			full.put(END);
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			writer.interrupt();
+			setError(new IOException("Interrupted while waiting for the writer thread to finish.", e));
+		}
+
+		try {
+			output.close();
+		} catch (IOException e) {
+			setError(e);
+		}
+
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Adds the given line to the current buffer.<br/>
+	 * Hands the buffer to the writer thread if it is full, or older than the
+	 * flush interval.
+	 * 
+	 * @param line      The array containing the line to add.
+	 * @param length    The number of bytes from the start of {@code line} to add.
+	 * @param temporary Whether the line is temporary.
+	 * @return {@code false} if writing to the wrapped handler failed before.
+	 */
+	private boolean add(byte[] line, int length, boolean temporary) {
+		if (error != null) {
+			return false;
+		}
+
+		try {
+			// The buffer is taken while adding to it, so the writer thread can't take it at the same time.
+			Buffer buffer = takeCurrent();
+			if (buffer != null && !buffer.fits(length)) {
+				full.put(buffer);
+				buffer = null;
+			}
+
+			if (buffer == null) {
+				buffer = free.take();
+				buffer.reset(bufferSize, System.nanoTime());
+			}
+
+			buffer.add(line, length, temporary);
+
+			if (flushInterval >= 0 && System.nanoTime() - buffer.created >= flushInterval) {
+				full.put(buffer);
+			} else {
+				synchronized (currentLock) {
+					current = buffer;
+				}
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Takes the buffer currently being filled, so that no other thread can add
+	 * to, or take, it.
+	 * 
+	 * @return The current buffer, or {@code null} if there is none.
+	 */
+	private Buffer takeCurrent() {
+		synchronized (currentLock) {
+			Buffer buffer = current;
+			current = null;
+			return buffer;
+		}
+	}
+
+	/**
+	 * Takes the buffer currently being filled, if its oldest line is older than
+	 * the flush interval, and no full buffers are waiting to be written before
+	 * it.<br/>
+	 * Used by the writer thread.
+	 * 
+	 * @return The expired current buffer, or {@code null} if there is none.
+	 */
+	private Buffer takeExpired() {
+		synchronized (currentLock) {
+			if (current == null || !full.isEmpty() || System.nanoTime() - current.created < flushInterval) {
+				return null;
+			}
+
+			Buffer buffer = current;
+			current = null;
+			return buffer;
+		}
+	}
+
+	/**
+	 * Gets the time in nanoseconds the writer thread may wait for a full buffer
+	 * before checking for an expired current buffer.
+	 * 
+	 * @return The time until the current buffer expires, or the flush interval if
+	 *         there is no current buffer.
+	 */
+	private long getWaitTime() {
+		synchronized (currentLock) {
+			if (current == null) {
+				return Math.max(flushInterval, MIN_IDLE_WAIT);
+			}
+
+			return Math.max(0, current.created + flushInterval - System.nanoTime());
+		}
+	}
+
+	/**
+	 * Writes the lines of the full buffers to the wrapped handler, and returns the
+	 * buffers to {@link #free}.<br/>
+	 * Takes the current buffer once it is older than the flush interval, so lines
+	 * are written even if no more lines follow.<br/>
+	 * Run by the writer thread until it receives {@link #END}.
+	 */
+	private void writeBuffers() {
+		long lastFlush = System.nanoTime();
+		boolean unflushed = false;
+		try {
+			while (true) {
+				Buffer buffer;
+				boolean expired = false;
+				if (flushInterval < 0) {
+					buffer = full.take();
+				} else {
+					buffer = full.poll(getWaitTime(), TimeUnit.NANOSECONDS);
+					if (buffer == null) {
+						buffer = takeExpired();
+						expired = buffer != null;
+					}
+				}
+
+				if (buffer == END) {
+					break;
+				}
+
+				if (buffer == null) {
+					if (unflushed && System.nanoTime() - lastFlush >= flushInterval) {
+						flushOutput();
+						lastFlush = System.nanoTime();
+						unflushed = false;
+					}
+					continue;
+				}
+
+				writeBuffer(buffer);
+
+				CountDownLatch flushed = buffer.flushed;
+				buffer.flushed = null;
+				free.put(buffer);
+
+				if (flushed != null || expired || (flushInterval >= 0 && full.isEmpty()
+						&& System.nanoTime() - lastFlush >= flushInterval)) {
+					flushOutput();
+					lastFlush = System.nanoTime();
+					unflushed = false;
+				} else {
+					unflushed = true;
+				}
+
+				if (flushed != null) {
+					flushed.countDown();
+				}
+			}
+
+			output.flush();
+		} catch (InterruptedException e) {
+			setError(new IOException("The writer thread was interrupted.", e));
+		} catch (IOException e) {
+			setError(e);
+		}
+	}
+
+	/**
+	 * Writes the lines of the given buffer to the wrapped handler.<br/>
+	 * Stops at the first error.
+	 * 
+	 * @param buffer The buffer to write.
+	 */
+	private void writeBuffer(Buffer buffer) {
+		int start = 0;
+		for (int i = 0; i < buffer.lines && error == null; i++) {
+			int length = buffer.ends[i] - start;
+			if (writeLine.length < length) {
+				writeLine = new byte[length];
+			}
+			System.arraycopy(buffer.data, start, writeLine, 0, length);
+			start = buffer.ends[i];
+
+			try {
+				if (!output.println(writeLine, length, buffer.temporary[i])) {
+					setError(new IOException("Writing a line to " + output + " failed."));
+				}
+			} catch (RuntimeException e) {
+				setError(new IOException("Writing a line to " + output + " failed.", e));
+			}
+		}
+	}
+
+	/**
+	 * Flushes the wrapped handler, storing any exception that occurs.
+	 */
+	private void flushOutput() {
+		try {
+			output.flush();
+		} catch (IOException e) {
+			setError(e);
+		}
+	}
+
+	/**
+	 * Stores the given exception, if there is no previous one.
+	 * 
+	 * @param e The exception that occurred.
+	 */
+	private synchronized void setError(IOException e) {
+		if (error == null) {
+			LogHandler.err_println("Writing to an output stream handler failed.", true);
+			LogHandler.print_exception(e, "write async output", "Stream Handler: %s", toString());
+			error = e;
+		}
+	}
+
+	@Override
+	public String toString() {
+		boolean hasCurrent;
+		synchronized (currentLock) {
+			hasCurrent = current != null;
+		}
+		return String.format(
+				getClass().getSimpleName() + "[closed=%s, buffers=%d, buffer size=%d, waiting=%d, failed=%s, output=%s]",
+				closed ? "true" : "false", free.size() + full.size() + (hasCurrent ? 1 : 0), bufferSize,
+				full.size(), error == null ? "false" : "true", output);
+	}
+
+	/**
+	 * A single buffer containing multiple encoded lines.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static final class Buffer {
+
+		/**
+		 * The encoded lines.
+		 */
+		private byte[] data;
+
+		/**
+		 * The number of bytes in {@link #data}.
+		 */
+		private int size;
+
+		/**
+		 * The index after the last byte of each line.
+		 */
+		private int[] ends = new int[64];
+
+		/**
+		 * Whether each line is temporary.
+		 */
+		private boolean[] temporary = new boolean[64];
+
+		/**
+		 * The number of lines in this buffer.
+		 */
+		private int lines;
+
+		/**
+		 * The {@link System#nanoTime()} at which this buffer started being filled.
+		 */
+		private long created;
+
+		/**
+		 * The latch to count down once this buffer was written and the output was
+		 * flushed.<br/>
+		 * {@code null} if no flush was requested.
+		 */
+		private CountDownLatch flushed;
+
+		/**
+		 * Creates a new empty buffer.
+		 * 
+		 * @param size The size of the buffer in bytes.
+		 */
+		private Buffer(int size) {
+			data = new byte[size];
+		}
+
+		/**
+		 * Removes all lines from this buffer.<br/>
+		 * Shrinks it back to the given size, if it grew for a large line.
+		 * 
+		 * @param bufferSize The size of the buffer in bytes.
+		 * @param created    The time at which this buffer starts being filled.
+		 */
+		private void reset(int bufferSize, long created) {
+			if (data.length > bufferSize) {
+				data = new byte[bufferSize];
+			}
+			size = 0;
+			lines = 0;
+			this.created = created;
+		}
+
+		/**
+		 * Checks whether a line with the given length fits into this buffer.<br/>
+		 * Lines always fit into empty buffers.
+		 * 
+		 * @param length The length of the line in bytes.
+		 * @return {@code true} if the line can be added.
+		 */
+		private boolean fits(int length) {
+			return lines == 0 || size + length <= data.length;
+		}
+
+		/**
+		 * Adds the given line to this buffer.
+		 * 
+		 * @param line      The array containing the line to add.
+		 * @param length    The number of bytes from the start of {@code line} to
+		 *                  add.
+		 * @param temporary Whether the line is temporary.
+		 */
+		private void add(byte[] line, int length, boolean temporary) {
+			if (size + length > data.length) {
+				data = Arrays.copyOf(data, size + length);
+			}
+
+			if (lines == ends.length) {
+				ends = Arrays.copyOf(ends, lines * 2);
+				this.temporary = Arrays.copyOf(this.temporary, lines * 2);
+			}
+
+			System.arraycopy(line, 0, data, size, length);
+			size += length;
+			ends[lines] = size;
+			this.temporary[lines++] = temporary;
+		}
+
+	}
+
+}
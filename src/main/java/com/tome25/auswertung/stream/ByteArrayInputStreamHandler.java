@@ -0,0 +1,74 @@
+package com.tome25.auswertung.stream;
+
+import java.util.Objects;
+
+/**
+ * An input stream handler returning the lines of a byte array containing UTF-8
+ * encoded text.<br/>
+ * Used to parse parts of a file that were read into memory as a whole.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class ByteArrayInputStreamHandler implements IInputStreamHandler {
+
+	/**
+	 * The bytes to read the lines from.
+	 */
+	private final byte[] bytes;
+
+	/**
+	 * The buffer used to decode the lines.
+	 */
+	private final LineBuffer line = new LineBuffer(256);
+
+	/**
+	 * The index of the first byte of the next line.
+	 */
+	private int position = 0;
+
+	/**
+	 * Creates a new ByteArrayInputStreamHandler reading the lines of the given
+	 * byte array.<br/>
+	 * The array is NOT copied, so it must not be modified while reading from this
+	 * handler.
+	 * 
+	 * @param bytes The bytes to read the lines from.
+	 * @throws NullPointerException If {@code bytes} is {@code null}.
+	 */
+	public ByteArrayInputStreamHandler(byte[] bytes) throws NullPointerException {
+		this.bytes = Objects.requireNonNull(bytes, "The bytes to read can't be null.");
+	}
+
+	@Override
+	public String readline() {
+		int end = position;
+		while (end < bytes.length && bytes[end] != '\n') {
+			end++;
+		}
+
+		line.append(bytes, position, end - position);
+		position = Math.min(end + 1, bytes.length);
+		return line.decode();
+	}
+
+	@Override
+	public boolean available() {
+		return position < bytes.length;
+	}
+
+	@Override
+	public boolean done() {
+		return position >= bytes.length;
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public String toString() {
+		return String.format(getClass().getSimpleName() + "[position=%d, size=%d, done=%s]", position, bytes.length,
+				done() ? "true" : "false");
+	}
+
+}
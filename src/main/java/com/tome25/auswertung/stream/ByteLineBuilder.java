@@ -0,0 +1,321 @@
+package com.tome25.auswertung.stream;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.tome25.auswertung.utils.TimeUtils;
+
+/**
+ * A reusable buffer building a single UTF-8 encoded output line.<br/>
+ * Encodes numbers, dates, and times straight into its byte buffer, using
+ * precomputed digit tables, instead of creating a string for each value.<br/>
+ * The produced bytes are the same as those of the strings created by
+ * {@link TimeUtils#encodeTime(long)} and {@link TimeUtils#encodeDay(int)}.<br/>
+ * <br/>
+ * <b>WARNING:</b> This class is NOT thread safe.<br/>
+ * Use {@link #get()} to get the instance of the current thread.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public final class ByteLineBuilder {
+
+	/**
+	 * The charset used to encode and decode lines.
+	 */
+	public static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * The initial size of the byte buffer.
+	 */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/**
+	 * The tens digit of each number from 0 to 99.
+	 */
+	private static final byte[] TENS = new byte[100];
+
+	/**
+	 * The ones digit of each number from 0 to 99.
+	 */
+	private static final byte[] ONES = new byte[100];
+
+	static {
+		for (int i = 0; i < 100; i++) {
+			TENS[i] = (byte) ('0' + i / 10);
+			ONES[i] = (byte) ('0' + i % 10);
+		}
+	}
+
+	/**
+	 * The builder instance for each thread.
+	 */
+	private static final ThreadLocal<ByteLineBuilder> INSTANCE = new ThreadLocal<ByteLineBuilder>() {
+		@Override
+		protected ByteLineBuilder initialValue() {
+			return new ByteLineBuilder();
+		}
+	};
+
+	/**
+	 * The buffer containing the encoded line.
+	 */
+	private byte[] buffer = new byte[INITIAL_CAPACITY];
+
+	/**
+	 * The number of bytes in the current line.
+	 */
+	private int length = 0;
+
+	/**
+	 * Gets the builder instance of the current thread, and clears it.<br/>
+	 * The returned builder must not be used anymore once a method that might use
+	 * the builder of this thread itself is called.
+	 * 
+	 * @return The cleared builder of the current thread.
+	 */
+	public static ByteLineBuilder get() {
+		return INSTANCE.get().clear();
+	}
+
+	/**
+	 * Removes all bytes from this builder.
+	 * 
+	 * @return This builder.
+	 */
+	public ByteLineBuilder clear() {
+		length = 0;
+		return this;
+	}
+
+	/**
+	 * Appends the given ASCII char to this line.<br/>
+	 * Non ASCII chars are UTF-8 encoded.
+	 * 
+	 * @param c The char to append.
+	 * @return This builder.
+	 */
+	public ByteLineBuilder append(char c) {
+		if (c >= 0x80) {
+			return append(String.valueOf(c));
+		}
+
+		ensureCapacity(1);
+		buffer[length++] = (byte) c;
+		return this;
+	}
+
+	/**
+	 * Appends the given string to this line.<br/>
+	 * ASCII strings are copied without creating new objects, others are UTF-8
+	 * encoded.
+	 * 
+	 * @param str The string to append.
+	 * @return This builder.
+	 * @throws NullPointerException If {@code str} is {@code null}.
+	 */
+	public ByteLineBuilder append(String str) throws NullPointerException {
+		Objects.requireNonNull(str, "The string to append can't be null.");
+
+		ensureCapacity(str.length());
+		int start = length;
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			if (c >= 0x80) {
+				length = start;
+				return append(str.getBytes(UTF_8));
+			}
+			buffer[length++] = (byte) c;
+		}
+		return this;
+	}
+
+	/**
+	 * Appends the given already encoded bytes to this line.
+	 * 
+	 * @param bytes The bytes to append.
+	 * @return This builder.
+	 * @throws NullPointerException If {@code bytes} is {@code null}.
+	 */
+	public ByteLineBuilder append(byte[] bytes) throws NullPointerException {
+		Objects.requireNonNull(bytes, "The bytes to append can't be null.");
+
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, length, bytes.length);
+		length += bytes.length;
+		return this;
+	}
+
+	/**
+	 * Appends the decimal representation of the given number to this line.
+	 * 
+	 * @param value The number to append.
+	 * @return This builder.
+	 */
+	public ByteLineBuilder appendNumber(long value) {
+		if (value < 0) {
+			if (value == Long.MIN_VALUE) {
+				return append(Long.toString(value));
+			}
+			append('-');
+			value = -value;
+		}
+
+		int digits = 1;
+		for (long i = value; i >= 10; i /= 10) {
+			digits++;
+		}
+		return appendDigits(value, digits);
+	}
+
+	/**
+	 * Appends the given time in milliseconds to this line.<br/>
+	 * The format is "HH:MM:SS.2", the same as {@link TimeUtils#encodeTime(long)}
+	 * produces.
+	 * 
+	 * @param time The time in milliseconds to append.
+	 * @return This builder.
+	 * @throws IllegalArgumentException If {@code time} is less than 0.
+	 */
+	public ByteLineBuilder appendTime(long time) throws IllegalArgumentException {
+		if (time < 0) {
+			throw new IllegalArgumentException("Time to encode can't be negative.");
+		}
+
+		if (time % 10 != 0) {
+			time = ((time + 5) / 10) * 10; // round to next ten
+		}
+
+		long hours = time / 3600000; // 60 minutes * 60 seconds * 1000 ms
+		int minutes = (int) (time % 3600000 / 60000);
+		int seconds = (int) (time % 60000 / 1000);
+		int hundredths = (int) (time % 1000 / 10);
+
+		if (hours < 100) {
+			appendTwoDigits((int) hours);
+		} else {
+			appendNumber(hours);
+		}
+
+		ensureCapacity(10);
+		buffer[length++] = ':';
+		buffer[length++] = TENS[minutes];
+		buffer[length++] = ONES[minutes];
+		buffer[length++] = ':';
+		buffer[length++] = TENS[seconds];
+		buffer[length++] = ONES[seconds];
+		buffer[length++] = (byte) TimeUtils.getDecimalSeparator();
+		buffer[length++] = TENS[hundredths];
+		buffer[length++] = ONES[hundredths];
+		return this;
+	}
+
+	/**
+	 * Appends the date of the given day to this line.<br/>
+	 * The format is "DD.MM.YYYY", the same as {@link TimeUtils#encodeDay(int)}
+	 * produces.
+	 * 
+	 * @param day The number of days since the first of January 1970.
+	 * @return This builder.
+	 * @see TimeUtils#getDay(long)
+	 */
+	public ByteLineBuilder appendDay(int day) {
+		int date = TimeUtils.getYearMonthDay(day);
+		int year = date / 10000;
+
+		ensureCapacity(6);
+		buffer[length++] = TENS[date % 100];
+		buffer[length++] = ONES[date % 100];
+		buffer[length++] = '.';
+		buffer[length++] = TENS[date / 100 % 100];
+		buffer[length++] = ONES[date / 100 % 100];
+		buffer[length++] = '.';
+
+		int digits = 1;
+		for (int i = year; i >= 10; i /= 10) {
+			digits++;
+		}
+		return appendDigits(year, Math.max(digits, TimeUtils.YEAR_MIN_DIGITS));
+	}
+
+	/**
+	 * Gets the buffer containing the bytes of this line.<br/>
+	 * Only the first {@link #length()} bytes belong to the line.<br/>
+	 * The buffer is reused, so it must not be stored.
+	 * 
+	 * @return The internal byte buffer of this builder.
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Gets the number of bytes in this line.
+	 * 
+	 * @return The length of this line in bytes.
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Creates a copy of the bytes of this line.
+	 * 
+	 * @return A new array containing the bytes of this line.
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buffer, length);
+	}
+
+	/**
+	 * Appends the given non-negative number from 0 to 99 as exactly two digits.
+	 * 
+	 * @param value The number to append.
+	 */
+	private void appendTwoDigits(int value) {
+		ensureCapacity(2);
+		buffer[length++] = TENS[value];
+		buffer[length++] = ONES[value];
+	}
+
+	/**
+	 * Appends the given non-negative number as the given number of digits,
+	 * prefixing it with zeros if necessary.
+	 * 
+	 * @param value  The number to append.
+	 * @param digits The number of digits to write.
+	 * @return This builder.
+	 */
+	private ByteLineBuilder appendDigits(long value, int digits) {
+		ensureCapacity(digits);
+		for (int i = length + digits - 1; i >= length; i--) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		length += digits;
+		return this;
+	}
+
+	/**
+	 * Makes sure the buffer has space for at least the given number of additional
+	 * bytes.
+	 * 
+	 * @param bytes The number of bytes to be appended.
+	 */
+	private void ensureCapacity(int bytes) {
+		if (length + bytes > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+		}
+	}
+
+	/**
+	 * Decodes the bytes of this line to a string.
+	 * 
+	 * @return The current line.
+	 */
+	@Override
+	public String toString() {
+		return new String(buffer, 0, length, UTF_8);
+	}
+
+}
@@ -0,0 +1,522 @@
+package com.tome25.auswertung.stream;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.tome25.auswertung.log.LogHandler;
+
+/**
+ * This class handles reading the content of a gzip or zip compressed file line
+ * by line.<br/>
+ * The file is decompressed on a separate thread, which fills a fixed number of
+ * reusable blocks with decompressed data.<br/>
+ * The thread reading from this handler scans these blocks for line separators,
+ * the same way {@link FileInputStreamHandler} does.<br/>
+ * This allows decompressing the next blocks while the lines read previously are
+ * processed.<br/>
+ * <br/>
+ * The entries of a zip archive are read one after the other, in the order they
+ * are stored in the archive.<br/>
+ * Each entry is treated as if it ended with a line separator.<br/>
+ * Concatenated gzip members are read as a single file.<br/>
+ * <br/>
+ * Note: Decompressing the input failing ends the input of this handler, after
+ * rethrowing the exception once.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class CompressedFileInputStreamHandler implements IInputStreamHandler {
+
+	/**
+	 * The default number of blocks.
+	 */
+	public static final int DEFAULT_BLOCKS = 4;
+
+	/**
+	 * The default size of each block, in bytes.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 65536;
+
+	/**
+	 * The block marking the end of the decompressed data.
+	 */
+	private static final Block END = new Block(0);
+
+	/**
+	 * The file from which which data is being read.
+	 */
+	private final File input_file;
+
+	/**
+	 * The compression format of {@link #input_file}.
+	 */
+	private final Format format;
+
+	/**
+	 * The {@link FileInputStream} reading the compressed data.
+	 */
+	private final FileInputStream stream;
+
+	/**
+	 * The blocks that can be filled by the decompressor thread.
+	 */
+	private final BlockingQueue<Block> free;
+
+	/**
+	 * The blocks containing decompressed data that wasn't read yet.
+	 */
+	private final BlockingQueue<Block> full;
+
+	/**
+	 * The thread decompressing the input file.
+	 */
+	private final Thread decompressor;
+
+	/**
+	 * The block currently being scanned for lines.<br/>
+	 * {@code null} if no block was taken yet.
+	 */
+	private Block block;
+
+	/**
+	 * The index of the first byte in {@link #block} that was not yet returned as
+	 * part of a line.
+	 */
+	private int position = 0;
+
+	/**
+	 * The buffer collecting lines that span more than one block.
+	 */
+	private final LineBuffer line;
+
+	/**
+	 * The exception that stopped the decompressor thread.
+	 */
+	private volatile IOException error;
+
+	/**
+	 * Whether the exception that stopped the decompressor thread was already
+	 * thrown.
+	 */
+	private boolean errorThrown = false;
+
+	/**
+	 * Whether {@link #END} was already taken from {@link #full}.
+	 */
+	private boolean ended = false;
+
+	/**
+	 * Whether this Stream Handler is yet to be closed.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new CompressedFileInputStreamHandler reading the content of the
+	 * given file, using the default settings.
+	 * 
+	 * @param input  The file to read.
+	 * @param format The compression format of the file.
+	 * @throws FileNotFoundException if the given input file does not exist.
+	 * @throws NullPointerException  if the given input file or format is
+	 *                               {@code null}.
+	 */
+	public CompressedFileInputStreamHandler(File input, Format format)
+			throws FileNotFoundException, NullPointerException {
+		this(input, format, DEFAULT_BLOCKS, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates a new CompressedFileInputStreamHandler reading the content of the
+	 * given file, and starts decompressing it.
+	 * 
+	 * @param input     The file to read.
+	 * @param format    The compression format of the file.
+	 * @param blocks    The number of blocks to use.<br/>
+	 *                  At least two, one being scanned while the other one is
+	 *                  filled.
+	 * @param blockSize The size of each block, in bytes.
+	 * @throws FileNotFoundException    if the given input file does not exist.
+	 * @throws NullPointerException     if the given input file or format is
+	 *                                  {@code null}.
+	 * @throws IllegalArgumentException if {@code blocks} is less than two, or
+	 *                                  {@code blockSize} is less than 1.
+	 */
+	public CompressedFileInputStreamHandler(File input, Format format, int blocks, final int blockSize)
+			throws FileNotFoundException, NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(input, "The file to be read, input, can't be null.");
+		Objects.requireNonNull(format, "The compression format of the input file can't be null.");
+
+		if (blocks < 2) {
+			throw new IllegalArgumentException("A compressed file input stream handler needs at least two blocks.");
+		}
+
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("The block size has to be at least 1.");
+		}
+
+		input_file = input;
+		this.format = format;
+		stream = new FileInputStream(input);
+		line = new LineBuffer(Math.min(blockSize, 256));
+
+		free = new ArrayBlockingQueue<Block>(blocks);
+		for (int i = 0; i < blocks; i++) {
+			free.add(new Block(blockSize));
+		}
+		full = new ArrayBlockingQueue<Block>(blocks + 1);
+
+		decompressor = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				decompress(blockSize);
+			}
+		}, "PutenAuswertung-Decompressor");
+		decompressor.setDaemon(true);
+		decompressor.start();
+	}
+
+	/**
+	 * Detects the compression format of the given file.<br/>
+	 * Files ending with ".gz" or ".gzip" are gzip files, and files ending with
+	 * ".zip" are zip archives.<br/>
+	 * Other files are detected by the magic bytes at their start.
+	 * 
+	 * @param file The file to check.
+	 * @return The compression format of the file, or {@code null} if it isn't
+	 *         compressed.
+	 * @throws IOException          If reading the start of the file fails.
+	 * @throws NullPointerException If {@code file} is {@code null}.
+	 */
+	public static Format detectFormat(File file) throws IOException, NullPointerException {
+		Objects.requireNonNull(file, "The file to check can't be null.");
+
+		String name = file.getName().toLowerCase(Locale.ROOT);
+		if (name.endsWith(".gz") || name.endsWith(".gzip")) {
+			return Format.GZIP;
+		} else if (name.endsWith(".zip")) {
+			return Format.ZIP;
+		}
+
+		byte[] magic = new byte[4];
+		int read = 0;
+		try (FileInputStream in = new FileInputStream(file)) {
+			int r;
+			while (read < magic.length && (r = in.read(magic, read, magic.length - read)) > 0) {
+				read += r;
+			}
+		}
+
+		if (read >= 2 && magic[0] == (byte) 0x1f && magic[1] == (byte) 0x8b) {
+			return Format.GZIP;
+		} else if (read == 4 && magic[0] == 'P' && magic[1] == 'K'
+				&& (magic[2] == 3 && magic[3] == 4 || magic[2] == 5 && magic[3] == 6)) {
+			return Format.ZIP;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Decompresses the input file, and passes the decompressed data to
+	 * {@link #full}.<br/>
+	 * Run by the decompressor thread.
+	 * 
+	 * @param blockSize The size of each block, used as the size of the decompressor
+	 *                  buffers.
+	 */
+	private void decompress(int blockSize) {
+		try {
+			if (format == Format.GZIP) {
+				transfer(new GZIPInputStream(stream, blockSize));
+			} else {
+				ZipInputStream zin = new ZipInputStream(new BufferedInputStream(stream, blockSize));
+				ZipEntry entry;
+				while ((entry = zin.getNextEntry()) != null) {
+					if (!entry.isDirectory()) {
+						LogHandler.out_println("Started reading zip entry " + entry.getName(), true);
+						transfer(zin);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			return;
+		} catch (IOException e) {
+			if (!closed) {
+				error = e;
+			}
+		}
+
+		try {
+			full.put(END);
+		} catch (InterruptedException e) {
+		}
+	}
+
+	/**
+	 * Reads all bytes of the given stream into blocks, and adds them to
+	 * {@link #full}.<br/>
+	 * Adds a line separator if the data doesn't end with one.
+	 * 
+	 * @param in The stream to read.
+	 * @throws IOException          If reading from the stream fails.
+	 * @throws InterruptedException If the thread was interrupted while waiting for
+	 *                              a free block.
+	 */
+	private void transfer(InputStream in) throws IOException, InterruptedException {
+		byte last = '\n';
+		Block current = free.take();
+		current.length = 0;
+		int read;
+		while ((read = in.read(current.data, current.length, current.data.length - current.length)) >= 0) {
+			if (read == 0) {
+				continue;
+			}
+
+			current.length += read;
+			last = current.data[current.length - 1];
+			if (current.length == current.data.length) {
+				full.put(current);
+				current = free.take();
+				current.length = 0;
+			}
+		}
+
+		if (last != '\n') {
+			if (current.length == current.data.length) {
+				full.put(current);
+				current = free.take();
+				current.length = 0;
+			}
+			current.data[current.length++] = '\n';
+		}
+
+		if (current.length > 0) {
+			full.put(current);
+		} else {
+			free.put(current);
+		}
+	}
+
+	@Override
+	public String readline() throws IOException {
+		if (closed) {
+			throw new IOException("stream handler closed");
+		}
+
+		while ((block != null && position < block.length) || fill()) {
+			byte[] buffer = block.data;
+			int limit = block.length;
+			int start = position;
+			int end = start;
+			int combined = 0;
+			int returns = 0;
+			while (end < limit && buffer[end] != '\n') {
+				combined |= buffer[end];
+				if (buffer[end] == '\r') {
+					returns++;
+				}
+				end++;
+			}
+
+			if (end == limit) {
+				line.append(buffer, start, end - start);
+				position = limit;
+				continue;
+			}
+
+			position = end + 1;
+			if (line.isEmpty() && (returns == 0 || returns == 1 && buffer[end - 1] == '\r')) {
+				return LineBuffer.decode(buffer, start, end - start - returns, combined);
+			}
+
+			line.append(buffer, start, end - start);
+			return line.decode();
+		}
+
+		if (error != null && !errorThrown) {
+			errorThrown = true;
+			line.decode();
+			throw error;
+		}
+
+		return line.decode();
+	}
+
+	/**
+	 * Returns the current block to the decompressor thread, and takes the next
+	 * block of decompressed data.<br/>
+	 * Only called once the current block was fully consumed.<br/>
+	 * Blocks until the decompressor thread filled the next block.
+	 * 
+	 * @return {@code false} if the end of the decompressed data was reached.
+	 * @throws InterruptedIOException if the thread was interrupted while waiting
+	 *                                for the next block.
+	 */
+	private boolean fill() throws InterruptedIOException {
+		if (ended) {
+			return false;
+		}
+
+		try {
+			if (block != null) {
+				free.put(block);
+				block = null;
+			}
+
+			Block next = full.take();
+			if (next == END) {
+				ended = true;
+				return false;
+			}
+
+			block = next;
+			position = 0;
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the next decompressed block.");
+		}
+	}
+
+	/**
+	 * Checks whether there are more lines to read.<br/>
+	 * Blocks until the decompressor thread filled the next block, or reached the
+	 * end of the input.
+	 * 
+	 * @return {@code true} if there are more lines to read.
+	 */
+	@Override
+	public boolean available() {
+		return !done();
+	}
+
+	/**
+	 * Checks whether all lines were read.<br/>
+	 * Blocks until the decompressor thread filled the next block, or reached the
+	 * end of the input.
+	 * 
+	 * @return {@code true} if there are no more lines to read.
+	 */
+	@Override
+	public boolean done() {
+		if (closed) {
+			return true;
+		}
+
+		try {
+			if ((block != null && position < block.length) || fill()) {
+				return false;
+			}
+		} catch (InterruptedIOException e) {
+			return true;
+		}
+
+		return line.isEmpty() && (error == null || errorThrown);
+	}
+
+	/**
+	 * Stops the decompressor thread, waits for it to finish, and closes the input
+	 * file.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			decompressor.interrupt();
+			stream.close();
+			try {
+				decompressor.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for the decompressor thread to finish.");
+			}
+		} else {
+			LogHandler.err_println("Trying to close an already closed CompressedFileInputStreamHandler.", true);
+			LogHandler.print_debug_info("stream handler: %s", toString());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				getClass().getSimpleName()
+						+ "[input_file=\"%s\", format=%s, closed=%s, ended=%s, blocks_available=%d, failed=%s]",
+				input_file.toString(), format.name(), closed ? "true" : "false", ended ? "true" : "false",
+				full.size(), error == null ? "false" : "true");
+	}
+
+	/**
+	 * Gets the file this stream handle is reading from.
+	 * 
+	 * @return The file this stream handle is reading from.
+	 */
+	public File getInputFile() {
+		return input_file;
+	}
+
+	/**
+	 * Gets the compression format of the file this stream handle is reading from.
+	 * 
+	 * @return The compression format of the input file.
+	 */
+	public Format getFormat() {
+		return format;
+	}
+
+	/**
+	 * The compression formats supported by {@link CompressedFileInputStreamHandler}.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	public static enum Format {
+		/**
+		 * A gzip compressed file, possibly consisting of multiple members.
+		 */
+		GZIP,
+		/**
+		 * A zip archive, containing one or more files.
+		 */
+		ZIP;
+	}
+
+	/**
+	 * A single block of decompressed data.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static final class Block {
+
+		/**
+		 * The decompressed data.
+		 */
+		private final byte[] data;
+
+		/**
+		 * The number of valid bytes in {@link #data}.
+		 */
+		private int length;
+
+		/**
+		 * Creates a new empty block.
+		 * 
+		 * @param size The size of the new block, in bytes.
+		 */
+		private Block(int size) {
+			data = new byte[size];
+		}
+
+	}
+
+}
@@ -1,32 +1,70 @@
 package com.tome25.auswertung.stream;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Objects;
 
 import com.tome25.auswertung.log.LogHandler;
 
 /**
- * This class handles reading the content of a file line by line.
+ * This class handles reading the content of a file line by line.<br/>
+ * The file is read in large blocks, which are then scanned for line
+ * separators.<br/>
+ * Both the block buffer and the buffer used for lines spanning multiple blocks
+ * are reused.
  * 
  * @author Theodor Meyer zu Hörste
  */
 public class FileInputStreamHandler implements IInputStreamHandler {
 
+	/**
+	 * The default size of the block buffer, in bytes.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 65536;
+
 	/**
 	 * The file from which which data is being read.
 	 */
 	private final File input_file;
 
 	/**
-	 * The {@link InputStream} reading using which the data is read.
+	 * The {@link FileInputStream} reading using which the data is read.
+	 */
+	private final FileInputStream stream;
+
+	/**
+	 * The block buffer the data from the file is read into.
+	 */
+	private final byte[] buffer;
+
+	/**
+	 * The index of the first byte in {@link #buffer} that was not yet returned as
+	 * part of a line.
+	 */
+	private int position = 0;
+
+	/**
+	 * The number of valid bytes in {@link #buffer}.
+	 */
+	private int limit = 0;
+
+	/**
+	 * The position in the file of the first byte in {@link #buffer}.
+	 */
+	private long blockStart = 0;
+
+	/**
+	 * The position in the file just after the last line separator that was
+	 * read.
 	 */
-	private final InputStream stream;
+	private long lineStart = 0;
+
+	/**
+	 * The buffer collecting lines that span more than one block.
+	 */
+	private final LineBuffer line;
 
 	/**
 	 * Whether this Stream Handler is yet to be closed.
@@ -41,11 +79,65 @@ public class FileInputStreamHandler implements IInputStreamHandler {
 	 * @throws NullPointerException  if the given input file is {@code null}.
 	 */
 	public FileInputStreamHandler(File input) throws FileNotFoundException, NullPointerException {
+		this(input, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new FileStreamHandler reading the content of the given file using
+	 * a block buffer of the given size.
+	 * 
+	 * @param input      The file to read.
+	 * @param bufferSize The size of the block buffer to use, in bytes.
+	 * @throws FileNotFoundException    if the given input file does not exist.
+	 * @throws NullPointerException     if the given input file is {@code null}.
+	 * @throws IllegalArgumentException if {@code bufferSize} is less than 1.
+	 */
+	public FileInputStreamHandler(File input, int bufferSize)
+			throws FileNotFoundException, NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(input, "The file to be read, input, can't be null.");
 
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("The buffer size has to be at least 1.");
+		}
+
 		input_file = input;
-		FileInputStream fin = new FileInputStream(input);
-		stream = new BufferedInputStream(fin);
+		stream = new FileInputStream(input);
+		buffer = new byte[bufferSize];
+		line = new LineBuffer(Math.min(bufferSize, 256));
+	}
+
+	/**
+	 * Creates a new FileStreamHandler reading the content of the given file using
+	 * a block buffer of the given size, starting at the given position.<br/>
+	 * The position should be the start of a line, like one returned by
+	 * {@link #getPosition()}.
+	 * 
+	 * @param input      The file to read.
+	 * @param bufferSize The size of the block buffer to use, in bytes.
+	 * @param offset     The position in the file to start reading at, in bytes.
+	 * @throws FileNotFoundException    if the given input file does not exist.
+	 * @throws IOException              if skipping to {@code offset} fails.
+	 * @throws NullPointerException     if the given input file is {@code null}.
+	 * @throws IllegalArgumentException if {@code bufferSize} is less than 1, or
+	 *                                  {@code offset} is negative.
+	 */
+	public FileInputStreamHandler(File input, int bufferSize, long offset)
+			throws FileNotFoundException, IOException, NullPointerException, IllegalArgumentException {
+		this(input, bufferSize);
+
+		if (offset < 0) {
+			stream.close();
+			throw new IllegalArgumentException("The position to start reading at can't be negative.");
+		}
+
+		try {
+			stream.getChannel().position(offset);
+		} catch (IOException e) {
+			stream.close();
+			throw e;
+		}
+		blockStart = offset;
+		lineStart = offset;
 	}
 
 	@Override
@@ -54,18 +146,68 @@ public String readline() throws IOException {
 			throw new IOException("stream handler closed");
 		}
 
-		ByteArrayOutputStream barr = new ByteArrayOutputStream();
+		while (position < limit || fill()) {
+			int start = position;
+			int end = start;
+			int combined = 0;
+			int returns = 0;
+			while (end < limit && buffer[end] != '\n') {
+				combined |= buffer[end];
+				if (buffer[end] == '\r') {
+					returns++;
+				}
+				end++;
+			}
 
-		while (available()) {
-			int read = (byte) stream.read();
-			if (read == '\n') {
-				break;
-			} else if (read != '\r') {
-				barr.write(read);
+			if (end == limit) {
+				line.append(buffer, start, end - start);
+				position = limit;
+				continue;
 			}
+
+			position = end + 1;
+			lineStart = blockStart + position;
+			if (line.isEmpty() && (returns == 0 || returns == 1 && buffer[end - 1] == '\r')) {
+				return LineBuffer.decode(buffer, start, end - start - returns, combined);
+			}
+
+			line.append(buffer, start, end - start);
+			return line.decode();
+		}
+
+		return line.decode();
+	}
+
+	/**
+	 * Reads the next block from the file into the block buffer.<br/>
+	 * Only called once the block buffer was fully consumed.
+	 * 
+	 * @return {@code false} if there currently is no more data in the file.
+	 * @throws IOException if reading from the file fails.
+	 */
+	private boolean fill() throws IOException {
+		blockStart += limit;
+		position = 0;
+		limit = 0;
+		int read = read(buffer);
+		if (read <= 0) {
+			return false;
 		}
 
-		return barr.toString("UTF-8");
+		limit = read;
+		return true;
+	}
+
+	/**
+	 * Reads the next bytes from the file into the given buffer.<br/>
+	 * Called by {@link #fill()} once the block buffer was fully consumed.
+	 * 
+	 * @param buffer The buffer to read the bytes into.
+	 * @return The number of bytes read, or -1 if the end of the file was reached.
+	 * @throws IOException if reading from the file fails.
+	 */
+	protected int read(byte[] buffer) throws IOException {
+		return stream.read(buffer);
 	}
 
 	@Override
@@ -75,7 +217,7 @@ public boolean available() {
 		}
 
 		try {
-			return stream.available() > 0;
+			return position < limit || stream.available() > 0;
 		} catch (IOException e) {
 			LogHandler.err_println("An error occured while trying to check whether an input has more data to be read.");
 			LogHandler.print_exception(e, "check whether there is more available data right now", "input file: \"%s\"",
@@ -91,7 +233,7 @@ public boolean done() {
 		}
 
 		try {
-			return stream.available() == 0;
+			return position >= limit && stream.available() == 0;
 		} catch (IOException e) {
 			LogHandler.err_println("An error occured while trying to check whether an input has more data to be read.");
 			LogHandler.print_exception(e, "check whether there is/will be more data to read", "input file: \"%s\"",
@@ -118,7 +260,7 @@ public String toString() {
 			bav = 0;
 		} else {
 			try {
-				bav = stream.available();
+				bav = limit - position + stream.available();
 			} catch (IOException e) {
 				LogHandler.print_exception(e, "input handler to stream stream.available",
 						"input file: \"%s\", closed: %s", input_file.toString(), closed ? "true" : "false");
@@ -132,6 +274,32 @@ public String toString() {
 				available() ? "true" : "false", bav == -1 ? "error" : Integer.toString(bav));
 	}
 
+	/**
+	 * Gets the position in the file of the first byte that wasn't returned as part
+	 * of a line yet.<br/>
+	 * Once this handler is {@link #done()}, this is the number of bytes read from
+	 * the file.
+	 * 
+	 * @return The current position in the file, in bytes.
+	 */
+	public long getPosition() {
+		return blockStart + position;
+	}
+
+	/**
+	 * Gets the position in the file just after the last line separator that was
+	 * read.<br/>
+	 * This differs from {@link #getPosition()} if the last line returned wasn't
+	 * terminated by a line separator, for example because the file is still being
+	 * written to.
+	 * 
+	 * @return The position in the file at which the next complete line starts, in
+	 *         bytes.
+	 */
+	public long getLineStartPosition() {
+		return lineStart;
+	}
+
 	/**
 	 * Gets the file this stream handle is reading from.
 	 * 
@@ -23,6 +23,11 @@
 // TODO unify with SysOut impl into generalized Stream/File handler
 public class FileOutputStreamHandler implements IOutputStreamHandler {
 
+	/**
+	 * The UTF-8 encoded {@link System#lineSeparator() line separator}.
+	 */
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(ByteLineBuilder.UTF_8);
+
 	/**
 	 * The file this Output Stream Handler writes to.
 	 */
@@ -98,10 +103,33 @@ public FileOutputStreamHandler(File output, boolean writeTemp) throws FileNotFou
 	 */
 	public FileOutputStreamHandler(File output, boolean writeTemp, boolean autoFlush)
 			throws FileNotFoundException, NullPointerException {
+		this(output, writeTemp, autoFlush, false);
+	}
+
+	/**
+	 * Creates a new file output stream handler, writing to the given file.<br/>
+	 * File output stream handlers do not write temporary data.
+	 * 
+	 * @param output    The file to write the data to.
+	 * @param writeTemp Whether this output stream handler should handle temporary
+	 *                  data, or ignore it.
+	 * @param autoFlush Whether this output stream handler should call
+	 *                  {@link OutputStream#flush()} every time something was
+	 *                  written to it.
+	 * @param append    Whether the data should be appended to the existing content
+	 *                  of the file, instead of replacing it.
+	 * @throws FileNotFoundException if the file exists but is a directory rather
+	 *                               than a regular file, does not exist but cannot
+	 *                               be created, or cannot be opened for any other
+	 *                               reason
+	 * @throws NullPointerException  if the given output file is {@code null}.
+	 */
+	public FileOutputStreamHandler(File output, boolean writeTemp, boolean autoFlush, boolean append)
+			throws FileNotFoundException, NullPointerException {
 		Objects.requireNonNull(output, "The file to write to can't be null.");
 
 		output_file = output;
-		FileOutputStream fout = new FileOutputStream(output);
+		FileOutputStream fout = new FileOutputStream(output, append);
 		stream = new BufferedOutputStream(fout);
 
 		this.writeTemp = writeTemp;
@@ -119,11 +147,10 @@ public boolean println(String line) {
 		}
 
 		try {
-			if (line == null || line.isEmpty()) {
-				stream.write(System.lineSeparator().getBytes("UTF-8"));
-			} else {
-				stream.write((line + System.lineSeparator()).getBytes("UTF-8"));
+			if (line != null && !line.isEmpty()) {
+				stream.write(line.getBytes(ByteLineBuilder.UTF_8));
 			}
+			stream.write(LINE_SEPARATOR);
 
 			if (autoFlush) {
 				stream.flush();
@@ -150,10 +177,34 @@ public boolean println(String line, boolean temporary) {
 		}
 	}
 
+	@Override
+	public boolean println(byte[] line, int length, boolean temporary) {
+		if (closed || (temporary && !printsTemporary())) {
+			return println(new String(line, 0, length, ByteLineBuilder.UTF_8), temporary);
+		}
+
+		try {
+			stream.write(line, 0, length);
+			stream.write(LINE_SEPARATOR);
+
+			if (autoFlush) {
+				stream.flush();
+			}
+			return true;
+		} catch (IOException e) {
+			String str = new String(line, 0, length, ByteLineBuilder.UTF_8);
+			LogHandler.err_println(String.format("Writing line \"%s\" to the data output file failed.", str));
+			LogHandler.print_exception(e, "print data to output file", "stream handler: %s, line: %s", toString(),
+					str);
+			return false;
+		}
+	}
+
 	@Override
 	public boolean printDay(TurkeyInfo info, String date, Collection<String> zones) {
-		String line = CSVHandler.turkeyToCsvLine(info, date, zones);
-		return println(line, info.getCurrentDate().equals(date) && info.getCurrentTime() != TurkeyInfo.DAY_END);
+		ByteLineBuilder line = CSVHandler.appendTurkeyCsvLine(ByteLineBuilder.get(), info, date, zones);
+		return println(line.getBuffer(), line.length(),
+				info.getCurrentDate().equals(date) && info.getCurrentTime() != TurkeyInfo.DAY_END);
 	}
 
 	/**
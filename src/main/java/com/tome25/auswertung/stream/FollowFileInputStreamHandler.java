@@ -0,0 +1,124 @@
+package com.tome25.auswertung.stream;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import com.tome25.auswertung.log.LogHandler;
+
+/**
+ * A {@link FileInputStreamHandler} following a file that is still being
+ * written to, like {@code tail -f}.<br/>
+ * Once the end of the file is reached, it is polled for new data every
+ * {@link #POLL_INTERVAL} ms.<br/>
+ * Only complete lines are returned, so reading a line the writer didn't finish
+ * yet blocks until it is finished.<br/>
+ * This handler is only {@link #done() done} once it was {@link #stop()
+ * stopped}, and the data written before that was read.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class FollowFileInputStreamHandler extends FileInputStreamHandler {
+
+	/**
+	 * The time to wait before checking for new data again, after reaching the end
+	 * of the file.<br/>
+	 * In milliseconds.
+	 */
+	public static final int POLL_INTERVAL = 250;
+
+	/**
+	 * Whether this handler should stop waiting for new data.
+	 */
+	private volatile boolean stopped = false;
+
+	/**
+	 * Creates a new FollowFileInputStreamHandler following the given file, starting
+	 * at its beginning.
+	 * 
+	 * @param input The file to follow.
+	 * @throws FileNotFoundException if the given input file does not exist.
+	 * @throws NullPointerException  if the given input file is {@code null}.
+	 */
+	public FollowFileInputStreamHandler(File input) throws FileNotFoundException, NullPointerException {
+		super(input);
+	}
+
+	/**
+	 * Creates a new FollowFileInputStreamHandler following the given file using a
+	 * block buffer of the given size, starting at the given position.
+	 * 
+	 * @param input      The file to follow.
+	 * @param bufferSize The size of the block buffer to use, in bytes.
+	 * @param offset     The position in the file to start reading at, in bytes.
+	 * @throws FileNotFoundException    if the given input file does not exist.
+	 * @throws IOException              if skipping to {@code offset} fails.
+	 * @throws NullPointerException     if the given input file is {@code null}.
+	 * @throws IllegalArgumentException if {@code bufferSize} is less than 1, or
+	 *                                  {@code offset} is negative.
+	 */
+	public FollowFileInputStreamHandler(File input, int bufferSize, long offset)
+			throws FileNotFoundException, IOException, NullPointerException, IllegalArgumentException {
+		super(input, bufferSize, offset);
+	}
+
+	/**
+	 * Reads the next bytes from the file into the given buffer.<br/>
+	 * Waits for new data if the end of the file was reached, until this handler
+	 * is {@link #stop() stopped}.
+	 */
+	@Override
+	protected int read(byte[] buffer) throws IOException {
+		int read = super.read(buffer);
+		while (read <= 0 && !stopped) {
+			if (getInputFile().length() < getPosition()) {
+				LogHandler.err_println("The file \"" + getInputFile() + "\" was truncated. Stopping to follow it.");
+				LogHandler.print_debug_info("Stream Handler: %s", this);
+				stopped = true;
+				break;
+			}
+
+			try {
+				Thread.sleep(POLL_INTERVAL);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				stopped = true;
+				break;
+			}
+
+			read = super.read(buffer);
+		}
+
+		return read;
+	}
+
+	@Override
+	public boolean done() {
+		return stopped && super.done();
+	}
+
+	/**
+	 * Makes this handler stop waiting for new data.<br/>
+	 * Data that is already in the file can still be read, after that this handler
+	 * is {@link #done() done}.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Checks whether this handler was {@link #stop() stopped}.
+	 * 
+	 * @return {@code true} if this handler no longer waits for new data.
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	@Override
+	public void close() throws IOException {
+		stopped = true;
+		super.close();
+	}
+
+}
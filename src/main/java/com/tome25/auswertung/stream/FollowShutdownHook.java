@@ -0,0 +1,69 @@
+package com.tome25.auswertung.stream;
+
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.tome25.auswertung.log.LogHandler;
+
+/**
+ * A {@link Runtime#addShutdownHook ShutdownHook} stopping a
+ * {@link FollowFileInputStreamHandler} when the program is terminated, for
+ * example using Ctrl+C.<br/>
+ * Then waits for the analysis to handle the end of its input, and write its
+ * final output.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class FollowShutdownHook implements Runnable {
+
+	/**
+	 * The maximum time to wait for the analysis to finish, in seconds.
+	 */
+	private static final int FINISH_TIMEOUT = 30;
+
+	/**
+	 * The input stream handler to stop.
+	 */
+	private final FollowFileInputStreamHandler input;
+
+	/**
+	 * The latch released once the analysis finished.
+	 */
+	private final CountDownLatch finished = new CountDownLatch(1);
+
+	/**
+	 * Creates a new FollowShutdownHook stopping the given input stream handler.
+	 * 
+	 * @param input The input stream handler to stop when executed.
+	 * @throws NullPointerException If {@code input} is {@code null}.
+	 */
+	public FollowShutdownHook(FollowFileInputStreamHandler input) throws NullPointerException {
+		this.input = Objects.requireNonNull(input, "The input stream handler to stop can't be null.");
+	}
+
+	/**
+	 * Marks the analysis as finished, so this hook no longer waits for it.
+	 */
+	public void finished() {
+		finished.countDown();
+	}
+
+	@Override
+	public void run() {
+		if (finished.getCount() == 0) {
+			return;
+		}
+
+		LogHandler.out_println("Stopping to follow the antenna data file, and writing the remaining output.");
+		input.stop();
+		try {
+			if (!finished.await(FINISH_TIMEOUT, TimeUnit.SECONDS)) {
+				LogHandler.err_println("The analysis didn't finish within " + FINISH_TIMEOUT + " seconds. Exiting.");
+			}
+		} catch (InterruptedException e) {
+			LogHandler.err_println("Interrupted while waiting for the analysis to finish. Exiting.");
+		}
+	}
+
+}
@@ -0,0 +1,526 @@
+package com.tome25.auswertung.stream;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.tome25.auswertung.CSVHandler;
+import com.tome25.auswertung.TurkeyInfo;
+import com.tome25.auswertung.log.LogHandler;
+
+/**
+ * The class responsible for writing gzip compressed data to a file.<br/>
+ * Lines are collected in blocks of a fixed size, and each full block is
+ * compressed into a separate gzip member by a pool of compressor threads.<br/>
+ * The compressed members are written to the file in order, resulting in a
+ * file of concatenated gzip members, which can be decompressed by any gzip
+ * implementation.<br/>
+ * <br/>
+ * Gzip output stream handlers never write temporary data, since it can't be
+ * replaced once compressed.<br/>
+ * Errors while writing are logged, and cause all further lines to be
+ * discarded. They are thrown again by {@link #flush()} and {@link #close()}.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class GzipFileOutputStreamHandler implements IOutputStreamHandler {
+
+	/**
+	 * The default size of the uncompressed blocks, in bytes.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+	/**
+	 * The UTF-8 encoded {@link System#lineSeparator() line separator}.
+	 */
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(ByteLineBuilder.UTF_8);
+
+	/**
+	 * The header of each gzip member.<br/>
+	 * Deflate compressed, no flags, no modification time, unknown OS.
+	 */
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	/**
+	 * The size of the trailer of each gzip member, in bytes.<br/>
+	 * The trailer contains the CRC-32 and the size of the uncompressed data.
+	 */
+	private static final int TRAILER_SIZE = 8;
+
+	/**
+	 * The file this Output Stream Handler writes to.
+	 */
+	private final File output_file;
+
+	/**
+	 * The OutputStream the compressed members are written to.
+	 */
+	private final OutputStream stream;
+
+	/**
+	 * The threads compressing the full blocks.
+	 */
+	private final ExecutorService compressors;
+
+	/**
+	 * The blocks currently being compressed, in the order they have to be written
+	 * in.
+	 */
+	private final Queue<Future<Member>> pending = new ArrayDeque<Future<Member>>();
+
+	/**
+	 * The max number of blocks that can be compressed, or waiting to be
+	 * compressed, at the same time.
+	 */
+	private final int maxPending;
+
+	/**
+	 * The uncompressed blocks that can be reused.
+	 */
+	private final Queue<byte[]> freeBlocks = new ConcurrentLinkedQueue<byte[]>();
+
+	/**
+	 * The deflaters that can be reused by the compressor threads.
+	 */
+	private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<Deflater>();
+
+	/**
+	 * The size of each uncompressed block, in bytes.<br/>
+	 * Blocks grow beyond this size for single lines larger than it.
+	 */
+	private final int blockSize;
+
+	/**
+	 * The deflate compression level to use.
+	 */
+	private final int level;
+
+	/**
+	 * The block currently being filled.<br/>
+	 * {@code null} if no block was taken yet.
+	 */
+	private byte[] block;
+
+	/**
+	 * The number of bytes in {@link #block}.
+	 */
+	private int length = 0;
+
+	/**
+	 * Whether at least one gzip member was written to the file.
+	 */
+	private boolean wroteMember = false;
+
+	/**
+	 * The first exception that occurred while compressing or writing a block.
+	 */
+	private IOException error;
+
+	/**
+	 * Whether this output stream handler has been explicitly closed.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new gzip file output stream handler, writing to the given
+	 * file.<br/>
+	 * Uses one compressor thread per available processor.
+	 * 
+	 * @param output The file to write the data to.
+	 * @throws FileNotFoundException if the file exists but is a directory rather
+	 *                               than a regular file, does not exist but cannot
+	 *                               be created, or cannot be opened for any other
+	 *                               reason
+	 * @throws NullPointerException  if the given output file is {@code null}.
+	 */
+	public GzipFileOutputStreamHandler(File output) throws FileNotFoundException, NullPointerException {
+		this(output, Runtime.getRuntime().availableProcessors(), DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Creates a new gzip file output stream handler, writing to the given file.
+	 * 
+	 * @param output    The file to write the data to.
+	 * @param threads   The number of compressor threads to use.
+	 * @param blockSize The size of the uncompressed blocks, in bytes.
+	 * @param level     The deflate compression level, from 0 to 9, or
+	 *                  {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @throws FileNotFoundException    if the file exists but is a directory
+	 *                                  rather than a regular file, does not exist
+	 *                                  but cannot be created, or cannot be opened
+	 *                                  for any other reason
+	 * @throws NullPointerException     if the given output file is {@code null}.
+	 * @throws IllegalArgumentException if {@code threads} or {@code blockSize} is
+	 *                                  less than 1, or {@code level} isn't a
+	 *                                  valid compression level.
+	 */
+	public GzipFileOutputStreamHandler(File output, int threads, int blockSize, int level)
+			throws FileNotFoundException, NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(output, "The file to write to can't be null.");
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("A gzip output stream handler needs at least one compressor thread.");
+		}
+
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("The block size has to be at least 1.");
+		}
+
+		if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+			throw new IllegalArgumentException("Invalid compression level " + level + ".");
+		}
+
+		output_file = output;
+		stream = new FileOutputStream(output);
+		this.blockSize = blockSize;
+		this.level = level;
+		maxPending = threads * 2;
+
+		compressors = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private int count = 0;
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "PutenAuswertung-Compressor-" + ++count);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	@Override
+	public boolean println(String line) {
+		if (closed) {
+			LogHandler.err_println(
+					String.format("Tried to write line \"%s\" to an already closed GzipFileOutputStreamHandler.", line),
+					true);
+			LogHandler.print_debug_info("stream handler: %s, line: \"%s\"", toString(), line);
+			return false;
+		}
+
+		ByteLineBuilder bytes = ByteLineBuilder.get();
+		if (line != null) {
+			bytes.append(line);
+		}
+		return add(bytes.getBuffer(), bytes.length());
+	}
+
+	@Override
+	public boolean println(String line, boolean temporary) {
+		if (temporary) {
+			LogHandler.err_println(String.format(
+					"Trying to write line \"%s\" to gzip output that does not handle temporary data.", line), true);
+			LogHandler.print_debug_info("stream handler: %s, line: \"%s\", temporary: %s", toString(), line,
+					temporary ? "true" : "false");
+			return false;
+		} else {
+			return println(line);
+		}
+	}
+
+	@Override
+	public boolean println(byte[] line, int length, boolean temporary) {
+		if (closed || temporary) {
+			return println(new String(line, 0, length, ByteLineBuilder.UTF_8), temporary);
+		}
+
+		return add(line, length);
+	}
+
+	@Override
+	public boolean printDay(TurkeyInfo info, String date, Collection<String> zones) {
+		ByteLineBuilder line = CSVHandler.appendTurkeyCsvLine(ByteLineBuilder.get(), info, date, zones);
+		return println(line.getBuffer(), line.length(),
+				info.getCurrentDate().equals(date) && info.getCurrentTime() != TurkeyInfo.DAY_END);
+	}
+
+	/**
+	 * Adds the given line to the current block.<br/>
+	 * Hands the block to the compressor threads if the line doesn't fit into it.
+	 * 
+	 * @param line The array containing the line to add.
+	 * @param len  The number of bytes from the start of {@code line} to add.
+	 * @return {@code false} if compressing or writing a block failed.
+	 */
+	private boolean add(byte[] line, int len) {
+		if (error != null) {
+			return false;
+		}
+
+		int required = len + LINE_SEPARATOR.length;
+		if (block != null && length > 0 && length + required > block.length) {
+			submit();
+		}
+
+		if (block == null) {
+			block = freeBlocks.poll();
+			if (block == null) {
+				block = new byte[blockSize];
+			}
+			length = 0;
+		}
+
+		if (length + required > block.length) {
+			block = Arrays.copyOf(block, length + required);
+		}
+
+		System.arraycopy(line, 0, block, length, len);
+		length += len;
+		System.arraycopy(LINE_SEPARATOR, 0, block, length, LINE_SEPARATOR.length);
+		length += LINE_SEPARATOR.length;
+
+		try {
+			write(maxPending);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Hands the current block to the compressor threads, if it isn't empty.
+	 */
+	private void submit() {
+		if (block == null || length == 0) {
+			return;
+		}
+
+		final byte[] data = block;
+		final int size = length;
+		block = null;
+		length = 0;
+		pending.add(compressors.submit(new Callable<Member>() {
+			@Override
+			public Member call() {
+				Member member = compress(data, size);
+				if (data.length == blockSize) {
+					freeBlocks.offer(data);
+				}
+				return member;
+			}
+		}));
+	}
+
+	/**
+	 * Writes the compressed members that are done to the file.<br/>
+	 * Waits for the oldest blocks to be compressed if more than the given number
+	 * of blocks are pending.
+	 * 
+	 * @param keep The max number of blocks to leave pending.
+	 * @throws IOException If compressing or writing a block failed, now or
+	 *                     before.
+	 */
+	private void write(int keep) throws IOException {
+		if (error != null) {
+			throw error;
+		}
+
+		try {
+			while (!pending.isEmpty() && (pending.size() > keep || pending.peek().isDone())) {
+				Member member = pending.poll().get();
+				stream.write(member.data, 0, member.length);
+				wroteMember = true;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			setError(new InterruptedIOException("Interrupted while waiting for a block to be compressed."));
+		} catch (ExecutionException e) {
+			setError(new IOException("Compressing a block failed.", e.getCause()));
+		} catch (IOException e) {
+			setError(e);
+		}
+
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Compresses the given data into a single gzip member.<br/>
+	 * Run by the compressor threads.
+	 * 
+	 * @param data The array containing the data to compress.
+	 * @param size The number of bytes from the start of {@code data} to compress.
+	 * @return The compressed gzip member.
+	 */
+	private Member compress(byte[] data, int size) {
+		Deflater deflater = deflaters.poll();
+		if (deflater == null) {
+			deflater = new Deflater(level, true);
+		}
+
+		// The max size of deflated data, as calculated by zlibs compressBound.
+		byte[] out = new byte[HEADER.length + size + (size >> 12) + (size >> 14) + (size >> 25) + 13 + TRAILER_SIZE];
+		System.arraycopy(HEADER, 0, out, 0, HEADER.length);
+		int pos = HEADER.length;
+
+		deflater.setInput(data, 0, size);
+		deflater.finish();
+		while (!deflater.finished()) {
+			if (pos == out.length) {
+				out = Arrays.copyOf(out, out.length * 2);
+			}
+			pos += deflater.deflate(out, pos, out.length - pos);
+		}
+		deflater.reset();
+		deflaters.offer(deflater);
+
+		if (pos + TRAILER_SIZE > out.length) {
+			out = Arrays.copyOf(out, pos + TRAILER_SIZE);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, size);
+		writeIntLE(out, pos, (int) crc.getValue());
+		writeIntLE(out, pos + 4, size);
+		return new Member(out, pos + TRAILER_SIZE);
+	}
+
+	/**
+	 * Writes the given int to the given array, in little endian byte order.
+	 * 
+	 * @param dest  The array to write to.
+	 * @param off   The index of the first byte to write.
+	 * @param value The int to write.
+	 */
+	private static void writeIntLE(byte[] dest, int off, int value) {
+		dest[off] = (byte) value;
+		dest[off + 1] = (byte) (value >>> 8);
+		dest[off + 2] = (byte) (value >>> 16);
+		dest[off + 3] = (byte) (value >>> 24);
+	}
+
+	/**
+	 * Stores the given exception, if there is no previous one.
+	 * 
+	 * @param e The exception that occurred.
+	 */
+	private void setError(IOException e) {
+		if (error == null) {
+			LogHandler.err_println("Writing to the compressed data output file failed.");
+			LogHandler.print_exception(e, "write compressed output", "stream handler: %s", toString());
+			error = e;
+		}
+	}
+
+	/**
+	 * Gets the output file this stream handler writes to.
+	 * 
+	 * @return the output file this stream handler writes to.
+	 */
+	public File getOutputFile() {
+		return output_file;
+	}
+
+	@Override
+	public boolean printsTemporary() {
+		return false;
+	}
+
+	/**
+	 * Compresses the current block, even if it isn't full, and writes all pending
+	 * blocks to the file.
+	 * 
+	 * @throws IOException If compressing or writing a block failed, now or
+	 *                     before.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		submit();
+		write(0);
+		stream.flush();
+	}
+
+	/**
+	 * Writes all remaining lines, stops the compressor threads, and closes the
+	 * file.
+	 * 
+	 * @throws IOException If compressing or writing a block failed at any point.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			LogHandler.err_println("Trying to close an already closed GzipFileOutputStreamHandler.", true);
+			LogHandler.print_debug_info("stream handler: %s", toString());
+			return;
+		}
+
+		try {
+			submit();
+			write(0);
+			if (!wroteMember) {
+				Member empty = compress(new byte[0], 0);
+				stream.write(empty.data, 0, empty.length);
+			}
+		} finally {
+			closed = true;
+			compressors.shutdownNow();
+			Deflater deflater;
+			while ((deflater = deflaters.poll()) != null) {
+				deflater.end();
+			}
+			stream.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				getClass().getSimpleName() + "[file=\"%s\", closed=%s, block size=%d, level=%d, pending=%d, failed=%s]",
+				output_file.toString(), closed ? "true" : "false", blockSize, level, pending.size(),
+				error == null ? "false" : "true");
+	}
+
+	/**
+	 * A single compressed gzip member.
+	 * 
+	 * @author Theodor Meyer zu Hörste
+	 */
+	private static final class Member {
+
+		/**
+		 * The array containing the compressed member.
+		 */
+		private final byte[] data;
+
+		/**
+		 * The number of bytes from the start of {@link #data} that belong to the
+		 * member.
+		 */
+		private final int length;
+
+		/**
+		 * Creates a new member.
+		 * 
+		 * @param data   The array containing the compressed member.
+		 * @param length The size of the member in bytes.
+		 */
+		private Member(byte[] data, int length) {
+			this.data = data;
+			this.length = length;
+		}
+
+	}
+
+}
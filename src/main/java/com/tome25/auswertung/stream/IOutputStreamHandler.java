@@ -43,6 +43,23 @@ public interface IOutputStreamHandler extends Closeable {
 	 */
 	boolean println(String line, boolean temporary);
 
+	/**
+	 * Writes the given UTF-8 encoded bytes as a separate line to this output
+	 * handler.<br/>
+	 * Basically writes the bytes and a line separator to the output stream.<br/>
+	 * Writing temporary data to a stream that does not handle it may cause a log
+	 * entry, may not however throw an exception.<br/>
+	 * The given array may be reused by the caller once this method returns.
+	 * 
+	 * @param line      The array containing the line to write.
+	 * @param length    The number of bytes from the start of {@code line} to
+	 *                  write.
+	 * @param temporary Whether the output is to be considered temporary.
+	 * @return Whether the line was actually written to the output stream.
+	 * @see ByteLineBuilder
+	 */
+	boolean println(byte[] line, int length, boolean temporary);
+
 	/**
 	 * Writes the info about the last day of the given turkey info to the output
 	 * stream handled by this object.<br/>
@@ -0,0 +1,138 @@
+package com.tome25.auswertung.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A reusable buffer collecting the bytes of a single line of text.<br/>
+ * Used by input stream handlers that read their input in large blocks, to
+ * collect lines spanning more than one block.<br/>
+ * Carriage returns are dropped when appending bytes.<br/>
+ * The collected line is decoded only once, when calling {@link #decode()}, and
+ * lines consisting only of ASCII characters skip UTF-8 decoding entirely.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+final class LineBuffer {
+
+	/**
+	 * The bytes of the current line.<br/>
+	 * Grows as required, but never shrinks.
+	 */
+	private byte[] bytes;
+
+	/**
+	 * The number of bytes of {@link #bytes} that belong to the current line.
+	 */
+	private int length = 0;
+
+	/**
+	 * All bytes of the current line combined using bitwise or.<br/>
+	 * If the highest bit of this is not set, the line is pure ASCII.
+	 */
+	private int combined = 0;
+
+	/**
+	 * Creates a new line buffer with the given initial capacity.
+	 * 
+	 * @param capacity The initial capacity of the new buffer.
+	 */
+	LineBuffer(int capacity) {
+		bytes = new byte[Math.max(capacity, 16)];
+	}
+
+	/**
+	 * Appends a part of the given byte array to this line.<br/>
+	 * Carriage return characters are skipped.
+	 * 
+	 * @param src The array to copy bytes from.
+	 * @param off The index of the first byte to copy.
+	 * @param len The number of bytes to copy.
+	 */
+	void append(byte[] src, int off, int len) {
+		ensureCapacity(length + len);
+		for (int i = off; i < off + len; i++) {
+			byte b = src[i];
+			if (b != '\r') {
+				bytes[length++] = b;
+				combined |= b;
+			}
+		}
+	}
+
+	/**
+	 * Appends a part of the given {@link ByteBuffer} to this line.<br/>
+	 * Carriage return characters are skipped.<br/>
+	 * Uses absolute reads, so the position of the given buffer is not modified.
+	 * 
+	 * @param src The buffer to copy bytes from.
+	 * @param off The index of the first byte to copy.
+	 * @param len The number of bytes to copy.
+	 */
+	void append(ByteBuffer src, int off, int len) {
+		ensureCapacity(length + len);
+		for (int i = off; i < off + len; i++) {
+			byte b = src.get(i);
+			if (b != '\r') {
+				bytes[length++] = b;
+				combined |= b;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether this buffer currently contains any bytes.
+	 * 
+	 * @return {@code true} if no bytes were appended since the last
+	 *         {@link #decode()}.
+	 */
+	boolean isEmpty() {
+		return length == 0;
+	}
+
+	/**
+	 * Decodes the current content of this buffer, and clears it afterwards.
+	 * 
+	 * @return The line collected in this buffer.
+	 */
+	String decode() {
+		String line = decode(bytes, 0, length, combined);
+		length = 0;
+		combined = 0;
+		return line;
+	}
+
+	/**
+	 * Decodes a part of the given byte array as a string.<br/>
+	 * Uses the ISO-8859-1 charset if all bytes are ASCII, since that is merely a
+	 * copy, and UTF-8 otherwise.
+	 * 
+	 * @param src      The bytes to decode.
+	 * @param off      The index of the first byte to decode.
+	 * @param len      The number of bytes to decode.
+	 * @param combined All the bytes to decode combined using bitwise or.
+	 * @return The decoded string.
+	 */
+	static String decode(byte[] src, int off, int len, int combined) {
+		if (len == 0) {
+			return "";
+		} else if ((combined & 0x80) == 0) {
+			return new String(src, off, len, StandardCharsets.ISO_8859_1);
+		} else {
+			return new String(src, off, len, StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Makes sure {@link #bytes} can hold at least the given number of bytes.
+	 * 
+	 * @param capacity The minimum required capacity.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > bytes.length) {
+			bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+		}
+	}
+
+}
@@ -0,0 +1,268 @@
+package com.tome25.auswertung.stream;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+import com.tome25.auswertung.log.LogHandler;
+
+/**
+ * An alternative to the {@link FileInputStreamHandler} reading the content of a
+ * file using memory mapped windows.<br/>
+ * Instead of copying the file content through a heap buffer, this maps a
+ * window of the file into memory, and scans that window for line
+ * separators.<br/>
+ * Once a window is fully read, the next one is mapped.<br/>
+ * Since a single mapping can't be larger than 2GB, files bigger than that are
+ * read using multiple windows.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class MappedFileInputStreamHandler implements IInputStreamHandler {
+
+	/**
+	 * The default size of a mapped window, in bytes.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+	/**
+	 * The file from which which data is being read.
+	 */
+	private final File input_file;
+
+	/**
+	 * The {@link FileInputStream} the {@link #channel} belongs to.
+	 */
+	private final FileInputStream stream;
+
+	/**
+	 * The {@link FileChannel} used to map the input file.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The max size of a single mapped window.
+	 */
+	private final int windowSize;
+
+	/**
+	 * The currently mapped window of the file.<br/>
+	 * {@code null} if no window was mapped yet.
+	 */
+	private MappedByteBuffer window;
+
+	/**
+	 * The offset of the first byte of {@link #window} in the file.
+	 */
+	private long windowStart = 0;
+
+	/**
+	 * The offset of the next byte to read, relative to {@link #windowStart}.
+	 */
+	private int windowPosition = 0;
+
+	/**
+	 * The size of the file when it was last checked.<br/>
+	 * Used to avoid checking the size of the file for every line.
+	 */
+	private long size;
+
+	/**
+	 * The buffer collecting lines that span more than one window.
+	 */
+	private final LineBuffer line = new LineBuffer(256);
+
+	/**
+	 * Whether this Stream Handler is yet to be closed.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new MappedFileInputStreamHandler reading the content of the given
+	 * file.
+	 * 
+	 * @param input The file to read.
+	 * @throws FileNotFoundException if the given input file does not exist.
+	 * @throws IOException           if getting the size of the file fails.
+	 * @throws NullPointerException  if the given input file is {@code null}.
+	 */
+	public MappedFileInputStreamHandler(File input) throws FileNotFoundException, IOException, NullPointerException {
+		this(input, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates a new MappedFileInputStreamHandler reading the content of the given
+	 * file using windows of the given size.
+	 * 
+	 * @param input      The file to read.
+	 * @param windowSize The max size of a single mapped window, in bytes.
+	 * @throws FileNotFoundException    if the given input file does not exist.
+	 * @throws IOException              if getting the size of the file fails.
+	 * @throws NullPointerException     if the given input file is {@code null}.
+	 * @throws IllegalArgumentException if {@code windowSize} is less than 1.
+	 */
+	public MappedFileInputStreamHandler(File input, int windowSize)
+			throws FileNotFoundException, IOException, NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(input, "The file to be read, input, can't be null.");
+
+		if (windowSize < 1) {
+			throw new IllegalArgumentException("The window size has to be at least 1.");
+		}
+
+		input_file = input;
+		this.windowSize = windowSize;
+		stream = new FileInputStream(input);
+		channel = stream.getChannel();
+		try {
+			size = channel.size();
+		} catch (IOException e) {
+			stream.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public String readline() throws IOException {
+		if (closed) {
+			throw new IOException("stream handler closed");
+		}
+
+		while (hasMapped() || map()) {
+			int start = windowPosition;
+			int limit = window.limit();
+			int end = start;
+			while (end < limit && window.get(end) != '\n') {
+				end++;
+			}
+
+			line.append(window, start, end - start);
+			if (end == limit) {
+				windowPosition = limit;
+			} else {
+				windowPosition = end + 1;
+				return line.decode();
+			}
+		}
+
+		return line.decode();
+	}
+
+	/**
+	 * Checks whether the current window contains bytes that were not read yet.
+	 * 
+	 * @return {@code true} if there are unread bytes in the current window.
+	 */
+	private boolean hasMapped() {
+		return window != null && windowPosition < window.limit();
+	}
+
+	/**
+	 * Maps the next window of the file.<br/>
+	 * Only called once the current window was fully read.
+	 * 
+	 * @return {@code false} if there currently is no more data in the file.
+	 * @throws IOException if mapping the file fails.
+	 */
+	private boolean map() throws IOException {
+		long next = getPosition();
+		if (next >= size) {
+			size = channel.size();
+			if (next >= size) {
+				return false;
+			}
+		}
+
+		windowStart = next;
+		windowPosition = 0;
+		window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+				Math.min(windowSize, size - windowStart));
+		return true;
+	}
+
+	@Override
+	public boolean available() {
+		if (closed) {
+			return false;
+		}
+
+		if (hasMapped() || getPosition() < size) {
+			return true;
+		}
+
+		try {
+			size = channel.size();
+			return getPosition() < size;
+		} catch (IOException e) {
+			LogHandler.err_println("An error occured while trying to check whether an input has more data to be read.");
+			LogHandler.print_exception(e, "check whether there is more available data right now", "input file: \"%s\"",
+					input_file.toString());
+			return false;
+		}
+	}
+
+	@Override
+	public boolean done() {
+		if (closed) {
+			return true;
+		}
+
+		return !available();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			window = null;
+			stream.close();
+		} else {
+			LogHandler.err_println("Trying to close an already closed MappedFileInputStreamHandler.", true);
+			LogHandler.print_debug_info("stream handler: %s", toString());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				getClass().getSimpleName()
+						+ "[input_file=\"%s\", closed=%s, done=%s, available=%s, position=%d, size=%d, window_size=%d]",
+				input_file.toString(), closed ? "true" : "false", done() ? "true" : "false",
+				available() ? "true" : "false", getPosition(), size, windowSize);
+	}
+
+	/**
+	 * Gets the file this stream handle is reading from.
+	 * 
+	 * @return The file this stream handle is reading from.
+	 */
+	public File getInputFile() {
+		return input_file;
+	}
+
+	/**
+	 * Gets the offset in the file of the next byte to be read.<br/>
+	 * Can be used together with {@link #getSize()} to report the reading
+	 * progress.
+	 * 
+	 * @return The number of bytes from the file that were already read.
+	 */
+	public long getPosition() {
+		return windowStart + windowPosition;
+	}
+
+	/**
+	 * Gets the size of the input file, as of the last time it was checked.<br/>
+	 * The size gets updated when the end of the known part of the file was
+	 * reached.
+	 * 
+	 * @return The size of the input file in bytes.
+	 */
+	public long getSize() {
+		return size;
+	}
+
+}
@@ -62,10 +62,21 @@ public boolean println(String line, boolean temporary) {
 		return err;
 	}
 
+	@Override
+	public boolean println(byte[] line, int length, boolean temporary) {
+		boolean err = false;
+		for (IOutputStreamHandler handler : handlers) {
+			if (!temporary || handler.printsTemporary()) {
+				err = handler.println(line, length, temporary) || err;
+			}
+		}
+		return err;
+	}
+
 	@Override
 	public boolean printDay(TurkeyInfo info, String date, Collection<String> zones) {
-		String line = CSVHandler.turkeyToCsvLine(info, date, zones);
-		return println(line, info.getCurrentDate().equals(date));
+		ByteLineBuilder line = CSVHandler.appendTurkeyCsvLine(ByteLineBuilder.get(), info, date, zones);
+		return println(line.getBuffer(), line.length(), info.getCurrentDate().equals(date));
 	}
 
 	@Override
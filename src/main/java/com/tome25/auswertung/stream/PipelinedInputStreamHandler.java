@@ -0,0 +1,198 @@
+package com.tome25.auswertung.stream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+
+import com.tome25.auswertung.utils.BatchQueue;
+
+/**
+ * An input stream handler reading the lines of another input stream handler on
+ * a separate thread.<br/>
+ * The lines are passed to the thread reading from this handler in batches,
+ * through a bounded {@link BatchQueue}.<br/>
+ * This allows waiting for I/O while the lines read previously are processed.<br/>
+ * 
+ * Note: Reading an input line failing ends the input of this handler, after
+ * rethrowing the exception once.<br/>
+ * 
+ * Note: closing this handler does NOT close the wrapped input stream handler!
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class PipelinedInputStreamHandler implements IInputStreamHandler {
+
+	/**
+	 * The stream handler to read the lines from.
+	 */
+	private final IInputStreamHandler input;
+
+	/**
+	 * The queue passing the lines from the reader thread.
+	 */
+	private final BatchQueue<String> lines;
+
+	/**
+	 * The thread reading the lines from {@link #input}.
+	 */
+	private final Thread reader;
+
+	/**
+	 * Whether the exception that stopped the reader thread was already thrown.
+	 */
+	private boolean errorThrown = false;
+
+	/**
+	 * Whether this stream handler has been explicitly closed.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Creates a new PipelinedInputStreamHandler, and starts reading lines from the
+	 * given stream handler.
+	 * 
+	 * @param input     The stream handler to read the lines from.
+	 * @param capacity  The maximum number of batches of lines to read ahead.
+	 * @param batchSize The number of lines per batch.
+	 * @throws NullPointerException     If {@code input} is {@code null}.
+	 * @throws IllegalArgumentException If {@code capacity} or {@code batchSize} is
+	 *                                  less than 1.
+	 */
+	public PipelinedInputStreamHandler(IInputStreamHandler input, int capacity, int batchSize)
+			throws NullPointerException, IllegalArgumentException {
+		this.input = Objects.requireNonNull(input, "The input stream handler to read from can't be null.");
+		lines = new BatchQueue<String>(capacity, batchSize);
+		reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				readLines();
+			}
+		}, "PutenAuswertung-Reader");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	/**
+	 * Reads all lines from the wrapped stream handler, and adds them to
+	 * {@link #lines}.<br/>
+	 * Run by the reader thread.
+	 */
+	private void readLines() {
+		Throwable error = null;
+		try {
+			while (!input.done()) {
+				if (!lines.put(input.readline())) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			return;
+		} catch (IOException e) {
+			error = e;
+		} catch (RuntimeException e) {
+			error = e;
+		}
+
+		try {
+			lines.finish(error);
+		} catch (InterruptedException e) {
+		}
+	}
+
+	@Override
+	public String readline() throws IOException {
+		if (closed) {
+			throw new IOException("Trying to read from a closed PipelinedInputStreamHandler.");
+		}
+
+		try {
+			if (lines.hasNext()) {
+				return lines.next();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the next input line.");
+		}
+
+		Throwable error = lines.getError();
+		if (error != null && !errorThrown) {
+			errorThrown = true;
+			if (error instanceof IOException) {
+				throw (IOException) error;
+			} else {
+				throw (RuntimeException) error;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Checks whether there are more lines to read.<br/>
+	 * Blocks until the reader thread read the next batch of lines, or the end of
+	 * the input.
+	 * 
+	 * @return {@code true} if there are more lines to read.
+	 */
+	@Override
+	public boolean available() {
+		return !done();
+	}
+
+	/**
+	 * Checks whether all lines were read.<br/>
+	 * Blocks until the reader thread read the next batch of lines, or the end of
+	 * the input.
+	 * 
+	 * @return {@code true} if there are no more lines to read.
+	 */
+	@Override
+	public boolean done() {
+		if (closed) {
+			return true;
+		}
+
+		try {
+			return !lines.hasNext() && (lines.getError() == null || errorThrown);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return true;
+		}
+	}
+
+	/**
+	 * Gets the queue passing the lines from the reader thread.<br/>
+	 * Only intended to be used to get statistics about the queue.
+	 * 
+	 * @return The queue of this handler.
+	 */
+	public BatchQueue<String> getQueue() {
+		return lines;
+	}
+
+	/**
+	 * Stops the reader thread, and waits for it to finish.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		lines.close();
+		try {
+			reader.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the reader thread to finish.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format(getClass().getSimpleName() + "[input=%s, queue=%s, closed=%s]", input.toString(),
+				lines.toString(), closed ? "true" : "false");
+	}
+
+}
@@ -0,0 +1,235 @@
+package com.tome25.auswertung.stream;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+import com.tome25.auswertung.CSVHandler;
+import com.tome25.auswertung.TurkeyInfo;
+import com.tome25.auswertung.log.LogHandler;
+
+/**
+ * An output stream handler buffering its lines in memory, tagged with a
+ * sequence number.<br/>
+ * Used to collect the output of turkeys analyzed in parallel, so that it can
+ * later be written in the same order as when analyzing them serially.<br/>
+ * This handler does not handle temporary data.<br/>
+ * 
+ * Note: This class is not thread safe, each thread should write to its own
+ * handler.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class SequencedOutputStreamHandler implements IOutputStreamHandler {
+
+	/**
+	 * The number of lines to initially allocate space for.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * The sequence number of the lines currently written to this handler.
+	 */
+	private long sequence = 0;
+
+	/**
+	 * The sequence numbers of the buffered lines.
+	 */
+	private long[] sequences = new long[INITIAL_CAPACITY];
+
+	/**
+	 * The buffered UTF-8 encoded lines.
+	 */
+	private byte[][] lines = new byte[INITIAL_CAPACITY][];
+
+	/**
+	 * The number of buffered lines.
+	 */
+	private int size = 0;
+
+	/**
+	 * Whether this stream handler has been explicitly closed.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Sets the sequence number for the lines written to this handler from now
+	 * on.<br/>
+	 * Sequence numbers have to be set in ascending order.
+	 * 
+	 * @param sequence The new sequence number.
+	 * @throws IllegalArgumentException If {@code sequence} is less than the
+	 *                                  current sequence number.
+	 */
+	public void setSequence(long sequence) throws IllegalArgumentException {
+		if (sequence < this.sequence) {
+			throw new IllegalArgumentException("The sequence number can't decrease.");
+		}
+
+		this.sequence = sequence;
+	}
+
+	@Override
+	public boolean println(String line) {
+		if (closed) {
+			LogHandler.err_println(String.format(
+					"Tried to write line \"%s\" to an already closed SequencedOutputStreamHandler.", line), true);
+			LogHandler.print_debug_info("stream handler: %s, line: \"%s\"", toString(), line);
+			return false;
+		}
+
+		add(line == null ? new byte[0] : line.getBytes(ByteLineBuilder.UTF_8));
+		return true;
+	}
+
+	@Override
+	public boolean println(String line, boolean temporary) {
+		if (temporary) {
+			LogHandler.err_println(String.format(
+					"Trying to write line \"%s\" to sequenced output that does not handle temporary data.", line),
+					true);
+			LogHandler.print_debug_info("stream handler: %s, line: \"%s\", temporary: %s", toString(), line,
+					temporary ? "true" : "false");
+			return false;
+		} else {
+			return println(line);
+		}
+	}
+
+	@Override
+	public boolean println(byte[] line, int length, boolean temporary) {
+		if (closed || temporary) {
+			return println(new String(line, 0, length, ByteLineBuilder.UTF_8), temporary);
+		}
+
+		add(Arrays.copyOf(line, length));
+		return true;
+	}
+
+	@Override
+	public boolean printDay(TurkeyInfo info, String date, Collection<String> zones) {
+		ByteLineBuilder line = CSVHandler.appendTurkeyCsvLine(ByteLineBuilder.get(), info, date, zones);
+		return println(line.getBuffer(), line.length(),
+				info.getCurrentDate().equals(date) && info.getCurrentTime() != TurkeyInfo.DAY_END);
+	}
+
+	/**
+	 * Buffers the given line with the current sequence number.
+	 * 
+	 * @param line The encoded line to buffer.
+	 */
+	private void add(byte[] line) {
+		if (size == lines.length) {
+			sequences = Arrays.copyOf(sequences, size * 2);
+			lines = Arrays.copyOf(lines, size * 2);
+		}
+
+		sequences[size] = sequence;
+		lines[size++] = line;
+	}
+
+	@Override
+	public boolean printsTemporary() {
+		return false;
+	}
+
+	/**
+	 * Gets the number of lines buffered in this handler.
+	 * 
+	 * @return The number of buffered lines.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Discards all lines buffered by this stream handler.<br/>
+	 * The current sequence number is kept.
+	 */
+	public void clear() {
+		Arrays.fill(lines, 0, size, null);
+		size = 0;
+	}
+
+	@Override
+	public void flush() throws IOException {
+	}
+
+	/**
+	 * Closes this handler for writing.<br/>
+	 * The buffered lines can still be written using
+	 * {@link #writeMerged(List, IOutputStreamHandler)}.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+		} else {
+			LogHandler.err_println("Trying to close an already closed SequencedOutputStreamHandler.", true);
+			LogHandler.print_debug_info("stream handler: %s", toString());
+		}
+	}
+
+	/**
+	 * Writes the lines of all the given handlers to the given output, ordered by
+	 * their sequence number.<br/>
+	 * Lines with the same sequence number are written in the order of their
+	 * handlers in the given list.<br/>
+	 * Lines of a single handler are written in the order they were buffered in.
+	 * 
+	 * @param handlers The handlers whose lines to write.
+	 * @param output   The stream handler to write the lines to.
+	 * @return {@code true} if writing all lines succeeded.
+	 * @throws NullPointerException If {@code handlers} or {@code output} is
+	 *                              {@code null}.
+	 */
+	public static boolean writeMerged(final List<SequencedOutputStreamHandler> handlers, IOutputStreamHandler output)
+			throws NullPointerException {
+		Objects.requireNonNull(handlers, "The handlers to write the lines of can't be null.");
+		Objects.requireNonNull(output, "The stream handler to write to can't be null.");
+
+		final int[] positions = new int[handlers.size()];
+		PriorityQueue<Integer> queue = new PriorityQueue<Integer>(Math.max(1, handlers.size()),
+				new Comparator<Integer>() {
+					@Override
+					public int compare(Integer o1, Integer o2) {
+						long s1 = handlers.get(o1).sequences[positions[o1]];
+						long s2 = handlers.get(o2).sequences[positions[o2]];
+						if (s1 != s2) {
+							return s1 < s2 ? -1 : 1;
+						}
+						return o1.compareTo(o2);
+					}
+				});
+
+		for (int i = 0; i < handlers.size(); i++) {
+			if (handlers.get(i).size > 0) {
+				queue.add(i);
+			}
+		}
+
+		boolean success = true;
+		while (!queue.isEmpty()) {
+			int index = queue.poll();
+			SequencedOutputStreamHandler handler = handlers.get(index);
+			byte[] line = handler.lines[positions[index]++];
+			success &= output.println(line, line.length, false);
+			if (positions[index] < handler.size) {
+				queue.add(index);
+			}
+		}
+
+		return success;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(getClass().getSimpleName() + "[lines=%d, sequence=%d, closed=%s]", size, sequence,
+				closed ? "true" : "false");
+	}
+
+}
@@ -101,6 +101,11 @@ public boolean println(String line, boolean temporary) {
 		return println(line);
 	}
 
+	@Override
+	public boolean println(byte[] line, int length, boolean temporary) {
+		return println(new String(line, 0, length, ByteLineBuilder.UTF_8), temporary);
+	}
+
 	@Override
 	public boolean printDay(TurkeyInfo info, String date, Collection<String> zones) {
 		String line = CSVHandler.turkeyToCsvLine(info, date, zones);
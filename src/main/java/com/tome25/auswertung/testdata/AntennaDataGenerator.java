@@ -16,6 +16,7 @@
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.TimeZone;
 
 import com.tome25.auswertung.TurkeyInfo;
 import com.tome25.auswertung.ZoneInfo;
@@ -172,7 +173,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 					lastChange = change;
 				}
 			}
-			Calendar lastChangeCal = new GregorianCalendar();
+			Calendar lastChangeCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 			lastChangeCal.setTimeInMillis(lastChange);
 
 			long downtimeStart = 0;
@@ -187,7 +188,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 							lzc = change;
 						}
 					}
-					Calendar lzcCal = new GregorianCalendar();
+					Calendar lzcCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					lzcCal.setTimeInMillis(lzc);
 
 					downtimeStart = cal.getTimeInMillis() + nextInt(DAY_END, TimeUtils.getMsOfDay(lzcCal));
@@ -371,7 +372,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 							zoneTime = 0;
 						}
 					} else {
-						Calendar changeCal = new GregorianCalendar();
+						Calendar changeCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						changeCal.setTimeInMillis(lastZoneChange.get(turkey));
 						if (endTime.containsKey(turkey) && TimeUtils.isSameDay(endTime.get(turkey), changeCal)) {
 							if (downtime == null || endTime.get(turkey).getTimeInMillis() < downtime.getKey()
@@ -438,7 +439,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 							}
 
 							if (!endTime.containsKey(turkey) || !TimeUtils.isSameDay(cal, endTime.get(turkey))) {
-								Calendar dteCal = new GregorianCalendar();
+								Calendar dteCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 								dteCal.setTimeInMillis(downtime.getValue());
 								zoneTime = DAY_MS - TimeUtils.getMsOfDay(dteCal);
 							}
@@ -464,7 +465,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 					}
 
 					if (lastRecord.get(turkey) == -1 && (day == days - 1 || skipNext)) {
-						Calendar dayCal = new GregorianCalendar();
+						Calendar dayCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						dayCal.setTimeInMillis(lastZoneChange.get(turkey));
 						while (times.get(turkey).containsKey(TimeUtils.encodeDate(dayCal))) {
 							Map<String, Long> zoneTimes = times.get(turkey).get(TimeUtils.encodeDate(dayCal));
@@ -485,7 +486,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 				} else {
 					String zone = currentZone.containsKey(turkey) ? currentZone.get(turkey).getId() : null;
 					if (downtimeStart != 0 && currentZone.containsKey(turkey)) {
-						Calendar endCal = new GregorianCalendar();
+						Calendar endCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						endCal.setTimeInMillis(downtimeStart);
 						if (endTime.containsKey(turkey) && TimeUtils.isSameDay(endTime.get(turkey), cal)
 								&& endTime.get(turkey).before(endCal)) {
@@ -551,7 +552,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 								.getTimeInMillis() < downtime.getKey()
 						&& (!endTime.containsKey(turkey)
 								|| endTime.get(turkey).getTimeInMillis() > downtime.getKey())) {
-					Calendar dtsCal = new GregorianCalendar();
+					Calendar dtsCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					if (downtimeStart != 0 && downtimeStart < downtime.getKey()) {
 						dtsCal.setTimeInMillis(downtimeStart);
 					} else {
@@ -601,7 +602,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 						endCal = TimeUtils.parseDate(date);
 						endCal.add(Calendar.DATE, 1);
 					} else if (args.fillDays && skipNext && downtimesOutput != null && day == days - 1) {
-						endCal = new GregorianCalendar();
+						endCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						endCal.setTimeInMillis(downtimeStart);
 					} else if (downtime != null && endTime.containsKey(turkey)
 							&& endTime.get(turkey).getTimeInMillis() <= downtime.getKey()
@@ -626,7 +627,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 							}
 						}
 
-						endCal = new GregorianCalendar();
+						endCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						endCal.setTimeInMillis(lzc);
 						ZoneStay lastStay = stays.get(turkey).get(stays.get(turkey).size() - 1);
 
@@ -641,7 +642,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 									.add(new ZoneStay(turkey, lastZone.get(turkey), lastStay.getExitCal(), endCal));
 						}
 					} else if (skipNext && downtimesOutput != null && day < days - 1) {
-						endCal = new GregorianCalendar();
+						endCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						endCal.setTimeInMillis(downtimeStart);
 					} else {
 						long lzc = 0;
@@ -651,7 +652,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 							}
 						}
 
-						endCal = new GregorianCalendar();
+						endCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						endCal.setTimeInMillis(Math.max(lzc, lastChange));
 
 						if (downtime != null && lzc < downtime.getKey()) {
@@ -712,7 +713,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 					} else if (args.fillDays && !currentZone.containsKey(turkey) && lastZone.containsKey(turkey)
 							&& lastStay.getZone().equals(lastZone.get(turkey)) && downtime != null && downtimeStart != 0
 							&& downtimeStart < downtime.getKey()) {
-						Calendar dtsCal = new GregorianCalendar();
+						Calendar dtsCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						dtsCal.setTimeInMillis(downtimeStart);
 						if (dtsCal.after(lastStay.getEntryCal())) {
 							lastStay.setExitTime(dtsCal);
@@ -770,7 +771,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 				cal.add(Calendar.DATE, nextInt(6, 2));
 
 				if (downtimesOutput != null) {
-					Calendar dtsCal = new GregorianCalendar();
+					Calendar dtsCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					dtsCal.setTimeInMillis(downtimeStart);
 					Calendar dteCal = (Calendar) cal.clone();
 					int downtimeEnd = nextInt(2 * 3600000 - 1);
@@ -858,6 +859,7 @@ public static TestData generateAntennaData(final List<TurkeyInfo> turkeys, final
 						final Calendar exit = stay.getExitCal();
 						Calendar day = new GregorianCalendar(entry.get(Calendar.YEAR), entry.get(Calendar.MONTH),
 								entry.get(Calendar.DATE));
+						day.setTimeZone(TimeZone.getTimeZone("GMT"));
 						while (day.before(exit)) {
 							tUD.add(TimeUtils.encodeDate(day));
 							day.add(Calendar.DATE, 1);
@@ -1001,7 +1003,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 
 		boolean isNextDay = false;
 		for (long change : lastZoneChange.values()) {
-			Calendar changeCal = new GregorianCalendar();
+			Calendar changeCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 			changeCal.setTimeInMillis(change);
 			if (TimeUtils.isNextDay(changeCal, TimeUtils.parseDate(date))) {
 				isNextDay = true;
@@ -1053,7 +1055,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 			changeTime = ((changeTime + 5) / 10) * 10;// round to 10.
 			changeTime = Math.max(lastTime, changeTime);
 
-			Calendar changeCal = new GregorianCalendar();
+			Calendar changeCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 			changeCal.setTimeInMillis(changeTime);
 
 			if (!args.fillDays && startTime == -1) {
@@ -1117,7 +1119,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 
 					ZoneInfo cZone = currentZone.get(turkeyName);
 					int zoneTime = (int) (turkey.getEndCal().getTimeInMillis() - lastZoneChange.get(turkeyName));
-					Calendar lastChangeCal = new GregorianCalendar();
+					Calendar lastChangeCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					lastChangeCal.setTimeInMillis(lastZoneChange.get(turkeyName));
 
 					if (!zoneTimes.containsKey(turkeyName)) {
@@ -1141,7 +1143,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 
 					if (stays.containsKey(turkeyName) && previousLastRecord.containsKey(turkeyName)) {
 						ZoneStay lastStay = stays.get(turkeyName).get(stays.get(turkeyName).size() - 1);
-						Calendar startCal = new GregorianCalendar();
+						Calendar startCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						startCal.setTimeInMillis(previousLastRecord.get(turkeyName));
 
 						if (isNextDay && lastStay.getLastRecordCal().before(startCal)) {
@@ -1177,7 +1179,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 			}
 
 			if (dt != null && changeTime >= dt.getKey() && lastTime < dt.getKey()) {
-				Calendar dtsCal = new GregorianCalendar();
+				Calendar dtsCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 				dtsCal.setTimeInMillis(dt.getKey());
 				for (TurkeyInfo ti : usedTurkeys) {
 					if (ti.getEndCal() != null && ti.getEndCal().getTimeInMillis() < dt.getKey()) {
@@ -1197,7 +1199,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 							stays.put(ti.getId(), new ArrayList<ZoneStay>());
 						}
 
-						Calendar lastChangeCal = new GregorianCalendar();
+						Calendar lastChangeCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						lastChangeCal.setTimeInMillis(lastZoneChange.get(ti.getId()));
 						if (stays.containsKey(ti.getId())) {
 							if (!stays.get(ti.getId()).isEmpty()) {
@@ -1217,7 +1219,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 
 							if (stays.containsKey(ti.getId()) && previousLastRecord.containsKey(ti.getId())) {
 								ZoneStay lastStay = stays.get(ti.getId()).get(stays.get(ti.getId()).size() - 1);
-								Calendar startCal = new GregorianCalendar();
+								Calendar startCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 								startCal.setTimeInMillis(previousLastRecord.get(ti.getId()));
 
 								if (isNextDay && lastStay.getLastRecordCal().before(startCal)) {
@@ -1265,11 +1267,11 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 				if (lastRecord.containsKey(turkeyName) && lastRecord.get(turkeyName) != -1
 						&& currentZone.containsKey(turkeyName) && lastZoneChange.containsKey(turkeyName)
 						&& !zoneTimes.containsKey(turkeyName)) {
-					Calendar dtsCal = new GregorianCalendar();
+					Calendar dtsCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					dtsCal.setTimeInMillis(dt.getKey());
 					zoneTimes.put(turkeyName, new HashMap<String, Integer>());
 					zoneTimes.get(turkeyName).put(currentZone.get(turkeyName).getId(), TimeUtils.getMsOfDay(dtsCal));
-					Calendar lastCal = new GregorianCalendar();
+					Calendar lastCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					lastCal.setTimeInMillis(lastZoneChange.get(turkeyName));
 					stays.put(turkeyName, new ArrayList<ZoneStay>());
 					stays.get(turkeyName).add(new ZoneStay(turkeyName, currentZone.get(turkeyName), lastCal, dtsCal));
@@ -1288,7 +1290,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 				if (startTime == -1) {
 					startCal = TimeUtils.parseDate(date);
 				} else {
-					startCal = new GregorianCalendar();
+					startCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					startCal.setTimeInMillis(startTime);
 				}
 
@@ -1301,7 +1303,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 				}
 
 				if (dt != null && changeTime > dt.getValue() && dt.getValue() >= startTime) {
-					startCal = new GregorianCalendar();
+					startCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					startCal.setTimeInMillis(dt.getValue());
 				}
 
@@ -1352,7 +1354,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 				if (!currentZone.get(turkeyName).equals(zone)) {
 					zoneTime = (int) (changeTime - lastZoneChange.get(turkeyName));
 
-					Calendar lastChangeCal = new GregorianCalendar();
+					Calendar lastChangeCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					lastChangeCal.setTimeInMillis(lastZoneChange.get(turkeyName));
 
 					if (args.minTime <= 0 || zoneTime >= args.minTime * 1000) {
@@ -1424,7 +1426,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 					currentZone.put(turkeyName, zone);
 					lastZoneChange.put(turkeyName, changeTime);
 				} else if (!stays.containsKey(turkeyName) || stays.get(turkeyName).isEmpty()) {
-					Calendar lastChangeCal = new GregorianCalendar();
+					Calendar lastChangeCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					lastChangeCal.setTimeInMillis(lastZoneChange.get(turkeyName));
 					stays.put(turkeyName,
 							new ArrayList<ZoneStay>(Arrays.asList(new ZoneStay(turkeyName, zone, lastChangeCal))));
@@ -1432,7 +1434,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 
 				if (stays.containsKey(turkeyName) && previousLastRecord.containsKey(turkeyName)) {
 					ZoneStay lastStay = stays.get(turkeyName).get(stays.get(turkeyName).size() - 1);
-					Calendar startCal = new GregorianCalendar();
+					Calendar startCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					startCal.setTimeInMillis(previousLastRecord.get(turkeyName));
 
 					if (isNextDay && lastStay.getLastRecordCal().before(startCal)) {
@@ -1442,7 +1444,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 
 				if (stays.containsKey(turkeyName) && currentZone.containsKey(turkeyName) && stays.get(turkeyName)
 						.get(stays.get(turkeyName).size() - 1).getZone().equals(currentZone.get(turkeyName))) {
-					Calendar lastCal = new GregorianCalendar();
+					Calendar lastCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					lastCal.setTimeInMillis(changeTime);
 					ZoneStay lastStay = stays.get(turkeyName).get(stays.get(turkeyName).size() - 1);
 					lastStay.setLastRecord(lastCal);
@@ -1461,7 +1463,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 			if (stays.containsKey(turkeyName) && currentZone.containsKey(turkeyName)
 					&& lastRecord.containsKey(turkeyName) && lastRecord.get(turkeyName) != -1 && stays.get(turkeyName)
 							.get(stays.get(turkeyName).size() - 1).getZone().equals(currentZone.get(turkeyName))) {
-				Calendar lastCal = new GregorianCalendar();
+				Calendar lastCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 				lastCal.setTimeInMillis(lastRecord.get(turkeyName));
 				ZoneStay lastStay = stays.get(turkeyName).get(stays.get(turkeyName).size() - 1);
 				if (!lastCal.after(lastStay.getExitCal())) {
@@ -1488,13 +1490,13 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 						&& TimeUtils.isSameDay(TimeUtils.parseDate(date), endTime.get(turkey))) {
 					endCal = endTime.get(turkey);
 					if (dt != null && dt.getKey() < endCal.getTimeInMillis()) {
-						endCal = new GregorianCalendar();
+						endCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 						endCal.setTimeInMillis(dt.getKey());
 					}
 					lastZone.put(turkey, zone);
 					currentZone.remove(turkey);
 				} else {
-					endCal = new GregorianCalendar();
+					endCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					endCal.setTimeInMillis(dt.getKey());
 					lastZone.put(turkey, zone);
 					currentZone.remove(turkey);
@@ -1518,7 +1520,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 				}
 			}
 		} else if (!complete) {
-			Calendar startCal = new GregorianCalendar();
+			Calendar startCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 			startCal.setTimeInMillis(startTime);
 
 			for (String turkey : ignoredTurkeys) {
@@ -1530,7 +1532,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 					continue;
 				}
 
-				Calendar lastCal = new GregorianCalendar();
+				Calendar lastCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 				lastCal.setTimeInMillis(lastTime);
 				if (endTime.containsKey(turkey) && endTime.get(turkey).before(lastCal)) {
 					lastCal = endTime.get(turkey);
@@ -1539,7 +1541,7 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 				if (currentZone.containsKey(turkey) && lastZoneChange.containsKey(turkey)) {
 					zoneTimes.put(turkey, new HashMap<String, Integer>());
 					zoneChanges.put(turkey, 0);
-					Calendar entryCal = new GregorianCalendar();
+					Calendar entryCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 					entryCal.setTimeInMillis(lastZoneChange.get(turkey));
 					if (TimeUtils.isSameDay(startCal, entryCal)) {
 						if (dt == null) {
@@ -1549,9 +1551,9 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 									Arrays.asList(new ZoneStay(turkey, currentZone.get(turkey), startCal, lastCal))));
 							lastZoneChange.put(turkey, lastTime);
 						} else {
-							Calendar dtsCal = new GregorianCalendar();
+							Calendar dtsCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 							dtsCal.setTimeInMillis(dt.getKey());
-							Calendar dteCal = new GregorianCalendar();
+							Calendar dteCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 							dteCal.setTimeInMillis(dt.getValue());
 
 							stays.put(turkey, new ArrayList<ZoneStay>());
@@ -1590,9 +1592,9 @@ public static Pair<Pair<Map<String, Map<String, Integer>>, Map<String, Integer>>
 									Arrays.asList(new ZoneStay(turkey, currentZone.get(turkey), entryCal, lastCal))));
 							lastZoneChange.put(turkey, lastTime);
 						} else {
-							Calendar dtsCal = new GregorianCalendar();
+							Calendar dtsCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 							dtsCal.setTimeInMillis(dt.getKey());
-							Calendar dteCal = new GregorianCalendar();
+							Calendar dteCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 							dteCal.setTimeInMillis(dt.getValue());
 
 							stays.put(turkey, new ArrayList<ZoneStay>());
@@ -0,0 +1,279 @@
+package com.tome25.auswertung.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded queue passing batches of items from a single producer thread to a
+ * single consumer thread.<br/>
+ * Items are collected into fixed size batches, which are passed through a
+ * bounded ring buffer.<br/>
+ * The producer blocks while the buffer is full, the consumer blocks while it
+ * is empty.<br/>
+ * {@code null} items are allowed.
+ * 
+ * @author Theodor Meyer zu Hörste
+ * 
+ * @param <T> The type of items passed through this queue.
+ */
+public final class BatchQueue<T> {
+
+	/**
+	 * The batch marking the end of the items.
+	 */
+	private static final Object[] END = new Object[0];
+
+	/**
+	 * The buffer holding the batches that were not yet consumed.
+	 */
+	private final ArrayBlockingQueue<Object[]> buffer;
+
+	/**
+	 * The maximum number of batches in {@link #buffer}.
+	 */
+	private final int capacity;
+
+	/**
+	 * The number of items per batch.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The batch the producer is currently filling.
+	 */
+	private Object[] writeBatch;
+
+	/**
+	 * The number of items in {@link #writeBatch}.
+	 */
+	private int writeSize = 0;
+
+	/**
+	 * The batch the consumer is currently reading.
+	 */
+	private Object[] readBatch;
+
+	/**
+	 * The index of the next item to read from {@link #readBatch}.
+	 */
+	private int readIndex = 0;
+
+	/**
+	 * The number of batches the consumer has taken from this queue.
+	 */
+	private long batches = 0;
+
+	/**
+	 * The largest number of batches that were in the buffer at once.
+	 */
+	private volatile int maxDepth = 0;
+
+	/**
+	 * The exception that stopped the producer. {@code null} if there was none.
+	 */
+	private volatile Throwable error;
+
+	/**
+	 * Whether the consumer closed this queue.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new batch queue.
+	 * 
+	 * @param capacity  The maximum number of batches waiting to be consumed.
+	 * @param batchSize The number of items per batch.
+	 * @throws IllegalArgumentException If {@code capacity} or {@code batchSize} is
+	 *                                  less than 1.
+	 */
+	public BatchQueue(int capacity, int batchSize) throws IllegalArgumentException {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The queue capacity has to be at least 1.");
+		}
+
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("The batch size has to be at least 1.");
+		}
+
+		buffer = new ArrayBlockingQueue<Object[]>(capacity);
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		writeBatch = new Object[batchSize];
+	}
+
+	/**
+	 * Adds an item to this queue.<br/>
+	 * Blocks if the batch of the item is full, and the buffer is full too.<br/>
+	 * Must only be called by the producer thread.
+	 * 
+	 * @param item The item to add.
+	 * @return {@code false} if the consumer closed this queue, and the producer
+	 *         should stop.
+	 * @throws InterruptedException If the producer thread is interrupted while
+	 *                              waiting.
+	 */
+	public boolean put(T item) throws InterruptedException {
+		if (closed) {
+			return false;
+		}
+
+		writeBatch[writeSize++] = item;
+		if (writeSize == batchSize) {
+			flush();
+		}
+		return !closed;
+	}
+
+	/**
+	 * Makes the items added so far available to the consumer, even if their batch
+	 * isn't full yet.<br/>
+	 * Must only be called by the producer thread.
+	 * 
+	 * @throws InterruptedException If the producer thread is interrupted while
+	 *                              waiting.
+	 */
+	public void flush() throws InterruptedException {
+		if (writeSize == 0 || closed) {
+			return;
+		}
+
+		Object[] batch = writeSize == batchSize ? writeBatch : Arrays.copyOf(writeBatch, writeSize);
+		buffer.put(batch);
+		int depth = buffer.size();
+		if (depth > maxDepth) {
+			maxDepth = depth;
+		}
+
+		writeBatch = new Object[batchSize];
+		writeSize = 0;
+	}
+
+	/**
+	 * Marks the end of the items of this queue.<br/>
+	 * Must be called exactly once by the producer thread, after adding the last
+	 * item.
+	 * 
+	 * @param error The exception that stopped the producer. {@code null} if it
+	 *              finished normally.
+	 * @throws InterruptedException If the producer thread is interrupted while
+	 *                              waiting.
+	 */
+	public void finish(Throwable error) throws InterruptedException {
+		flush();
+		this.error = error;
+		if (!closed) {
+			buffer.put(END);
+		}
+	}
+
+	/**
+	 * Checks whether there is another item to consume.<br/>
+	 * Blocks until the next batch is available, or the producer finished.<br/>
+	 * Must only be called by the consumer thread.
+	 * 
+	 * @return {@code true} if there is another item.
+	 * @throws InterruptedException If the consumer thread is interrupted while
+	 *                              waiting.
+	 */
+	public boolean hasNext() throws InterruptedException {
+		while (readBatch == null || readIndex >= readBatch.length) {
+			if (readBatch == END) {
+				return false;
+			}
+
+			readBatch = buffer.take();
+			readIndex = 0;
+			if (readBatch != END) {
+				batches++;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the next item of this queue.<br/>
+	 * Must only be called by the consumer thread, after {@link #hasNext()}
+	 * returned {@code true}.
+	 * 
+	 * @return The next item.
+	 * @throws IllegalStateException If there is no next item.
+	 */
+	@SuppressWarnings("unchecked")
+	public T next() throws IllegalStateException {
+		if (readBatch == null || readIndex >= readBatch.length) {
+			throw new IllegalStateException("There is no next item in this batch queue.");
+		}
+
+		return (T) readBatch[readIndex++];
+	}
+
+	/**
+	 * Gets the exception that stopped the producer.<br/>
+	 * Only valid after {@link #hasNext()} returned {@code false}.
+	 * 
+	 * @return The exception that stopped the producer. {@code null} if there was
+	 *         none.
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Closes this queue from the consumer side.<br/>
+	 * Drops all batches not yet consumed, and makes the producer stop adding
+	 * items.<br/>
+	 * A producer blocked because the buffer is full is woken up.
+	 */
+	public void close() {
+		closed = true;
+		buffer.clear();
+		readBatch = END;
+	}
+
+	/**
+	 * Gets the number of batches currently waiting to be consumed.
+	 * 
+	 * @return The current depth of this queue.
+	 */
+	public int getDepth() {
+		int depth = buffer.size();
+		return buffer.contains(END) ? depth - 1 : depth;
+	}
+
+	/**
+	 * Gets the largest number of batches that were waiting to be consumed at
+	 * once.
+	 * 
+	 * @return The maximum depth of this queue.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Gets the maximum number of batches waiting to be consumed.
+	 * 
+	 * @return The capacity of this queue.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the number of batches the consumer has taken from this queue.<br/>
+	 * Must only be called by the consumer thread.
+	 * 
+	 * @return The number of consumed batches.
+	 */
+	public long getBatches() {
+		return batches;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(getClass().getSimpleName() + "[depth=%d, max depth=%d, capacity=%d, batch size=%d]",
+				getDepth(), maxDepth, capacity, batchSize);
+	}
+
+}
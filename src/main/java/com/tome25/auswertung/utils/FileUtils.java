@@ -7,15 +7,23 @@
 import java.io.IOException;
 import java.net.URL;
 import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Stack;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.regex.Pattern;
 
 import com.tome25.auswertung.args.Arguments;
 import com.tome25.auswertung.log.LogHandler;
@@ -27,6 +35,24 @@
  */
 public class FileUtils {
 
+	/**
+	 * A pattern matching the characters that make a file name a glob pattern.
+	 */
+	private static final Pattern GLOB_CHARS = Pattern.compile("[*?\\[{]");
+
+	/**
+	 * The extension of the record archives written next to antenna data files.
+	 */
+	public static final String RECORD_ARCHIVE_EXTENSION = ".rec";
+
+	/**
+	 * The file extensions of the antenna data files read from an input
+	 * directory.<br/>
+	 * Compressed csv files like "AntennenDaten.csv.gz" are covered by their
+	 * compression extension.
+	 */
+	private static final String[] INPUT_EXTENSIONS = { ".csv", ".gz", ".gzip", ".zip" };
+
 	/**
 	 * Extracts the given resource into the given directory.<br/>
 	 * Can extract either a single file, or a directory including all its contents.
@@ -565,6 +591,114 @@ public static File getOutputFile(File defaultFile, Arguments args) throws IOExce
 		return file;
 	}
 
+	/**
+	 * Adds the given suffix to the name of the given file, before its
+	 * extensions.<br/>
+	 * For example adding "_min60" to "ZonenTotals.csv.gz" results in
+	 * "ZonenTotals_min60.csv.gz".
+	 * 
+	 * @param file   The file to add the suffix to.
+	 * @param suffix The suffix to add.
+	 * @return The file with the suffix added to its name.
+	 * @throws NullPointerException If {@code file} or {@code suffix} is
+	 *                              {@code null}.
+	 */
+	public static File addSuffix(File file, String suffix) throws NullPointerException {
+		Objects.requireNonNull(file, "The file to add a suffix to can't be null.");
+		Objects.requireNonNull(suffix, "The suffix to add can't be null.");
+
+		String name = file.getName();
+		int extension = name.indexOf('.', 1);
+		if (extension < 0) {
+			extension = name.length();
+		}
+
+		return new File(file.getParentFile(), name.substring(0, extension) + suffix + name.substring(extension));
+	}
+
+	/**
+	 * Gets the input files matching the given path.<br/>
+	 * If the path is a directory, all csv, gzip and zip files directly inside it
+	 * are returned.<br/>
+	 * If the file name of the path contains a glob pattern, like
+	 * "AntennenDaten*.csv", all files in its parent directory matching it are
+	 * returned.<br/>
+	 * Record archives, ending with {@link #RECORD_ARCHIVE_EXTENSION}, are
+	 * never returned for a directory or a glob pattern.<br/>
+	 * Otherwise the path itself is returned, if it is an existing file.<br/>
+	 * Multiple files are sorted by their name.
+	 * 
+	 * @param path The path to get the input files for.
+	 * @return The matching files. Empty if there are none.
+	 * @throws NullPointerException If {@code path} is {@code null}.
+	 * @throws IOException          If listing the directory contents fails.
+	 */
+	public static List<File> listInputFiles(String path) throws NullPointerException, IOException {
+		Objects.requireNonNull(path, "The path to get the input files for can't be null.");
+
+		File file = new File(path);
+		File dir = null;
+		PathMatcher matcher = null;
+		if (file.isDirectory()) {
+			dir = file;
+		} else if (GLOB_CHARS.matcher(file.getName()).find()) {
+			dir = file.getAbsoluteFile().getParentFile();
+			try {
+				matcher = FileSystems.getDefault().getPathMatcher("glob:" + file.getName());
+			} catch (IllegalArgumentException e) {
+				LogHandler.err_println("Invalid file name pattern \"" + file.getName() + "\".");
+				LogHandler.print_exception(e, "parse glob pattern", "Path: %s", path);
+				return new ArrayList<File>();
+			}
+		}
+
+		List<File> files = new ArrayList<File>();
+		if (dir == null) {
+			if (file.isFile()) {
+				files.add(file);
+			}
+			return files;
+		}
+
+		if (!dir.isDirectory()) {
+			return files;
+		}
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir.toPath())) {
+			for (Path child : stream) {
+				if (!Files.isRegularFile(child)) {
+					continue;
+				}
+
+				String name = child.getFileName().toString().toLowerCase(Locale.ROOT);
+				if (name.endsWith(RECORD_ARCHIVE_EXTENSION)) {
+					continue;
+				} else if (matcher != null ? matcher.matches(child.getFileName()) : hasInputExtension(name)) {
+					files.add(child.toFile());
+				}
+			}
+		}
+
+		Collections.sort(files);
+		return files;
+	}
+
+	/**
+	 * Checks whether the given lower case file name ends with one of the
+	 * {@link #INPUT_EXTENSIONS}.
+	 * 
+	 * @param name The lower case file name to check.
+	 * @return {@code true} if the name has an antenna data file extension.
+	 */
+	private static boolean hasInputExtension(String name) {
+		for (String extension : INPUT_EXTENSIONS) {
+			if (name.endsWith(extension)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Creates the given file and all missing parent directories.
 	 * 
@@ -0,0 +1,246 @@
+package com.tome25.auswertung.utils;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A table interning string ids to dense int handles.<br/>
+ * The first id added to the table gets the handle 0, the second one the handle
+ * 1, and so on.<br/>
+ * Ids can be looked up directly from a part of a larger string, like a token of
+ * an input line, without creating a new string for them.<br/>
+ * A new string is only created the first time an id is added.<br/>
+ * <br/>
+ * <b>WARNING:</b> This class is NOT thread safe.<br/>
+ * It may be passed between threads, as long as only one thread uses it at a
+ * time.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public final class SymbolTable {
+
+	/**
+	 * The handle returned for ids that are not in the table.
+	 */
+	public static final int NO_SYMBOL = -1;
+
+	/**
+	 * The initial number of slots of the hash table.<br/>
+	 * Has to be a power of two.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * The ids in this table, indexed by their handle.
+	 */
+	private String[] symbols;
+
+	/**
+	 * The hash codes of the ids in this table, indexed by their handle.
+	 */
+	private int[] hashes;
+
+	/**
+	 * The open addressing hash table.<br/>
+	 * Contains the handle of an id plus one, or 0 for empty slots.
+	 */
+	private int[] slots;
+
+	/**
+	 * The number of ids in this table.
+	 */
+	private int size = 0;
+
+	/**
+	 * Creates a new empty symbol table.
+	 */
+	public SymbolTable() {
+		symbols = new String[INITIAL_CAPACITY / 2];
+		hashes = new int[INITIAL_CAPACITY / 2];
+		slots = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Gets the handle of the given id, adding it to this table if it isn't in it
+	 * yet.
+	 * 
+	 * @param id The id to intern.
+	 * @return The handle of the id.
+	 * @throws NullPointerException If {@code id} is {@code null}.
+	 */
+	public int intern(String id) throws NullPointerException {
+		Objects.requireNonNull(id, "The id to intern can't be null.");
+		return intern(id, 0, id.length());
+	}
+
+	/**
+	 * Gets the handle of the id in the given part of {@code str}, adding it to
+	 * this table if it isn't in it yet.<br/>
+	 * Only creates a new string if the id is added.
+	 * 
+	 * @param str   The string containing the id.
+	 * @param start The index of the first char of the id.
+	 * @param end   The index after the last char of the id.
+	 * @return The handle of the id.
+	 * @throws NullPointerException      If {@code str} is {@code null}.
+	 * @throws IndexOutOfBoundsException If {@code start} or {@code end} are not
+	 *                                   valid indices in {@code str}.
+	 */
+	public int intern(String str, int start, int end) throws NullPointerException, IndexOutOfBoundsException {
+		int hash = hash(str, start, end);
+		int slot = find(str, start, end, hash);
+		if (slots[slot] != 0) {
+			return slots[slot] - 1;
+		}
+
+		if (size == symbols.length) {
+			symbols = Arrays.copyOf(symbols, size * 2);
+			hashes = Arrays.copyOf(hashes, size * 2);
+		}
+
+		symbols[size] = start == 0 && end == str.length() ? str : str.substring(start, end);
+		hashes[size] = hash;
+		slots[slot] = ++size;
+
+		if (size * 2 > slots.length) {
+			rehash();
+		}
+
+		return size - 1;
+	}
+
+	/**
+	 * Gets the handle of the given id.
+	 * 
+	 * @param id The id to look up.
+	 * @return The handle of the id, or {@link #NO_SYMBOL} if it isn't in this
+	 *         table.
+	 * @throws NullPointerException If {@code id} is {@code null}.
+	 */
+	public int get(String id) throws NullPointerException {
+		Objects.requireNonNull(id, "The id to look up can't be null.");
+		return get(id, 0, id.length());
+	}
+
+	/**
+	 * Gets the handle of the id in the given part of {@code str}.<br/>
+	 * Never creates a new string.
+	 * 
+	 * @param str   The string containing the id.
+	 * @param start The index of the first char of the id.
+	 * @param end   The index after the last char of the id.
+	 * @return The handle of the id, or {@link #NO_SYMBOL} if it isn't in this
+	 *         table.
+	 * @throws NullPointerException      If {@code str} is {@code null}.
+	 * @throws IndexOutOfBoundsException If {@code start} or {@code end} are not
+	 *                                   valid indices in {@code str}.
+	 */
+	public int get(String str, int start, int end) throws NullPointerException, IndexOutOfBoundsException {
+		return slots[find(str, start, end, hash(str, start, end))] - 1;
+	}
+
+	/**
+	 * Gets the id with the given handle.
+	 * 
+	 * @param handle The handle of the id.
+	 * @return The id with the given handle.
+	 * @throws IndexOutOfBoundsException If there is no id with the given handle.
+	 */
+	public String getSymbol(int handle) throws IndexOutOfBoundsException {
+		if (handle < 0 || handle >= size) {
+			throw new IndexOutOfBoundsException("There is no id with the handle " + handle + ".");
+		}
+
+		return symbols[handle];
+	}
+
+	/**
+	 * Gets the number of ids in this table.<br/>
+	 * All handles are less than this.
+	 * 
+	 * @return The number of ids.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the slot of the given id in {@link #slots}.
+	 * 
+	 * @param str   The string containing the id.
+	 * @param start The index of the first char of the id.
+	 * @param end   The index after the last char of the id.
+	 * @param hash  The hash code of the id.
+	 * @return The slot containing the id, or the empty slot it should be added to.
+	 */
+	private int find(String str, int start, int end, int hash) {
+		int mask = slots.length - 1;
+		int slot = mix(hash) & mask;
+		while (slots[slot] != 0) {
+			int handle = slots[slot] - 1;
+			if (hashes[handle] == hash && symbols[handle].length() == end - start
+					&& str.regionMatches(start, symbols[handle], 0, end - start)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Doubles the size of {@link #slots}, and reinserts all handles.
+	 */
+	private void rehash() {
+		slots = new int[slots.length * 2];
+		int mask = slots.length - 1;
+		for (int handle = 0; handle < size; handle++) {
+			int slot = mix(hashes[handle]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = handle + 1;
+		}
+	}
+
+	/**
+	 * Calculates the hash code of the given part of a string.<br/>
+	 * Uses the same algorithm as {@link String#hashCode()}.
+	 * 
+	 * @param str   The string containing the id.
+	 * @param start The index of the first char of the id.
+	 * @param end   The index after the last char of the id.
+	 * @return The hash code of the id.
+	 * @throws IndexOutOfBoundsException If {@code start} or {@code end} are not
+	 *                                   valid indices in {@code str}.
+	 */
+	private static int hash(String str, int start, int end) throws IndexOutOfBoundsException {
+		if (start < 0 || end > str.length() || start > end) {
+			throw new IndexOutOfBoundsException(
+					"Invalid id range " + start + " to " + end + " in a string of length " + str.length() + ".");
+		}
+
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + str.charAt(i);
+		}
+		return hash;
+	}
+
+	/**
+	 * Spreads the bits of the given hash code, so that similar ids don't end up in
+	 * neighboring slots.
+	 * 
+	 * @param hash The hash code to mix.
+	 * @return The mixed hash code.
+	 */
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(getClass().getSimpleName() + "[size=%d, slots=%d]", size, slots.length);
+	}
+
+}
@@ -24,6 +24,39 @@ public class TimeUtils {
 	 */
 	public static final short YEAR_MIN_DIGITS = 4;
 
+	/**
+	 * The value used to represent a timestamp that is not set.<br/>
+	 * Used instead of {@code null} by fields and arguments storing timestamps as
+	 * {@code long}.
+	 */
+	public static final long NO_TIME = Long.MIN_VALUE;
+
+	/**
+	 * The day index of the 15th of October 1582, the first day of the gregorian
+	 * calendar.<br/>
+	 * Dates before this are encoded using the julian calendar by
+	 * {@link GregorianCalendar}.
+	 */
+	private static final int GREGORIAN_CUTOVER_DAY = -141427;
+
+	/**
+	 * The year in which the gregorian calendar was introduced.<br/>
+	 * Dates in or before this year are parsed using a {@link GregorianCalendar}.
+	 */
+	private static final int GREGORIAN_CUTOVER_YEAR = 1582;
+
+	/**
+	 * The maximum number of digits a date component can have to be parsed without
+	 * a {@link Calendar}.
+	 */
+	private static final int MAX_FAST_DATE_DIGITS = 5;
+
+	/**
+	 * The maximum number of digits a time component can have to be parsed without
+	 * splitting the time string.
+	 */
+	private static final int MAX_FAST_TIME_DIGITS = 9;
+
 	/**
 	 * The character to be used to separate the integer part from the fractional
 	 * part of a decimal.
@@ -48,7 +81,12 @@ public class TimeUtils {
 	public static long parseTime(String time) throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(time, "The time to parse cannot be null.");
 
-		long result = 0;
+		long result = parseTimeDigits(time);
+		if (result >= 0) {
+			return result;
+		}
+
+		result = 0;
 		String split[] = time.split(":");
 
 		if (split.length != 3) {
@@ -80,6 +118,160 @@ public static long parseTime(String time) throws NullPointerException, IllegalAr
 		return result;
 	}
 
+	/**
+	 * Parses a time string of the format "HH:MM:SS.2" without splitting it or
+	 * creating any objects.<br/>
+	 * Only handles times consisting only of digits and separators, everything
+	 * else is left to {@link #parseTime(String)}, which produces the matching
+	 * error messages.
+	 * 
+	 * @param time The time string to parse.
+	 * @return The parsed time of day in milliseconds.<br/>
+	 *         -1 if the time has to be parsed by splitting it.
+	 */
+	private static long parseTimeDigits(String time) {
+		final int length = time.length();
+		int index = 0;
+		long result = 0;
+		for (int component = 0; component < 3; component++) {
+			int start = index;
+			long value = 0;
+			while (index < length && time.charAt(index) >= '0' && time.charAt(index) <= '9') {
+				value = value * 10 + time.charAt(index++) - '0';
+			}
+
+			if (index == start || index - start > MAX_FAST_TIME_DIGITS) {
+				return -1;
+			}
+
+			if (component == 0) {
+				result += value * 3600000l; // milliseconds per hour
+			} else if (component == 1) {
+				result += value * 60000l; // milliseconds per minute
+			} else {
+				result += value * 1000l;
+			}
+
+			if (component < 2) {
+				if (index >= length || time.charAt(index) != ':') {
+					return -1;
+				}
+				index++;
+			}
+		}
+
+		if (index == length) {
+			return result;
+		} else if (time.charAt(index) != '.' && time.charAt(index) != ',') {
+			return -1;
+		}
+
+		int hundredths = 0;
+		int digits = length - ++index;
+		if (digits > 2) {
+			return -1;
+		}
+
+		for (int i = index; i < length; i++) {
+			char c = time.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			hundredths = hundredths * 10 + c - '0';
+		}
+
+		if (digits == 1) {
+			hundredths *= 10; // seconds with one decimal digit have tenths, not hundredths.
+		}
+
+		return result + hundredths * 10;
+	}
+
+	/**
+	 * Parses the given date string to the index of the day it represents.<br/>
+	 * Day 0 is the first of January 1970, days before that are negative.<br/>
+	 * Dates consisting only of digits and dots are parsed without creating any
+	 * objects, everything else is parsed using a {@link Calendar}.
+	 * 
+	 * @param date The date to parse. Format "DD.MM.YYYY".
+	 * @return The number of days since the epoch.
+	 * @throws NullPointerException     If {@code date} is {@code null}.
+	 * @throws IllegalArgumentException If {@code date} does not match the format
+	 *                                  "DD.MM.YYYY".
+	 * @see #getDay(long)
+	 */
+	public static int parseDay(String date) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(date, "The date to parse can't be null.");
+
+		final int length = date.length();
+		int index = 0;
+		int dayOfMonth = 0;
+		int month = 0;
+		int year = 0;
+		for (int component = 0; component < 3; component++) {
+			int start = index;
+			int value = 0;
+			while (index < length && date.charAt(index) >= '0' && date.charAt(index) <= '9') {
+				value = value * 10 + date.charAt(index++) - '0';
+			}
+
+			if (index == start || index - start > MAX_FAST_DATE_DIGITS) {
+				return getDay(parseTime(date, 0).getTimeInMillis());
+			}
+
+			if (component == 0) {
+				dayOfMonth = value;
+			} else if (component == 1) {
+				month = value;
+			} else {
+				year = value;
+			}
+
+			if (component < 2) {
+				if (index >= length || date.charAt(index) != '.') {
+					return getDay(parseTime(date, 0).getTimeInMillis());
+				}
+				index++;
+			}
+		}
+
+		// Zero days and months are handled leniently by the calendar.
+		if (index != length || year <= GREGORIAN_CUTOVER_YEAR || month < 1 || dayOfMonth < 1) {
+			return getDay(parseTime(date, 0).getTimeInMillis());
+		}
+
+		if (month > 12) {
+			throw new IllegalArgumentException("The month of date \"" + date + "\" is too large.");
+		} else if (dayOfMonth > getDaysInMonth(year, month)) {
+			throw new IllegalArgumentException("The day of date \"" + date + "\" is too large.");
+		}
+
+		// Uses years starting on the first of march, to put leap days at the end.
+		int shiftedYear = month <= 2 ? year - 1 : year;
+		int era = shiftedYear / 400; // There are 146097 days in 400 years.
+		int yearOfEra = shiftedYear - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468; // The number of days from 01.03.0000 to 01.01.1970.
+	}
+
+	/**
+	 * Gets the number of days in the given month of the gregorian calendar.
+	 * 
+	 * @param year  The year of the month.
+	 * @param month The month to check. 1 for january, 12 for december.
+	 * @return The number of days in the month.
+	 */
+	private static int getDaysInMonth(int year, int month) {
+		if (month == 2) {
+			return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+		} else if (month == 4 || month == 6 || month == 9 || month == 11) {
+			return 30;
+		} else {
+			return 31;
+		}
+	}
+
 	/**
 	 * Parses the given date string and converts it to a {@link Calendar}
 	 * representing the encoded time.
@@ -109,10 +301,6 @@ public static Calendar parseDate(String date) throws NullPointerException, Illeg
 	public static Calendar parseTime(String date, int time) throws NullPointerException, IllegalArgumentException {
 		Objects.requireNonNull(date, "The date to parse can't be null.");
 
-		// Prevents a whole bunch of issues.
-		// Placing this here calls it way too often, but makes unit tests easier.
-		TimeZone.setDefault(TimeZone.getTimeZone("GMT"));
-
 		if (time < 0) {
 			throw new IllegalArgumentException("Time of day can't be negative.");
 		}
@@ -176,6 +364,159 @@ public static Calendar parseTime(String date, String time) throws NullPointerExc
 		return parseTime(date, (int) ms);
 	}
 
+	/**
+	 * Parses the given date string and time of day in milliseconds to a timestamp
+	 * in milliseconds since the epoch.
+	 * 
+	 * @param date The date of the timestamp. Format "DD.MM.YYYY".
+	 * @param time The time of day in milliseconds.
+	 * @return The timestamp representing the given date and time.
+	 * @throws NullPointerException     If {@code date} is {@code null}.
+	 * @throws IllegalArgumentException If {@code date} does not match the format
+	 *                                  "DD.MM.YYYY".<br/>
+	 *                                  Or if {@code time} is negative.
+	 */
+	public static long parseTimestamp(String date, int time) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(date, "The date to parse can't be null.");
+
+		if (time < 0) {
+			throw new IllegalArgumentException("Time of day can't be negative.");
+		}
+
+		return (long) parseDay(date) * DAY_MS + time;
+	}
+
+	/**
+	 * Parses the given date string and time string to a timestamp in milliseconds
+	 * since the epoch.
+	 * 
+	 * @param date The date of the timestamp. Format "DD.MM.YYYY".
+	 * @param time The time of day of the timestamp. Format "HH:MM:SS.2".<br/>
+	 *             Cannot be more than 24 hours.
+	 * @return The timestamp representing the given date and time.
+	 * @throws NullPointerException     If {@code date} or {@code time} is
+	 *                                  {@code null}.
+	 * @throws IllegalArgumentException If one of the strings doesn't match the
+	 *                                  required format.<br/>
+	 *                                  Or time is more than 24 hours.
+	 */
+	public static long parseTimestamp(String date, String time) throws NullPointerException, IllegalArgumentException {
+		long ms = parseTime(time);
+		if (ms > DAY_MS) {
+			throw new IllegalArgumentException("The time of day to parse has to be less than a full day.");
+		}
+		return parseTimestamp(date, (int) ms);
+	}
+
+	/**
+	 * Creates a {@link Calendar} representing the given timestamp.<br/>
+	 * Only intended for code that still requires {@link Calendar} objects, the
+	 * data analysis itself uses timestamps.
+	 * 
+	 * @param time The timestamp in milliseconds since the epoch.
+	 * @return A new {@link Calendar} representing the given time.
+	 */
+	public static Calendar toCalendar(long time) {
+		Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
+		cal.setTimeInMillis(time);
+		return cal;
+	}
+
+	/**
+	 * Gets the timestamp represented by the given {@link Calendar}.
+	 * 
+	 * @param cal The {@link Calendar} to convert. Can be {@code null}.
+	 * @return The time of the {@link Calendar} in milliseconds since the
+	 *         epoch.<br/>
+	 *         {@link #NO_TIME} if {@code cal} is {@code null}.
+	 */
+	public static long toTimestamp(Calendar cal) {
+		return cal == null ? NO_TIME : cal.getTimeInMillis();
+	}
+
+	/**
+	 * Creates a {@link Calendar} representing the given timestamp, or
+	 * {@code null} if the timestamp is {@link #NO_TIME}.
+	 * 
+	 * @param time The timestamp in milliseconds since the epoch.
+	 * @return A new {@link Calendar} representing the given time, or {@code null}.
+	 */
+	public static Calendar toNullableCalendar(long time) {
+		return time == NO_TIME ? null : toCalendar(time);
+	}
+
+	/**
+	 * Gets the index of the day of the given timestamp.<br/>
+	 * Day 0 is the first of January 1970, days before that are negative.
+	 * 
+	 * @param time The timestamp in milliseconds since the epoch.
+	 * @return The number of days since the epoch.
+	 */
+	public static int getDay(long time) {
+		long day = time / DAY_MS;
+		if (time % DAY_MS < 0) {
+			day--;
+		}
+		return (int) day;
+	}
+
+	/**
+	 * Gets the timestamp of midnight at the start of the day of the given
+	 * timestamp.
+	 * 
+	 * @param time The timestamp in milliseconds since the epoch.
+	 * @return The start of the day of the given time.
+	 */
+	public static long getDayStart(long time) {
+		return (long) getDay(time) * DAY_MS;
+	}
+
+	/**
+	 * Gets the timestamp of the last millisecond of the day of the given
+	 * timestamp.<br/>
+	 * That is 23:59:59.999 on the same day.
+	 * 
+	 * @param time The timestamp in milliseconds since the epoch.
+	 * @return The end of the day of the given time.
+	 */
+	public static long getDayEnd(long time) {
+		return getDayStart(time) + DAY_MS - 1;
+	}
+
+	/**
+	 * Gets the number of milliseconds that already passed on the day of the given
+	 * timestamp.
+	 * 
+	 * @param time The timestamp in milliseconds since the epoch.
+	 * @return The time of day in milliseconds.
+	 */
+	public static int getMsOfDay(long time) {
+		return (int) (time - getDayStart(time));
+	}
+
+	/**
+	 * Checks whether the two timestamps are on the same day.
+	 * 
+	 * @param first  A timestamp to compare to {@code second}.
+	 * @param second A timestamp to compare to {@code first}.
+	 * @return {@code true} if the two timestamps are on the same day.
+	 */
+	public static boolean isSameDay(long first, long second) {
+		return getDay(first) == getDay(second);
+	}
+
+	/**
+	 * Checks whether {@code second} is on the day after the day of {@code first}.
+	 * 
+	 * @param first  The first timestamp to compare.
+	 * @param second The second timestamp to compare.
+	 * @return {@code true} if the day of {@code second} is the next day after
+	 *         {@code first}.
+	 */
+	public static boolean isNextDay(long first, long second) {
+		return getDay(second) == getDay(first) + 1;
+	}
+
 	/**
 	 * Returns the string representation of the given time in milliseconds.<br/>
 	 * The format is "HH:MM:SS.2".
@@ -230,12 +571,78 @@ public static String encodeTime(long time) throws IllegalArgumentException {
 	 * 
 	 * @param time The time to encode.
 	 * @return The date string representing the given time.
-	 * @throws NullPointerException If {@code date} is {@code null}.
 	 */
 	public static String encodeDate(long time) {
-		Calendar cal = new GregorianCalendar();
-		cal.setTimeInMillis(time);
-		return encodeDate(cal);
+		return encodeDay(getDay(time));
+	}
+
+	/**
+	 * Converts the given day index to a date string of the format
+	 * "DD.MM.YYYY".<br/>
+	 * Days before the gregorian calendar was introduced are converted using a
+	 * {@link GregorianCalendar}, to get the same result as
+	 * {@link #encodeDate(Calendar)}.
+	 * 
+	 * @param day The number of days since the first of January 1970.
+	 * @return The date string representing the given day.
+	 * @see #getDay(long)
+	 */
+	public static String encodeDay(int day) {
+		int date = getYearMonthDay(day);
+		int dayOfMonth = date % 100;
+		int month = date / 100 % 100;
+		int year = date / 10000;
+
+		StringBuilder result = new StringBuilder(10);
+		if (dayOfMonth < 10) {
+			result.append('0');
+		}
+		result.append(dayOfMonth);
+		result.append('.');
+
+		if (month < 10) {
+			result.append('0');
+		}
+		result.append(month);
+		result.append('.');
+
+		String yearStr = Integer.toString(year);
+		for (int i = yearStr.length(); i < YEAR_MIN_DIGITS; i++) {
+			result.append('0');
+		}
+		result.append(yearStr);
+
+		return result.toString();
+	}
+
+	/**
+	 * Converts the given day index to its year, month, and day of month.<br/>
+	 * Days before the gregorian calendar was introduced are converted using a
+	 * {@link GregorianCalendar}, like {@link #encodeDay(int)} does.
+	 * 
+	 * @param day The number of days since the first of January 1970.
+	 * @return The date as a single number of the format YYYYMMDD.
+	 * @see #getDay(long)
+	 */
+	public static int getYearMonthDay(int day) {
+		if (day < GREGORIAN_CUTOVER_DAY) {
+			Calendar cal = toCalendar((long) day * DAY_MS);
+			return cal.get(Calendar.YEAR) * 10000 + (cal.get(Calendar.MONTH) + 1) * 100 + cal.get(Calendar.DATE);
+		}
+
+		// Converts the day to a year, month, and day of month.
+		// Uses years starting on the first of march, to put leap days at the end.
+		int days = day + 719468; // The number of days from 01.03.0000 to 01.01.1970.
+		int era = days / 146097; // There are 146097 days in 400 years.
+		int dayOfEra = days - era * 146097;
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int shiftedMonth = (5 * dayOfYear + 2) / 153;
+		int dayOfMonth = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+		int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+		int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		return year * 10000 + month * 100 + dayOfMonth;
 	}
 
 	/**
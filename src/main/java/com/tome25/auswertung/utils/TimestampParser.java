@@ -0,0 +1,121 @@
+package com.tome25.auswertung.utils;
+
+import java.util.Objects;
+
+/**
+ * A parser converting date and time strings to timestamps, which remembers the
+ * last date it parsed.<br/>
+ * Since antenna records are sorted by time, consecutive records almost always
+ * share the same date string.<br/>
+ * For those only the time of day has to be parsed, which is done using only
+ * arithmetic.<br/>
+ * Instances are not thread safe, use {@link #get()} to get the parser of the
+ * current thread.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public final class TimestampParser {
+
+	/**
+	 * The parser instance for each thread.
+	 */
+	private static final ThreadLocal<TimestampParser> INSTANCE = new ThreadLocal<TimestampParser>() {
+		@Override
+		protected TimestampParser initialValue() {
+			return new TimestampParser();
+		}
+	};
+
+	/**
+	 * The last date string that was parsed successfully.
+	 */
+	private String lastDate;
+
+	/**
+	 * The day index of {@link #lastDate}.
+	 */
+	private int lastDay;
+
+	/**
+	 * Creates a new timestamp parser without a cached date.
+	 */
+	public TimestampParser() {
+	}
+
+	/**
+	 * Gets the timestamp parser instance for the current thread.
+	 * 
+	 * @return The timestamp parser of the current thread.
+	 */
+	public static TimestampParser get() {
+		return INSTANCE.get();
+	}
+
+	/**
+	 * Parses the given date string to the index of the day it represents.<br/>
+	 * If the date is the same as the last date parsed by this parser, the cached
+	 * day is returned.
+	 * 
+	 * @param date The date to parse. Format "DD.MM.YYYY".
+	 * @return The number of days since the epoch.
+	 * @throws NullPointerException     If {@code date} is {@code null}.
+	 * @throws IllegalArgumentException If {@code date} does not match the format
+	 *                                  "DD.MM.YYYY".
+	 * @see TimeUtils#parseDay(String)
+	 */
+	public int parseDay(String date) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(date, "The date to parse can't be null.");
+
+		if (!date.equals(lastDate)) {
+			lastDay = TimeUtils.parseDay(date);
+			lastDate = date;
+		}
+
+		return lastDay;
+	}
+
+	/**
+	 * Parses the given date string and time of day in milliseconds to a timestamp
+	 * in milliseconds since the epoch.
+	 * 
+	 * @param date The date of the timestamp. Format "DD.MM.YYYY".
+	 * @param time The time of day in milliseconds.
+	 * @return The timestamp representing the given date and time.
+	 * @throws NullPointerException     If {@code date} is {@code null}.
+	 * @throws IllegalArgumentException If {@code date} does not match the format
+	 *                                  "DD.MM.YYYY".<br/>
+	 *                                  Or if {@code time} is negative.
+	 */
+	public long parseTimestamp(String date, int time) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(date, "The date to parse can't be null.");
+
+		if (time < 0) {
+			throw new IllegalArgumentException("Time of day can't be negative.");
+		}
+
+		return (long) parseDay(date) * TimeUtils.DAY_MS + time;
+	}
+
+	/**
+	 * Parses the given date string and time string to a timestamp in milliseconds
+	 * since the epoch.
+	 * 
+	 * @param date The date of the timestamp. Format "DD.MM.YYYY".
+	 * @param time The time of day of the timestamp. Format "HH:MM:SS.2".<br/>
+	 *             Cannot be more than 24 hours.
+	 * @return The timestamp representing the given date and time.
+	 * @throws NullPointerException     If {@code date} or {@code time} is
+	 *                                  {@code null}.
+	 * @throws IllegalArgumentException If one of the strings doesn't match the
+	 *                                  required format.<br/>
+	 *                                  Or time is more than 24 hours.
+	 */
+	public long parseTimestamp(String date, String time) throws NullPointerException, IllegalArgumentException {
+		long ms = TimeUtils.parseTime(time);
+		if (ms > TimeUtils.DAY_MS) {
+			throw new IllegalArgumentException("The time of day to parse has to be less than a full day.");
+		}
+		return parseTimestamp(date, (int) ms);
+	}
+
+}
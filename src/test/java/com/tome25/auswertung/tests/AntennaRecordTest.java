@@ -4,6 +4,7 @@
 
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.TimeZone;
 
 import org.junit.Test;
 
@@ -28,8 +29,9 @@ public void constructor() {
 		assertEquals("The antenna id didn't match.", "Antenna 1", record.antenna);
 		assertEquals("The time of day didn't match.", 54262870, record.tod);
 		GregorianCalendar cal = new GregorianCalendar(2045, Calendar.NOVEMBER, 2, 15, 04, 22);
+		cal.setTimeZone(TimeZone.getTimeZone("GMT"));
 		cal.add(Calendar.MILLISECOND, 870);
-		assertEquals("The calendar didn't match.", cal, record.cal);
+		assertEquals("The timestamp didn't match.", cal.getTimeInMillis(), record.time);
 	}
 
 	/**
@@ -124,7 +126,8 @@ public void shortDateComponents() {
 		assertEquals("The antenna id didn't match.", "Ant #3", record.antenna);
 		assertEquals("The time of day didn't match.", 343000, record.tod);
 		GregorianCalendar cal = new GregorianCalendar(21, Calendar.MAY, 1, 0, 05, 43);
-		assertEquals("The calendar didn't match.", cal, record.cal);
+		cal.setTimeZone(TimeZone.getTimeZone("GMT"));
+		assertEquals("The timestamp didn't match.", cal.getTimeInMillis(), record.time);
 	}
 
 	/**
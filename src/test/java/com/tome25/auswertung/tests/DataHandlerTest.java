@@ -1,10 +1,21 @@
 package com.tome25.auswertung.tests;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -12,6 +23,7 @@
 import org.junit.Rule;
 import org.junit.Test;
 
+import com.tome25.auswertung.AnalysisSnapshot;
 import com.tome25.auswertung.CSVHandler;
 import com.tome25.auswertung.DataHandler;
 import com.tome25.auswertung.TurkeyInfo;
@@ -20,6 +32,7 @@
 import com.tome25.auswertung.args.Arguments;
 import com.tome25.auswertung.stream.FileInputStreamHandler;
 import com.tome25.auswertung.stream.FileOutputStreamHandler;
+import com.tome25.auswertung.stream.FollowFileInputStreamHandler;
 import com.tome25.auswertung.testdata.AntennaDataGenerator;
 import com.tome25.auswertung.testdata.AntennaDataGenerator.TestData;
 import com.tome25.auswertung.testdata.TurkeyGenerator;
@@ -28,6 +41,7 @@
 import com.tome25.auswertung.tests.rules.ErrorLogRule;
 import com.tome25.auswertung.tests.rules.TempFileStreamHandler;
 import com.tome25.auswertung.utils.Pair;
+import com.tome25.auswertung.utils.TimeUtils;
 
 /**
  * {@link DataHandler} tests that do not test the output data.
@@ -232,4 +246,784 @@ public void readInvalidLastRecord() throws IOException {
 		errorLog.checkLine("Reading an antenna record from the input file failed.");
 	}
 
+	/**
+	 * Makes sure analyzing the turkeys in parallel produces the exact same output
+	 * as analyzing them serially.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void parallelMatchesSerial() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("12.03.2023", 0), TimeUtils.parseTimestamp("20.03.2023", 0), tempFolder);
+
+		for (boolean fillDays : new boolean[] { false, true }) {
+			Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+					.newTempIOFile("parallel_" + fillDays + "_antennadata.csv");
+			Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+					.newTempIOFile("parallel_" + fillDays + "_downtimes.csv");
+
+			Arguments args = Arguments.empty();
+			args.fillDays = fillDays;
+			AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+					downtimesCSV.getValue(), args, "12.03.2023", 7, false, false);
+			dataCSV.getValue().close();
+			downtimesCSV.getValue().close();
+
+			Pair<List<String>, List<String>> serial = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+					args, "parallel_" + fillDays + "_serial");
+			args.threads = 4;
+			Pair<List<String>, List<String>> parallel = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+					args, "parallel_" + fillDays + "_parallel");
+
+			assertEquals("The parallel totals output didn't match the serial one.", serial.getKey(), parallel.getKey());
+			assertEquals("The parallel stays output didn't match the serial one.", serial.getValue(),
+					parallel.getValue());
+		}
+	}
+
+	/**
+	 * Makes sure reading, parsing, and analyzing the antenna data on separate
+	 * threads produces the exact same output as doing it on a single thread.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void pipelineMatchesSerial() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(10, 3, 3, false, true, 0, 0, tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("pipeline_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("pipeline_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		args.fillDays = true;
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "05.06.2023", 5, false, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		Pair<List<String>, List<String>> serial = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"pipeline_serial");
+		args.pipeline = true;
+		Pair<List<String>, List<String>> pipelined = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+				args, "pipeline_pipelined");
+
+		assertEquals("The pipelined totals output didn't match the serial one.", serial.getKey(), pipelined.getKey());
+		assertEquals("The pipelined stays output didn't match the serial one.", serial.getValue(),
+				pipelined.getValue());
+	}
+
+	/**
+	 * Makes sure writing the totals of each day as soon as they are final, and
+	 * removing them from memory, produces the exact same output as writing them at
+	 * the end.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void streamingMatchesSerial() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+
+		for (boolean fillDays : new boolean[] { false, true }) {
+			Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+					.newTempIOFile("streaming_" + fillDays + "_antennadata.csv");
+			Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+					.newTempIOFile("streaming_" + fillDays + "_downtimes.csv");
+
+			Arguments args = Arguments.empty();
+			args.fillDays = fillDays;
+			AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+					downtimesCSV.getValue(), args, "01.07.2023", 14, true, true);
+			dataCSV.getValue().close();
+			downtimesCSV.getValue().close();
+
+			Pair<List<String>, List<String>> serial = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+					args, "streaming_" + fillDays + "_serial");
+			args.streaming = true;
+			Pair<List<String>, List<String>> streamed = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+					args, "streaming_" + fillDays + "_streamed");
+
+			assertEquals("The streamed totals output didn't match the serial one.", serial.getKey(), streamed.getKey());
+			assertEquals("The streamed stays output didn't match the serial one.", serial.getValue(),
+					streamed.getValue());
+		}
+	}
+
+	/**
+	 * Splits the antenna records by transponder into multiple files, like
+	 * separate readers would produce them, and makes sure merging these files
+	 * produces the same output as reading the single file.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void mergedInputsMatchSingle() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("merge_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("merge_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "01.07.2023", 7, true, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		List<File> parts = new ArrayList<File>();
+		PrintStream[] outs = new PrintStream[3];
+		for (int i = 0; i < outs.length; i++) {
+			parts.add(tempFolder.newFile("merge_antennadata_" + i + ".csv"));
+			outs[i] = new PrintStream(new FileOutputStream(parts.get(i)), false, "UTF-8");
+		}
+
+		List<String> lines = Files.readAllLines(dataCSV.getKey().getInputFile().toPath(), StandardCharsets.UTF_8);
+		for (String line : lines) {
+			String transponder = line.split(";")[0];
+			if (transponder.equalsIgnoreCase("transponder")) {
+				for (PrintStream out : outs) {
+					out.println(line);
+				}
+			} else {
+				outs[(transponder.hashCode() & Integer.MAX_VALUE) % outs.length].println(line);
+			}
+		}
+
+		for (PrintStream out : outs) {
+			out.close();
+		}
+
+		Pair<List<String>, List<String>> single = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"merge_single");
+		Pair<List<String>, List<String>> merged = runAnalysis(mappings, parts, downtimesCSV.getKey(), args,
+				"merge_merged");
+
+		args.pipeline = true;
+		Pair<List<String>, List<String>> pipelined = runAnalysis(mappings, parts, downtimesCSV.getKey(), args,
+				"merge_pipelined");
+
+		// Records with the same timestamp may be merged in a different order, which
+		// changes the order in which the stays of different turkeys end.
+		Collections.sort(single.getValue());
+		Collections.sort(merged.getValue());
+		Collections.sort(pipelined.getValue());
+
+		assertEquals("The merged totals output didn't match the single file one.", single.getKey(), merged.getKey());
+		assertEquals("The merged stays output didn't match the single file one.", single.getValue(),
+				merged.getValue());
+		assertEquals("The pipelined merged totals output didn't match the single file one.", single.getKey(),
+				pipelined.getKey());
+		assertEquals("The pipelined merged stays output didn't match the single file one.", single.getValue(),
+				pipelined.getValue());
+	}
+
+	/**
+	 * Checks that sorting an antenna data file consisting of multiple sorted
+	 * parts produces the same output as reading the sorted file.<br/>
+	 * Sorts the records both in memory, and using an external sort with temporary
+	 * files.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void sortedInputMatchesSorted() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("sort_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("sort_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "01.07.2023", 7, true, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		// Keeps the records of each transponder in order, since the order of records
+		// with the same timestamp for the same turkey changes the result.
+		List<String> lines = Files.readAllLines(dataCSV.getKey().getInputFile().toPath(), StandardCharsets.UTF_8);
+		List<List<String>> parts = new ArrayList<List<String>>();
+		for (int i = 0; i < 3; i++) {
+			parts.add(new ArrayList<String>());
+		}
+
+		File unsorted = tempFolder.newFile("sort_unsorted.csv");
+		try (PrintStream out = new PrintStream(new FileOutputStream(unsorted), false, "UTF-8")) {
+			for (String line : lines) {
+				String transponder = line.split(";")[0];
+				if (transponder.equalsIgnoreCase("transponder")) {
+					out.println(line);
+				} else {
+					parts.get((transponder.hashCode() & Integer.MAX_VALUE) % parts.size()).add(line);
+				}
+			}
+
+			for (List<String> part : parts) {
+				for (String line : part) {
+					out.println(line);
+				}
+			}
+		}
+
+		Pair<List<String>, List<String>> sorted = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"sort_sorted");
+
+		args.sortBuffer = 1000000;
+		Pair<List<String>, List<String>> inMemory = runAnalysis(mappings, Collections.singletonList(unsorted),
+				downtimesCSV.getKey(), args, "sort_memory");
+
+		args.sortBuffer = 100;
+		args.externalSort = true;
+		Pair<List<String>, List<String>> spilled = runAnalysis(mappings, Collections.singletonList(unsorted),
+				downtimesCSV.getKey(), args, "sort_spilled");
+
+		args.pipeline = true;
+		Pair<List<String>, List<String>> pipelined = runAnalysis(mappings, Collections.singletonList(unsorted),
+				downtimesCSV.getKey(), args, "sort_pipelined");
+
+		// Records of different turkeys with the same timestamp may be sorted in a
+		// different order, which changes the order in which their stays end.
+		Collections.sort(sorted.getValue());
+		Collections.sort(inMemory.getValue());
+		Collections.sort(spilled.getValue());
+		Collections.sort(pipelined.getValue());
+
+		assertEquals("The in memory sorted totals output didn't match the sorted one.", sorted.getKey(),
+				inMemory.getKey());
+		assertEquals("The in memory sorted stays output didn't match the sorted one.", sorted.getValue(),
+				inMemory.getValue());
+		assertEquals("The spilled sorted totals output didn't match the sorted one.", sorted.getKey(),
+				spilled.getKey());
+		assertEquals("The spilled sorted stays output didn't match the sorted one.", sorted.getValue(),
+				spilled.getValue());
+		assertEquals("The pipelined sorted totals output didn't match the sorted one.", sorted.getKey(),
+				pipelined.getKey());
+		assertEquals("The pipelined sorted stays output didn't match the sorted one.", sorted.getValue(),
+				pipelined.getValue());
+	}
+
+	/**
+	 * Checks that sorting a nearly sorted antenna data file with a small sliding
+	 * window produces the same output as reading the sorted file.<br/>
+	 * Then checks that a record arriving too late for the window is reported and
+	 * skipped.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void sortWindowMatchesSorted() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("window_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("window_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "01.07.2023", 7, true, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		List<String> lines = Files.readAllLines(dataCSV.getKey().getInputFile().toPath(), StandardCharsets.UTF_8);
+		assertTrue("The generated antenna data was too short.", lines.size() > 1000);
+
+		// Only swaps records with different timestamps, since the sort keeps the order
+		// of records with the same timestamp.
+		List<String> swapped = new ArrayList<String>(lines);
+		for (int i = 1; i + 1 < swapped.size(); i += 2) {
+			String first = swapped.get(i);
+			String second = swapped.get(i + 1);
+			if (!first.substring(first.indexOf(';'), first.lastIndexOf(';'))
+					.equals(second.substring(second.indexOf(';'), second.lastIndexOf(';')))) {
+				swapped.set(i, second);
+				swapped.set(i + 1, first);
+			}
+		}
+
+		File swappedFile = tempFolder.newFile("window_swapped.csv");
+		Files.write(swappedFile.toPath(), swapped, StandardCharsets.UTF_8);
+
+		Pair<List<String>, List<String>> sorted = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"window_sorted");
+
+		args.sortBuffer = 100;
+		Pair<List<String>, List<String>> window = runAnalysis(mappings, Collections.singletonList(swappedFile),
+				downtimesCSV.getKey(), args, "window_swapped");
+
+		Collections.sort(sorted.getValue());
+		Collections.sort(window.getValue());
+		assertEquals("The window sorted totals output didn't match the sorted one.", sorted.getKey(),
+				window.getKey());
+		assertEquals("The window sorted stays output didn't match the sorted one.", sorted.getValue(),
+				window.getValue());
+
+		// Moves the first record to the end, which is too late for the window.
+		List<String> late = new ArrayList<String>(lines);
+		late.add(late.remove(1));
+		File lateFile = tempFolder.newFile("window_late.csv");
+		Files.write(lateFile.toPath(), late, StandardCharsets.UTF_8);
+
+		List<String> dropped = new ArrayList<String>(lines);
+		dropped.remove(1);
+		File droppedFile = tempFolder.newFile("window_dropped.csv");
+		Files.write(droppedFile.toPath(), dropped, StandardCharsets.UTF_8);
+
+		args.sortBuffer = 0;
+		Pair<List<String>, List<String>> expected = runAnalysis(mappings, Collections.singletonList(droppedFile),
+				downtimesCSV.getKey(), args, "window_dropped");
+
+		args.sortBuffer = 100;
+		Pair<List<String>, List<String>> skipped = runAnalysis(mappings, Collections.singletonList(lateFile),
+				downtimesCSV.getKey(), args, "window_late");
+		errorLog.checkLine("1 antenna records were too late for the sort buffer of 100 records."
+				+ " Use a larger sort buffer, or an external sort, to include them.");
+
+		Collections.sort(expected.getValue());
+		Collections.sort(skipped.getValue());
+		assertEquals("The totals output with a late record didn't match the one without it.", expected.getKey(),
+				skipped.getKey());
+		assertEquals("The stays output with a late record didn't match the one without it.", expected.getValue(),
+				skipped.getValue());
+	}
+
+	/**
+	 * Checks that parsing the antenna data file in chunks on multiple threads
+	 * produces exactly the same output as parsing it serially.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void chunkedParsingMatchesSerial() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("chunked_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("chunked_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "01.07.2023", 7, true, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+		assertTrue("The generated antenna data file is too small to be split into multiple chunks.",
+				dataCSV.getKey().getInputFile().length() > 2 * 64 * 1024);
+
+		Pair<List<String>, List<String>> serial = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"chunked_serial");
+
+		args.parseThreads = 3;
+		Pair<List<String>, List<String>> chunked = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"chunked_chunked");
+
+		assertEquals("The chunked totals output didn't match the serial one.", serial.getKey(), chunked.getKey());
+		assertEquals("The chunked stays output didn't match the serial one.", serial.getValue(), chunked.getValue());
+	}
+
+	/**
+	 * Checks that writing the parsed records to a record cache, reading them from
+	 * it, and recreating it after the antenna data file changed, all produce the
+	 * same output as parsing the antenna data file.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void recordCacheMatchesParsed() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("cache_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("cache_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "01.07.2023", 7, true, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		File input = dataCSV.getKey().getInputFile();
+		File cache = new File(input.getPath() + ".rec");
+		Pair<List<String>, List<String>> parsed = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"cache_parsed");
+		assertFalse("The record cache file was created without enabling it.", cache.exists());
+
+		args.recordCache = true;
+		Pair<List<String>, List<String>> written = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"cache_written");
+		assertTrue("The record cache file wasn't created.", cache.isFile());
+		assertTrue("The record cache file wasn't smaller than a third of the antenna data file.",
+				cache.length() * 3 < input.length());
+
+		Pair<List<String>, List<String>> read = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"cache_read");
+
+		assertTrue("Changing the modification time of the antenna data file failed.",
+				input.setLastModified(input.lastModified() - 10000));
+		Pair<List<String>, List<String>> recreated = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+				args, "cache_recreated");
+
+		assertEquals("The totals output while writing the cache didn't match the parsed one.", parsed.getKey(),
+				written.getKey());
+		assertEquals("The stays output while writing the cache didn't match the parsed one.", parsed.getValue(),
+				written.getValue());
+		assertEquals("The totals output read from the cache didn't match the parsed one.", parsed.getKey(),
+				read.getKey());
+		assertEquals("The stays output read from the cache didn't match the parsed one.", parsed.getValue(),
+				read.getValue());
+		assertEquals("The totals output after recreating the cache didn't match the parsed one.", parsed.getKey(),
+				recreated.getKey());
+		assertEquals("The stays output after recreating the cache didn't match the parsed one.", parsed.getValue(),
+				recreated.getValue());
+	}
+
+	/**
+	 * Checks that analyzing part of an antenna data file with a snapshot, and then
+	 * resuming the analysis after more records were appended to it, produces the
+	 * same output as analyzing the whole file at once.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void snapshotResumeMatchesFull() throws IOException {
+		checkSnapshotResume("snapshot", false);
+	}
+
+	/**
+	 * Makes sure resuming the analysis from a snapshot written while the last line
+	 * of the antenna data file was incomplete produces the same output as
+	 * analyzing the whole file at once.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void snapshotResumeMidLineMatchesFull() throws IOException {
+		checkSnapshotResume("snapshot_mid_line", true);
+	}
+
+	/**
+	 * Makes sure writing a snapshot doesn't change the output of an analysis whose
+	 * last antenna record isn't terminated by a line separator.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void snapshotUnterminatedMatchesPlain() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("snapshot_unterminated_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("snapshot_unterminated_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "01.07.2023", 7, true, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		File input = dataCSV.getKey().getInputFile();
+		byte[] data = Files.readAllBytes(input.toPath());
+		assertEquals("The antenna data didn't end with a line separator.", '\n', data[data.length - 1]);
+		Files.write(input.toPath(), Arrays.copyOf(data, data.length - 1));
+
+		Pair<List<String>, List<String>> plain = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+				args, "snapshot_unterminated_plain");
+
+		File snapshotFile = tempFolder.newFile("snapshot_unterminated_state.snapshot");
+		assertTrue("Deleting the empty snapshot file failed.", snapshotFile.delete());
+		args.snapshotFile = snapshotFile;
+		Pair<List<String>, List<String>> snapshot = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+				args, "snapshot_unterminated_snapshot");
+		assertTrue("The snapshot file wasn't created.", snapshotFile.isFile());
+
+		assertEquals("The totals output with a snapshot didn't match the one without.", plain.getKey(),
+				snapshot.getKey());
+		assertEquals("The stays output with a snapshot didn't match the one without.", plain.getValue(),
+				snapshot.getValue());
+	}
+
+	/**
+	 * Analyzes the antenna data up to the fifth day with a snapshot, appends the
+	 * remaining records, and resumes the analysis.<br/>
+	 * Then checks that the output matches the output of analyzing the whole file
+	 * at once.
+	 * 
+	 * @param name    The prefix for the temporary file names.
+	 * @param midLine Whether the antenna data should be split in the middle of a
+	 *                line, rather than between two lines.
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	private void checkSnapshotResume(String name, boolean midLine) throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile(name + "_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile(name + "_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "01.07.2023", 7, true, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		File input = dataCSV.getKey().getInputFile();
+		List<String> lines = Files.readAllLines(input.toPath(), StandardCharsets.UTF_8);
+		int split = 1;
+		while (split < lines.size() && !lines.get(split).contains("05.07.2023")) {
+			split++;
+		}
+		assertTrue("The antenna data didn't contain records on the fifth day.", split < lines.size());
+
+		Pair<List<String>, List<String>> full = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				name + "_full");
+
+		StringBuilder first = new StringBuilder();
+		for (String line : lines.subList(0, split)) {
+			first.append(line).append('\n');
+		}
+		StringBuilder rest = new StringBuilder();
+		for (String line : lines.subList(split, lines.size())) {
+			rest.append(line).append('\n');
+		}
+
+		if (midLine) {
+			// Cut the first line of the fifth day in half, like a writer that didn't finish it yet.
+			int cut = lines.get(split).length() / 2;
+			first.append(rest, 0, cut);
+			rest.delete(0, cut);
+		}
+
+		Files.write(input.toPath(), first.toString().getBytes(StandardCharsets.UTF_8));
+		File snapshotFile = tempFolder.newFile(name + "_state.snapshot");
+		assertTrue("Deleting the empty snapshot file failed.", snapshotFile.delete());
+		args.snapshotFile = snapshotFile;
+		runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args, name + "_partial");
+		assertTrue("The snapshot file wasn't created.", snapshotFile.isFile());
+
+		Files.write(input.toPath(), rest.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		File totalsFile = new File(tempFolder.getRoot(), name + "_partial_totals.csv");
+		File staysFile = new File(tempFolder.getRoot(), name + "_partial_stays.csv");
+		AnalysisSnapshot snapshot = AnalysisSnapshot.resume(snapshotFile, Collections.singletonList(input),
+				mappings.turkeysIn.getInputFile(), mappings.zonesIn.getInputFile(),
+				downtimesCSV.getKey().getInputFile(), totalsFile, staysFile, args);
+		assertNotNull("Resuming the analysis from the snapshot failed.", snapshot);
+
+		DataHandler.handleStreams(
+				Collections.singletonList(new FileInputStreamHandler(input, FileInputStreamHandler.DEFAULT_BUFFER_SIZE,
+						snapshot.getInputPosition())),
+				new FileInputStreamHandler(mappings.turkeysIn.getInputFile()),
+				new FileInputStreamHandler(mappings.zonesIn.getInputFile()),
+				new FileInputStreamHandler(downtimesCSV.getKey().getInputFile()),
+				new FileOutputStreamHandler(totalsFile, false, true, true),
+				new FileOutputStreamHandler(staysFile, false, true, true), args, snapshot);
+
+		assertEquals("The resumed totals output didn't match the full one.", full.getKey(),
+				Files.readAllLines(totalsFile.toPath(), StandardCharsets.UTF_8));
+		assertEquals("The resumed stays output didn't match the full one.", full.getValue(),
+				Files.readAllLines(staysFile.toPath(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Checks that following an antenna data file while records are appended to
+	 * it produces the same zone stays as analyzing the whole file at once, and
+	 * writes all the final totals.
+	 * 
+	 * @throws IOException          If reading/writing/creating a temporary file
+	 *                              fails.
+	 * @throws InterruptedException If interrupted while waiting for the analysis.
+	 */
+	@Test
+	public void followMatchesFull() throws IOException, InterruptedException {
+		final TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("03.07.2023", 0), TimeUtils.parseTimestamp("12.07.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("follow_antennadata.csv");
+		final Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("follow_downtimes.csv");
+
+		final Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "01.07.2023", 7, true, true);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		File input = dataCSV.getKey().getInputFile();
+		List<String> lines = Files.readAllLines(input.toPath(), StandardCharsets.UTF_8);
+		Pair<List<String>, List<String>> full = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(), args,
+				"follow_full");
+
+		int split = lines.size() / 2;
+		Files.write(input.toPath(), lines.subList(0, split), StandardCharsets.UTF_8);
+		args.followInterval = 1;
+		final FollowFileInputStreamHandler followIn = new FollowFileInputStreamHandler(input);
+		final File totalsFile = tempFolder.newFile("follow_totals.csv");
+		final File staysFile = tempFolder.newFile("follow_stays.csv");
+		Thread analysis = new Thread() {
+			@Override
+			public void run() {
+				try {
+					DataHandler.handleStreams(followIn, new FileInputStreamHandler(mappings.turkeysIn.getInputFile()),
+							new FileInputStreamHandler(mappings.zonesIn.getInputFile()),
+							new FileInputStreamHandler(downtimesCSV.getKey().getInputFile()),
+							new FileOutputStreamHandler(totalsFile, true, true),
+							new FileOutputStreamHandler(staysFile, false, true), args);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		analysis.start();
+
+		Thread.sleep(FollowFileInputStreamHandler.POLL_INTERVAL * 4);
+		assertTrue("The analysis finished while following the antenna data file.", analysis.isAlive());
+		Files.write(input.toPath(), lines.subList(split, lines.size()), StandardCharsets.UTF_8,
+				StandardOpenOption.APPEND);
+		Thread.sleep(FollowFileInputStreamHandler.POLL_INTERVAL * 4);
+		followIn.stop();
+		analysis.join(10000);
+		assertFalse("The analysis didn't finish after stopping to follow the antenna data file.",
+				analysis.isAlive());
+
+		assertEquals("The followed stays output didn't match the full one.", full.getValue(),
+				Files.readAllLines(staysFile.toPath(), StandardCharsets.UTF_8));
+		List<String> totals = Files.readAllLines(totalsFile.toPath(), StandardCharsets.UTF_8);
+		for (String line : full.getKey()) {
+			assertTrue("The followed totals output didn't contain the line \"" + line + "\".",
+					totals.contains(line));
+		}
+	}
+
+	/**
+	 * Makes sure a sweep over multiple minimum times produces the same output for
+	 * each configuration as analyzing it separately.
+	 * 
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	@Test
+	public void sweepMatchesSeparate() throws IOException {
+		TestMappings mappings = OutputDataTest.generateTestMappings(20, 4, 3, true, true,
+				TimeUtils.parseTimestamp("14.08.2023", 0), TimeUtils.parseTimestamp("22.08.2023", 0), tempFolder);
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> dataCSV = tempFolder
+				.newTempIOFile("sweep_antennadata.csv");
+		Pair<FileInputStreamHandler, FileOutputStreamHandler> downtimesCSV = tempFolder
+				.newTempIOFile("sweep_downtimes.csv");
+
+		Arguments args = Arguments.empty();
+		AntennaDataGenerator.generateAntennaData(mappings.turkeys, mappings.zones, dataCSV.getValue(),
+				downtimesCSV.getValue(), args, "14.08.2023", 7, false, false);
+		dataCSV.getValue().close();
+		downtimesCSV.getValue().close();
+
+		args.threads = 2;
+		List<Arguments> configs = new ArrayList<Arguments>();
+		List<Pair<FileOutputStreamHandler, BufferedReader>> totalsCSVs = new ArrayList<Pair<FileOutputStreamHandler,
+				BufferedReader>>();
+		List<Pair<FileOutputStreamHandler, BufferedReader>> staysCSVs = new ArrayList<Pair<FileOutputStreamHandler,
+				BufferedReader>>();
+		List<FileOutputStreamHandler> totalsOuts = new ArrayList<FileOutputStreamHandler>();
+		List<FileOutputStreamHandler> staysOuts = new ArrayList<FileOutputStreamHandler>();
+		for (int minTime : new int[] { 0, 60, 300 }) {
+			for (boolean fillDays : new boolean[] { false, true }) {
+				configs.add(args.forSweep(minTime, fillDays));
+				String name = "sweep_" + minTime + "_" + fillDays;
+				totalsCSVs.add(tempFolder.newTempOutputFile(name + "_totals.csv"));
+				staysCSVs.add(tempFolder.newTempOutputFile(name + "_stays.csv"));
+				totalsOuts.add(totalsCSVs.get(totalsCSVs.size() - 1).getKey());
+				staysOuts.add(staysCSVs.get(staysCSVs.size() - 1).getKey());
+			}
+		}
+
+		DataHandler.handleSweep(
+				Collections.singletonList(new FileInputStreamHandler(dataCSV.getKey().getInputFile())),
+				new FileInputStreamHandler(mappings.turkeysIn.getInputFile()),
+				new FileInputStreamHandler(mappings.zonesIn.getInputFile()),
+				new FileInputStreamHandler(downtimesCSV.getKey().getInputFile()), totalsOuts, staysOuts, configs);
+
+		for (int i = 0; i < configs.size(); i++) {
+			Arguments config = configs.get(i);
+			Pair<List<String>, List<String>> separate = runAnalysis(mappings, dataCSV.getKey(), downtimesCSV.getKey(),
+					config, "sweep_separate_" + config.minTime + "_" + config.fillDays);
+
+			List<String> totals = new ArrayList<String>();
+			String line;
+			while ((line = totalsCSVs.get(i).getValue().readLine()) != null) {
+				totals.add(line);
+			}
+
+			List<String> stays = new ArrayList<String>();
+			while ((line = staysCSVs.get(i).getValue().readLine()) != null) {
+				stays.add(line);
+			}
+
+			assertEquals("The sweep totals output didn't match the separate one.", separate.getKey(), totals);
+			assertEquals("The sweep stays output didn't match the separate one.", separate.getValue(), stays);
+		}
+	}
+
+	/**
+	 * Runs a data analysis on fresh input stream handlers for the given files, and
+	 * reads its output.
+	 * 
+	 * @param mappings    The turkey and zone mappings to use.
+	 * @param antennaIn   The input stream handler of the antenna data file.
+	 * @param downtimesIn The input stream handler of the downtimes file.
+	 * @param args        The arguments to use for the analysis.
+	 * @param name        The prefix for the output file names.
+	 * @return A pair containing the lines of the totals output and the stays
+	 *         output.
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	private Pair<List<String>, List<String>> runAnalysis(TestMappings mappings, FileInputStreamHandler antennaIn,
+			FileInputStreamHandler downtimesIn, Arguments args, String name) throws IOException {
+		return runAnalysis(mappings, Collections.singletonList(antennaIn.getInputFile()), downtimesIn, args, name);
+	}
+
+	/**
+	 * Runs a data analysis on fresh input stream handlers for the given files, and
+	 * reads its output.
+	 * 
+	 * @param mappings     The turkey and zone mappings to use.
+	 * @param antennaFiles The antenna data files to merge.
+	 * @param downtimesIn  The input stream handler of the downtimes file.
+	 * @param args         The arguments to use for the analysis.
+	 * @param name         The prefix for the output file names.
+	 * @return A pair containing the lines of the totals output and the stays
+	 *         output.
+	 * @throws IOException If reading/writing/creating a temporary file fails.
+	 */
+	private Pair<List<String>, List<String>> runAnalysis(TestMappings mappings, List<File> antennaFiles,
+			FileInputStreamHandler downtimesIn, Arguments args, String name) throws IOException {
+		Pair<FileOutputStreamHandler, BufferedReader> totalsCSV = tempFolder.newTempOutputFile(name + "_totals.csv");
+		Pair<FileOutputStreamHandler, BufferedReader> staysCSV = tempFolder.newTempOutputFile(name + "_stays.csv");
+
+		List<FileInputStreamHandler> antennaIns = new ArrayList<FileInputStreamHandler>();
+		for (File file : antennaFiles) {
+			antennaIns.add(new FileInputStreamHandler(file));
+		}
+
+		DataHandler.handleStreams(antennaIns, new FileInputStreamHandler(mappings.turkeysIn.getInputFile()),
+				new FileInputStreamHandler(mappings.zonesIn.getInputFile()),
+				new FileInputStreamHandler(downtimesIn.getInputFile()), totalsCSV.getKey(), staysCSV.getKey(), args);
+
+		List<String> totals = new ArrayList<String>();
+		String line;
+		while ((line = totalsCSV.getValue().readLine()) != null) {
+			totals.add(line);
+		}
+
+		List<String> stays = new ArrayList<String>();
+		while ((line = staysCSV.getValue().readLine()) != null) {
+			stays.add(line);
+		}
+
+		return new Pair<List<String>, List<String>>(totals, stays);
+	}
+
 }
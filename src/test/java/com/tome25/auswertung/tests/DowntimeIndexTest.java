@@ -0,0 +1,134 @@
+package com.tome25.auswertung.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.tome25.auswertung.DowntimeIndex;
+import com.tome25.auswertung.utils.Pair;
+
+/**
+ * The class containing the unit tests related to {@link DowntimeIndex}.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class DowntimeIndexTest {
+
+	/**
+	 * Tests that unsorted downtimes are sorted, and overlapping ones are merged.
+	 */
+	@Test
+	public void sortAndMerge() {
+		DowntimeIndex index = new DowntimeIndex(Arrays.asList(new Pair<Long, Long>(500l, 600l),
+				new Pair<Long, Long>(100l, 200l), new Pair<Long, Long>(150l, 300l), new Pair<Long, Long>(300l, 400l),
+				new Pair<Long, Long>(520l, 550l)));
+
+		assertEquals("The number of merged downtimes didn't match.", 2, index.size());
+		assertEquals("The start of the first downtime didn't match.", 100l, index.getStart(0));
+		assertEquals("The end of the first downtime didn't match.", 400l, index.getEnd(0));
+		assertEquals("The start of the second downtime didn't match.", 500l, index.getStart(1));
+		assertEquals("The end of the second downtime didn't match.", 600l, index.getEnd(1));
+	}
+
+	/**
+	 * Tests looking up times before, during, between, and after downtimes.
+	 */
+	@Test
+	public void lookup() {
+		DowntimeIndex index = new DowntimeIndex(
+				Arrays.asList(new Pair<Long, Long>(100l, 200l), new Pair<Long, Long>(300l, 400l)));
+
+		assertEquals("The downtime containing a time before all downtimes didn't match.", -1, index.indexOf(50));
+		assertEquals("The downtime containing a downtime start didn't match.", 0, index.indexOf(100));
+		assertEquals("The downtime containing a downtime end didn't match.", 0, index.indexOf(200));
+		assertEquals("The downtime containing a time between downtimes didn't match.", -1, index.indexOf(250));
+		assertEquals("The downtime containing a time in the second downtime didn't match.", 1, index.indexOf(350));
+		assertEquals("The downtime containing a time after all downtimes didn't match.", -1, index.indexOf(450));
+
+		assertEquals("The next starting downtime before all downtimes didn't match.", 0, index.nextStarting(50));
+		assertEquals("The next starting downtime at a downtime start didn't match.", 0, index.nextStarting(100));
+		assertEquals("The next starting downtime during a downtime didn't match.", 1, index.nextStarting(150));
+		assertEquals("The next starting downtime after all downtimes didn't match.", 2, index.nextStarting(450));
+
+		assertEquals("The next ending downtime before all downtimes didn't match.", 0, index.nextEnding(50));
+		assertEquals("The next ending downtime at a downtime end didn't match.", 0, index.nextEnding(200));
+		assertEquals("The next ending downtime between downtimes didn't match.", 1, index.nextEnding(250));
+		assertEquals("The next ending downtime after all downtimes didn't match.", 2, index.nextEnding(450));
+	}
+
+	/**
+	 * Tests that the cursor of {@link DowntimeIndex#nextEnding(long)} returns the
+	 * same results as a linear scan, for both increasing and random times.
+	 */
+	@Test
+	public void nextEndingMatchesScan() {
+		Random rand = new Random(5324);
+		List<Pair<Long, Long>> downtimes = new ArrayList<Pair<Long, Long>>();
+		long time = 0;
+		for (int i = 0; i < 200; i++) {
+			time += rand.nextInt(1000) + 1;
+			long end = time + rand.nextInt(1000);
+			downtimes.add(new Pair<Long, Long>(time, end));
+			time = end;
+		}
+		Collections.shuffle(downtimes, rand);
+		DowntimeIndex index = new DowntimeIndex(downtimes);
+		assertEquals("The number of downtimes didn't match.", 200, index.size());
+
+		for (int i = 0; i < 2000; i++) {
+			long query = i * 150;
+			assertEquals("The next ending downtime for an increasing time didn't match.", scan(index, query),
+					index.nextEnding(query));
+		}
+
+		for (int i = 0; i < 2000; i++) {
+			long query = rand.nextInt((int) time + 2000) - 1000;
+			assertEquals("The next ending downtime for a random time didn't match.", scan(index, query),
+					index.nextEnding(query));
+		}
+	}
+
+	/**
+	 * Tests that an empty downtime index never contains a time.
+	 */
+	@Test
+	public void empty() {
+		DowntimeIndex index = new DowntimeIndex(Collections.<Pair<Long, Long>>emptyList());
+		assertEquals("The size of an empty index wasn't 0.", 0, index.size());
+		assertEquals("An empty index contained a time.", -1, index.indexOf(0));
+		assertEquals("The next ending downtime of an empty index wasn't 0.", 0, index.nextEnding(0));
+		assertEquals("The next starting downtime of an empty index wasn't 0.", 0, index.nextStarting(0));
+	}
+
+	/**
+	 * Tests that creating an index with a downtime ending before it starts
+	 * throws an {@link IllegalArgumentException}.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidDowntime() {
+		new DowntimeIndex(Collections.singletonList(new Pair<Long, Long>(200l, 100l)));
+	}
+
+	/**
+	 * Finds the index of the first downtime ending at or after the given time
+	 * using a linear scan.
+	 * 
+	 * @param index The downtime index to scan.
+	 * @param time  The time to look up.
+	 * @return The index of the downtime.
+	 */
+	private static int scan(DowntimeIndex index, long time) {
+		int i = 0;
+		while (i < index.size() && index.getEnd(i) < time) {
+			i++;
+		}
+		return i;
+	}
+
+}
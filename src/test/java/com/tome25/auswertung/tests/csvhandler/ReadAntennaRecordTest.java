@@ -3,6 +3,7 @@
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
 import java.io.PrintStream;
@@ -16,6 +17,7 @@
 import com.tome25.auswertung.tests.rules.ErrorLogRule;
 import com.tome25.auswertung.tests.rules.TempFileStreamHandler;
 import com.tome25.auswertung.utils.Pair;
+import com.tome25.auswertung.utils.SymbolTable;
 
 import net.jcip.annotations.NotThreadSafe;
 
@@ -446,4 +448,93 @@ public void readDecimalComma() throws IOException {
 		assertEquals("Reading a line with a decimal comma didn't correctly read the line.", refRec, rec);
 	}
 
+	/**
+	 * Tests reading a data file using commas as value separators, with times using
+	 * a decimal comma.
+	 * 
+	 * @throws IOException If reading/writing/creating the temp file fails.
+	 */
+	@Test
+	public void readCommaSeparatedDecimalComma() throws IOException {
+		Pair<FileInputStreamHandler, PrintStream> tempFile = tempFolder
+				.newTempInputFile("comma_separated_decimal_comma_data.csv");
+		PrintStream pout = tempFile.getValue();
+		FileInputStreamHandler fiin = tempFile.getKey();
+
+		pout.println("Antenna,Time,Date,Transponder");
+		pout.println("Ant1,05:12:00,17,02.02.2022,Trans2");
+		pout.println("Ant3 , 17:43:12,5, 03.02.2022 ,T 5,");
+
+		short[] tokenOrder = new short[] { 0, 1, 2, 3 };
+		AntennaRecord rec = CSVHandler.readAntennaRecord(fiin, tokenOrder);
+		AntennaRecord refRec = new AntennaRecord("Trans2", "02.02.2022", "05:12:00,17", "Ant1");
+		assertEquals("Reading a line with a decimal comma didn't correctly read the line.", refRec, rec);
+
+		rec = CSVHandler.readAntennaRecord(fiin, tokenOrder);
+		refRec = new AntennaRecord("T 5", "03.02.2022", "17:43:12,5", "Ant3");
+		assertEquals("Reading a line with a decimal comma and spaces didn't correctly read the line.", refRec, rec);
+	}
+
+	/**
+	 * Tests reading a line with a time followed by a comma and a three digit
+	 * number, which should not be re-joined.
+	 * 
+	 * @throws IOException If reading/writing/creating the temp file fails.
+	 */
+	@Test
+	public void readCommaNoHundredths() throws IOException {
+		Pair<FileInputStreamHandler, PrintStream> tempFile = tempFolder.newTempInputFile("comma_no_hundredths.csv");
+		PrintStream pout = tempFile.getValue();
+		FileInputStreamHandler fiin = tempFile.getKey();
+
+		pout.println("Trans1,01.01.2022,12:00:01,255,Ant1");
+		pout.println("Trans1,01.01.2022,12:00:02,Ant1");
+
+		AntennaRecord rec = CSVHandler.readAntennaRecord(fiin, null);
+		AntennaRecord refRec = new AntennaRecord("Trans1", "01.01.2022", "12:00:02", "Ant1");
+		assertEquals("The antenna record after the invalid line didn't match.", refRec, rec);
+		errorLog.checkLine(
+				"Input line \"Trans1,01.01.2022,12:00:01,255,Ant1\" did not contain exactly four tokens. Skipping line.",
+				0);
+	}
+
+	/**
+	 * Tests that reading records using symbol tables resolves known ids to their
+	 * handles, and adds unknown ones.
+	 * 
+	 * @throws IOException If reading/writing/creating the temp file fails.
+	 */
+	@Test
+	public void readSymbols() throws IOException {
+		Pair<FileInputStreamHandler, PrintStream> tempFile = tempFolder.newTempInputFile("symbols_data.csv");
+		PrintStream pout = tempFile.getValue();
+		FileInputStreamHandler fiin = tempFile.getKey();
+
+		SymbolTable transponders = new SymbolTable();
+		String transponder = "Trans1";
+		transponders.intern(transponder);
+		SymbolTable antennas = new SymbolTable();
+		antennas.intern("Ant1");
+		String antenna = "Ant2";
+		antennas.intern(antenna);
+
+		pout.println("Trans1;02.04.2021;22:01:25.32;Ant2");
+		pout.println("Trans2;02.04.2021;22:01:26.00;Ant3");
+
+		AntennaRecord rec = CSVHandler.readAntennaRecord(fiin, null, transponders, antennas);
+		AntennaRecord refRec = new AntennaRecord("Trans1", "02.04.2021", "22:01:25.32", "Ant2");
+		assertEquals("The first read antenna record did not match.", refRec, rec);
+		assertEquals("The transponder handle of the first record didn't match.", 0, rec.transponderId);
+		assertEquals("The antenna handle of the first record didn't match.", 1, rec.antennaId);
+		assertSame("Reading a known transponder created a new string.", transponder, rec.transponder);
+		assertSame("Reading a known antenna created a new string.", antenna, rec.antenna);
+
+		rec = CSVHandler.readAntennaRecord(fiin, null, transponders, antennas);
+		refRec = new AntennaRecord("Trans2", "02.04.2021", "22:01:26.00", "Ant3");
+		assertEquals("The second read antenna record did not match.", refRec, rec);
+		assertEquals("The transponder handle of the second record didn't match.", 1, rec.transponderId);
+		assertEquals("The antenna handle of the second record didn't match.", 2, rec.antennaId);
+		assertEquals("The number of known transponders didn't match.", 2, transponders.size());
+	}
+
 }
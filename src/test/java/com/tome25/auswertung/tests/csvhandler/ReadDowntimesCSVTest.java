@@ -11,6 +11,7 @@
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.TimeZone;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -80,9 +81,9 @@ public void readLongBasic() throws IOException {
 			long start = (now += 8319420);
 			long end = (now += 5701560);
 
-			Calendar startCal = new GregorianCalendar();
+			Calendar startCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 			startCal.setTimeInMillis(start);
-			Calendar endCal = new GregorianCalendar();
+			Calendar endCal = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
 			endCal.setTimeInMillis(end);
 			refDowntimes.add(new Pair<Long, Long>(start, end));
 			pout.printf("%s,%s,%s,%s%n", TimeUtils.encodeDate(start),
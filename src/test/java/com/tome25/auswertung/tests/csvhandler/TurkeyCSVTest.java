@@ -146,6 +146,39 @@ public void convertMultiDayTotals() {
 				CSVHandler.turkeyToCsvLine(info, null, null));
 	}
 
+	/**
+	 * Converts two turkeys that entered the same zones in a different order, and
+	 * thus store them at different zone indices.
+	 */
+	@Test
+	public void convertReorderedZones() {
+		String date = "01.01.2022";
+		Arguments args = Arguments.empty();
+		args.fillDays = true;
+		ZoneInfo zone1 = new ZoneInfo("Z1", true, "Antenna Z1");
+		ZoneInfo zone2 = new ZoneInfo("Zone 2", true, "Antenna 2");
+
+		TurkeyInfo first = TurkeyGenerator.generateTurkey("0", 5, args, null, zone1, TimeUtils.parseTime(date, 0));
+		first.changeZone(zone2, TimeUtils.parseTime(date, 3600000));
+		first.endDay(date);
+
+		TurkeyInfo second = TurkeyGenerator.generateTurkey("1", 5, args, null, zone2, TimeUtils.parseTime(date, 0));
+		second.changeZone(new ZoneInfo("Z1", true, "Antenna Z1"), TimeUtils.parseTime(date, 3600000));
+		second.endDay(date);
+
+		assertEquals("The zone index of the first zone of the first turkey didn't match.", 0,
+				first.findZoneIndex("Z1"));
+		assertEquals("The zone index of the first zone of the second turkey didn't match.", 0,
+				second.findZoneIndex("Zone 2"));
+		assertEquals("A zone the turkey never entered had a zone index.", -1, first.findZoneIndex("Z-3"));
+
+		List<String> zones = Arrays.asList(new String[] { "Z1", "Zone 2" });
+		assertEquals("Getting the day info of the first turkey returned an invalid string.",
+				"0;01.01.2022;1;01:00:00.00;23:00:00.00;", CSVHandler.turkeyToCsvLine(first, date, zones));
+		assertEquals("Getting the day info of the second turkey returned an invalid string.",
+				"1;01.01.2022;1;23:00:00.00;01:00:00.00;", CSVHandler.turkeyToCsvLine(second, date, zones));
+	}
+
 	/**
 	 * Generates a basic {@link TurkeyInfo} for testing.<br/>
 	 * The generated {@link TurkeyInfo} has the transponders "T1", "Trans 2", and
@@ -0,0 +1,169 @@
+package com.tome25.auswertung.tests.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.tome25.auswertung.stream.AsyncOutputStreamHandler;
+import com.tome25.auswertung.stream.FileOutputStreamHandler;
+import com.tome25.auswertung.tests.rules.ErrorLogRule;
+import com.tome25.auswertung.tests.rules.TempFileStreamHandler;
+import com.tome25.auswertung.utils.Pair;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * A class containing unit tests related to {@link AsyncOutputStreamHandler}.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+@NotThreadSafe
+public class AsyncOutputStreamHandlerTest {
+
+	@Rule
+	public TempFileStreamHandler tempFolder = new TempFileStreamHandler();
+
+	@Rule
+	public ErrorLogRule errorLog = new ErrorLogRule();
+
+	/**
+	 * Checks that lines written to an {@link AsyncOutputStreamHandler} are written
+	 * to the output file once flushed.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void writeFlush() throws IOException {
+		Pair<FileOutputStreamHandler, BufferedReader> tempFile = tempFolder.newTempOutputFile("async_flush_test.txt");
+		AsyncOutputStreamHandler aout = new AsyncOutputStreamHandler(tempFile.getKey(), 2, 1024, -1);
+		BufferedReader bin = tempFile.getValue();
+
+		assertTrue("Writing a line failed.", aout.println("Some Random Basic Test String"));
+		aout.flush();
+		assertEquals("The first line of the temp file didn't match.", "Some Random Basic Test String", bin.readLine());
+		assertNull("There was a second line in the temporary file.", bin.readLine());
+
+		aout.close();
+		errorLog.checkEmpty();
+	}
+
+	/**
+	 * Checks that a single line is written to the output file once the flush
+	 * interval passed, without flushing or closing the handler, or writing more
+	 * lines.
+	 * 
+	 * @throws IOException          If reading/writing/creating the temporary file
+	 *                              fails.
+	 * @throws InterruptedException If waiting for the flush interval is
+	 *                              interrupted.
+	 */
+	@Test
+	public void writeInterval() throws IOException, InterruptedException {
+		Pair<FileOutputStreamHandler, BufferedReader> tempFile = tempFolder.newTempOutputFile("async_interval_test.txt");
+		AsyncOutputStreamHandler aout = new AsyncOutputStreamHandler(tempFile.getKey(), 2, 1024, 100);
+		BufferedReader bin = tempFile.getValue();
+
+		assertTrue("Writing a line failed.", aout.println("Some Interval Test String"));
+		String line = null;
+		for (int i = 0; i < 50 && line == null; i++) {
+			Thread.sleep(100);
+			line = bin.readLine();
+		}
+		assertEquals("The line wasn't written after the flush interval.", "Some Interval Test String", line);
+		assertNull("There was a second line in the temporary file.", bin.readLine());
+
+		aout.close();
+		errorLog.checkEmpty();
+	}
+
+	/**
+	 * Writes many lines through a few small buffers, and checks that all of them
+	 * arrive in order.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void writeMany() throws IOException {
+		Pair<FileOutputStreamHandler, BufferedReader> tempFile = tempFolder.newTempOutputFile("async_many_test.txt");
+		AsyncOutputStreamHandler aout = new AsyncOutputStreamHandler(tempFile.getKey(), 2, 64, 0);
+		BufferedReader bin = tempFile.getValue();
+
+		for (int i = 0; i < 10000; i++) {
+			assertTrue("Writing a line failed.", aout.println("Test line " + i));
+		}
+		aout.close();
+
+		for (int i = 0; i < 10000; i++) {
+			assertEquals("Some line of the output file didn't match.", "Test line " + i, bin.readLine());
+		}
+		assertNull("There was an additional line in the temporary file.", bin.readLine());
+		errorLog.checkEmpty();
+	}
+
+	/**
+	 * Writes a line larger than the buffer size, surrounded by small lines.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void writeLargeLine() throws IOException {
+		Pair<FileOutputStreamHandler, BufferedReader> tempFile = tempFolder.newTempOutputFile("async_large_test.txt");
+		AsyncOutputStreamHandler aout = new AsyncOutputStreamHandler(tempFile.getKey(), 2, 16, -1);
+		BufferedReader bin = tempFile.getValue();
+
+		StringBuilder large = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			large.append("Large line part ").append(i).append(';');
+		}
+
+		aout.println("First line");
+		aout.println(large.toString());
+		aout.println("Lääst line");
+		aout.close();
+
+		assertEquals("The first line of the temp file didn't match.", "First line", bin.readLine());
+		assertEquals("The large line of the temp file didn't match.", large.toString(), bin.readLine());
+		assertEquals("The last line of the temp file didn't match.", "Lääst line", bin.readLine());
+		assertNull("There was an additional line in the temporary file.", bin.readLine());
+		errorLog.checkEmpty();
+	}
+
+	/**
+	 * Checks that a write error of the wrapped handler is thrown on close, and that
+	 * further lines are rejected.
+	 * 
+	 * @throws IOException If creating the temporary file fails.
+	 */
+	@Test
+	public void writeError() throws IOException {
+		Pair<FileOutputStreamHandler, BufferedReader> tempFile = tempFolder.newTempOutputFile("async_error_test.txt");
+		FileOutputStreamHandler fiout = tempFile.getKey();
+		fiout.close();
+		AsyncOutputStreamHandler aout = new AsyncOutputStreamHandler(fiout, 2, 1024, -1);
+
+		assertTrue("Buffering the first line failed.", aout.println("Test line"));
+		try {
+			aout.flush();
+		} catch (IOException e) {
+			// expected
+		}
+		assertFalse("Writing after an error succeeded.", aout.println("Second line"));
+
+		boolean thrown = false;
+		try {
+			aout.close();
+		} catch (IOException e) {
+			thrown = true;
+		}
+		assertTrue("Closing the handler after an error didn't throw an exception.", thrown);
+		errorLog.checkLine("Tried to write line \"Test line\" to an already closed FileOutputStreamHandler.");
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.tome25.auswertung.tests.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.UnsupportedEncodingException;
+
+import org.junit.Test;
+
+import com.tome25.auswertung.stream.ByteArrayInputStreamHandler;
+
+/**
+ * A class containing {@link ByteArrayInputStreamHandler} unit tests.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class ByteArrayInputStreamHandlerTest {
+
+	/**
+	 * Reads lines with different line separators, an empty line, and a last line
+	 * without a line separator.
+	 * 
+	 * @throws UnsupportedEncodingException If the system doesn't support UTF-8.
+	 */
+	@Test
+	public void readLines() throws UnsupportedEncodingException {
+		ByteArrayInputStreamHandler bin = new ByteArrayInputStreamHandler(
+				"First line\r\nÄöü\n\nLast line".getBytes("UTF-8"));
+		assertTrue("Input stream handler available returned false on non empty input.", bin.available());
+		assertEquals("The first line did not match.", "First line", bin.readline());
+		assertEquals("The second line did not match.", "Äöü", bin.readline());
+		assertEquals("The empty line did not match.", "", bin.readline());
+		assertFalse("Input stream handler done returned true before the last line.", bin.done());
+		assertEquals("The last line did not match.", "Last line", bin.readline());
+		assertTrue("Input stream handler done returned false on fully read input.", bin.done());
+		assertFalse("Input stream handler available returned true on fully read input.", bin.available());
+	}
+
+	/**
+	 * Checks that a line separator at the end of the input doesn't cause an
+	 * additional empty line.
+	 * 
+	 * @throws UnsupportedEncodingException If the system doesn't support UTF-8.
+	 */
+	@Test
+	public void readTrailingSeparator() throws UnsupportedEncodingException {
+		ByteArrayInputStreamHandler bin = new ByteArrayInputStreamHandler("Line\n".getBytes("UTF-8"));
+		assertEquals("The line did not match.", "Line", bin.readline());
+		assertTrue("Input stream handler done returned false on fully read input.", bin.done());
+	}
+
+	/**
+	 * Makes sure an empty input is done immediately.
+	 */
+	@Test
+	public void readEmpty() {
+		ByteArrayInputStreamHandler bin = new ByteArrayInputStreamHandler(new byte[0]);
+		assertTrue("Input stream handler done returned false on empty input.", bin.done());
+		assertFalse("Input stream handler available returned true on empty input.", bin.available());
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.tome25.auswertung.tests.stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.tome25.auswertung.stream.ByteLineBuilder;
+import com.tome25.auswertung.utils.TimeUtils;
+
+/**
+ * The class containing the unit tests related to {@link ByteLineBuilder}.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class ByteLineBuilderTest {
+
+	/**
+	 * Tests that appended times match the strings created by
+	 * {@link TimeUtils#encodeTime(long)}.
+	 */
+	@Test
+	public void appendTime() {
+		ByteLineBuilder line = new ByteLineBuilder();
+		long[] times = { 0, 5, 9, 10, 994, 995, 999, 59999, 3599999, TimeUtils.DAY_MS - 1, 360000000l,
+				123456789012l };
+		for (long time : times) {
+			line.clear().appendTime(time);
+			assertEquals("An appended time didn't match.", TimeUtils.encodeTime(time), line.toString());
+		}
+
+		Random rand = new Random(9461);
+		for (int i = 0; i < 10000; i++) {
+			long time = (long) (rand.nextDouble() * 1000 * TimeUtils.DAY_MS);
+			line.clear().appendTime(time);
+			assertEquals("An appended random time didn't match.", TimeUtils.encodeTime(time), line.toString());
+		}
+	}
+
+	/**
+	 * Tests that appended dates match the strings created by
+	 * {@link TimeUtils#encodeDay(int)}, including days before the gregorian
+	 * calendar was introduced.
+	 */
+	@Test
+	public void appendDay() {
+		ByteLineBuilder line = new ByteLineBuilder();
+		int[] days = { 0, -1, 59, 11016, 19358, -141427, -141428, -719162, 2932896 };
+		for (int day : days) {
+			line.clear().appendDay(day);
+			assertEquals("An appended date didn't match.", TimeUtils.encodeDay(day), line.toString());
+		}
+
+		Random rand = new Random(3571);
+		for (int i = 0; i < 10000; i++) {
+			int day = rand.nextInt(100000) - 30000;
+			line.clear().appendDay(day);
+			assertEquals("An appended random date didn't match.", TimeUtils.encodeDay(day), line.toString());
+		}
+	}
+
+	/**
+	 * Tests appending numbers, strings, and chars, including non ASCII ones.
+	 */
+	@Test
+	public void appendMixed() {
+		ByteLineBuilder line = new ByteLineBuilder();
+		line.append("Tier").append(';').appendNumber(-12).append(';').appendNumber(0).append(';')
+				.appendNumber(Long.MAX_VALUE).append(';').append("Zöne").append('§');
+		String expected = "Tier;-12;0;" + Long.MAX_VALUE + ";Zöne§";
+		assertEquals("The built line didn't match.", expected, line.toString());
+		assertArrayEquals("The bytes of the built line didn't match.", expected.getBytes(ByteLineBuilder.UTF_8),
+				line.toByteArray());
+	}
+
+	/**
+	 * Tests that the buffer grows for long lines.
+	 */
+	@Test
+	public void grow() {
+		ByteLineBuilder line = new ByteLineBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			line.appendNumber(i).append(';');
+			expected.append(i).append(';');
+		}
+		assertEquals("The length of the long line didn't match.", expected.length(), line.length());
+		assertEquals("The long line didn't match.", expected.toString(), line.toString());
+	}
+
+}
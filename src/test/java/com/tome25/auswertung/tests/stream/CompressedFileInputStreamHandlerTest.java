@@ -0,0 +1,178 @@
+package com.tome25.auswertung.tests.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.tome25.auswertung.stream.CompressedFileInputStreamHandler;
+import com.tome25.auswertung.stream.CompressedFileInputStreamHandler.Format;
+import com.tome25.auswertung.tests.rules.TempFileStreamHandler;
+
+/**
+ * A class containing {@link CompressedFileInputStreamHandler} unit tests.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class CompressedFileInputStreamHandlerTest {
+
+	@Rule
+	public TempFileStreamHandler tempFolder = new TempFileStreamHandler();
+
+	/**
+	 * Reads a gzip file using blocks smaller than the lines in it, including
+	 * multi byte characters split between two blocks.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readGzip() throws IOException {
+		File file = tempFolder.newFile("read_gzip.csv.gz");
+		try (GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+			out.write("Ausfälle Türen\r\nA long line\r\n\r\näöü".getBytes("UTF-8"));
+		}
+
+		try (CompressedFileInputStreamHandler fin = new CompressedFileInputStreamHandler(file, Format.GZIP, 2, 3)) {
+			assertEquals("The first line did not match.", "Ausfälle Türen", fin.readline());
+			assertEquals("The second line did not match.", "A long line", fin.readline());
+			assertEquals("The empty line did not match.", "", fin.readline());
+			assertTrue("Input stream handler available returned false on non empty file.", fin.available());
+			assertEquals("The last line did not match.", "äöü", fin.readline());
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+			assertFalse("Input stream handler available returned true on fully read file.", fin.available());
+		}
+	}
+
+	/**
+	 * Reads a file consisting of multiple concatenated gzip members.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readConcatenatedGzip() throws IOException {
+		File file = tempFolder.newFile("read_concatenated.gz");
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			for (int i = 0; i < 3; i++) {
+				GZIPOutputStream gzout = new GZIPOutputStream(out);
+				for (int j = 0; j < 1000; j++) {
+					gzout.write(("Member " + i + " line " + j + "\n").getBytes("UTF-8"));
+				}
+				gzout.finish();
+			}
+		}
+
+		try (CompressedFileInputStreamHandler fin = new CompressedFileInputStreamHandler(file, Format.GZIP)) {
+			for (int i = 0; i < 3; i++) {
+				for (int j = 0; j < 1000; j++) {
+					assertEquals("A line of the file did not match.", "Member " + i + " line " + j, fin.readline());
+				}
+			}
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+		}
+	}
+
+	/**
+	 * Reads a zip archive containing multiple entries, some of which don't end
+	 * with a line separator.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readZipEntries() throws IOException {
+		File file = tempFolder.newFile("read_entries.zip");
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+			out.putNextEntry(new ZipEntry("days/"));
+			out.putNextEntry(new ZipEntry("days/01.01.2023.csv"));
+			out.write("Transponder;Date;Time;Antenna\nT1;01.01.2023;00:00:01.00;A1\n".getBytes("UTF-8"));
+			out.putNextEntry(new ZipEntry("days/02.01.2023.csv"));
+			out.write("Transponder;Date;Time;Antenna\r\nT1;02.01.2023;00:00:01.00;A2".getBytes("UTF-8"));
+			out.putNextEntry(new ZipEntry("days/03.01.2023.csv"));
+			out.putNextEntry(new ZipEntry("days/04.01.2023.csv"));
+			out.write("T1;04.01.2023;00:00:01.00;A3".getBytes("UTF-8"));
+		}
+
+		try (CompressedFileInputStreamHandler fin = new CompressedFileInputStreamHandler(file, Format.ZIP, 2, 7)) {
+			assertEquals("The first header did not match.", "Transponder;Date;Time;Antenna", fin.readline());
+			assertEquals("The first record did not match.", "T1;01.01.2023;00:00:01.00;A1", fin.readline());
+			assertEquals("The second header did not match.", "Transponder;Date;Time;Antenna", fin.readline());
+			assertEquals("The second record did not match.", "T1;02.01.2023;00:00:01.00;A2", fin.readline());
+			assertEquals("The last record did not match.", "T1;04.01.2023;00:00:01.00;A3", fin.readline());
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+		}
+	}
+
+	/**
+	 * Checks that a corrupt gzip file causes a single exception, and ends the
+	 * input afterwards.
+	 * 
+	 * @throws IOException If writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readCorrupt() throws IOException {
+		File file = tempFolder.newFile("read_corrupt.gz");
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write("Not a gzip file\n".getBytes("UTF-8"));
+		}
+
+		try (CompressedFileInputStreamHandler fin = new CompressedFileInputStreamHandler(file, Format.GZIP)) {
+			assertFalse("Input stream handler done returned true before the error was thrown.", fin.done());
+			boolean thrown = false;
+			try {
+				fin.readline();
+			} catch (IOException e) {
+				thrown = true;
+			}
+			assertTrue("Reading a corrupt file didn't throw an exception.", thrown);
+			assertTrue("Input stream handler done returned false after the error was thrown.", fin.done());
+		}
+	}
+
+	/**
+	 * Tests detecting the compression format from the file name and the magic
+	 * bytes.
+	 * 
+	 * @throws IOException If writing/creating the temporary files fails.
+	 */
+	@Test
+	public void detectFormat() throws IOException {
+		File gzip = tempFolder.newFile("gzip_without_extension");
+		try (GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(gzip))) {
+			out.write("Test\n".getBytes("UTF-8"));
+		}
+		assertEquals("Detecting a gzip file by its magic bytes failed.", Format.GZIP,
+				CompressedFileInputStreamHandler.detectFormat(gzip));
+
+		File zip = tempFolder.newFile("zip_without_extension");
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+			out.putNextEntry(new ZipEntry("test.csv"));
+			out.write("Test\n".getBytes("UTF-8"));
+		}
+		assertEquals("Detecting a zip file by its magic bytes failed.", Format.ZIP,
+				CompressedFileInputStreamHandler.detectFormat(zip));
+
+		File plain = tempFolder.newFile("plain.csv");
+		try (FileOutputStream out = new FileOutputStream(plain)) {
+			out.write("Transponder;Date;Time;Antenna\n".getBytes("UTF-8"));
+		}
+		assertNull("An uncompressed file was detected as compressed.",
+				CompressedFileInputStreamHandler.detectFormat(plain));
+
+		assertNull("An empty file was detected as compressed.",
+				CompressedFileInputStreamHandler.detectFormat(tempFolder.newFile("empty.csv")));
+		assertEquals("Detecting a gzip file by its extension failed.", Format.GZIP,
+				CompressedFileInputStreamHandler.detectFormat(tempFolder.newFile("empty.CSV.GZ")));
+		assertEquals("Detecting a zip file by its extension failed.", Format.ZIP,
+				CompressedFileInputStreamHandler.detectFormat(tempFolder.newFile("empty.zip")));
+	}
+
+}
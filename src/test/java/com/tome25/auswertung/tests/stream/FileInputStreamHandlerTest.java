@@ -6,6 +6,7 @@
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 
@@ -80,6 +81,127 @@ public void readLongText() throws IOException {
 		assertTrue("Input stream handler done returned false on fully read file.", fin.done());
 	}
 
+	/**
+	 * Tests reading lines ending with a carriage return and a line feed, as well as
+	 * a line containing a carriage return in the middle.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readCarriageReturns() throws IOException {
+		Pair<FileInputStreamHandler, PrintStream> tempFile = tempFolder.newTempInputFile("read_carriage_returns.txt");
+		PrintStream out = tempFile.getValue();
+		FileInputStreamHandler fin = tempFile.getKey();
+
+		out.print("First line\r\nSecond\r line\r\n\r\nLast line");
+		out.flush();
+
+		assertEquals("The first line did not match.", "First line", fin.readline());
+		assertEquals("The line containing a carriage return did not match.", "Second line", fin.readline());
+		assertEquals("The empty line did not match.", "", fin.readline());
+		assertEquals("The line without a line end did not match.", "Last line", fin.readline());
+		assertFalse("Input stream handler available returned true on fully read file.", fin.available());
+		assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+		assertEquals("Reading a fully read file didn't return an empty string.", "", fin.readline());
+	}
+
+	/**
+	 * Tests reading lines that are longer than the block buffer, and multi byte
+	 * characters split between two blocks.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readSmallBuffer() throws IOException {
+		File file = tempFolder.newFile("read_small_buffer.txt");
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write("Ausfälle Türen\r\nA very long line that is way longer than the buffer\näöü\n".getBytes("UTF-8"));
+		}
+
+		try (FileInputStreamHandler fin = new FileInputStreamHandler(file, 3)) {
+			assertTrue("Input stream handler available returned false on non empty file.", fin.available());
+			assertEquals("The first line did not match.", "Ausfälle Türen", fin.readline());
+			assertEquals("The long line did not match.", "A very long line that is way longer than the buffer",
+					fin.readline());
+			assertTrue("Input stream handler available returned false on non empty file.", fin.available());
+			assertFalse("Input stream handler done returned true on non empty file.", fin.done());
+			assertEquals("The line of multi byte characters did not match.", "äöü", fin.readline());
+			assertFalse("Input stream handler available returned true on fully read file.", fin.available());
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+		}
+	}
+
+	/**
+	 * Checks that the position of the handler is the start of the next line, and
+	 * that a new handler starting at that position reads the remaining lines.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readFromPosition() throws IOException {
+		File file = tempFolder.newFile("read_from_position.txt");
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write("First line\r\nÄöü\nLast line\n".getBytes("UTF-8"));
+		}
+
+		long position;
+		try (FileInputStreamHandler fin = new FileInputStreamHandler(file, 4)) {
+			assertEquals("The initial position wasn't 0.", 0, fin.getPosition());
+			assertEquals("The first line did not match.", "First line", fin.readline());
+			assertEquals("The position after the first line did not match.", 12, fin.getPosition());
+			assertEquals("The second line did not match.", "Äöü", fin.readline());
+			position = fin.getPosition();
+			assertEquals("The position after the second line did not match.", 19, position);
+			assertEquals("The last line did not match.", "Last line", fin.readline());
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+			assertEquals("The position of the fully read file wasn't its length.", file.length(), fin.getPosition());
+		}
+
+		try (FileInputStreamHandler fin = new FileInputStreamHandler(file, 4, position)) {
+			assertEquals("The initial position didn't match the offset.", position, fin.getPosition());
+			assertEquals("The line at the offset did not match.", "Last line", fin.readline());
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+		}
+	}
+
+	/**
+	 * Makes sure that reading an incomplete line returns the part that has been
+	 * written so far, and that data appended afterwards can be read.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readAppended() throws IOException {
+		Pair<FileInputStreamHandler, PrintStream> tempFile = tempFolder.newTempInputFile("read_appended.txt");
+		PrintStream out = tempFile.getValue();
+		FileInputStreamHandler fin = tempFile.getKey();
+
+		out.print("Incomplete");
+		out.flush();
+		assertEquals("The incomplete line did not match.", "Incomplete", fin.readline());
+		assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+
+		out.println(" line");
+		out.println("Next line");
+		assertTrue("Input stream handler available returned false after appending data.", fin.available());
+		assertFalse("Input stream handler done returned true after appending data.", fin.done());
+		assertEquals("The rest of the line did not match.", " line", fin.readline());
+		assertEquals("The next line did not match.", "Next line", fin.readline());
+		assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+	}
+
+	/**
+	 * Test creating a {@link FileInputStreamHandler} with an invalid buffer size.
+	 * 
+	 * @throws IOException Always.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void readInvalidBufferSize() throws IOException {
+		File tempFile = tempFolder.newFile("invalid_buffer_size.txt");
+		FileInputStreamHandler fin = new FileInputStreamHandler(tempFile, 0);
+		fin.close();// shouldn't ever by called.
+	}
+
 	/**
 	 * Checks {@code available} and {@code done} status of a
 	 * {@link FileInputStreamHandler} when closed.<br/>
@@ -151,6 +151,30 @@ public void writeClosed() throws IOException {
 				Files.size(fiout.getOutputFile().toPath()));
 	}
 
+	/**
+	 * Checks that an appending {@link FileOutputStreamHandler} keeps the existing
+	 * content of its output file.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void writeAppend() throws IOException {
+		File file = tempFolder.newFile("write_append_test.txt");
+		try (FileOutputStreamHandler fiout = new FileOutputStreamHandler(file)) {
+			fiout.println("First line");
+		}
+
+		try (FileOutputStreamHandler fiout = new FileOutputStreamHandler(file, false, false, true)) {
+			fiout.println("Second line");
+		}
+
+		try (BufferedReader bin = new BufferedReader(new FileReader(file))) {
+			assertEquals("The first line of the appended file didn't match.", "First line", bin.readLine());
+			assertEquals("The appended line didn't match.", "Second line", bin.readLine());
+			assertNull("There was a third line in the appended file.", bin.readLine());
+		}
+	}
+
 	/**
 	 * Tests printing day info of a {@link TurkeyInfo} object using a
 	 * {@link FileOutputStreamHandler}.
@@ -0,0 +1,102 @@
+package com.tome25.auswertung.tests.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.tome25.auswertung.stream.FollowFileInputStreamHandler;
+import com.tome25.auswertung.tests.rules.TempFileStreamHandler;
+
+/**
+ * A class containing {@link FollowFileInputStreamHandler} unit tests.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class FollowFileInputStreamHandlerTest {
+
+	@Rule
+	public TempFileStreamHandler tempFolder = new TempFileStreamHandler();
+
+	/**
+	 * Checks that a followed file isn't done at its end, and that data appended
+	 * to it afterwards is read.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readAppended() throws IOException {
+		File file = tempFolder.newFile("read_appended.txt");
+		try (FileOutputStream out = new FileOutputStream(file);
+				FollowFileInputStreamHandler fin = new FollowFileInputStreamHandler(file)) {
+			out.write("First line\n".getBytes("UTF-8"));
+			assertEquals("The first line did not match.", "First line", fin.readline());
+			assertFalse("Input stream handler available returned true on fully read file.", fin.available());
+			assertFalse("Input stream handler done returned true before it was stopped.", fin.done());
+
+			out.write("Second line\n".getBytes("UTF-8"));
+			assertTrue("Input stream handler available returned false after appending a line.", fin.available());
+			assertEquals("The appended line did not match.", "Second line", fin.readline());
+
+			fin.stop();
+			assertTrue("Input stream handler done returned false on a stopped, fully read, file.", fin.done());
+		}
+	}
+
+	/**
+	 * Makes sure reading a line that wasn't completely written yet waits for the
+	 * rest of the line.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readIncompleteLine() throws IOException {
+		File file = tempFolder.newFile("read_incomplete_line.txt");
+		try (final FileOutputStream out = new FileOutputStream(file);
+				FollowFileInputStreamHandler fin = new FollowFileInputStreamHandler(file)) {
+			out.write("Incomplete ".getBytes("UTF-8"));
+			Thread writer = new Thread() {
+				@Override
+				public void run() {
+					try {
+						Thread.sleep(FollowFileInputStreamHandler.POLL_INTERVAL * 2);
+						out.write("line\n".getBytes("UTF-8"));
+					} catch (InterruptedException | IOException e) {
+						throw new RuntimeException(e);
+					}
+				}
+			};
+			writer.start();
+
+			assertEquals("The completed line did not match.", "Incomplete line", fin.readline());
+			assertFalse("Input stream handler done returned true before it was stopped.", fin.done());
+		}
+	}
+
+	/**
+	 * Checks that stopping the handler while a line is incomplete returns the part
+	 * that was written.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readStopped() throws IOException {
+		File file = tempFolder.newFile("read_stopped.txt");
+		try (FileOutputStream out = new FileOutputStream(file);
+				FollowFileInputStreamHandler fin = new FollowFileInputStreamHandler(file)) {
+			out.write("Complete line\nIncomplete".getBytes("UTF-8"));
+			fin.stop();
+			assertEquals("The complete line did not match.", "Complete line", fin.readline());
+			assertFalse("Input stream handler done returned true before the last line.", fin.done());
+			assertEquals("The incomplete line did not match.", "Incomplete", fin.readline());
+			assertTrue("Input stream handler done returned false on a stopped, fully read, file.", fin.done());
+		}
+	}
+
+}
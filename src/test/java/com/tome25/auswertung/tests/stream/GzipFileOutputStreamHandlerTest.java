@@ -0,0 +1,139 @@
+package com.tome25.auswertung.tests.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.tome25.auswertung.stream.CompressedFileInputStreamHandler;
+import com.tome25.auswertung.stream.CompressedFileInputStreamHandler.Format;
+import com.tome25.auswertung.stream.GzipFileOutputStreamHandler;
+import com.tome25.auswertung.tests.rules.ErrorLogRule;
+import com.tome25.auswertung.tests.rules.TempFileStreamHandler;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * A class containing unit tests related to {@link GzipFileOutputStreamHandler}.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+@NotThreadSafe
+public class GzipFileOutputStreamHandlerTest {
+
+	@Rule
+	public TempFileStreamHandler tempFolder = new TempFileStreamHandler();
+
+	@Rule
+	public ErrorLogRule errorLog = new ErrorLogRule();
+
+	/**
+	 * Writes many lines using small blocks and multiple compressor threads, and
+	 * checks that they can be read back in order using {@link GZIPInputStream}.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void writeMany() throws IOException {
+		File file = tempFolder.newFile("gzip_many_test.csv.gz");
+		try (GzipFileOutputStreamHandler gout = new GzipFileOutputStreamHandler(file, 3, 100,
+				Deflater.DEFAULT_COMPRESSION)) {
+			for (int i = 0; i < 10000; i++) {
+				assertTrue("Writing a line failed.", gout.println("Test line " + i + ";äöü"));
+			}
+		}
+
+		try (BufferedReader bin = new BufferedReader(
+				new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), "UTF-8"))) {
+			for (int i = 0; i < 10000; i++) {
+				assertEquals("Some line of the output file didn't match.", "Test line " + i + ";äöü", bin.readLine());
+			}
+			assertNull("There was an additional line in the output file.", bin.readLine());
+		}
+		errorLog.checkEmpty();
+	}
+
+	/**
+	 * Writes lines larger than the block size, and flushes in between, and reads
+	 * them back using a {@link CompressedFileInputStreamHandler}.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void writeLargeLines() throws IOException {
+		StringBuilder large = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			large.append("Large line part ").append(i).append(';');
+		}
+
+		File file = tempFolder.newFile("gzip_large_test.csv.gz");
+		try (GzipFileOutputStreamHandler gout = new GzipFileOutputStreamHandler(file, 2, 16, 9)) {
+			gout.println("First line");
+			gout.println(large.toString());
+			gout.flush();
+			gout.println(large.toString());
+			gout.println("Last line");
+		}
+
+		try (CompressedFileInputStreamHandler fin = new CompressedFileInputStreamHandler(file, Format.GZIP)) {
+			assertEquals("The first line of the output file didn't match.", "First line", fin.readline());
+			assertEquals("The first large line of the output file didn't match.", large.toString(), fin.readline());
+			assertEquals("The second large line of the output file didn't match.", large.toString(),
+					fin.readline());
+			assertEquals("The last line of the output file didn't match.", "Last line", fin.readline());
+			assertTrue("There was an additional line in the output file.", fin.done());
+		}
+		errorLog.checkEmpty();
+	}
+
+	/**
+	 * Checks that closing a handler without writing anything produces a valid,
+	 * empty gzip file.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void writeEmpty() throws IOException {
+		File file = tempFolder.newFile("gzip_empty_test.csv.gz");
+		new GzipFileOutputStreamHandler(file).close();
+
+		try (GZIPInputStream gin = new GZIPInputStream(new FileInputStream(file))) {
+			assertEquals("The empty output file contained data.", -1, gin.read());
+		}
+		errorLog.checkEmpty();
+	}
+
+	/**
+	 * Checks that temporary lines are rejected.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void writeTemporary() throws IOException {
+		File file = tempFolder.newFile("gzip_temporary_test.csv.gz");
+		try (GzipFileOutputStreamHandler gout = new GzipFileOutputStreamHandler(file)) {
+			assertFalse("The gzip output handles temporary data.", gout.printsTemporary());
+			assertFalse("Writing a temporary line succeeded.", gout.println("Temporary line", true));
+			assertTrue("Writing a line failed.", gout.println("Some line", false));
+		}
+		errorLog.checkLine("Trying to write line \"Temporary line\" to gzip output that does not handle temporary data.");
+
+		try (BufferedReader bin = new BufferedReader(
+				new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), "UTF-8"))) {
+			assertEquals("The line of the output file didn't match.", "Some line", bin.readLine());
+			assertNull("There was an additional line in the output file.", bin.readLine());
+		}
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.tome25.auswertung.tests.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.tome25.auswertung.stream.MappedFileInputStreamHandler;
+import com.tome25.auswertung.tests.rules.TempFileStreamHandler;
+
+/**
+ * A class containing {@link MappedFileInputStreamHandler} unit tests.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class MappedFileInputStreamHandlerTest {
+
+	@Rule
+	public TempFileStreamHandler tempFolder = new TempFileStreamHandler();
+
+	@Rule
+	public ExpectedException expectedExc = ExpectedException.none();
+
+	/**
+	 * A test for the most basic functionality of
+	 * {@link MappedFileInputStreamHandler}, including data appended after opening
+	 * the file.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readBasicText() throws IOException {
+		File file = tempFolder.newFile("read_basic_text.txt");
+		try (PrintStream out = new PrintStream(new FileOutputStream(file), true, "UTF-8");
+				MappedFileInputStreamHandler fin = new MappedFileInputStreamHandler(file)) {
+			assertFalse("Input stream handler available returned true on empty file.", fin.available());
+			assertTrue("Input stream handler done returned false on empty file.", fin.done());
+			out.println("A simple test string");
+			assertTrue("Input stream handler available returned false on non empty file.", fin.available());
+			assertFalse("Input stream handler done returned true on non empty file.", fin.done());
+			assertEquals("The first line read from a simple file was not as expected.", "A simple test string",
+					fin.readline());
+			assertFalse("Input stream handler available returned true on fully read file.", fin.available());
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+			assertEquals("The position after reading the file didn't match its size.", fin.getSize(),
+					fin.getPosition());
+		}
+	}
+
+	/**
+	 * Tests reading a file using windows smaller than the lines in it, including
+	 * multi byte characters split between two windows.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readSmallWindows() throws IOException {
+		File file = tempFolder.newFile("read_small_windows.txt");
+		byte[] content = "Ausfälle Türen\r\nA long line\r\n\r\näöü".getBytes("UTF-8");
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(content);
+		}
+
+		try (MappedFileInputStreamHandler fin = new MappedFileInputStreamHandler(file, 3)) {
+			assertEquals("The first line did not match.", "Ausfälle Türen", fin.readline());
+			assertEquals("The second line did not match.", "A long line", fin.readline());
+			assertEquals("The empty line did not match.", "", fin.readline());
+			assertTrue("Input stream handler available returned false on non empty file.", fin.available());
+			assertEquals("The last line did not match.", "äöü", fin.readline());
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+			assertEquals("The read position didn't match the file size.", content.length, fin.getPosition());
+		}
+	}
+
+	/**
+	 * Tests reading a 50 line input file in its entirety.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readLongText() throws IOException {
+		File file = tempFolder.newFile("read_longer_text.txt");
+		try (PrintStream out = new PrintStream(new FileOutputStream(file), true, "UTF-8")) {
+			for (int i = 0; i < 50; i++) {
+				out.println("Test line " + i);
+			}
+		}
+
+		try (MappedFileInputStreamHandler fin = new MappedFileInputStreamHandler(file, 64)) {
+			int i = 0;
+			while (fin.available()) {
+				assertEquals("A read line did not match.", "Test line " + i, fin.readline());
+				i++;
+			}
+
+			assertEquals("The number of lines read did not match expectations.", 50, i);
+			assertTrue("Input stream handler done returned false on fully read file.", fin.done());
+		}
+	}
+
+	/**
+	 * Checks {@code available} and {@code done} status of a
+	 * {@link MappedFileInputStreamHandler} when closed.<br/>
+	 * Also verifies that {@code readline} throws when the handler is closed.
+	 * 
+	 * @throws IOException Always.
+	 */
+	@Test
+	public void readClosed() throws IOException {
+		File file = tempFolder.newFile("read_closed.txt");
+		try (PrintStream out = new PrintStream(new FileOutputStream(file), true, "UTF-8")) {
+			out.println("Some never read string.");
+		}
+
+		MappedFileInputStreamHandler fin = new MappedFileInputStreamHandler(file);
+		assertTrue("Available is already false before closing.", fin.available());
+		fin.close();
+		assertFalse("Available returned true on a closed handler.", fin.available());
+		assertTrue("Done returned false on a file that has data, but is closed", fin.done());
+
+		expectedExc.expect(IOException.class);
+		fin.readline();
+	}
+
+	/**
+	 * Makes sure that trying to read a file that doesn't exist throws an
+	 * {@link IOException}.
+	 * 
+	 * @throws IOException always.
+	 */
+	@Test(expected = FileNotFoundException.class)
+	public void readMissing() throws IOException {
+		File tempFile = tempFolder.newFile("missing.txt");
+		tempFile.delete();
+		MappedFileInputStreamHandler fin = new MappedFileInputStreamHandler(tempFile);
+		fin.close();// shouldn't ever by called.
+	}
+
+	/**
+	 * Test creating a {@link MappedFileInputStreamHandler} with a {@code null}
+	 * input file.
+	 * 
+	 * @throws NullPointerException always.
+	 * @throws IOException          if stuff goes wrong
+	 */
+	@Test(expected = NullPointerException.class)
+	public void readNull() throws NullPointerException, IOException {
+		MappedFileInputStreamHandler fin = new MappedFileInputStreamHandler(null);
+		fin.close();// shouldn't ever by called.
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.tome25.auswertung.tests.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.tome25.auswertung.stream.FileInputStreamHandler;
+import com.tome25.auswertung.stream.PipelinedInputStreamHandler;
+import com.tome25.auswertung.tests.rules.TempFileStreamHandler;
+import com.tome25.auswertung.utils.Pair;
+
+/**
+ * A class containing {@link PipelinedInputStreamHandler} unit tests.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class PipelinedInputStreamHandlerTest {
+
+	@Rule
+	public TempFileStreamHandler tempFolder = new TempFileStreamHandler();
+
+	/**
+	 * Tests reading a file with more lines than fit into the queue at once.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readManyLines() throws IOException {
+		Pair<FileInputStreamHandler, PrintStream> tempFile = tempFolder.newTempInputFile("read_many_lines.txt");
+		PrintStream out = tempFile.getValue();
+		for (int i = 0; i < 1000; i++) {
+			out.println("Line " + i);
+		}
+		out.close();
+
+		PipelinedInputStreamHandler pin = new PipelinedInputStreamHandler(tempFile.getKey(), 2, 7);
+		for (int i = 0; i < 1000; i++) {
+			assertFalse("The pipelined input stream handler was done before reading all lines.", pin.done());
+			assertEquals("The line read from the pipelined input stream handler didn't match.", "Line " + i,
+					pin.readline());
+		}
+		assertTrue("The pipelined input stream handler wasn't done after reading all lines.", pin.done());
+		assertNull("Reading after the end of the input didn't return null.", pin.readline());
+		assertTrue("The queue depth was larger than its capacity.", pin.getQueue().getMaxDepth() <= 2);
+		pin.close();
+	}
+
+	/**
+	 * Makes sure closing a pipelined input stream handler before reading all lines
+	 * stops its reader thread.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void closeEarly() throws IOException {
+		Pair<FileInputStreamHandler, PrintStream> tempFile = tempFolder.newTempInputFile("close_early.txt");
+		PrintStream out = tempFile.getValue();
+		for (int i = 0; i < 1000; i++) {
+			out.println("Line " + i);
+		}
+		out.close();
+
+		PipelinedInputStreamHandler pin = new PipelinedInputStreamHandler(tempFile.getKey(), 1, 4);
+		assertEquals("The first line read from the pipelined input stream handler didn't match.", "Line 0",
+				pin.readline());
+		pin.close();
+		assertTrue("The closed pipelined input stream handler wasn't done.", pin.done());
+	}
+
+	/**
+	 * Tests reading an empty file.
+	 * 
+	 * @throws IOException If reading/writing/creating the temporary file fails.
+	 */
+	@Test
+	public void readEmpty() throws IOException {
+		Pair<FileInputStreamHandler, PrintStream> tempFile = tempFolder.newTempInputFile("read_empty.txt");
+		tempFile.getValue().close();
+
+		PipelinedInputStreamHandler pin = new PipelinedInputStreamHandler(tempFile.getKey(), 4, 16);
+		assertTrue("The pipelined input stream handler for an empty file wasn't done.", pin.done());
+		assertFalse("The pipelined input stream handler for an empty file had available data.", pin.available());
+		pin.close();
+	}
+
+}
@@ -0,0 +1,138 @@
+package com.tome25.auswertung.tests.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.tome25.auswertung.utils.BatchQueue;
+
+/**
+ * The class containing the unit tests related to {@link BatchQueue}.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class BatchQueueTest {
+
+	/**
+	 * Tests passing items, including {@code null}, through a batch queue on a
+	 * single thread.
+	 * 
+	 * @throws InterruptedException If waiting for the queue is interrupted.
+	 */
+	@Test
+	public void passItems() throws InterruptedException {
+		BatchQueue<String> queue = new BatchQueue<String>(4, 2);
+		assertTrue("Adding the first item failed.", queue.put("first"));
+		assertTrue("Adding the second item failed.", queue.put(null));
+		assertTrue("Adding the third item failed.", queue.put("third"));
+		queue.finish(null);
+
+		assertEquals("The depth of the finished queue didn't match.", 2, queue.getDepth());
+		assertTrue("The queue had no first item.", queue.hasNext());
+		assertEquals("The first item didn't match.", "first", queue.next());
+		assertTrue("The queue had no second item.", queue.hasNext());
+		assertNull("The second item wasn't null.", queue.next());
+		assertTrue("The queue had no third item.", queue.hasNext());
+		assertEquals("The third item didn't match.", "third", queue.next());
+		assertFalse("The queue had more than three items.", queue.hasNext());
+		assertEquals("The number of consumed batches didn't match.", 2, queue.getBatches());
+		assertNull("The finished queue had an error.", queue.getError());
+	}
+
+	/**
+	 * Tests passing many items from a producer thread, through a small queue.
+	 * 
+	 * @throws InterruptedException If waiting for the queue or thread is
+	 *                              interrupted.
+	 */
+	@Test
+	public void passItemsBetweenThreads() throws InterruptedException {
+		final BatchQueue<Integer> queue = new BatchQueue<Integer>(2, 16);
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					for (int i = 0; i < 10000; i++) {
+						queue.put(i);
+					}
+					queue.finish(null);
+				} catch (InterruptedException e) {
+				}
+			}
+		});
+		producer.start();
+
+		int expected = 0;
+		while (queue.hasNext()) {
+			assertEquals("The received item didn't match.", expected++, (int) queue.next());
+		}
+		producer.join();
+
+		assertEquals("The number of received items didn't match.", 10000, expected);
+		assertTrue("The max depth of the queue was larger than its capacity.", queue.getMaxDepth() <= 2);
+	}
+
+	/**
+	 * Makes sure the error the producer finished with is passed to the consumer.
+	 * 
+	 * @throws InterruptedException If waiting for the queue is interrupted.
+	 */
+	@Test
+	public void passError() throws InterruptedException {
+		BatchQueue<String> queue = new BatchQueue<String>(2, 2);
+		IllegalStateException error = new IllegalStateException("Test");
+		queue.put("item");
+		queue.finish(error);
+
+		assertTrue("The queue had no item.", queue.hasNext());
+		assertEquals("The item didn't match.", "item", queue.next());
+		assertFalse("The queue had more than one item.", queue.hasNext());
+		assertSame("The error of the queue didn't match.", error, queue.getError());
+	}
+
+	/**
+	 * Makes sure closing a queue stops a producer blocked on a full queue.
+	 * 
+	 * @throws InterruptedException If waiting for the queue or thread is
+	 *                              interrupted.
+	 */
+	@Test(timeout = 10000)
+	public void closeUnblocksProducer() throws InterruptedException {
+		final BatchQueue<Integer> queue = new BatchQueue<Integer>(1, 1);
+		final boolean[] stopped = new boolean[1];
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					int i = 0;
+					while (queue.put(i++)) {
+					}
+					stopped[0] = true;
+				} catch (InterruptedException e) {
+				}
+			}
+		});
+		producer.start();
+
+		assertTrue("The queue had no item.", queue.hasNext());
+		queue.close();
+		producer.join();
+		assertTrue("The producer didn't stop after closing the queue.", stopped[0]);
+		assertFalse("The closed queue had another item.", queue.hasNext());
+	}
+
+	/**
+	 * Tests creating a queue with a capacity of zero.
+	 * 
+	 * @throws IllegalArgumentException Always.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroCapacity() throws IllegalArgumentException {
+		new BatchQueue<String>(0, 1);
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.tome25.auswertung.tests.utils;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -10,6 +11,8 @@
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -437,4 +440,47 @@ public void createParentDirInFile() throws IOException {
 		assertFalse("Creating a file in a dir in a file returned true.", FileUtils.createFile(target));
 	}
 
+	/**
+	 * Test listing the input files of a directory containing antenna data files,
+	 * a record archive, and an unrelated file.
+	 * 
+	 * @throws IOException If creating the files fails.
+	 */
+	@Test
+	public void listInputDirectory() throws IOException {
+		File dir = tempFolder.newFolder("input");
+		File day1 = new File(dir, "AntennenDaten1.csv");
+		File day2 = new File(dir, "AntennenDaten2.csv.gz");
+		File day3 = new File(dir, "AntennenDaten3.zip");
+		assertTrue("Failed to create an input file.", day1.createNewFile());
+		assertTrue("Failed to create an input file.", day2.createNewFile());
+		assertTrue("Failed to create an input file.", day3.createNewFile());
+		assertTrue("Failed to create the archive.", new File(dir, "AntennenDaten1.csv.rec").createNewFile());
+		assertTrue("Failed to create the text file.", new File(dir, "Notizen.txt").createNewFile());
+		assertTrue("Failed to create the sub directory.", new File(dir, "sub.csv").mkdir());
+
+		List<File> files = FileUtils.listInputFiles(dir.getPath());
+		assertEquals("The input files of the directory didn't match.", Arrays.asList(day1, day2, day3), files);
+	}
+
+	/**
+	 * Test listing the input files matching a glob pattern, with a record archive
+	 * also matching it.
+	 * 
+	 * @throws IOException If creating the files fails.
+	 */
+	@Test
+	public void listInputGlob() throws IOException {
+		File dir = tempFolder.newFolder("input");
+		File day1 = new File(dir, "AntennenDaten1.csv");
+		File day2 = new File(dir, "AntennenDaten2.txt");
+		assertTrue("Failed to create an input file.", day1.createNewFile());
+		assertTrue("Failed to create an input file.", day2.createNewFile());
+		assertTrue("Failed to create the archive.", new File(dir, "AntennenDaten1.csv.rec").createNewFile());
+		assertTrue("Failed to create the other file.", new File(dir, "Puten.csv").createNewFile());
+
+		List<File> files = FileUtils.listInputFiles(new File(dir, "AntennenDaten*").getPath());
+		assertEquals("The input files matching the pattern didn't match.", Arrays.asList(day1, day2), files);
+	}
+
 }
@@ -0,0 +1,78 @@
+package com.tome25.auswertung.tests.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.tome25.auswertung.utils.SymbolTable;
+
+/**
+ * The class containing the unit tests related to {@link SymbolTable}.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+public class SymbolTableTest {
+
+	/**
+	 * Tests that interned ids get dense handles in the order they were added.
+	 */
+	@Test
+	public void internDense() {
+		SymbolTable table = new SymbolTable();
+		assertEquals("The handle of the first id didn't match.", 0, table.intern("Trans1"));
+		assertEquals("The handle of the second id didn't match.", 1, table.intern("Trans2"));
+		assertEquals("The handle of a repeated id didn't match.", 0, table.intern("Trans1"));
+		assertEquals("The handle of the third id didn't match.", 2, table.intern("3"));
+		assertEquals("The size of the table didn't match.", 3, table.size());
+		assertEquals("The id of the second handle didn't match.", "Trans2", table.getSymbol(1));
+	}
+
+	/**
+	 * Tests looking up and interning ids from a part of a larger string.
+	 */
+	@Test
+	public void internRange() {
+		SymbolTable table = new SymbolTable();
+		String id = "Ant2";
+		assertEquals("The handle of the first id didn't match.", 0, table.intern(id));
+
+		String line = "Trans1;02.04.2021;22:01:25.32;Ant2";
+		assertEquals("Looking up an id from a line didn't match.", 0, table.get(line, 30, 34));
+		assertSame("Interning a known id from a line created a new string.", id,
+				table.getSymbol(table.intern(line, 30, 34)));
+		assertEquals("Looking up an unknown id didn't return NO_SYMBOL.", SymbolTable.NO_SYMBOL,
+				table.get(line, 0, 6));
+		assertEquals("Interning an unknown id from a line didn't match.", 1, table.intern(line, 0, 6));
+		assertEquals("The id interned from a line didn't match.", "Trans1", table.getSymbol(1));
+		assertEquals("Looking up an empty id didn't return NO_SYMBOL.", SymbolTable.NO_SYMBOL,
+				table.get(line, 6, 6));
+	}
+
+	/**
+	 * Tests that all ids keep their handles when the table grows.
+	 */
+	@Test
+	public void grow() {
+		SymbolTable table = new SymbolTable();
+		for (int i = 0; i < 10000; i++) {
+			assertEquals("The handle of a new id didn't match.", i, table.intern(Integer.toString(i)));
+		}
+
+		for (int i = 0; i < 10000; i++) {
+			assertEquals("The handle of a known id didn't match.", i, table.get(Integer.toString(i)));
+			assertEquals("The id of a handle didn't match.", Integer.toString(i), table.getSymbol(i));
+		}
+		assertEquals("The size of the table didn't match.", 10000, table.size());
+	}
+
+	/**
+	 * Tests that getting the id of an invalid handle throws an
+	 * {@link IndexOutOfBoundsException}.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void invalidHandle() {
+		new SymbolTable().getSymbol(SymbolTable.NO_SYMBOL);
+	}
+
+}
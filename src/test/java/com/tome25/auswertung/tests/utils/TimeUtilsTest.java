@@ -391,6 +391,62 @@ public void msToDateString() {
 				TimeUtils.encodeDate(1653095713000l));
 	}
 
+	/**
+	 * Tests parsing a date and time string to a timestamp.
+	 */
+	@Test
+	public void dateAndTimeStringToTimestamp() {
+		long time = TimeUtils.parseTimestamp("03.10.2020", "12:54:03.68");
+		Calendar refCal = makeCal(2020, Calendar.OCTOBER, 3, 12, 54, 3, 680);
+		assertEquals("Parsed timestamp didn't match.", refCal.getTimeInMillis(), time);
+	}
+
+	/**
+	 * Tests getting the day, day start, and day end of timestamps, including
+	 * timestamps before the epoch.
+	 */
+	@Test
+	public void timestampDays() {
+		long time = makeCal(2022, Calendar.MAY, 21, 13, 49, 23, 120).getTimeInMillis();
+		assertEquals("The day of the timestamp didn't match.", 19133, TimeUtils.getDay(time));
+		assertEquals("The day start of the timestamp didn't match.", 19133l * TimeUtils.DAY_MS,
+				TimeUtils.getDayStart(time));
+		assertEquals("The day end of the timestamp didn't match.", 19134l * TimeUtils.DAY_MS - 1,
+				TimeUtils.getDayEnd(time));
+		assertEquals("The time of day of the timestamp didn't match.", 49763120, TimeUtils.getMsOfDay(time));
+		assertEquals("The day of a timestamp before the epoch didn't match.", -1, TimeUtils.getDay(-1));
+		assertEquals("The time of day of a timestamp before the epoch didn't match.", TimeUtils.DAY_MS - 1,
+				TimeUtils.getMsOfDay(-1));
+	}
+
+	/**
+	 * Makes sure {@link TimeUtils#isSameDay(long, long)} and
+	 * {@link TimeUtils#isNextDay(long, long)} work on timestamps.
+	 */
+	@Test
+	public void timestampNextDay() {
+		long c1 = makeCal(2022, Calendar.FEBRUARY, 28, 23, 59, 59, 990).getTimeInMillis();
+		long c2 = makeCal(2022, Calendar.MARCH, 1, 0, 0, 0, 0).getTimeInMillis();
+		assertTrue("The 1. mar isn't the next day after the 28. feb.", TimeUtils.isNextDay(c1, c2));
+		assertFalse("The 28. feb was detected as the same day as the 1. mar.", TimeUtils.isSameDay(c1, c2));
+		assertTrue("isSameDay returned false for the same timestamp.", TimeUtils.isSameDay(c1, c1));
+	}
+
+	/**
+	 * Makes sure encoding epoch days matches the calendar based encoding, including
+	 * leap days and days before the gregorian cutover.
+	 */
+	@Test
+	public void encodeDays() {
+		assertEquals("The epoch day 0 didn't match.", "01.01.1970", TimeUtils.encodeDay(0));
+		assertEquals("A leap day didn't match.", "29.02.2000", TimeUtils.encodeDay(11016));
+		assertEquals("A day before the epoch didn't match.", "31.12.1969", TimeUtils.encodeDay(-1));
+		for (int day = -150000; day < 50000; day += 997) {
+			assertEquals("The epoch day " + day + " didn't match.",
+					TimeUtils.encodeDate(TimeUtils.toCalendar((long) day * TimeUtils.DAY_MS)), TimeUtils.encodeDay(day));
+		}
+	}
+
 	/**
 	 * Test setting the decimal separator used by {@link TimeUtils}.
 	 */
@@ -0,0 +1,166 @@
+package com.tome25.auswertung.tests.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.tome25.auswertung.utils.TimeUtils;
+import com.tome25.auswertung.utils.TimestampParser;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * The class containing the unit tests related to {@link TimestampParser}.
+ * 
+ * @author Theodor Meyer zu Hörste
+ */
+@NotThreadSafe
+public class TimestampParserTest {
+
+	/**
+	 * Tests parsing a basic date and time string to a timestamp.
+	 */
+	@Test
+	public void parseTimestamp() {
+		TimestampParser parser = new TimestampParser();
+		assertEquals("The parsed timestamp didn't match.",
+				makeCal(2022, Calendar.MAY, 21, 13, 49, 23, 120).getTimeInMillis(),
+				parser.parseTimestamp("21.05.2022", "13:49:23.12"));
+	}
+
+	/**
+	 * Makes sure that parsing the same date repeatedly, and then a different date,
+	 * produces the correct timestamps.
+	 */
+	@Test
+	public void parseCachedDate() {
+		TimestampParser parser = new TimestampParser();
+		assertEquals("The first timestamp didn't match.",
+				makeCal(2022, Calendar.FEBRUARY, 28, 0, 0, 1, 0).getTimeInMillis(),
+				parser.parseTimestamp("28.02.2022", "00:00:01.00"));
+		assertEquals("The timestamp with a cached date didn't match.",
+				makeCal(2022, Calendar.FEBRUARY, 28, 23, 59, 59, 990).getTimeInMillis(),
+				parser.parseTimestamp("28.02.2022", "23:59:59.99"));
+		assertEquals("The timestamp after a date change didn't match.",
+				makeCal(2022, Calendar.MARCH, 1, 5, 2, 3, 400).getTimeInMillis(),
+				parser.parseTimestamp("01.03.2022", "5:2:3,4"));
+	}
+
+	/**
+	 * Makes sure the parsed days match the days parsed using a {@link Calendar},
+	 * including leap days, short components, and dates before the gregorian
+	 * cutover.
+	 */
+	@Test
+	public void parseDaysMatchCalendar() {
+		TimestampParser parser = new TimestampParser();
+		String dates[] = { "01.01.1970", "31.12.1969", "29.02.2000", "29.02.2024", "1.3.2100", "15.10.1582",
+				"04.10.1582", "01.05.0021", "31.12.9999", "01.01.12345", "0.3.2022", "05.00.2022" };
+		for (String date : dates) {
+			assertEquals("The parsed day of \"" + date + "\" didn't match.",
+					TimeUtils.getDay(TimeUtils.parseDate(date).getTimeInMillis()), parser.parseDay(date));
+		}
+	}
+
+	/**
+	 * Makes sure parsing a date doesn't change the default {@link TimeZone} of the
+	 * JVM.
+	 */
+	@Test
+	public void keepDefaultTimeZone() {
+		TimeZone def = TimeZone.getDefault();
+		TimeZone zone = TimeZone.getTimeZone("America/New_York");
+		try {
+			TimeZone.setDefault(zone);
+			TimestampParser parser = new TimestampParser();
+			assertEquals("The parsed timestamp didn't match.",
+					makeCal(2022, Calendar.JULY, 3, 1, 0, 0, 0).getTimeInMillis(),
+					parser.parseTimestamp("03.07.2022", "01:00:00.00"));
+			assertEquals("The parsed timestamp using a calendar didn't match.",
+					makeCal(1500, Calendar.JULY, 3, 0, 0, 0, 0).getTimeInMillis(),
+					parser.parseTimestamp("03.07.1500", 0));
+			assertEquals("Parsing a timestamp changed the default time zone.", zone, TimeZone.getDefault());
+		} finally {
+			TimeZone.setDefault(def);
+		}
+	}
+
+	/**
+	 * Tests parsing a date with a day that is too large for its month.
+	 * 
+	 * @throws IllegalArgumentException Always.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLargeDay() throws IllegalArgumentException {
+		new TimestampParser().parseDay("29.02.2023");
+	}
+
+	/**
+	 * Tests parsing a date with a month larger than 12.
+	 * 
+	 * @throws IllegalArgumentException Always.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLargeMonth() throws IllegalArgumentException {
+		new TimestampParser().parseDay("01.13.2023");
+	}
+
+	/**
+	 * Makes sure an invalid date doesn't replace the cached date.
+	 */
+	@Test
+	public void invalidDateKeepsCache() {
+		TimestampParser parser = new TimestampParser();
+		assertEquals("The first parsed day didn't match.", 19133, parser.parseDay("21.05.2022"));
+		try {
+			parser.parseDay("21.05");
+		} catch (IllegalArgumentException e) {
+		}
+		assertEquals("The cached day didn't match.", 19133, parser.parseDay("21.05.2022"));
+	}
+
+	/**
+	 * Tests parsing a time of day that is more than a full day.
+	 * 
+	 * @throws IllegalArgumentException Always.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLargeTime() throws IllegalArgumentException {
+		new TimestampParser().parseTimestamp("21.05.2022", "24:00:00.01");
+	}
+
+	/**
+	 * Tests parsing a {@code null} date.
+	 * 
+	 * @throws NullPointerException Always.
+	 */
+	@Test(expected = NullPointerException.class)
+	public void nullDate() throws NullPointerException {
+		new TimestampParser().parseDay(null);
+	}
+
+	/**
+	 * Creates a new {@link GregorianCalendar} with the given values and the GMT
+	 * time zone.
+	 * 
+	 * @param year        The year of the new calendar.
+	 * @param month       The month of the new calendar.
+	 * @param date        The day of month of the new calendar.
+	 * @param hour        The hour of day of the new calendar.
+	 * @param minute      The minute of the new calendar.
+	 * @param second      The second of the new calendar.
+	 * @param millisecond The millisecond of the new calendar.
+	 * @return The newly created calendar.
+	 */
+	private static Calendar makeCal(int year, int month, int date, int hour, int minute, int second, int millisecond) {
+		Calendar cal = new GregorianCalendar(year, month, date, hour, minute, second);
+		cal.setTimeZone(TimeZone.getTimeZone("GMT"));
+		cal.set(Calendar.MILLISECOND, millisecond);
+		return cal;
+	}
+
+}